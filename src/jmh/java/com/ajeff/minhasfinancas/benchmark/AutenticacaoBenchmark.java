@@ -0,0 +1,88 @@
+package com.ajeff.minhasfinancas.benchmark;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import com.ajeff.minhasfinancas.seguranca.TokenAcesso;
+
+/**
+ * Custo fixo por requisição de identificar o usuário: GET /api/usuarios/{id}/saldo com If-None-Match, que só
+ * confere o usuário e a versão e responde 304. "consulta" busca o usuário no banco a cada requisição (sem cache),
+ * "cache" encontra-o no cache de usuários e "token" o resolve pelo token de acesso, sem buscá-lo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(16)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AutenticacaoBenchmark {
+
+	@Param({"consulta", "cache", "token"})
+	public String identificacao;
+	
+	ConfigurableApplicationContext contexto;
+	URL saldo;
+	String etag;
+	String token;
+	
+	@Setup(Level.Trial)
+	public void iniciar() throws IOException {
+		contexto = ContextoBenchmark.iniciarServidor("consulta".equals(identificacao) ? "spring.cache.type=none" : "spring.cache.type=caffeine");
+		Long idUsuario = ContextoBenchmark.popular(contexto, 1000);
+		saldo = new URL("http://127.0.0.1:" + contexto.getEnvironment().getProperty("local.server.port") + "/api/usuarios/" + idUsuario + "/saldo");
+		if("token".equals(identificacao)) {
+			token = contexto.getBean(TokenAcesso.class).emitir(idUsuario);
+		}
+		HttpURLConnection conexao = abrir();
+		etag = conexao.getHeaderField(HttpHeaders.ETAG);
+		conexao.getInputStream().close();
+	}
+	
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public int conferirSaldo() throws IOException {
+		HttpURLConnection conexao = abrir();
+		int status = conexao.getResponseCode();
+		if(status != HttpURLConnection.HTTP_NOT_MODIFIED) {
+			throw new IllegalStateException("Resposta " + status + " para " + saldo);
+		}
+		return status;
+	}
+	
+	
+	private HttpURLConnection abrir() throws IOException {
+		HttpURLConnection conexao = (HttpURLConnection) saldo.openConnection();
+		if(etag != null) {
+			conexao.setRequestProperty(HttpHeaders.IF_NONE_MATCH, etag);
+		}
+		if(token != null) {
+			conexao.setRequestProperty(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		}
+		return conexao;
+	}
+}
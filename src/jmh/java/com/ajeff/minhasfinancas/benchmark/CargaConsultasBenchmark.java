@@ -0,0 +1,93 @@
+package com.ajeff.minhasfinancas.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Teste de carga HTTP comparando as consultas na thread do Tomcat (assincronas=false) e no pool de consultas
+ * (assincronas=true). O Tomcat fica com poucas threads para que a carga as esgote; SampleTime fornece o p99
+ * e Throughput as requisições por milissegundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(64)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class CargaConsultasBenchmark {
+
+	@Param({"false", "true"})
+	public boolean assincronas;
+	
+	@Param({"100000"})
+	public int quantidade;
+	
+	@Param({"16"})
+	public int threadsTomcat;
+	
+	ConfigurableApplicationContext contexto;
+	URL busca;
+	URL saldo;
+	
+	@Setup(Level.Trial)
+	public void iniciar() throws IOException {
+		contexto = ContextoBenchmark.iniciarServidor("financas.consultas.assincronas=" + assincronas,
+				"server.tomcat.max-threads=" + threadsTomcat);
+		Long idUsuario = ContextoBenchmark.popular(contexto, quantidade);
+		String base = "http://127.0.0.1:" + contexto.getEnvironment().getProperty("local.server.port");
+		// com descrição a busca não é atendida pelo cache de buscas por período
+		busca = new URL(base + "/api/lancamentos?usuario=" + idUsuario + "&ano=" + ContextoBenchmark.ANO_INICIAL + "&mes=6&descricao=aluguel");
+		saldo = new URL(base + "/api/usuarios/" + idUsuario + "/saldo");
+	}
+	
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public long buscar() throws IOException {
+		return requisitar(busca);
+	}
+	
+	@Benchmark
+	public long obterSaldo() throws IOException {
+		return requisitar(saldo);
+	}
+	
+	
+	private static long requisitar(URL url) throws IOException {
+		HttpURLConnection conexao = (HttpURLConnection) url.openConnection();
+		if(conexao.getResponseCode() != 200) {
+			throw new IllegalStateException("Resposta " + conexao.getResponseCode() + " para " + url);
+		}
+		long bytes = 0;
+		byte[] buffer = new byte[8192];
+		try (InputStream corpo = conexao.getInputStream()) {
+			for(int lidos; (lidos = corpo.read(buffer)) != -1; ) {
+				bytes += lidos;
+			}
+		}
+		return bytes;
+	}
+}
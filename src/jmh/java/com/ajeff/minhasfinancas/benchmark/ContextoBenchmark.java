@@ -0,0 +1,102 @@
+package com.ajeff.minhasfinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ajeff.minhasfinancas.MinhasfinancasApplication;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+import com.ajeff.minhasfinancas.service.ResumoMensalService;
+import com.ajeff.minhasfinancas.service.SaldoUsuarioService;
+
+/**
+ * Sobe a aplicação sobre o H2 em memória do perfil de testes, sem servidor web e sem estatísticas do Hibernate.
+ * Cada fork do JMH é uma JVM nova, portanto cada massa de dados começa de um banco vazio.
+ */
+public final class ContextoBenchmark {
+
+	public static final int ANO_INICIAL = 2016;
+	public static final int ANOS = 5;
+	
+	private static final int TAMANHO_TRANSACAO = 10_000;
+	
+	private ContextoBenchmark() {
+	}
+	
+	public static ConfigurableApplicationContext iniciar(String... propriedades) {
+		return construir(WebApplicationType.NONE)
+				.properties(propriedades)
+				.run();
+	}
+	
+	/**
+	 * Sobe também o Tomcat numa porta livre, disponível em local.server.port.
+	 */
+	public static ConfigurableApplicationContext iniciarServidor(String... propriedades) {
+		return construir(WebApplicationType.SERVLET)
+				.properties("server.port=0")
+				.properties(propriedades)
+				.run();
+	}
+	
+	private static SpringApplicationBuilder construir(WebApplicationType tipo) {
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		return new SpringApplicationBuilder(MinhasfinancasApplication.class)
+				.profiles("test")
+				.web(tipo)
+				.bannerMode(Banner.Mode.OFF)
+				.logStartupInfo(false)
+				.properties("spring.jpa.properties.hibernate.generate_statistics=false", "logging.level.root=WARN");
+	}
+	
+	/**
+	 * Cria um usuário com a quantidade informada de lançamentos, distribuídos por {@value #ANOS} anos a partir de
+	 * {@value #ANO_INICIAL}, e consolida saldo e resumos mensais.
+	 */
+	public static Long popular(ConfigurableApplicationContext contexto, int quantidade) {
+		Usuario usuario = contexto.getBean(UsuarioRepository.class)
+				.save(Usuario.builder().nome("benchmark").email("benchmark@email.com").senha("senha").build());
+		LancamentoRepository repository = contexto.getBean(LancamentoRepository.class);
+		TransactionTemplate transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+		
+		for(int inicio = 0; inicio < quantidade; inicio += TAMANHO_TRANSACAO) {
+			List<Lancamento> lancamentos = new ArrayList<>(TAMANHO_TRANSACAO);
+			for(int i = inicio; i < Math.min(quantidade, inicio + TAMANHO_TRANSACAO); i++) {
+				lancamentos.add(criarLancamento(usuario, i));
+			}
+			transacao.execute(status -> {
+				repository.inserirEmLote(lancamentos);
+				return null;
+			});
+		}
+		contexto.getBean(SaldoUsuarioService.class).reconciliar(usuario.getId());
+		contexto.getBean(ResumoMensalService.class).reconciliar(usuario.getId());
+		return usuario.getId();
+	}
+	
+	public static Lancamento criarLancamento(Usuario usuario, int i) {
+		return Lancamento.builder()
+				.descricao((i % 10 == 0 ? "Aluguel " : "Mercado ") + i)
+				.ano(ANO_INICIAL + i % ANOS)
+				.mes(1 + (i / ANOS) % 12)
+				.valor(BigDecimal.valueOf(100 + i % 1000, 2))
+				.tipo(i % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+				.status(i % 2 == 0 ? StatusLancamento.EFETIVADO : StatusLancamento.PENDENTE)
+				.dataCadastro(LocalDate.now())
+				.usuario(usuario)
+				.build();
+	}
+}
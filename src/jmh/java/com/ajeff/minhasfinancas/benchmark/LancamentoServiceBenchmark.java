@@ -0,0 +1,81 @@
+package com.ajeff.minhasfinancas.benchmark;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ajeff.minhasfinancas.dto.CampoLancamento;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.service.LancamentoService;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class LancamentoServiceBenchmark {
+
+	@Param({"1000", "100000", "1000000"})
+	public int quantidade;
+	
+	ConfigurableApplicationContext contexto;
+	LancamentoService service;
+	Long idUsuario;
+	FiltroLancamentoDTO porPeriodo;
+	FiltroLancamentoDTO porDescricao;
+	Set<CampoLancamento> camposMoveis;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar();
+		idUsuario = ContextoBenchmark.popular(contexto, quantidade);
+		service = contexto.getBean(LancamentoService.class);
+		porPeriodo = FiltroLancamentoDTO.builder().usuario(idUsuario).ano(ContextoBenchmark.ANO_INICIAL).mes(6).build();
+		porDescricao = FiltroLancamentoDTO.builder().usuario(idUsuario).ano(ContextoBenchmark.ANO_INICIAL).mes(6)
+				.descricao("aluguel").build();
+		camposMoveis = CampoLancamento.converter("id,descricao,valor,tipo,status");
+	}
+	
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public List<LancamentoConsultaDTO> buscarPorPeriodo() {
+		return service.buscar(porPeriodo);
+	}
+	
+	@Benchmark
+	public List<LancamentoConsultaDTO> buscarPorDescricao() {
+		return service.buscar(porDescricao);
+	}
+	
+	@Benchmark
+	public List<LancamentoConsultaDTO> buscarPorDescricaoSomenteCamposMoveis() {
+		return service.buscar(porDescricao, null, camposMoveis);
+	}
+	
+	@Benchmark
+	public BigDecimal obterSaldoPorUsuario() {
+		return service.obterSaldoPorUsuario(idUsuario);
+	}
+}
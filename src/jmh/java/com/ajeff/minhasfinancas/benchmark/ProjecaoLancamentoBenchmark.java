@@ -0,0 +1,105 @@
+package com.ajeff.minhasfinancas.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+import com.ajeff.minhasfinancas.service.ProjecaoLancamentoService;
+
+/**
+ * Reconstrução completa de cada projeção a partir do log de eventos; eventos por segundo = quantidade / tempo.
+ * Um em cada cinco lançamentos recebe também um evento de troca de status.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ProjecaoLancamentoBenchmark {
+
+	private static final int TAMANHO_TRANSACAO = 10_000;
+	
+	@Param({"100000", "1000000"})
+	public int quantidade;
+	
+	@Param({"1000", "5000", "20000"})
+	public int tamanhoLote;
+	
+	ConfigurableApplicationContext contexto;
+	ProjecaoLancamentoService service;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar("financas.projecoes.tamanho-lote=" + tamanhoLote);
+		service = contexto.getBean(ProjecaoLancamentoService.class);
+		popularEventos();
+	}
+	
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public long reconstruirSaldoUsuario() {
+		return service.reconstruir("saldo-usuario");
+	}
+	
+	@Benchmark
+	public long reconstruirResumoMensal() {
+		return service.reconstruir("resumo-mensal");
+	}
+	
+	
+	private void popularEventos() {
+		Usuario usuario = contexto.getBean(UsuarioRepository.class)
+				.save(Usuario.builder().nome("benchmark").email("benchmark@email.com").senha("senha").build());
+		LancamentoRepository repository = contexto.getBean(LancamentoRepository.class);
+		TransactionTemplate transacao = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+		
+		for(int inicio = 0; inicio < quantidade; inicio += TAMANHO_TRANSACAO) {
+			List<EventoLancamento> eventos = new ArrayList<>(TAMANHO_TRANSACAO + TAMANHO_TRANSACAO / 5);
+			for(int i = inicio; i < Math.min(quantidade, inicio + TAMANHO_TRANSACAO); i++) {
+				Lancamento lancamento = ContextoBenchmark.criarLancamento(usuario, i);
+				lancamento.setId((long) i);
+				lancamento.setStatus(StatusLancamento.PENDENTE);
+				EstadoLancamentoDTO criado = EstadoLancamentoDTO.of(lancamento);
+				eventos.add(EventoLancamento.of(TipoEventoLancamento.CRIADO, null, criado));
+				if(i % 5 == 0) {
+					lancamento.setStatus(StatusLancamento.EFETIVADO);
+					eventos.add(EventoLancamento.of(TipoEventoLancamento.STATUS_ALTERADO, criado, EstadoLancamentoDTO.of(lancamento)));
+				}
+			}
+			transacao.execute(status -> {
+				repository.inserirEmLote(eventos);
+				return null;
+			});
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.ajeff.minhasfinancas.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.dto.ListaLancamentosDTO;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.serializacao.LancamentosCompactosConverter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Custo de serializar a busca de lançamentos: entidades e DTOs pelo Jackson e os formatos compactos do
+ * LancamentosCompactosConverter (JSON com linhas em lista e MessagePack). O tamanho de cada resposta é impresso no início.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SerializacaoBenchmark {
+
+	@Param({"1000", "100000", "1000000"})
+	public int quantidade;
+	
+	ObjectMapper objectMapper;
+	List<Lancamento> lancamentos;
+	List<LancamentoConsultaDTO> consultas;
+	LancamentosCompactosConverter compactos;
+	ListaLancamentosDTO lista;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		Usuario usuario = Usuario.builder().id(1l).nome("benchmark").email("benchmark@email.com").build();
+		lancamentos = new ArrayList<>(quantidade);
+		consultas = new ArrayList<>(quantidade);
+		for(int i = 0; i < quantidade; i++) {
+			Lancamento lancamento = ContextoBenchmark.criarLancamento(usuario, i);
+			lancamento.setId((long) i);
+			lancamentos.add(lancamento);
+			consultas.add(LancamentoConsultaDTO.of(lancamento));
+		}
+		compactos = new LancamentosCompactosConverter(objectMapper);
+		lista = new ListaLancamentosDTO(consultas);
+		try {
+			System.out.printf("%nBytes por resposta (%d lançamentos): jackson=%d compacto=%d msgpack=%d%n", quantidade,
+					serializarConsultas().length, serializarCompacto().length, serializarMessagePack().length);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	@Benchmark
+	public byte[] serializarLancamentos() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(lancamentos);
+	}
+	
+	@Benchmark
+	public byte[] serializarConsultas() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(consultas);
+	}
+	
+	@Benchmark
+	public byte[] serializarCompacto() throws IOException {
+		return escrever(LancamentosCompactosConverter.COMPACTO);
+	}
+	
+	@Benchmark
+	public byte[] serializarMessagePack() throws IOException {
+		return escrever(LancamentosCompactosConverter.MSGPACK);
+	}
+	
+	
+	private byte[] escrever(String tipo) throws IOException {
+		ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+		HttpHeaders cabecalhos = new HttpHeaders();
+		compactos.write(lista, MediaType.parseMediaType(tipo), new HttpOutputMessage() {
+			@Override
+			public HttpHeaders getHeaders() {
+				return cabecalhos;
+			}
+			
+			@Override
+			public OutputStream getBody() {
+				return corpo;
+			}
+		});
+		return corpo.toByteArray();
+	}
+}
@@ -0,0 +1,69 @@
+package com.ajeff.minhasfinancas.controller;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.ajeff.minhasfinancas.benchmark.ContextoBenchmark;
+import com.ajeff.minhasfinancas.dto.LancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.service.LancamentoService;
+import com.ajeff.minhasfinancas.service.UsuarioService;
+
+/**
+ * Caminho de escrita sem banco: conversão do DTO recebido pela API e validação do lançamento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LancamentoControllerBenchmark {
+
+	ConfigurableApplicationContext contexto;
+	LancamentoController controller;
+	LancamentoService service;
+	LancamentoDTO dto;
+	Lancamento lancamento;
+	
+	@Setup(Level.Trial)
+	public void iniciar() {
+		contexto = ContextoBenchmark.iniciar();
+		service = contexto.getBean(LancamentoService.class);
+		controller = new LancamentoController(service, contexto.getBean(UsuarioService.class), null, null, null, null, null);
+		dto = LancamentoDTO.builder().descricao("Aluguel").ano(2020).mes(7).valor(BigDecimal.valueOf(1200))
+				.tipo("DESPESA").status("PENDENTE").usuario(1l).build();
+		lancamento = ContextoBenchmark.criarLancamento(Usuario.builder().id(1l).build(), 1);
+	}
+	
+	@TearDown(Level.Trial)
+	public void encerrar() {
+		contexto.close();
+	}
+	
+	@Benchmark
+	public Lancamento converter() {
+		return controller.converter(dto);
+	}
+	
+	@Benchmark
+	public Lancamento validar() {
+		service.validar(lancamento);
+		return lancamento;
+	}
+}
@@ -0,0 +1,112 @@
+package com.ajeff.minhasfinancas.admissao;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.ajeff.minhasfinancas.seguranca.UsuarioAutenticado;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Admite a requisição em duas etapas: o balde do usuário na rota (429 com Retry-After quando vazio) e a
+ * proteção global, que responde 503 quando já há financas.admissao.concorrencia requisições em andamento ou
+ * quando a fila de espera do pool JDBC passou de financas.admissao.fila-conexoes.
+ * O balde é o do usuário do token ou, sem token, o do endereço do cliente: o parâmetro usuario não é usado,
+ * senão uma requisição anônima esvaziaria o balde de outro usuário ou trocaria de balde a cada id.
+ * Requisições assíncronas ocupam a vaga até o fim do despacho assíncrono.
+ */
+public class AdmissaoInterceptor implements AsyncHandlerInterceptor {
+
+	static final String ADMITIDA = AdmissaoInterceptor.class.getName() + ".ADMITIDA";
+	
+	private final LimitadorRequisicoes limitador;
+	private final AdmissaoProperties propriedades;
+	private final IntSupplier aguardandoConexao;
+	private final MeterRegistry registry;
+	private final AtomicInteger emAndamento = new AtomicInteger();
+	private final ConcurrentMap<String, Counter[]> contadores = new ConcurrentHashMap<>();
+	
+	public AdmissaoInterceptor(LimitadorRequisicoes limitador, AdmissaoProperties propriedades, IntSupplier aguardandoConexao,
+				MeterRegistry registry) {
+		this.limitador = limitador;
+		this.propriedades = propriedades;
+		this.aguardandoConexao = aguardandoConexao;
+		this.registry = registry == null ? Metrics.globalRegistry : registry;
+		this.registry.gauge("financas.admissao.em-andamento", emAndamento);
+		this.registry.gauge("financas.admissao.baldes", limitador, LimitadorRequisicoes::getQuantidade);
+	}
+	
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+		if(request.getDispatcherType() == DispatcherType.ASYNC || !(handler instanceof HandlerMethod)) {
+			return true;
+		}
+		String rota = rota((HandlerMethod) handler);
+		Counter[] contador = contadores(rota);
+		
+		long espera = limitador.admitir(rota, usuario(request));
+		if(espera > 0) {
+			contador[1].increment();
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + 999_999_999))));
+			response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Limite de requisições excedido, tente novamente mais tarde.");
+			return false;
+		}
+		
+		if(emAndamento.incrementAndGet() > propriedades.getConcorrencia() || aguardandoConexao.getAsInt() > propriedades.getFilaConexoes()) {
+			emAndamento.decrementAndGet();
+			contador[2].increment();
+			response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+			response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servidor sobrecarregado, tente novamente mais tarde.");
+			return false;
+		}
+		request.setAttribute(ADMITIDA, Boolean.TRUE);
+		contador[0].increment();
+		return true;
+	}
+	
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		if(request.getAttribute(ADMITIDA) != null) {
+			request.removeAttribute(ADMITIDA);
+			emAndamento.decrementAndGet();
+		}
+	}
+	
+	int getEmAndamento() {
+		return emAndamento.get();
+	}
+	
+	
+	private static String rota(HandlerMethod handler) {
+		return handler.getBeanType().getSimpleName() + '.' + handler.getMethod().getName();
+	}
+	
+	private static String usuario(HttpServletRequest request) {
+		return UsuarioAutenticado.obter()
+				.map(Object::toString)
+				.orElseGet(() -> "ip:" + request.getRemoteAddr());
+	}
+	
+	private Counter[] contadores(String rota) {
+		Counter[] contador = contadores.get(rota);
+		return contador != null ? contador : contadores.computeIfAbsent(rota, r -> new Counter[] {
+				registry.counter("financas.admissao", "rota", r, "resultado", "admitida"),
+				registry.counter("financas.admissao", "rota", r, "resultado", "limitada"),
+				registry.counter("financas.admissao", "rota", r, "resultado", "sobrecarga")
+		});
+	}
+}
@@ -0,0 +1,51 @@
+package com.ajeff.minhasfinancas.admissao;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "financas.admissao")
+public class AdmissaoProperties {
+
+	/** Limite de cada usuário em cada rota sem limite próprio. */
+	private Limite padrao = new Limite(20, 10);
+	
+	/** Limites por rota, com a chave no formato Controller.metodo (ex.: LancamentoController.buscar). */
+	private Map<String, Limite> rotas = new LinkedHashMap<>();
+	
+	/** Requisições admitidas em andamento ao mesmo tempo; acima disso a resposta é 503. */
+	private int concorrencia = 200;
+	
+	/** Threads aguardando conexão do pool JDBC acima das quais novas requisições recebem 503. */
+	private int filaConexoes = 10;
+	
+	/** Tempo com o balde cheio depois do qual ele é descartado. */
+	private Duration ociosidade = Duration.ofMinutes(5);
+	
+	public Limite limite(String rota) {
+		return rotas.getOrDefault(rota, padrao);
+	}
+	
+	@Data
+	public static class Limite {
+		
+		/** Requisições aceitas em rajada. */
+		private int capacidade;
+		
+		/** Requisições por segundo repostas no balde. */
+		private double porSegundo;
+		
+		public Limite() {
+		}
+		
+		public Limite(int capacidade, double porSegundo) {
+			this.capacidade = capacidade;
+			this.porSegundo = porSegundo;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.ajeff.minhasfinancas.admissao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de fichas sem trava: em vez de fichas e instante da última reposição guarda só o instante teórico
+ * em que o balde volta a ficar cheio (GCRA), então consumir é um compareAndSet num único long.
+ */
+class BaldeFichas {
+
+	private final long intervalo;
+	private final long tolerancia;
+	private final AtomicLong cheioEm;
+	
+	BaldeFichas(AdmissaoProperties.Limite limite, long agora) {
+		this.intervalo = (long) (1_000_000_000d / limite.getPorSegundo());
+		this.tolerancia = intervalo * Math.max(1, limite.getCapacidade());
+		this.cheioEm = new AtomicLong(agora);
+	}
+	
+	/**
+	 * Consome uma ficha e retorna 0, ou retorna quantos nanossegundos faltam para haver uma.
+	 */
+	long consumir(long agora) {
+		while(true) {
+			long atual = cheioEm.get();
+			long proximo = Math.max(atual, agora) + intervalo;
+			long excesso = proximo - agora - tolerancia;
+			if(excesso > 0) {
+				return excesso;
+			}
+			if(cheioEm.compareAndSet(atual, proximo)) {
+				return 0;
+			}
+		}
+	}
+	
+	boolean ocioso(long agora, long ociosidade) {
+		return agora - cheioEm.get() >= ociosidade;
+	}
+}
@@ -0,0 +1,52 @@
+package com.ajeff.minhasfinancas.admissao;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Um balde de fichas por usuário e rota. A consulta ao mapa não trava; só a criação de um balde novo
+ * passa pelo computeIfAbsent, e os baldes cheios há mais que a ociosidade são descartados periodicamente
+ * (um balde recriado começa cheio, então descartar não muda o limite de ninguém).
+ */
+public class LimitadorRequisicoes {
+
+	private final AdmissaoProperties propriedades;
+	private final LongSupplier relogio;
+	private final ConcurrentMap<String, BaldeFichas> baldes = new ConcurrentHashMap<>();
+	
+	public LimitadorRequisicoes(AdmissaoProperties propriedades) {
+		this(propriedades, System::nanoTime);
+	}
+	
+	LimitadorRequisicoes(AdmissaoProperties propriedades, LongSupplier relogio) {
+		this.propriedades = propriedades;
+		this.relogio = relogio;
+	}
+	
+	/**
+	 * Retorna 0 quando a requisição é admitida, ou em quantos nanossegundos o usuário pode tentar de novo.
+	 */
+	public long admitir(String rota, String usuario) {
+		long agora = relogio.getAsLong();
+		String chave = rota + '|' + usuario;
+		BaldeFichas balde = baldes.get(chave);
+		if(balde == null) {
+			balde = baldes.computeIfAbsent(chave, c -> new BaldeFichas(propriedades.limite(rota), agora));
+		}
+		return balde.consumir(agora);
+	}
+	
+	@Scheduled(fixedDelayString = "${financas.admissao.intervalo-limpeza:60000}")
+	public void removerOciosos() {
+		long agora = relogio.getAsLong();
+		long ociosidade = propriedades.getOciosidade().toNanos();
+		baldes.values().removeIf(balde -> balde.ocioso(agora, ociosidade));
+	}
+	
+	public int getQuantidade() {
+		return baldes.size();
+	}
+}
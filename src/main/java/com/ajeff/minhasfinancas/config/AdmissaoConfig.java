@@ -0,0 +1,66 @@
+package com.ajeff.minhasfinancas.config;
+
+import java.util.function.IntSupplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.ajeff.minhasfinancas.admissao.AdmissaoInterceptor;
+import com.ajeff.minhasfinancas.admissao.AdmissaoProperties;
+import com.ajeff.minhasfinancas.admissao.LimitadorRequisicoes;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limita as requisições de cada usuário às APIs de lançamentos e usuários e recusa novas requisições
+ * quando o pool JDBC já tem fila; desligado com financas.admissao.ativa=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "financas.admissao.ativa", havingValue = "true")
+@EnableConfigurationProperties(AdmissaoProperties.class)
+public class AdmissaoConfig implements WebMvcConfigurer {
+
+	private final AdmissaoProperties propriedades;
+	private final ObjectProvider<DataSource> dataSource;
+	private final ObjectProvider<MeterRegistry> registry;
+	
+	public AdmissaoConfig(AdmissaoProperties propriedades, ObjectProvider<DataSource> dataSource, ObjectProvider<MeterRegistry> registry) {
+		this.propriedades = propriedades;
+		this.dataSource = dataSource;
+		this.registry = registry;
+	}
+	
+	@Bean
+	public LimitadorRequisicoes limitadorRequisicoes() {
+		return new LimitadorRequisicoes(propriedades);
+	}
+	
+	@Override
+	public void addInterceptors(InterceptorRegistry registro) {
+		AdmissaoInterceptor interceptor = new AdmissaoInterceptor(limitadorRequisicoes(), propriedades,
+				aguardandoConexao(dataSource.getIfAvailable()), registry.getIfAvailable());
+		registro.addInterceptor(interceptor).addPathPatterns("/api/lancamentos/**", "/api/usuarios/**");
+	}
+	
+	
+	private static IntSupplier aguardandoConexao(DataSource dataSource) {
+		HikariDataSource pool = dataSource instanceof RoteamentoDataSource ? ((RoteamentoDataSource) dataSource).getPrimario()
+				: dataSource instanceof HikariDataSource ? (HikariDataSource) dataSource : null;
+		if(pool == null) {
+			return () -> 0;
+		}
+		return () -> {
+			HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+			return mxBean == null ? 0 : mxBean.getThreadsAwaitingConnection();
+		};
+	}
+}
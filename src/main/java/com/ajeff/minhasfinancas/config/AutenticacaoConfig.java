@@ -0,0 +1,30 @@
+package com.ajeff.minhasfinancas.config;
+
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.ajeff.minhasfinancas.seguranca.AutenticacaoFilter;
+import com.ajeff.minhasfinancas.seguranca.TokenAcesso;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Configuration
+public class AutenticacaoConfig {
+
+	@Bean
+	public FilterRegistrationBean<AutenticacaoFilter> autenticacaoFilter(TokenAcesso tokens,
+				@Value("${financas.autenticacao.obrigatoria:true}") boolean obrigatoria,
+				@Value("${financas.autenticacao.administradores:}") Set<Long> administradores) {
+		if(!obrigatoria) {
+			log.warn("financas.autenticacao.obrigatoria=false: requisições sem token confiam no parâmetro usuario informado");
+		}
+		FilterRegistrationBean<AutenticacaoFilter> registro = new FilterRegistrationBean<>(new AutenticacaoFilter(tokens, obrigatoria, administradores));
+		registro.addUrlPatterns("/api/*");
+		return registro;
+	}
+}
@@ -0,0 +1,66 @@
+package com.ajeff.minhasfinancas.config;
+
+import java.time.Duration;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Requisições de escrita usam o primário do início ao fim e deixam um cookie com o instante da escrita;
+ * enquanto ele estiver dentro da janela, as leituras desse cliente também vão ao primário.
+ */
+public class LeituraPropriaInterceptor implements AsyncHandlerInterceptor {
+
+	static final String COOKIE = "financas-escrita";
+	
+	private final Duration janela;
+	
+	public LeituraPropriaInterceptor(Duration janela) {
+		this.janela = janela;
+	}
+	
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		long agora = System.currentTimeMillis();
+		if(!leitura(request.getMethod())) {
+			RoteamentoDataSource.fixarPrimario();
+			Cookie cookie = new Cookie(COOKIE, String.valueOf(agora));
+			cookie.setPath("/");
+			cookie.setHttpOnly(true);
+			cookie.setMaxAge((int) Math.max(1, janela.getSeconds()));
+			response.addCookie(cookie);
+		} else if(agora - ultimaEscrita(request) < janela.toMillis()) {
+			RoteamentoDataSource.fixarPrimario();
+		}
+		return true;
+	}
+	
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		RoteamentoDataSource.liberar();
+	}
+	
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		RoteamentoDataSource.liberar();
+	}
+	
+	
+	private static boolean leitura(String metodo) {
+		return HttpMethod.GET.matches(metodo) || HttpMethod.HEAD.matches(metodo) || HttpMethod.OPTIONS.matches(metodo);
+	}
+	
+	private static long ultimaEscrita(HttpServletRequest request) {
+		Cookie cookie = WebUtils.getCookie(request, COOKIE);
+		try {
+			return cookie == null ? 0 : Long.parseLong(cookie.getValue());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+}
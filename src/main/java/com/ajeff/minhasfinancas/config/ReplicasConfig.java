@@ -0,0 +1,73 @@
+package com.ajeff.minhasfinancas.config;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Ativo quando há ao menos uma réplica em financas.datasource.replicas; sem réplicas o DataSource
+ * continua sendo o do Spring Boot.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "financas.datasource.replicas[0]", name = "url")
+@EnableConfigurationProperties(ReplicasProperties.class)
+public class ReplicasConfig implements WebMvcConfigurer {
+
+	private final ReplicasProperties propriedades;
+	
+	public ReplicasConfig(ReplicasProperties propriedades) {
+		this.propriedades = propriedades;
+	}
+	
+	@Bean
+	public RoteamentoDataSource dataSource(DataSourceProperties properties, Environment environment, ObjectProvider<MeterRegistry> registry) {
+		HikariDataSource primario = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primario));
+		primario.setPoolName(RoteamentoDataSource.PRIMARIO);
+		registry.ifAvailable(metricas -> primario.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(metricas)));
+		
+		Map<String, HikariDataSource> replicas = new LinkedHashMap<>();
+		List<ReplicasProperties.Replica> configuradas = propriedades.getReplicas();
+		for(int i = 0; i < configuradas.size(); i++) {
+			ReplicasProperties.Replica configurada = configuradas.get(i);
+			HikariDataSource replica = DataSourceBuilder.create()
+					.type(HikariDataSource.class)
+					.driverClassName(primario.getDriverClassName())
+					.url(configurada.getUrl())
+					.username(configurada.getUsername())
+					.password(configurada.getPassword())
+					.build();
+			replica.setPoolName("replica-" + i);
+			replica.setReadOnly(true);
+			if(primario.getMaximumPoolSize() > 0) {
+				replica.setMaximumPoolSize(primario.getMaximumPoolSize());
+			}
+			registry.ifAvailable(metricas -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(metricas)));
+			replicas.put(replica.getPoolName(), replica);
+		}
+		return new RoteamentoDataSource(primario, replicas, propriedades);
+	}
+	
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new LeituraPropriaInterceptor(propriedades.getJanelaLeituraPropria()));
+	}
+}
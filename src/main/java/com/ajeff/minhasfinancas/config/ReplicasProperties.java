@@ -0,0 +1,32 @@
+package com.ajeff.minhasfinancas.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+@Data
+@ConfigurationProperties(prefix = "financas.datasource")
+public class ReplicasProperties {
+
+	private List<Replica> replicas = new ArrayList<>();
+	
+	/** Atraso acima do qual a réplica deixa de receber leituras. */
+	private Duration atrasoMaximo = Duration.ofSeconds(5);
+	
+	/** Por quanto tempo depois de uma escrita o cliente continua lendo do primário. */
+	private Duration janelaLeituraPropria = Duration.ofSeconds(5);
+	
+	/** Consulta executada na réplica que retorna o atraso em segundos; vazia considera a réplica em dia. */
+	private String consultaAtraso;
+	
+	@Data
+	public static class Replica {
+		private String url;
+		private String username;
+		private String password;
+	}
+}
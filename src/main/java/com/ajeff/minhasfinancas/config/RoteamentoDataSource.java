@@ -0,0 +1,161 @@
+package com.ajeff.minhasfinancas.config;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Envia transações somente leitura para as réplicas em rodízio e o restante para o primário.
+ * É um LazyConnectionDataSourceProxy: a conexão só é escolhida no primeiro comando,
+ * quando a transação já foi marcada como somente leitura.
+ * Réplicas fora do ar ou com atraso acima do tolerado saem do rodízio até a próxima verificação,
+ * e a thread fixada no primário (leitura das próprias escritas) nunca lê de réplica.
+ */
+@Slf4j
+public class RoteamentoDataSource extends LazyConnectionDataSourceProxy implements DisposableBean {
+
+	static final String PRIMARIO = "primario";
+	
+	private static final ThreadLocal<Boolean> FIXADO = new ThreadLocal<>();
+	
+	private final HikariDataSource primario;
+	private final Map<String, HikariDataSource> replicas;
+	private final ReplicasProperties propriedades;
+	private final AtomicInteger rodizio = new AtomicInteger();
+	private volatile List<String> disponiveis = Collections.emptyList();
+	
+	public RoteamentoDataSource(HikariDataSource primario, Map<String, HikariDataSource> replicas, ReplicasProperties propriedades) {
+		this.primario = primario;
+		this.replicas = replicas;
+		this.propriedades = propriedades;
+		
+		AbstractRoutingDataSource roteamento = new AbstractRoutingDataSource() {
+			@Override
+			protected Object determineCurrentLookupKey() {
+				return escolherDestino();
+			}
+		};
+		Map<Object, Object> destinos = new HashMap<>(replicas);
+		destinos.put(PRIMARIO, primario);
+		roteamento.setTargetDataSources(destinos);
+		roteamento.setDefaultTargetDataSource(primario);
+		roteamento.afterPropertiesSet();
+		setTargetDataSource(roteamento);
+	}
+	
+	public static boolean fixadoNoPrimario() {
+		return FIXADO.get() != null;
+	}
+	
+	public static void fixarPrimario() {
+		FIXADO.set(Boolean.TRUE);
+	}
+	
+	public static void liberar() {
+		FIXADO.remove();
+	}
+	
+	/**
+	 * Executa a tarefa em outra thread mantendo a fixação no primário de quem a criou.
+	 */
+	public static <T> Supplier<T> propagar(Supplier<T> tarefa) {
+		boolean fixado = fixadoNoPrimario();
+		return () -> executar(fixado, tarefa);
+	}
+	
+	public static <T> T executar(boolean fixado, Supplier<T> tarefa) {
+		Boolean anterior = FIXADO.get();
+		if(fixado) {
+			fixarPrimario();
+		}
+		try {
+			return tarefa.get();
+		} finally {
+			if(anterior == null) {
+				liberar();
+			} else {
+				FIXADO.set(anterior);
+			}
+		}
+	}
+	
+	@Override
+	public void afterPropertiesSet() {
+		super.afterPropertiesSet();
+		verificarReplicas();
+	}
+
+	String escolherDestino() {
+		List<String> candidatas = disponiveis;
+		if(candidatas.isEmpty() || fixadoNoPrimario() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return PRIMARIO;
+		}
+		return candidatas.get(Math.floorMod(rodizio.getAndIncrement(), candidatas.size()));
+	}
+	
+	@Scheduled(fixedDelayString = "${financas.datasource.intervalo-verificacao:5000}")
+	public void verificarReplicas() {
+		List<String> emDia = new ArrayList<>();
+		replicas.forEach((nome, replica) -> {
+			try {
+				double atraso = medirAtraso(replica);
+				if(atraso <= propriedades.getAtrasoMaximo().getSeconds()) {
+					emDia.add(nome);
+				} else {
+					log.warn("Réplica {} fora do rodízio: {}s de atraso", nome, atraso);
+				}
+			} catch (Exception e) {
+				log.warn("Réplica {} fora do rodízio: {}", nome, e.getMessage());
+			}
+		});
+		disponiveis = Collections.unmodifiableList(emDia);
+	}
+	
+	List<String> getDisponiveis() {
+		return disponiveis;
+	}
+	
+	public HikariDataSource getPrimario() {
+		return primario;
+	}
+
+	@Override
+	public void destroy() {
+		replicas.values().forEach(HikariDataSource::close);
+		primario.close();
+	}
+	
+	
+	private double medirAtraso(DataSource replica) throws Exception {
+		try (Connection conexao = replica.getConnection()) {
+			if(!StringUtils.hasText(propriedades.getConsultaAtraso())) {
+				return 0;
+			}
+			try (Statement comando = conexao.createStatement(); ResultSet resultado = comando.executeQuery(propriedades.getConsultaAtraso())) {
+				BigDecimal atraso = resultado.next() ? resultado.getBigDecimal(1) : null;
+				return atraso == null ? 0 : atraso.doubleValue();
+			}
+		}
+	}
+}
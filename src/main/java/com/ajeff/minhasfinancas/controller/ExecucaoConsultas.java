@@ -0,0 +1,68 @@
+package com.ajeff.minhasfinancas.controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.ajeff.minhasfinancas.config.RoteamentoDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Executa as consultas que esperam pelo banco fora da thread do Tomcat quando
+ * financas.consultas.assincronas=true, num pool limitado; com o pool e a fila cheios a resposta é 503.
+ * Desligado, a consulta roda na própria thread da requisição, como antes.
+ */
+@Component
+class ExecucaoConsultas implements DisposableBean {
+
+	private final Executor executor;
+	private final ThreadPoolTaskExecutor pool;
+	
+	ExecucaoConsultas(@Value("${financas.consultas.assincronas:false}") boolean assincronas,
+				@Value("${financas.consultas.threads:32}") int threads,
+				@Value("${financas.consultas.fila:200}") int fila, ObjectProvider<MeterRegistry> registry) {
+		if(!assincronas) {
+			this.pool = null;
+			this.executor = new SyncTaskExecutor();
+			return;
+		}
+		pool = new ThreadPoolTaskExecutor();
+		pool.setCorePoolSize(threads);
+		pool.setMaxPoolSize(threads);
+		pool.setQueueCapacity(fila);
+		pool.setThreadNamePrefix("consulta-");
+		pool.initialize();
+		MeterRegistry metricas = registry.getIfAvailable();
+		executor = metricas == null ? pool : ExecutorServiceMetrics.monitor(metricas, pool.getThreadPoolExecutor(), "consultas", Tags.empty());
+	}
+	
+	CompletableFuture<ResponseEntity> executar(Supplier<ResponseEntity> consulta) {
+		try {
+			return CompletableFuture.supplyAsync(RoteamentoDataSource.propagar(consulta), executor);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, "1").build());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if(pool != null) {
+			pool.shutdown();
+		}
+	}
+}
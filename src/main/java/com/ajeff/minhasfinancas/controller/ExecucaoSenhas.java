@@ -0,0 +1,60 @@
+package com.ajeff.minhasfinancas.controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.ajeff.minhasfinancas.config.RoteamentoDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Executa login e cadastro, que calculam o hash da senha, num pool próprio e limitado (financas.senhas.threads,
+ * padrão metade dos processadores): uma rajada de logins ocupa só esse pool e as demais requisições seguem com CPU
+ * livre. Com o pool e a fila cheios a resposta é 503.
+ */
+@Component
+class ExecucaoSenhas implements DisposableBean {
+
+	private final ThreadPoolTaskExecutor pool;
+	private final Executor executor;
+	
+	ExecucaoSenhas(@Value("${financas.senhas.threads:0}") int threads, @Value("${financas.senhas.fila:100}") int fila,
+				ObjectProvider<MeterRegistry> registry) {
+		int tamanho = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		pool = new ThreadPoolTaskExecutor();
+		pool.setCorePoolSize(tamanho);
+		pool.setMaxPoolSize(tamanho);
+		pool.setQueueCapacity(fila);
+		pool.setThreadNamePrefix("senha-");
+		pool.initialize();
+		MeterRegistry metricas = registry.getIfAvailable();
+		executor = metricas == null ? pool : ExecutorServiceMetrics.monitor(metricas, pool.getThreadPoolExecutor(), "senhas", Tags.empty());
+	}
+	
+	CompletableFuture<ResponseEntity> executar(Supplier<ResponseEntity> tarefa) {
+		try {
+			return CompletableFuture.supplyAsync(RoteamentoDataSource.propagar(tarefa), executor);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+					.header(HttpHeaders.RETRY_AFTER, "1").build());
+		}
+	}
+
+	@Override
+	public void destroy() {
+		pool.shutdown();
+	}
+}
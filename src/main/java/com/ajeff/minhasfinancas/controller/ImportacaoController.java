@@ -0,0 +1,61 @@
+package com.ajeff.minhasfinancas.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.ajeff.minhasfinancas.exceptions.AcessoNegadoException;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.model.entity.ImportacaoExtrato;
+import com.ajeff.minhasfinancas.model.enums.FormatoExtrato;
+import com.ajeff.minhasfinancas.seguranca.UsuarioAutenticado;
+import com.ajeff.minhasfinancas.service.ImportacaoExtratoService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/importacoes")
+@RequiredArgsConstructor
+public class ImportacaoController {
+
+	private final ImportacaoExtratoService service;
+	
+	@PostMapping
+	public ResponseEntity importar(@RequestParam("arquivo") MultipartFile arquivo, @RequestParam("usuario") Long usuario,
+				@RequestParam(value = "formato", required = false) FormatoExtrato formato) throws IOException {
+		try (InputStream conteudo = arquivo.getInputStream()) {
+			ImportacaoExtrato importacao = service.iniciar(usuario, arquivo.getOriginalFilename(), formato, conteudo);
+			return ResponseEntity.accepted()
+					.location(URI.create("/api/importacoes/" + importacao.getId()))
+					.body(importacao);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	
+	@GetMapping("{id}")
+	public ResponseEntity obterSituacao(@PathVariable("id") Long id) {
+		return service.obterPorId(id)
+				.map(importacao -> {
+					try {
+						UsuarioAutenticado.verificarDono(importacao.getIdUsuario());
+						return new ResponseEntity(importacao, HttpStatus.OK);
+					} catch (AcessoNegadoException e) {
+						return new ResponseEntity(e.getMessage(), HttpStatus.FORBIDDEN);
+					}
+				})
+				.orElseGet( () -> 
+					new ResponseEntity("Importação não encontrada na base de dados", HttpStatus.BAD_REQUEST));
+	}
+}
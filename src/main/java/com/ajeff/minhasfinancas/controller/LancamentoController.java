@@ -1,9 +1,20 @@
 package com.ajeff.minhasfinancas.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,16 +25,37 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import com.ajeff.minhasfinancas.dto.AtualizaStatusDto;
+import com.ajeff.minhasfinancas.dto.AtualizaStatusLoteDto;
+import com.ajeff.minhasfinancas.dto.CampoLancamento;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
 import com.ajeff.minhasfinancas.dto.LancamentoDTO;
+import com.ajeff.minhasfinancas.dto.ListaLancamentosDTO;
+import com.ajeff.minhasfinancas.dto.PaginaLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.ResultadoImportacaoDTO;
+import com.ajeff.minhasfinancas.dto.ResultadoLoteDTO;
+import com.ajeff.minhasfinancas.dto.SincronizacaoLancamentoDTO;
+import com.ajeff.minhasfinancas.exceptions.AcessoNegadoException;
 import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
 import com.ajeff.minhasfinancas.model.entity.Lancamento;
-import com.ajeff.minhasfinancas.model.entity.Usuario;
 import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
 import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.seguranca.UsuarioAutenticado;
+import com.ajeff.minhasfinancas.serializacao.LancamentosCompactosConverter;
+import com.ajeff.minhasfinancas.service.EventoLancamentoService;
+import com.ajeff.minhasfinancas.service.HistoricoLancamentoService;
+import com.ajeff.minhasfinancas.service.ImportacaoLancamentoService;
 import com.ajeff.minhasfinancas.service.LancamentoService;
+import com.ajeff.minhasfinancas.service.SincronizacaoLancamentoService;
 import com.ajeff.minhasfinancas.service.UsuarioService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 
 import lombok.RequiredArgsConstructor;
 
@@ -32,46 +64,156 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class LancamentoController {
 	
+	private static final String NDJSON = "application/x-ndjson";
+	private static final String USUARIO_OBRIGATORIO = "Informe o usuário!";
+	private static final String STATUS_INVALIDO = "Informe um status válido";
+	private static final String NAO_ENCONTRADO = "Lançamento não encontrado na base de dados";
+	private static final String ALTERADO_EM_PARALELO = "O lançamento foi alterado por outra operação, consulte-o novamente!";
+	
 	private final LancamentoService service;
 	private final UsuarioService usuarioService;
+	private final ImportacaoLancamentoService importacaoService;
+	private final ObjectMapper objectMapper;
+	private final ExecucaoConsultas consultas;
+	private final EventoLancamentoService eventoService;
+	private final SincronizacaoLancamentoService sincronizacaoService;
 	
 	@PutMapping("{id}/atualiza-status")
 	public ResponseEntity atualizaStatus(@PathVariable Long id, @RequestBody AtualizaStatusDto dto) {
-		return service.findLancamentoById(id).map(entity ->{
-			StatusLancamento lancamentoSalvo = StatusLancamento.valueOf(dto.getStatus());
-			if(lancamentoSalvo == null) {
-				return ResponseEntity.badRequest().body("Informe um status válido");
+		StatusLancamento status = converterStatus(dto.getStatus());
+		if(status == null) {
+			return ResponseEntity.badRequest().body(STATUS_INVALIDO);
+		}
+		try {
+			List<LancamentoConsultaDTO> atualizados = service.atualizarStatus(Collections.singletonList(id), status);
+			if(atualizados.isEmpty()) {
+				return new ResponseEntity(NAO_ENCONTRADO, HttpStatus.BAD_REQUEST);
 			}
-			try {
-				entity.setStatus(lancamentoSalvo);
-				service.atualizar(entity);
-				return ResponseEntity.ok(entity);
-			} catch (RegraNegocioException e) {
-				return ResponseEntity.badRequest().body(e.getMessage());
+			return ResponseEntity.ok(atualizados.get(0));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (AcessoNegadoException e) {
+			return new ResponseEntity(e.getMessage(), HttpStatus.FORBIDDEN);
+		} catch (OptimisticLockingFailureException e) {
+			return new ResponseEntity(ALTERADO_EM_PARALELO, HttpStatus.CONFLICT);
+		}
+	}
+	
+	
+	/**
+	 * Com ids no corpo, devolve os lançamentos alterados; sem ids, altera todos os lançamentos do filtro
+	 * informado na query string (usuário obrigatório) e devolve só a quantidade, com a dos que ficaram de fora
+	 * por já estarem no histórico.
+	 */
+	@PutMapping("/status")
+	public ResponseEntity atualizaStatus(FiltroLancamentoDTO filtro, @RequestBody AtualizaStatusLoteDto dto) {
+		StatusLancamento status = converterStatus(dto.getStatus());
+		if(status == null) {
+			return ResponseEntity.badRequest().body(STATUS_INVALIDO);
+		}
+		boolean semIds = dto.getIds() == null || dto.getIds().isEmpty();
+		if(semIds && filtro.getUsuario() == null) {
+			return ResponseEntity.badRequest().body("Informe os lançamentos!");
+		}
+		try {
+			if(semIds) {
+				return ResponseEntity.ok(new ResultadoLoteDTO(service.atualizarStatus(filtro, status), service.contarArquivados(filtro)));
 			}
-		}).orElseGet( () -> 
-			new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST));
+			List<LancamentoConsultaDTO> atualizados = service.atualizarStatus(new LinkedHashSet<>(dto.getIds()), status);
+			return ResponseEntity.ok(atualizados);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		} catch (AcessoNegadoException e) {
+			return new ResponseEntity(e.getMessage(), HttpStatus.FORBIDDEN);
+		} catch (OptimisticLockingFailureException e) {
+			return new ResponseEntity(ALTERADO_EM_PARALELO, HttpStatus.CONFLICT);
+		}
 	}
 	
 	
-	@GetMapping
-	public ResponseEntity buscar(@RequestParam(value = "descricao", required = false) String descricao, @RequestParam(value= "mes", required = false) Integer mes,
-				@RequestParam(value="ano", required= false) Integer ano, @RequestParam(value="usuario") Long idUsuario) {
+	@GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, LancamentosCompactosConverter.COMPACTO, LancamentosCompactosConverter.MSGPACK})
+	public CompletableFuture<ResponseEntity> buscar(FiltroLancamentoDTO filtro, @RequestParam(value = "fields", required = false) String fields,
+				WebRequest request) {
+		if(filtro.getUsuario() == null) {
+			return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(USUARIO_OBRIGATORIO));
+		}
+		Set<CampoLancamento> campos;
+		try {
+			campos = CampoLancamento.converter(fields);
+		} catch (RegraNegocioException e) {
+			return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(e.getMessage()));
+		}
+		
+		Long versao = service.obterVersaoUsuario(filtro.getUsuario()).orElse(null);
+		if(VersaoEtag.naoModificado(request, versao)) {
+			return null;
+		}
+		return consultas.executar(() -> {
+			List<LancamentoConsultaDTO> lancamentos = service.buscar(filtro, versao, campos);
+			return ResponseEntity.ok(new ListaLancamentosDTO(lancamentos, campos));
+		});
+	}
+	
+	
+	@GetMapping(value = "/pagina", produces = {MediaType.APPLICATION_JSON_VALUE, LancamentosCompactosConverter.COMPACTO, LancamentosCompactosConverter.MSGPACK})
+	public ResponseEntity buscarPagina(FiltroLancamentoDTO filtro, @RequestParam(value="cursor", required = false) String cursor,
+				@RequestParam(value="tamanho", defaultValue = "50") int tamanho, WebRequest request) {
+		
+		if(filtro.getUsuario() == null) {
+			return ResponseEntity.badRequest().body(USUARIO_OBRIGATORIO);
+		}
+		if(VersaoEtag.naoModificado(request, service.obterVersaoUsuario(filtro.getUsuario()).orElse(null))) {
+			return null;
+		}
 		
-		Lancamento lancamentoFiltro = new Lancamento();
-		lancamentoFiltro.setAno(ano);
-		lancamentoFiltro.setDescricao(descricao);
-		lancamentoFiltro.setMes(mes);
-		Optional<Usuario> user = usuarioService.findByUsuarioId(idUsuario);
+		try {
+			PaginaLancamentoDTO pagina = service.buscarPagina(filtro, cursor, tamanho);
+			return ResponseEntity.ok(pagina);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	
+	/**
+	 * Alterações e exclusões do usuário depois do cursor; sem cursor devolve o cursor inicial,
+	 * que deve ser pedido antes da carga completa.
+	 */
+	@GetMapping("/sincronizacao")
+	public ResponseEntity sincronizar(@RequestParam(value="usuario", required = false) Long usuario,
+				@RequestParam(value="cursor", required = false) String cursor, @RequestParam(value="tamanho", defaultValue = "200") int tamanho) {
+		try {
+			SincronizacaoLancamentoDTO sincronizacao = sincronizacaoService.sincronizar(usuario, cursor, tamanho);
+			return ResponseEntity.ok(sincronizacao);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	
+	@GetMapping(value = "/stream", produces = NDJSON)
+	public void buscarStream(FiltroLancamentoDTO filtro, WebRequest request, HttpServletResponse response) throws IOException {
+		if(filtro.getUsuario() == null) {
+			response.sendError(HttpStatus.BAD_REQUEST.value(), USUARIO_OBRIGATORIO);
+			return;
+		}
+		if(VersaoEtag.naoModificado(request, service.obterVersaoUsuario(filtro.getUsuario()).orElse(null))) {
+			return;
+		}
 		
-		if(user.isPresent()) {
-			lancamentoFiltro.setUsuario(user.get());
-		}else {
-			return ResponseEntity.badRequest().body("Usuário não encontrado com este id!");
+		response.setContentType(NDJSON);
+		try (SequenceWriter writer = objectMapper.writer()
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+				.withRootValueSeparator("\n")
+				.writeValues(response.getOutputStream())) {
+			service.buscarStream(filtro, lancamento -> {
+				try {
+					writer.write(lancamento);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
 		}
-			
-		List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
-		return ResponseEntity.ok(lancamentos);
 	}
 	
 	
@@ -81,7 +223,25 @@ public class LancamentoController {
 		try {
 			Lancamento lancamento = converter(dto);
 			lancamento = service.salvar(lancamento);
-			return new ResponseEntity(lancamento, HttpStatus.CREATED);
+			return new ResponseEntity(LancamentoConsultaDTO.of(lancamento), HttpStatus.CREATED);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	
+	@PostMapping(value = "/importacao", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity importar(@RequestBody List<LancamentoDTO> dtos) {
+		ResultadoImportacaoDTO resultado = importacaoService.importar(dtos);
+		return ResponseEntity.ok(resultado);
+	}
+	
+	
+	@PostMapping(value = "/importacao", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public ResponseEntity importarCsv(@RequestParam("arquivo") MultipartFile arquivo) throws IOException {
+		try (InputStream conteudo = arquivo.getInputStream()) {
+			ResultadoImportacaoDTO resultado = importacaoService.importarCsv(conteudo);
+			return ResponseEntity.ok(resultado);
 		} catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
@@ -92,29 +252,85 @@ public class LancamentoController {
 	public ResponseEntity atualizar( @PathVariable("id") Long id, @RequestBody LancamentoDTO dto) {
 		return service.findLancamentoById(id).map( entity -> {
 			try {
+				UsuarioAutenticado.verificarDono(entity.getUsuario().getId());
 				Lancamento lanc = converter(dto);
 				lanc.setId(entity.getId());
+				lanc.setVersao(entity.getVersao());
+				// não vêm no DTO: a chave mantém a reimportação idempotente
+				lanc.setChaveImportacao(entity.getChaveImportacao());
+				lanc.setDataCadastro(entity.getDataCadastro());
 				service.atualizar(lanc);
-				return ResponseEntity.ok(lanc);
+				return ResponseEntity.ok(LancamentoConsultaDTO.of(lanc));
 			}catch (RegraNegocioException e) {
 				return ResponseEntity.badRequest().body(e.getMessage());
+			} catch (AcessoNegadoException e) {
+				return new ResponseEntity(e.getMessage(), HttpStatus.FORBIDDEN);
+			} catch (OptimisticLockingFailureException e) {
+				return new ResponseEntity(ALTERADO_EM_PARALELO, HttpStatus.CONFLICT);
 			}
-		}).orElseGet( () -> 
-			new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST));
+		}).orElseGet( () -> naoEncontrado(id));
+	}
+	
+	
+	@DeleteMapping
+	public ResponseEntity excluir(FiltroLancamentoDTO filtro) {
+		if(filtro.getUsuario() == null) {
+			return ResponseEntity.badRequest().body(USUARIO_OBRIGATORIO);
+		}
+		try {
+			return ResponseEntity.ok(new ResultadoLoteDTO(service.excluir(filtro), service.contarArquivados(filtro)));
+		} catch (OptimisticLockingFailureException e) {
+			return new ResponseEntity(ALTERADO_EM_PARALELO, HttpStatus.CONFLICT);
+		}
+	}
+	
+	
+	/**
+	 * Os eventos continuam disponíveis depois da exclusão, então o dono é conferido pelos próprios eventos.
+	 */
+	@GetMapping("{id}/eventos")
+	public ResponseEntity listarEventos(@PathVariable("id") Long id) {
+		List<EventoLancamento> eventos = eventoService.listar(id);
+		try {
+			for(EventoLancamento evento : eventos) {
+				UsuarioAutenticado.verificarDono(evento.getIdUsuario() == null ? evento.getIdUsuarioAnterior() : evento.getIdUsuario());
+			}
+		} catch (AcessoNegadoException e) {
+			return new ResponseEntity(e.getMessage(), HttpStatus.FORBIDDEN);
+		}
+		return ResponseEntity.ok(eventos);
 	}
 	
 	
 	@DeleteMapping("{id}")
 	public ResponseEntity deletar(@PathVariable Long id) {
 		return service.findLancamentoById(id).map( entity -> {
+			try {
+				UsuarioAutenticado.verificarDono(entity.getUsuario().getId());
+			} catch (AcessoNegadoException e) {
+				return new ResponseEntity(e.getMessage(), HttpStatus.FORBIDDEN);
+			}
 			service.deletar(entity);
 			return new ResponseEntity(HttpStatus.NO_CONTENT);
-		}).orElseGet( () -> 
-			new ResponseEntity("Lançamento não encontrado na base de dados", HttpStatus.BAD_REQUEST));
+		}).orElseGet( () -> naoEncontrado(id));
 	}
 	
 	
-	private Lancamento converter(LancamentoDTO dto) {
+	// lançamentos movidos para o histórico continuam nas buscas, mas não podem mais ser alterados nem excluídos
+	private ResponseEntity naoEncontrado(Long id) {
+		Optional<Long> arquivado = service.obterUsuarioArquivado(id);
+		if(!arquivado.isPresent()) {
+			return new ResponseEntity(NAO_ENCONTRADO, HttpStatus.BAD_REQUEST);
+		}
+		try {
+			UsuarioAutenticado.verificarDono(arquivado.get());
+		} catch (AcessoNegadoException e) {
+			return new ResponseEntity(e.getMessage(), HttpStatus.FORBIDDEN);
+		}
+		return new ResponseEntity(HistoricoLancamentoService.ARQUIVADO, HttpStatus.BAD_REQUEST);
+	}
+	
+	Lancamento converter(LancamentoDTO dto) {
 		Lancamento lancamento = new Lancamento();
 		lancamento.setAno(dto.getAno());
 		lancamento.setDescricao(dto.getDescricao());
@@ -130,10 +346,16 @@ public class LancamentoController {
 		}
 
 		lancamento.setValor(dto.getValor());
-		Usuario usuario = usuarioService.findByUsuarioId(dto.getUsuario())
-					.orElseThrow(() -> new RegraNegocioException("Usuário não encontrado com este id!"));
-		lancamento.setUsuario(usuario);
+		lancamento.setUsuario(usuarioService.obterReferencia(UsuarioAutenticado.resolver(dto.getUsuario(), USUARIO_OBRIGATORIO)));
 		return lancamento;
 	}
+	
+	private static StatusLancamento converterStatus(String status) {
+		try {
+			return status == null ? null : StatusLancamento.valueOf(status);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
 
 }
@@ -0,0 +1,52 @@
+package com.ajeff.minhasfinancas.controller;
+
+import java.math.BigDecimal;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.exceptions.AcessoNegadoException;
+import com.ajeff.minhasfinancas.service.LancamentoReativoService;
+import com.ajeff.minhasfinancas.seguranca.UsuarioAutenticado;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/reativo")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "financas.leitura.reativa", havingValue = "true")
+public class LancamentoReativoController {
+
+	private final LancamentoReativoService service;
+	
+	@GetMapping(value = "/lancamentos", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+	public ResponseEntity<Flux<LancamentoConsultaDTO>> buscar(FiltroLancamentoDTO filtro) {
+		if(filtro.getUsuario() == null) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(service.buscar(filtro));
+	}
+	
+	@GetMapping("/usuarios/{id}/saldo")
+	public Mono<ResponseEntity<BigDecimal>> obterSaldo(@PathVariable Long id) {
+		try {
+			// o token fica nos atributos da requisição, que não chegam ao scheduler da consulta
+			UsuarioAutenticado.verificarDono(id);
+		} catch (AcessoNegadoException e) {
+			return Mono.just(new ResponseEntity<>(HttpStatus.FORBIDDEN));
+		}
+		return service.obterSaldo(id)
+				.map(ResponseEntity::ok)
+				.defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+	}
+}
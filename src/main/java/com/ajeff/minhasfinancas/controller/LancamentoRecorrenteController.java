@@ -0,0 +1,111 @@
+package com.ajeff.minhasfinancas.controller;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.stream.Collectors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ajeff.minhasfinancas.dto.LancamentoRecorrenteDTO;
+import com.ajeff.minhasfinancas.exceptions.AcessoNegadoException;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.model.entity.LancamentoRecorrente;
+import com.ajeff.minhasfinancas.model.enums.Periodicidade;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.seguranca.UsuarioAutenticado;
+import com.ajeff.minhasfinancas.service.LancamentoRecorrenteService;
+import com.ajeff.minhasfinancas.service.UsuarioService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/recorrencias")
+@RequiredArgsConstructor
+public class LancamentoRecorrenteController {
+
+	private static final String NAO_ENCONTRADO = "Lançamento recorrente não encontrado na base de dados";
+	
+	private final LancamentoRecorrenteService service;
+	private final UsuarioService usuarioService;
+	
+	@PostMapping
+	public ResponseEntity salvar(@RequestBody LancamentoRecorrenteDTO dto) {
+		try {
+			LancamentoRecorrente recorrente = service.salvar(converter(dto));
+			return new ResponseEntity(LancamentoRecorrenteDTO.of(recorrente), HttpStatus.CREATED);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	
+	@GetMapping
+	public ResponseEntity buscar(@RequestParam(value = "usuario", required = false) Long usuario) {
+		if(usuario == null) {
+			return ResponseEntity.badRequest().body("Informe o usuário!");
+		}
+		return ResponseEntity.ok(service.buscarPorUsuario(usuario).stream()
+				.map(LancamentoRecorrenteDTO::of)
+				.collect(Collectors.toList()));
+	}
+	
+	
+	@DeleteMapping("{id}")
+	public ResponseEntity excluir(@PathVariable("id") Long id) {
+		return service.obterPorId(id).map(entity -> {
+			try {
+				UsuarioAutenticado.verificarDono(entity.getUsuario().getId());
+			} catch (AcessoNegadoException e) {
+				return new ResponseEntity(e.getMessage(), HttpStatus.FORBIDDEN);
+			}
+			service.excluir(entity);
+			return new ResponseEntity(HttpStatus.NO_CONTENT);
+		}).orElseGet(() -> 
+			new ResponseEntity(NAO_ENCONTRADO, HttpStatus.BAD_REQUEST));
+	}
+	
+	
+	/**
+	 * Gera agora os lançamentos vencidos até o mês informado (yyyy-MM, padrão o mês atual), como faz o job diário.
+	 */
+	@PostMapping("/materializacao")
+	public ResponseEntity materializar(@RequestParam(value = "ate", required = false) String ate) {
+		try {
+			return ResponseEntity.ok(service.materializar(ate == null ? YearMonth.now() : YearMonth.parse(ate)));
+		} catch (DateTimeParseException e) {
+			return ResponseEntity.badRequest().body("Informe o mês no formato aaaa-mm!");
+		}
+	}
+	
+	
+	LancamentoRecorrente converter(LancamentoRecorrenteDTO dto) {
+		LancamentoRecorrente recorrente = new LancamentoRecorrente();
+		recorrente.setDescricao(dto.getDescricao());
+		recorrente.setValor(dto.getValor());
+		recorrente.setAnoInicial(dto.getAnoInicial());
+		recorrente.setMesInicial(dto.getMesInicial());
+		recorrente.setAnoFinal(dto.getAnoFinal());
+		recorrente.setMesFinal(dto.getMesFinal());
+		recorrente.setTipo(converterEnum(TipoLancamento.class, dto.getTipo(), "Informe um tipo de lançamento!"));
+		recorrente.setPeriodicidade(converterEnum(Periodicidade.class, dto.getPeriodicidade(), "Informe uma periodicidade válida!"));
+		recorrente.setUsuario(usuarioService.obterReferencia(UsuarioAutenticado.resolver(dto.getUsuario(), "Informe o usuário!")));
+		return recorrente;
+	}
+	
+	private static <E extends Enum<E>> E converterEnum(Class<E> tipo, String valor, String mensagem) {
+		try {
+			return valor == null ? null : Enum.valueOf(tipo, valor);
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException(mensagem);
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package com.ajeff.minhasfinancas.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ajeff.minhasfinancas.dto.ResultadoLoteDTO;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.service.ProjecaoLancamentoService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("/api/projecoes")
+@RequiredArgsConstructor
+public class ProjecaoController {
+
+	private final ProjecaoLancamentoService service;
+	
+	@GetMapping
+	public ResponseEntity listar() {
+		return ResponseEntity.ok(service.listarProjecoes());
+	}
+	
+	
+	@PostMapping("{nome}/reconstrucao")
+	public ResponseEntity reconstruir(@PathVariable("nome") String nome) {
+		try {
+			return ResponseEntity.ok(new ResultadoLoteDTO(service.reconstruir(nome)));
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+}
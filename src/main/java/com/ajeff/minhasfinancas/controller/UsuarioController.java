@@ -1,8 +1,12 @@
 package com.ajeff.minhasfinancas.controller;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,13 +14,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.ajeff.minhasfinancas.dto.AutenticacaoDTO;
+import com.ajeff.minhasfinancas.dto.RelatorioPeriodoDTO;
 import com.ajeff.minhasfinancas.dto.UsuarioDTO;
 import com.ajeff.minhasfinancas.exceptions.ErroValidacao;
 import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
 import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.seguranca.TokenAcesso;
+import com.ajeff.minhasfinancas.seguranca.UsuarioAutenticado;
 import com.ajeff.minhasfinancas.service.LancamentoService;
+import com.ajeff.minhasfinancas.service.ResumoMensalService;
 import com.ajeff.minhasfinancas.service.UsuarioService;
 
 import lombok.RequiredArgsConstructor;
@@ -28,44 +39,103 @@ public class UsuarioController {
 
 	private final UsuarioService service;
 	private final LancamentoService serviceUsuario;
+	private final ResumoMensalService resumoService;
+	private final ExecucaoConsultas consultas;
+	private final ExecucaoSenhas senhas;
+	private final TokenAcesso tokens;
 	
 
 	@PostMapping("/autenticar")
-	public ResponseEntity autenticar(@RequestBody UsuarioDTO dto) {
-		try {
-			Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-			return ResponseEntity.ok(usuarioAutenticado);
-		} catch (ErroValidacao e) {
-			return ResponseEntity.badRequest().body(e.getMessage());
-		}
+	public CompletableFuture<ResponseEntity> autenticar(@RequestBody UsuarioDTO dto) {
+		return senhas.executar(() -> {
+			try {
+				Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
+				String token = tokens.emitir(usuarioAutenticado.getId());
+				return ResponseEntity.ok(AutenticacaoDTO.of(usuarioAutenticado, token, tokens.getValidade().getSeconds()));
+			} catch (ErroValidacao e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			}
+		});
 	}
 	
 	
 	@PostMapping
-	public ResponseEntity salvar ( @RequestBody UsuarioDTO dto) {
+	public CompletableFuture<ResponseEntity> salvar ( @RequestBody UsuarioDTO dto) {
 		Usuario usuario = Usuario.builder().nome(dto.getNome()).email(dto.getEmail()).senha(dto.getSenha()).build();
 		
+		return senhas.executar(() -> {
+			try {
+				Usuario usuarioSalvo = service.salvar(usuario);
+				return new ResponseEntity(usuarioSalvo, HttpStatus.CREATED);
+			} catch (RegraNegocioException e) {
+				return ResponseEntity.badRequest().body(e.getMessage());
+			}
+		});
+	}
+	
+	@GetMapping("{id}/saldo")
+	public CompletableFuture<ResponseEntity> obterSaldo(@PathVariable Long id, WebRequest request) {
+		
+		if(!existe(id)){
+			return CompletableFuture.completedFuture(new ResponseEntity(HttpStatus.NOT_FOUND));
+		}
+		if(VersaoEtag.naoModificado(request, serviceUsuario.obterVersaoUsuario(id).orElse(null))) {
+			return null;
+		}
+		
+		return consultas.executar(() -> {
+			BigDecimal saldo = serviceUsuario.obterSaldoPorUsuario(id);
+			return ResponseEntity.ok(saldo);
+		});
+	}
+	
+	@GetMapping("{id}/relatorios/mensal")
+	public ResponseEntity relatorioMensal(@PathVariable Long id, 
+				@RequestParam(value = "de", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth de,
+				@RequestParam(value = "ate", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth ate,
+				WebRequest request) {
+		
+		if(!existe(id)){
+			return new ResponseEntity(HttpStatus.NOT_FOUND);
+		}
+		if(VersaoEtag.naoModificado(request, serviceUsuario.obterVersaoUsuario(id).orElse(null))) {
+			return null;
+		}
+		
+		YearMonth fim = ate == null ? YearMonth.now() : ate;
+		YearMonth inicio = de == null ? fim.minusMonths(11) : de;
 		try {
-			Usuario usuarioSalvo = service.salvar(usuario);
-			return new ResponseEntity(usuarioSalvo, HttpStatus.CREATED);
+			List<RelatorioPeriodoDTO> relatorio = resumoService.relatorioMensal(id, inicio, fim);
+			return ResponseEntity.ok(relatorio);
 		} catch (RegraNegocioException e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
 		}
-		
 	}
 	
-	@GetMapping("{id}/saldo")
-	public ResponseEntity obterSaldo(@PathVariable Long id) {
+	@GetMapping("{id}/relatorios/anual")
+	public ResponseEntity relatorioAnual(@PathVariable Long id, @RequestParam(value = "de", required = false) Integer de,
+				@RequestParam(value = "ate", required = false) Integer ate, WebRequest request) {
 		
-		Optional<Usuario> usuario = service.findByUsuarioId(id);
-		
-		if(!usuario.isPresent()){
+		if(!existe(id)){
 			return new ResponseEntity(HttpStatus.NOT_FOUND);
 		}
+		if(VersaoEtag.naoModificado(request, serviceUsuario.obterVersaoUsuario(id).orElse(null))) {
+			return null;
+		}
 		
-		BigDecimal saldo = serviceUsuario.obterSaldoPorUsuario(id);
-		return ResponseEntity.ok(saldo);
+		int fim = ate == null ? Year.now().getValue() : ate;
+		int inicio = de == null ? fim - 4 : de;
+		try {
+			List<RelatorioPeriodoDTO> relatorio = resumoService.relatorioAnual(id, inicio, fim);
+			return ResponseEntity.ok(relatorio);
+		} catch (RegraNegocioException e) {
+			return ResponseEntity.badRequest().body(e.getMessage());
+		}
+	}
+	
+	
+	private boolean existe(Long id) {
+		return UsuarioAutenticado.eh(id) || service.findByUsuarioId(id).isPresent();
 	}
-
 
 }
@@ -0,0 +1,72 @@
+package com.ajeff.minhasfinancas.controller;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * ETag das consultas de um usuário: a versão dos dados do usuário mais os parâmetros da requisição e o formato
+ * negociado pelo Accept, já que JSON, compacto e MessagePack são representações diferentes dos mesmos dados.
+ * Quando o cliente envia o mesmo valor em If-None-Match a resposta é 304, sem consultar nem serializar.
+ */
+final class VersaoEtag {
+
+	private VersaoEtag() {
+	}
+	
+	static boolean naoModificado(WebRequest request, Long versao) {
+		if(request instanceof NativeWebRequest) {
+			HttpServletResponse response = ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class);
+			if(response != null && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+				response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+			}
+		}
+		if(versao == null) {
+			return false;
+		}
+		StringBuilder parametros = new StringBuilder();
+		new TreeMap<>(request.getParameterMap()).forEach((nome, valores) ->
+			parametros.append(nome).append('=').append(String.join(",", valores)).append('&'));
+		parametros.append(formato(request));
+		return request.checkNotModified(versao + "-" + Integer.toHexString(parametros.toString().hashCode()));
+	}
+	
+	/**
+	 * O primeiro formato do produces do endpoint aceito pelo cliente, na ordem de preferência do Accept.
+	 */
+	@SuppressWarnings("unchecked")
+	private static String formato(WebRequest request) {
+		Set<MediaType> produzidos = (Set<MediaType>) request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE,
+				RequestAttributes.SCOPE_REQUEST);
+		if(produzidos == null || produzidos.isEmpty()) {
+			return "";
+		}
+		List<MediaType> aceitos;
+		try {
+			String accept = request.getHeader(HttpHeaders.ACCEPT);
+			aceitos = accept == null ? Collections.singletonList(MediaType.ALL) : MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException e) {
+			return "";
+		}
+		MediaType.sortBySpecificityAndQuality(aceitos);
+		for(MediaType aceito : aceitos) {
+			for(MediaType produzido : produzidos) {
+				if(aceito.isCompatibleWith(produzido)) {
+					return produzido.toString();
+				}
+			}
+		}
+		return "";
+	}
+}
@@ -0,0 +1,37 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lançamento criado ou alterado, ou só o id quando foi excluído, na posição (alteracao, id) da sincronização.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlteracaoLancamentoDTO {
+
+	private Long alteracao;
+	private Long id;
+	private LancamentoConsultaDTO lancamento;
+	
+	public AlteracaoLancamentoDTO(Long alteracao, Long id) {
+		this(alteracao, id, null);
+	}
+	
+	public AlteracaoLancamentoDTO(Long alteracao, Long id, String descricao, Integer mes, Integer ano, Long usuario, BigDecimal valor,
+				LocalDate dataCadastro, TipoLancamento tipo, StatusLancamento status) {
+		this(alteracao, id, new LancamentoConsultaDTO(id, descricao, mes, ano, usuario, valor, dataCadastro, tipo, status));
+	}
+	
+	public boolean isExcluido() {
+		return lancamento == null;
+	}
+}
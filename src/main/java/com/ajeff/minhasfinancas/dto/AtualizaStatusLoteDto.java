@@ -0,0 +1,17 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AtualizaStatusLoteDto {
+	
+	private List<Long> ids;
+	private String status;
+
+}
@@ -0,0 +1,25 @@
+package com.ajeff.minhasfinancas.dto;
+
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AutenticacaoDTO {
+
+	private Long id;
+	private String nome;
+	private String email;
+	private String token;
+	private long expiraEmSegundos;
+	
+	public static AutenticacaoDTO of(Usuario usuario, String token, long expiraEmSegundos) {
+		return new AutenticacaoDTO(usuario.getId(), usuario.getNome(), usuario.getEmail(), token, expiraEmSegundos);
+	}
+}
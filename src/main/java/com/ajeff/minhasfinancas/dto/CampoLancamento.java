@@ -0,0 +1,98 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.util.StringUtils;
+
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Campos de {@link LancamentoConsultaDTO} que podem ser pedidos no parâmetro fields, na ordem em que são escritos,
+ * com o atributo da entidade de onde cada um é lido.
+ */
+public enum CampoLancamento {
+
+	ID("id", "id", LancamentoConsultaDTO::getId, (l, v) -> l.setId((Long) v)),
+	DESCRICAO("descricao", "descricao", LancamentoConsultaDTO::getDescricao, (l, v) -> l.setDescricao((String) v)),
+	MES("mes", "mes", LancamentoConsultaDTO::getMes, (l, v) -> l.setMes((Integer) v)),
+	ANO("ano", "ano", LancamentoConsultaDTO::getAno, (l, v) -> l.setAno((Integer) v)),
+	USUARIO("usuario", "usuario.id", LancamentoConsultaDTO::getUsuario, (l, v) -> l.setUsuario((Long) v)),
+	VALOR("valor", "valor", LancamentoConsultaDTO::getValor, (l, v) -> l.setValor((BigDecimal) v)),
+	DATA_CADASTRO("dataCadastro", "dataCadastro", LancamentoConsultaDTO::getDataCadastro, (l, v) -> l.setDataCadastro((LocalDate) v)),
+	TIPO("tipo", "tipo", LancamentoConsultaDTO::getTipo, (l, v) -> l.setTipo((TipoLancamento) v)),
+	STATUS("status", "status", LancamentoConsultaDTO::getStatus, (l, v) -> l.setStatus((StatusLancamento) v));
+	
+	private static final Set<CampoLancamento> ORDENACAO = Collections.unmodifiableSet(EnumSet.of(ID, MES, ANO));
+	
+	private final String nome;
+	private final String atributo;
+	private final Function<LancamentoConsultaDTO, Object> leitor;
+	private final BiConsumer<LancamentoConsultaDTO, Object> escritor;
+	
+	CampoLancamento(String nome, String atributo, Function<LancamentoConsultaDTO, Object> leitor, BiConsumer<LancamentoConsultaDTO, Object> escritor) {
+		this.nome = nome;
+		this.atributo = atributo;
+		this.leitor = leitor;
+		this.escritor = escritor;
+	}
+	
+	public String getNome() {
+		return nome;
+	}
+	
+	public String getAtributo() {
+		return atributo;
+	}
+	
+	public Object ler(LancamentoConsultaDTO lancamento) {
+		return leitor.apply(lancamento);
+	}
+	
+	public void escrever(LancamentoConsultaDTO lancamento, Object valor) {
+		escritor.accept(lancamento, valor);
+	}
+	
+	/**
+	 * Converte a lista separada por vírgulas do parâmetro fields; vazia retorna null, que significa todos os campos.
+	 */
+	public static Set<CampoLancamento> converter(String campos) {
+		if(!StringUtils.hasText(campos)) {
+			return null;
+		}
+		Set<CampoLancamento> convertidos = EnumSet.noneOf(CampoLancamento.class);
+		for(String nome : StringUtils.commaDelimitedListToStringArray(campos)) {
+			convertidos.add(porNome(nome.trim()));
+		}
+		return Collections.unmodifiableSet(convertidos);
+	}
+	
+	/**
+	 * Acrescenta ano, mês e id, necessários para intercalar resultados ordenados de mais de uma tabela.
+	 */
+	public static Set<CampoLancamento> comOrdenacao(Set<CampoLancamento> campos) {
+		if(campos == null || campos.containsAll(ORDENACAO)) {
+			return campos;
+		}
+		Set<CampoLancamento> comOrdenacao = EnumSet.copyOf(ORDENACAO);
+		comOrdenacao.addAll(campos);
+		return Collections.unmodifiableSet(comOrdenacao);
+	}
+	
+	
+	private static CampoLancamento porNome(String nome) {
+		for(CampoLancamento campo : values()) {
+			if(campo.nome.equals(nome)) {
+				return campo;
+			}
+		}
+		throw new RegraNegocioException("Campo inválido: " + nome);
+	}
+}
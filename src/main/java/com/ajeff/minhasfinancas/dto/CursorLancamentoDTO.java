@@ -0,0 +1,41 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorLancamentoDTO {
+
+	private Integer ano;
+	private Integer mes;
+	private Long id;
+	
+	public static CursorLancamentoDTO of(LancamentoConsultaDTO lancamento) {
+		return new CursorLancamentoDTO(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+	}
+	
+	public static CursorLancamentoDTO decodificar(String cursor) {
+		if(cursor == null || cursor.trim().isEmpty()) {
+			return null;
+		}
+		try {
+			String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+			return new CursorLancamentoDTO(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			throw new RegraNegocioException("Cursor de paginação inválido!");
+		}
+	}
+	
+	public String codificar() {
+		String valor = ano + ":" + mes + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,40 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorSincronizacaoDTO {
+
+	private Long alteracao;
+	private Long id;
+	
+	public static CursorSincronizacaoDTO of(AlteracaoLancamentoDTO alteracao) {
+		return new CursorSincronizacaoDTO(alteracao.getAlteracao(), alteracao.getId());
+	}
+	
+	public static CursorSincronizacaoDTO decodificar(String cursor) {
+		if(cursor == null || cursor.trim().isEmpty()) {
+			return null;
+		}
+		try {
+			String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+			return new CursorSincronizacaoDTO(Long.valueOf(partes[0]), Long.valueOf(partes[1]));
+		} catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+			throw new RegraNegocioException("Cursor de sincronização inválido!");
+		}
+	}
+	
+	public String codificar() {
+		String valor = alteracao + ":" + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+	}
+}
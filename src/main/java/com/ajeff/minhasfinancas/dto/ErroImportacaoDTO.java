@@ -0,0 +1,14 @@
+package com.ajeff.minhasfinancas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ErroImportacaoDTO {
+
+	private long linha;
+	private String mensagem;
+}
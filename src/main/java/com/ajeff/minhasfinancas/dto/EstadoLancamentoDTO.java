@@ -0,0 +1,36 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.math.BigDecimal;
+
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EstadoLancamentoDTO {
+
+	private Long id;
+	private Long idUsuario;
+	private Integer ano;
+	private Integer mes;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private BigDecimal valor;
+	
+	public static EstadoLancamentoDTO of(Lancamento lancamento) {
+		Long idUsuario = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+		return new EstadoLancamentoDTO(lancamento.getId(), idUsuario, lancamento.getAno(), lancamento.getMes(),
+				lancamento.getTipo(), lancamento.getStatus(), lancamento.getValor());
+	}
+	
+	public static EstadoLancamentoDTO of(LancamentoConsultaDTO lancamento) {
+		return new EstadoLancamentoDTO(lancamento.getId(), lancamento.getUsuario(), lancamento.getAno(), lancamento.getMes(),
+				lancamento.getTipo(), lancamento.getStatus(), lancamento.getValor());
+	}
+}
@@ -0,0 +1,34 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FiltroLancamentoDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long usuario;
+	private Integer ano;
+	private Integer mes;
+	private Integer anoInicial;
+	private Integer mesInicial;
+	private Integer anoFinal;
+	private Integer mesFinal;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	private BigDecimal valorMinimo;
+	private BigDecimal valorMaximo;
+	private String descricao;
+}
@@ -0,0 +1,39 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LancamentoConsultaDTO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private Long id;
+	private String descricao;
+	private Integer mes;
+	private Integer ano;
+	private Long usuario;
+	private BigDecimal valor;
+	private LocalDate dataCadastro;
+	private TipoLancamento tipo;
+	private StatusLancamento status;
+	
+	public static LancamentoConsultaDTO of(Lancamento lancamento) {
+		Long idUsuario = lancamento.getUsuario() == null ? null : lancamento.getUsuario().getId();
+		return new LancamentoConsultaDTO(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(), lancamento.getAno(),
+				idUsuario, lancamento.getValor(), lancamento.getDataCadastro(), lancamento.getTipo(), lancamento.getStatus());
+	}
+}
@@ -0,0 +1,47 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.math.BigDecimal;
+
+import com.ajeff.minhasfinancas.model.entity.LancamentoRecorrente;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LancamentoRecorrenteDTO {
+
+	private Long id;
+	private String descricao;
+	private BigDecimal valor;
+	private Long usuario;
+	private String tipo;
+	private String periodicidade;
+	private Integer anoInicial;
+	private Integer mesInicial;
+	private Integer anoFinal;
+	private Integer mesFinal;
+	private Integer proximoAno;
+	private Integer proximoMes;
+	
+	public static LancamentoRecorrenteDTO of(LancamentoRecorrente recorrente) {
+		return LancamentoRecorrenteDTO.builder()
+				.id(recorrente.getId())
+				.descricao(recorrente.getDescricao())
+				.valor(recorrente.getValor())
+				.usuario(recorrente.getUsuario() == null ? null : recorrente.getUsuario().getId())
+				.tipo(recorrente.getTipo() == null ? null : recorrente.getTipo().name())
+				.periodicidade(recorrente.getPeriodicidade() == null ? null : recorrente.getPeriodicidade().name())
+				.anoInicial(recorrente.getAnoInicial())
+				.mesInicial(recorrente.getMesInicial())
+				.anoFinal(recorrente.getAnoFinal())
+				.mesFinal(recorrente.getMesFinal())
+				.proximoAno(recorrente.getProximoAno())
+				.proximoMes(recorrente.getProximoMes())
+				.build();
+	}
+}
@@ -0,0 +1,29 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.util.List;
+import java.util.Set;
+
+import com.ajeff.minhasfinancas.serializacao.ListaLancamentosSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Resultado da busca de lançamentos. Em JSON é a lista, só com os campos pedidos quando há campos; o tipo próprio
+ * permite que os formatos compactos reconheçam a resposta mesmo quando ela volta de uma execução assíncrona.
+ */
+@Getter
+@AllArgsConstructor
+@JsonSerialize(using = ListaLancamentosSerializer.class)
+public class ListaLancamentosDTO {
+
+	private final List<LancamentoConsultaDTO> lancamentos;
+	
+	/** Campos a escrever; null escreve todos. */
+	private final Set<CampoLancamento> campos;
+	
+	public ListaLancamentosDTO(List<LancamentoConsultaDTO> lancamentos) {
+		this(lancamentos, null);
+	}
+}
@@ -0,0 +1,17 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.util.List;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaLancamentoDTO {
+
+	private List<LancamentoConsultaDTO> lancamentos;
+	private String proximoCursor;
+}
@@ -0,0 +1,37 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.math.BigDecimal;
+
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RelatorioPeriodoDTO {
+
+	private Integer ano;
+	private Integer mes;
+	private BigDecimal receitas;
+	private BigDecimal despesas;
+	private BigDecimal saldo;
+	
+	public RelatorioPeriodoDTO(Integer ano, Integer mes) {
+		this(ano, mes, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+	}
+	
+	public void adicionar(TipoLancamento tipo, BigDecimal valor) {
+		if(tipo == TipoLancamento.RECEITA) {
+			receitas = receitas.add(valor);
+			saldo = saldo.add(valor);
+		} else {
+			despesas = despesas.add(valor);
+			saldo = saldo.subtract(valor);
+		}
+	}
+}
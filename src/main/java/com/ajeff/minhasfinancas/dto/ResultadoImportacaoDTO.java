@@ -0,0 +1,19 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoImportacaoDTO {
+
+	private int recebidos;
+	private int importados;
+	private List<ErroImportacaoDTO> erros;
+}
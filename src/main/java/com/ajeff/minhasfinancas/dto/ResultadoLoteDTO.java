@@ -0,0 +1,25 @@
+package com.ajeff.minhasfinancas.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoLoteDTO {
+
+	private long afetados;
+	
+	/**
+	 * Lançamentos do filtro que já estão no histórico e ficaram de fora da operação.
+	 */
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long arquivados;
+	
+	public ResultadoLoteDTO(long afetados) {
+		this.afetados = afetados;
+	}
+}
@@ -0,0 +1,20 @@
+package com.ajeff.minhasfinancas.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResultadoRecorrenciaDTO {
+
+	private boolean executada;
+	private long modelos;
+	private long lancamentos;
+	private int falhas;
+	private long milissegundos;
+	private long lancamentosPorSegundo;
+}
@@ -0,0 +1,22 @@
+package com.ajeff.minhasfinancas.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lançamentos criados ou alterados e ids excluídos depois do cursor informado. Enquanto completo for falso
+ * há mais alterações a partir do novo cursor.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SincronizacaoLancamentoDTO {
+
+	private List<LancamentoConsultaDTO> alterados;
+	private List<Long> excluidos;
+	private String cursor;
+	private boolean completo;
+}
@@ -0,0 +1,11 @@
+package com.ajeff.minhasfinancas.exceptions;
+
+public class AcessoNegadoException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+
+	public AcessoNegadoException (String msg) {
+		super(msg);
+	}
+
+}
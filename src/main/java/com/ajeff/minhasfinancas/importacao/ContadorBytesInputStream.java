@@ -0,0 +1,48 @@
+package com.ajeff.minhasfinancas.importacao;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class ContadorBytesInputStream extends FilterInputStream {
+
+	private volatile long bytesLidos;
+	
+	public ContadorBytesInputStream(InputStream in) {
+		super(in);
+	}
+	
+	@Override
+	public int read() throws IOException {
+		int lido = super.read();
+		if(lido >= 0) {
+			bytesLidos++;
+		}
+		return lido;
+	}
+	
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int lidos = super.read(b, off, len);
+		if(lidos > 0) {
+			bytesLidos += lidos;
+		}
+		return lidos;
+	}
+	
+	@Override
+	public long skip(long n) throws IOException {
+		long ignorados = super.skip(n);
+		bytesLidos += ignorados;
+		return ignorados;
+	}
+	
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+	
+	public long getBytesLidos() {
+		return bytesLidos;
+	}
+}
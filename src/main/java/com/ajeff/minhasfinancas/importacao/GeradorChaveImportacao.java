@@ -0,0 +1,124 @@
+package com.ajeff.minhasfinancas.importacao;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Chave de importação das transações de um extrato. Usa o identificador da transação (FITID) quando o banco
+ * informa um. Sem ele, a chave vem do conteúdo da transação e de quantas vezes esse mesmo conteúdo já apareceu
+ * no arquivo, para que duas compras idênticas no mesmo dia continuem sendo dois lançamentos mesmo com o arquivo
+ * fora da ordem de data.
+ * Só as contagens da data atual ficam em memória: quando a data muda, as da anterior vão para um arquivo temporário
+ * e voltam de lá se a data reaparecer, então a memória depende das transações de um dia, não do tamanho do arquivo.
+ */
+public class GeradorChaveImportacao implements Closeable {
+	
+	private final Map<String, Integer> ocorrencias = new HashMap<>();
+	private final Map<LocalDate, Long> posicoes = new HashMap<>();
+	private LocalDate data;
+	private Path arquivo;
+	private RandomAccessFile descarte;
+	
+	public String gerar(TransacaoExtrato transacao) throws IOException {
+		if(transacao.getIdentificador() != null) {
+			return sha256("id|" + transacao.getIdentificador());
+		}
+		if(!transacao.getData().equals(data)) {
+			trocarData(transacao.getData());
+		}
+		BigDecimal valor = transacao.getValor().stripTrailingZeros();
+		String conteudo = transacao.getData() + "|" + valor.toPlainString() + "|" + transacao.getDescricao();
+		int ocorrencia = ocorrencias.merge(conteudo, 1, Integer::sum);
+		return sha256(conteudo + "|" + ocorrencia);
+	}
+	
+	/**
+	 * Contagens mantidas em memória: conteúdos da data atual mais a posição de cada data já descartada.
+	 */
+	int getContagens() {
+		return ocorrencias.size() + posicoes.size();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		if(descarte != null) {
+			descarte.close();
+			Files.deleteIfExists(arquivo);
+		}
+	}
+	
+	private void trocarData(LocalDate nova) throws IOException {
+		if(data != null && !ocorrencias.isEmpty()) {
+			posicoes.put(data, descartar());
+		}
+		ocorrencias.clear();
+		data = nova;
+		Long posicao = posicoes.get(nova);
+		if(posicao != null) {
+			recuperar(posicao);
+		}
+	}
+	
+	// cada bloco tem o tamanho e as contagens da data; a data que reaparece é gravada de novo num bloco completo
+	private long descartar() throws IOException {
+		if(descarte == null) {
+			arquivo = Files.createTempFile("importacao-chaves-", ".tmp");
+			descarte = new RandomAccessFile(arquivo.toFile(), "rw");
+		}
+		ByteArrayOutputStream bloco = new ByteArrayOutputStream();
+		try (DataOutputStream saida = new DataOutputStream(bloco)) {
+			saida.writeInt(ocorrencias.size());
+			for(Map.Entry<String, Integer> ocorrencia : ocorrencias.entrySet()) {
+				byte[] conteudo = ocorrencia.getKey().getBytes(StandardCharsets.UTF_8);
+				saida.writeInt(conteudo.length);
+				saida.write(conteudo);
+				saida.writeInt(ocorrencia.getValue());
+			}
+		}
+		long posicao = descarte.length();
+		descarte.seek(posicao);
+		descarte.writeInt(bloco.size());
+		descarte.write(bloco.toByteArray());
+		return posicao;
+	}
+	
+	private void recuperar(long posicao) throws IOException {
+		descarte.seek(posicao);
+		byte[] bloco = new byte[descarte.readInt()];
+		descarte.readFully(bloco);
+		try (DataInputStream entrada = new DataInputStream(new ByteArrayInputStream(bloco))) {
+			for(int i = entrada.readInt(); i > 0; i--) {
+				byte[] conteudo = new byte[entrada.readInt()];
+				entrada.readFully(conteudo);
+				ocorrencias.put(new String(conteudo, StandardCharsets.UTF_8), entrada.readInt());
+			}
+		}
+	}
+	
+	private static String sha256(String texto) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(texto.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder(hash.length * 2);
+			for(byte b : hash) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
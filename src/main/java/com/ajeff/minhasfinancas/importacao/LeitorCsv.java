@@ -0,0 +1,98 @@
+package com.ajeff.minhasfinancas.importacao;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LeitorCsv implements Closeable {
+
+	private static final char ASPAS = '"';
+	private static final char BOM = '\uFEFF';
+	
+	private final BufferedReader reader;
+	private Character delimitador;
+	private long linha;
+	
+	public LeitorCsv(Reader reader) {
+		this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+	}
+	
+	public List<String> proximoRegistro() throws IOException {
+		String atual = proximaLinhaPreenchida();
+		if(atual == null) {
+			return null;
+		}
+		if(delimitador == null) {
+			delimitador = atual.indexOf(';') >= 0 ? ';' : ',';
+		}
+		
+		List<String> campos = new ArrayList<>();
+		StringBuilder campo = new StringBuilder();
+		boolean entreAspas = false;
+		while(true) {
+			for(int i = 0; i < atual.length(); i++) {
+				char c = atual.charAt(i);
+				if(entreAspas) {
+					if(c != ASPAS) {
+						campo.append(c);
+					} else if(i + 1 < atual.length() && atual.charAt(i + 1) == ASPAS) {
+						campo.append(ASPAS);
+						i++;
+					} else {
+						entreAspas = false;
+					}
+				} else if(c == ASPAS) {
+					entreAspas = true;
+				} else if(c == delimitador) {
+					campos.add(campo.toString().trim());
+					campo.setLength(0);
+				} else {
+					campo.append(c);
+				}
+			}
+			if(!entreAspas || (atual = reader.readLine()) == null) {
+				break;
+			}
+			linha++;
+			campo.append('\n');
+		}
+		campos.add(campo.toString().trim());
+		return campos;
+	}
+	
+	public static BigDecimal converterDecimal(String valor) {
+		String normalizado = valor.trim();
+		if(normalizado.indexOf(',') >= 0) {
+			normalizado = normalizado.replace(".", "").replace(',', '.');
+		}
+		return new BigDecimal(normalizado);
+	}
+	
+	public long getLinha() {
+		return linha;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+	
+	
+	private String proximaLinhaPreenchida() throws IOException {
+		String atual;
+		while((atual = reader.readLine()) != null) {
+			linha++;
+			if(linha == 1 && !atual.isEmpty() && atual.charAt(0) == BOM) {
+				atual = atual.substring(1);
+			}
+			if(!atual.trim().isEmpty()) {
+				return atual;
+			}
+		}
+		return null;
+	}
+}
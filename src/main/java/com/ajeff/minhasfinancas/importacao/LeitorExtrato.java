@@ -0,0 +1,14 @@
+package com.ajeff.minhasfinancas.importacao;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Lê as transações de um extrato uma a uma, sem carregar o arquivo em memória.
+ * Um registro inválido é consumido e reportado com {@link com.ajeff.minhasfinancas.exceptions.RegraNegocioException},
+ * permitindo que a leitura continue no registro seguinte.
+ */
+public interface LeitorExtrato extends Closeable {
+
+	TransacaoExtrato proxima() throws IOException;
+}
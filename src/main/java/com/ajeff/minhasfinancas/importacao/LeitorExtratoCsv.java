@@ -0,0 +1,74 @@
+package com.ajeff.minhasfinancas.importacao;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+
+public class LeitorExtratoCsv implements LeitorExtrato {
+
+	private static final DateTimeFormatter DATA_BRASILEIRA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+	
+	private final LeitorCsv leitor;
+	private final Map<String, Integer> colunas = new HashMap<>();
+	
+	public LeitorExtratoCsv(Reader reader) throws IOException {
+		this.leitor = new LeitorCsv(reader);
+		lerCabecalho();
+	}
+	
+	@Override
+	public TransacaoExtrato proxima() throws IOException {
+		List<String> registro = leitor.proximoRegistro();
+		if(registro == null) {
+			return null;
+		}
+		
+		String data = campo(registro, "data");
+		String valor = campo(registro, "valor");
+		if(data == null || valor == null) {
+			throw new RegraNegocioException("Linha " + leitor.getLinha() + ": informe a data e o valor da transação!");
+		}
+		try {
+			String descricao = campo(registro, "descricao");
+			return new TransacaoExtrato(converterData(data), LeitorCsv.converterDecimal(valor),
+					descricao == null ? campo(registro, "historico") : descricao, campo(registro, "id"));
+		} catch (DateTimeParseException | NumberFormatException e) {
+			throw new RegraNegocioException("Linha " + leitor.getLinha() + ": data ou valor inválido!");
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		leitor.close();
+	}
+	
+	
+	private void lerCabecalho() throws IOException {
+		List<String> cabecalho = leitor.proximoRegistro();
+		if(cabecalho == null) {
+			throw new RegraNegocioException("O arquivo informado está vazio!");
+		}
+		for(int i = 0; i < cabecalho.size(); i++) {
+			colunas.put(cabecalho.get(i).toLowerCase(), i);
+		}
+	}
+	
+	private String campo(List<String> registro, String nome) {
+		Integer indice = colunas.get(nome);
+		if(indice == null || indice >= registro.size() || registro.get(indice).isEmpty()) {
+			return null;
+		}
+		return registro.get(indice);
+	}
+	
+	private LocalDate converterData(String data) {
+		return data.indexOf('/') >= 0 ? LocalDate.parse(data, DATA_BRASILEIRA) : LocalDate.parse(data);
+	}
+}
@@ -0,0 +1,139 @@
+package com.ajeff.minhasfinancas.importacao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+
+/**
+ * Lê os blocos STMTTRN de arquivos OFX, tanto no formato SGML (1.x, sem tags de fechamento)
+ * quanto no XML (2.x). Somente a transação corrente é mantida em memória.
+ */
+public class LeitorOfx implements LeitorExtrato {
+
+	private static final int TAMANHO_CABECALHO = 1024;
+	private static final int TAMANHO_MAXIMO_TAG = 64;
+	private static final int TAMANHO_MAXIMO_VALOR = 1024;
+	private static final String TRANSACAO = "STMTTRN";
+	
+	private final BufferedReader reader;
+	private long transacao;
+	
+	public LeitorOfx(Reader reader) {
+		this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+	}
+	
+	public static LeitorOfx abrir(InputStream arquivo) throws IOException {
+		BufferedInputStream entrada = new BufferedInputStream(arquivo);
+		entrada.mark(TAMANHO_CABECALHO);
+		byte[] cabecalho = new byte[TAMANHO_CABECALHO];
+		int lidos = 0;
+		int atual;
+		while(lidos < cabecalho.length && (atual = entrada.read(cabecalho, lidos, cabecalho.length - lidos)) > 0) {
+			lidos += atual;
+		}
+		entrada.reset();
+		return new LeitorOfx(new InputStreamReader(entrada, detectarCharset(new String(cabecalho, 0, lidos, StandardCharsets.ISO_8859_1))));
+	}
+	
+	@Override
+	public TransacaoExtrato proxima() throws IOException {
+		Map<String, String> campos = null;
+		String tag;
+		while((tag = proximaTag()) != null) {
+			if(tag.equals(TRANSACAO)) {
+				campos = new HashMap<>();
+				transacao++;
+			} else if(campos != null && tag.equals("/" + TRANSACAO)) {
+				return converter(campos);
+			} else if(campos != null && !tag.startsWith("/")) {
+				String valor = lerValor();
+				if(!valor.isEmpty()) {
+					campos.put(tag, valor);
+				}
+			}
+		}
+		return null;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+	
+	
+	private static Charset detectarCharset(String cabecalho) {
+		String normalizado = cabecalho.toUpperCase();
+		if(normalizado.contains("CHARSET:1252")) {
+			return Charset.forName("windows-1252");
+		}
+		if(normalizado.contains("CHARSET:ISO-8859-1") || normalizado.contains("ENCODING=\"ISO-8859-1\"")) {
+			return StandardCharsets.ISO_8859_1;
+		}
+		return StandardCharsets.UTF_8;
+	}
+	
+	private TransacaoExtrato converter(Map<String, String> campos) {
+		String data = campos.get("DTPOSTED");
+		String valor = campos.get("TRNAMT");
+		if(data == null || data.length() < 8 || valor == null) {
+			throw new RegraNegocioException("Transação " + transacao + ": informe a data e o valor da transação!");
+		}
+		try {
+			String descricao = campos.get("MEMO");
+			return new TransacaoExtrato(LocalDate.parse(data.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE),
+					LeitorCsv.converterDecimal(valor), descricao == null ? campos.get("NAME") : descricao, campos.get("FITID"));
+		} catch (DateTimeParseException | NumberFormatException e) {
+			throw new RegraNegocioException("Transação " + transacao + ": data ou valor inválido!");
+		}
+	}
+	
+	private String proximaTag() throws IOException {
+		int c;
+		while((c = reader.read()) != -1 && c != '<') {
+			// ignora o texto fora das tags de interesse
+		}
+		if(c == -1) {
+			return null;
+		}
+		StringBuilder tag = new StringBuilder();
+		while((c = reader.read()) != -1 && c != '>') {
+			if(tag.length() < TAMANHO_MAXIMO_TAG) {
+				tag.append((char) c);
+			}
+		}
+		return tag.toString().trim().toUpperCase();
+	}
+	
+	private String lerValor() throws IOException {
+		StringBuilder valor = new StringBuilder();
+		reader.mark(1);
+		int c;
+		while((c = reader.read()) != -1 && c != '<') {
+			if(valor.length() < TAMANHO_MAXIMO_VALOR) {
+				valor.append((char) c);
+			}
+			reader.mark(1);
+		}
+		if(c == '<') {
+			reader.reset();
+		}
+		return valor.toString().trim()
+				.replace("&lt;", "<")
+				.replace("&gt;", ">")
+				.replace("&quot;", "\"")
+				.replace("&apos;", "'")
+				.replace("&amp;", "&");
+	}
+}
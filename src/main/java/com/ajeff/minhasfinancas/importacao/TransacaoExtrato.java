@@ -0,0 +1,17 @@
+package com.ajeff.minhasfinancas.importacao;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class TransacaoExtrato {
+
+	private LocalDate data;
+	private BigDecimal valor;
+	private String descricao;
+	private String identificador;
+}
@@ -0,0 +1,33 @@
+package com.ajeff.minhasfinancas.jobs;
+
+import java.time.YearMonth;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ajeff.minhasfinancas.service.HistoricoLancamentoService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class HistoricoLancamentoJob {
+
+	private final HistoricoLancamentoService service;
+	private final int meses;
+	
+	public HistoricoLancamentoJob(HistoricoLancamentoService service, @Value("${financas.historico.meses:0}") int meses) {
+		this.service = service;
+		this.meses = meses;
+	}
+	
+	@Scheduled(cron = "${financas.historico.cron:0 30 3 * * *}")
+	public void mover() {
+		if(meses < 1) {
+			return;
+		}
+		YearMonth ate = YearMonth.now().minusMonths(meses);
+		log.info("Lançamentos encerrados até {} movidos para o histórico: {}", ate, service.mover(ate));
+	}
+}
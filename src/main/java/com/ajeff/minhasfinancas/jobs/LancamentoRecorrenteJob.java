@@ -0,0 +1,24 @@
+package com.ajeff.minhasfinancas.jobs;
+
+import java.time.YearMonth;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ajeff.minhasfinancas.service.LancamentoRecorrenteService;
+
+import lombok.RequiredArgsConstructor;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "financas.recorrencias.ativas", havingValue = "true")
+public class LancamentoRecorrenteJob {
+
+	private final LancamentoRecorrenteService service;
+	
+	@Scheduled(cron = "${financas.recorrencias.cron:0 0 2 * * *}")
+	public void materializar() {
+		service.materializar(YearMonth.now());
+	}
+}
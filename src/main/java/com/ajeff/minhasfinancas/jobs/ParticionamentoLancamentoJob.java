@@ -0,0 +1,46 @@
+package com.ajeff.minhasfinancas.jobs;
+
+import java.time.Year;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ajeff.minhasfinancas.service.ParticionamentoLancamentoService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+public class ParticionamentoLancamentoJob {
+
+	private final ParticionamentoLancamentoService service;
+	private final int anosRetidos;
+	
+	public ParticionamentoLancamentoJob(ParticionamentoLancamentoService service,
+				@Value("${financas.particionamento.anos-retidos:0}") int anosRetidos) {
+		this.service = service;
+		this.anosRetidos = anosRetidos;
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(cron = "${financas.particionamento.cron:0 0 2 1 * *}")
+	public void manter() {
+		if(!service.isParticionado()) {
+			return;
+		}
+		List<Integer> criadas = service.criarParticoesFuturas();
+		if(!criadas.isEmpty()) {
+			log.info("Partições de lançamentos criadas: {}", criadas);
+		}
+		if(anosRetidos > 0) {
+			int limite = Year.now().getValue() - anosRetidos;
+			service.listarAnosParticionados().stream()
+				.filter(ano -> ano < limite)
+				.forEach(service::arquivar);
+		}
+	}
+}
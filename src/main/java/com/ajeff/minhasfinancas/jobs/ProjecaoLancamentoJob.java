@@ -0,0 +1,27 @@
+package com.ajeff.minhasfinancas.jobs;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ajeff.minhasfinancas.service.ProjecaoLancamentoService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "financas.projecoes.ativas", havingValue = "true")
+public class ProjecaoLancamentoJob {
+
+	private final ProjecaoLancamentoService service;
+	
+	@Scheduled(fixedDelayString = "${financas.projecoes.intervalo:5000}")
+	public void processar() {
+		long aplicados = service.processar();
+		if(aplicados > 0) {
+			log.debug("Eventos de lançamento aplicados às projeções: {}", aplicados);
+		}
+	}
+}
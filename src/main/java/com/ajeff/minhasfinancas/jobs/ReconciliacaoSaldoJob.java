@@ -0,0 +1,37 @@
+package com.ajeff.minhasfinancas.jobs;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.ajeff.minhasfinancas.service.ResumoMensalService;
+import com.ajeff.minhasfinancas.service.SaldoUsuarioService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReconciliacaoSaldoJob {
+
+	private final SaldoUsuarioService service;
+	private final ResumoMensalService resumoService;
+	
+	// a falha de um usuário não interrompe os demais; ele é reconciliado de novo na próxima execução
+	@Scheduled(cron = "${financas.saldo.reconciliacao.cron:0 0 3 * * *}")
+	public void reconciliar() {
+		int total = 0;
+		int falhas = 0;
+		for(Long idUsuario : service.listarUsuarios()) {
+			try {
+				service.reconciliar(idUsuario);
+				resumoService.reconciliar(idUsuario);
+				total++;
+			} catch (RuntimeException e) {
+				falhas++;
+				log.warn("Falha ao reconciliar o usuário {}: {}", idUsuario, e.getMessage());
+			}
+		}
+		log.info("Saldos e resumos mensais reconciliados: {}, falhas: {}", total, falhas);
+	}
+}
@@ -0,0 +1,71 @@
+package com.ajeff.minhasfinancas.metricas;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Tempo e quantidade de chamadas dos serviços de lançamento e usuário e de todos os repositórios,
+ * com tags da classe, do método e da exceção lançada ("none" quando não houve).
+ * As requisições aos controllers já são medidas pelo actuator em http.server.requests.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricasAspect {
+
+	public static final String METRICA_SERVICO = "financas.servico";
+	public static final String METRICA_REPOSITORIO = "financas.repositorio";
+	
+	private static final String PACOTE = "com.ajeff.minhasfinancas";
+	
+	private final MeterRegistry registry;
+	private final Map<Class<?>, String> repositorios = new ConcurrentHashMap<>();
+	
+	@Around("execution(public * com.ajeff.minhasfinancas.services.impl.LancamentoServiceImpl.*(..))"
+			+ " || execution(public * com.ajeff.minhasfinancas.services.impl.UsuarioServiceImpl.*(..))")
+	public Object medirServico(ProceedingJoinPoint ponto) throws Throwable {
+		return medir(ponto, METRICA_SERVICO, ClassUtils.getUserClass(ponto.getTarget()).getSimpleName());
+	}
+	
+	@Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+	public Object medirRepositorio(ProceedingJoinPoint ponto) throws Throwable {
+		return medir(ponto, METRICA_REPOSITORIO, repositorios.computeIfAbsent(ponto.getTarget().getClass(), MetricasAspect::nomeRepositorio));
+	}
+	
+	
+	private Object medir(ProceedingJoinPoint ponto, String metrica, String classe) throws Throwable {
+		Timer.Sample inicio = Timer.start(registry);
+		String excecao = "none";
+		try {
+			return ponto.proceed();
+		} catch (Throwable e) {
+			excecao = e.getClass().getSimpleName();
+			throw e;
+		} finally {
+			inicio.stop(Timer.builder(metrica)
+					.tag("classe", classe)
+					.tag("metodo", ponto.getSignature().getName())
+					.tag("excecao", excecao)
+					.register(registry));
+		}
+	}
+	
+	private static String nomeRepositorio(Class<?> proxy) {
+		return ClassUtils.getAllInterfacesForClassAsSet(proxy).stream()
+				.filter(tipo -> Repository.class.isAssignableFrom(tipo) && tipo.getName().startsWith(PACOTE))
+				.map(Class::getSimpleName)
+				.findFirst()
+				.orElse(proxy.getSimpleName());
+	}
+}
@@ -0,0 +1,27 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ano cuja partição de lançamentos foi arquivada: os lançamentos não estão mais em financas.lancamento,
+ * então os resumos mensais do ano não podem ser recalculados e a reconciliação os mantém.
+ */
+@Entity
+@Table(name = "ano_arquivado", schema = "financas")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnoArquivado {
+
+	@Id
+	@Column(name = "ano")
+	private Integer ano;
+	
+}
@@ -0,0 +1,40 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Concessão (lease) de uma tarefa agendada a uma instância até expiraEm; vencida, qualquer instância pode tomá-la.
+ */
+@Entity
+@Table(name = "bloqueio_tarefa", schema = "financas")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BloqueioTarefa {
+
+	@Id
+	@Column(name = "nome", length = 60)
+	private String nome;
+	
+	@Column(name = "dono", length = 120)
+	private String dono;
+	
+	@Column(name = "expira_em")
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	private LocalDateTime expiraEm;
+	
+}
@@ -0,0 +1,47 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Último evento aplicado por uma projeção, na ordem (transação, id) em que os eventos são consumidos.
+ */
+@Entity
+@Table(name = "checkpoint_projecao", schema = "financas")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CheckpointProjecao {
+
+	@Id
+	@Column(name = "nome", length = 60)
+	private String nome;
+	
+	@Column(name = "transacao")
+	private Long transacao;
+	
+	@Column(name = "evento")
+	private Long evento;
+	
+	@Column(name = "atualizado_em")
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	private LocalDateTime atualizadoEm;
+	
+	public CheckpointProjecao(String nome) {
+		this(nome, 0L, 0L, null);
+	}
+	
+}
@@ -0,0 +1,151 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Alteração de um lançamento, com o estado anterior e o atual; só recebe inserções.
+ * Alterações em lote por filtro gravam um evento por usuário, mês, tipo e status, sem id de lançamento,
+ * com a quantidade de lançamentos e o total do grupo no valor.
+ * A transação é preenchida pelo banco (txid_current() no PostgreSQL) e define a ordem de consumo das projeções.
+ */
+@Entity
+@Table(name = "evento_lancamento", schema = "financas", indexes = {
+		@Index(name = "idx_evento_lancamento_transacao", columnList = "transacao, id"),
+		@Index(name = "idx_evento_lancamento_lancamento", columnList = "id_lancamento")})
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventoLancamento {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "evento_lancamento_seq")
+	@SequenceGenerator(name = "evento_lancamento_seq", schema = "financas", sequenceName = "evento_lancamento_id_seq", allocationSize = 50)
+	@Column(name = "id")
+	private Long id;
+	
+	@ColumnDefault("0")
+	@Column(name = "transacao", insertable = false, updatable = false)
+	private Long transacao;
+	
+	@Column(name = "tipo_evento")
+	@Enumerated(EnumType.STRING)
+	private TipoEventoLancamento tipoEvento;
+	
+	@Column(name = "id_lancamento")
+	private Long idLancamento;
+	
+	@Column(name = "quantidade")
+	private Long quantidade;
+	
+	@Column(name = "id_usuario_anterior")
+	private Long idUsuarioAnterior;
+	
+	@Column(name = "ano_anterior")
+	private Integer anoAnterior;
+	
+	@Column(name = "mes_anterior")
+	private Integer mesAnterior;
+	
+	@Column(name = "tipo_anterior")
+	@Enumerated(EnumType.STRING)
+	private TipoLancamento tipoAnterior;
+	
+	@Column(name = "status_anterior")
+	@Enumerated(EnumType.STRING)
+	private StatusLancamento statusAnterior;
+	
+	@Column(name = "valor_anterior")
+	private BigDecimal valorAnterior;
+	
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "ano")
+	private Integer ano;
+	
+	@Column(name = "mes")
+	private Integer mes;
+	
+	@Column(name = "tipo")
+	@Enumerated(EnumType.STRING)
+	private TipoLancamento tipo;
+	
+	@Column(name = "status")
+	@Enumerated(EnumType.STRING)
+	private StatusLancamento status;
+	
+	@Column(name = "valor")
+	private BigDecimal valor;
+	
+	@Column(name = "registrado_em")
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	private LocalDateTime registradoEm;
+	
+	public static EventoLancamento of(TipoEventoLancamento tipoEvento, EstadoLancamentoDTO anterior, EstadoLancamentoDTO atual) {
+		EventoLancamento evento = new EventoLancamento();
+		evento.setTipoEvento(tipoEvento);
+		evento.setIdLancamento(atual == null ? anterior.getId() : atual.getId());
+		evento.setQuantidade(1L);
+		if(anterior != null) {
+			evento.setIdUsuarioAnterior(anterior.getIdUsuario());
+			evento.setAnoAnterior(anterior.getAno());
+			evento.setMesAnterior(anterior.getMes());
+			evento.setTipoAnterior(anterior.getTipo());
+			evento.setStatusAnterior(anterior.getStatus());
+			evento.setValorAnterior(anterior.getValor());
+		}
+		if(atual != null) {
+			evento.setIdUsuario(atual.getIdUsuario());
+			evento.setAno(atual.getAno());
+			evento.setMes(atual.getMes());
+			evento.setTipo(atual.getTipo());
+			evento.setStatus(atual.getStatus());
+			evento.setValor(atual.getValor());
+		}
+		evento.setRegistradoEm(LocalDateTime.now());
+		return evento;
+	}
+	
+	/**
+	 * Evento de um grupo alterado em lote: com status, o grupo passou para ele; sem status, foi excluído.
+	 */
+	public static EventoLancamento of(ResumoMensal grupo, StatusLancamento status) {
+		ResumoMensalId id = grupo.getId();
+		EstadoLancamentoDTO anterior = new EstadoLancamentoDTO(null, id.getIdUsuario(), id.getAno(), id.getMes(),
+				id.getTipo(), id.getStatus(), grupo.getTotal());
+		EstadoLancamentoDTO atual = status == null ? null : new EstadoLancamentoDTO(null, id.getIdUsuario(), id.getAno(),
+				id.getMes(), id.getTipo(), status, grupo.getTotal());
+		EventoLancamento evento = of(status == null ? TipoEventoLancamento.EXCLUIDO : TipoEventoLancamento.STATUS_ALTERADO,
+				anterior, atual);
+		evento.setQuantidade(grupo.getQuantidade());
+		return evento;
+	}
+	
+}
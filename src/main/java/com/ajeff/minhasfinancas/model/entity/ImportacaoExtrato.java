@@ -0,0 +1,81 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import com.ajeff.minhasfinancas.model.enums.FormatoExtrato;
+import com.ajeff.minhasfinancas.model.enums.SituacaoImportacao;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "importacao_extrato", schema = "financas")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportacaoExtrato {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id")
+	private Long id;
+	
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "nome_arquivo")
+	private String nomeArquivo;
+	
+	@Column(name = "formato")
+	@Enumerated(EnumType.STRING)
+	private FormatoExtrato formato;
+	
+	@Column(name = "situacao")
+	@Enumerated(EnumType.STRING)
+	private SituacaoImportacao situacao;
+	
+	@Column(name = "tamanho_arquivo")
+	private long tamanhoArquivo;
+	
+	@Column(name = "bytes_lidos")
+	private long bytesLidos;
+	
+	@Column(name = "processados")
+	private long processados;
+	
+	@Column(name = "importados")
+	private long importados;
+	
+	@Column(name = "duplicados")
+	private long duplicados;
+	
+	@Column(name = "rejeitados")
+	private long rejeitados;
+	
+	@Column(name = "mensagem")
+	private String mensagem;
+	
+	@Column(name = "data_inicio")
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	private LocalDateTime dataInicio;
+	
+	@Column(name = "data_conclusao")
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	private LocalDateTime dataConclusao;
+	
+}
@@ -8,12 +8,18 @@ import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.ForeignKey;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
 
 import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
 
@@ -22,19 +28,29 @@ import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 @Entity
-@Table(name = "lancamento", schema= "financas")
-@Data
+@Table(name = "lancamento", schema= "financas", indexes = {
+		@Index(name = "idx_lancamento_usuario_ano_mes", columnList = "id_usuario, ano, mes, id"),
+		@Index(name = "idx_lancamento_usuario_alteracao", columnList = "id_usuario, alteracao, id")}, uniqueConstraints = {
+		@UniqueConstraint(name = "uk_lancamento_usuario_chave_importacao", columnNames = {"id_usuario", "chave_importacao", "ano"})})
+@Getter
+@Setter
+@EqualsAndHashCode(of = "id")
+@ToString(exclude = "usuario")
 @AllArgsConstructor
 @Builder
 @NoArgsConstructor
 public class Lancamento {
 	
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+	@SequenceGenerator(name = "lancamento_seq", schema = "financas", sequenceName = "lancamento_id_seq", allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 	
@@ -47,8 +63,8 @@ public class Lancamento {
 	@Column(name = "ano")
 	private Integer ano;
 	
-	@ManyToOne
-	@JoinColumn(name =  "id_usuario")
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name =  "id_usuario", foreignKey = @ForeignKey(name = "lancamento_id_usuario_fkey"))
 	private Usuario usuario;
 	
 	@Column(name = "valor")
@@ -65,5 +81,18 @@ public class Lancamento {
 	@Column(name = "status")
 	@Enumerated(EnumType.STRING)
 	private StatusLancamento status;
+	
+	@Column(name = "chave_importacao", length = 64)
+	private String chaveImportacao;
+	
+	@Version
+	@Column(name = "versao")
+	private Long versao;
+	
+	/**
+	 * Marcador da última escrita, que ordena a sincronização incremental dos clientes.
+	 */
+	@Column(name = "alteracao")
+	private Long alteracao;
 
 }
@@ -0,0 +1,47 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Exclusão de um lançamento, para que a sincronização incremental a entregue aos clientes;
+ * o arquivamento no histórico não é exclusão e não passa por aqui.
+ */
+@Entity
+@Table(name = "lancamento_excluido", schema = "financas", indexes = {
+		@Index(name = "idx_lancamento_excluido_usuario_alteracao", columnList = "id_usuario, alteracao, id_lancamento")})
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LancamentoExcluido {
+
+	@Id
+	@Column(name = "id_lancamento")
+	private Long idLancamento;
+	
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "alteracao")
+	private Long alteracao;
+	
+	@ColumnDefault("current_timestamp")
+	@Column(name = "excluido_em", insertable = false, updatable = false)
+	@Convert(converter = Jsr310JpaConverters.LocalDateTimeConverter.class)
+	private LocalDateTime excluidoEm;
+}
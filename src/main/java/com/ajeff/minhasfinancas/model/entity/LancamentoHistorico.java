@@ -0,0 +1,88 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+import org.springframework.data.jpa.convert.threeten.Jsr310JpaConverters;
+
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Lançamento efetivado ou cancelado movido para o histórico; mantém o id e os campos do original
+ * para que as buscas possam mesclar as duas tabelas.
+ */
+@Entity
+@Table(name = "lancamento_historico", schema= "financas", indexes = {
+		@Index(name = "idx_lancamento_historico_usuario_ano_mes", columnList = "id_usuario, ano, mes, id")})
+@Getter
+@Setter
+@EqualsAndHashCode(of = "id")
+@ToString(exclude = "usuario")
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class LancamentoHistorico {
+	
+	@Id
+	@Column(name = "id")
+	private Long id;
+	
+	@Column(name = "descricao")
+	private String descricao;
+	
+	@Column(name =  "mes")
+	private Integer mes;
+	
+	@Column(name = "ano")
+	private Integer ano;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name =  "id_usuario")
+	private Usuario usuario;
+	
+	@Column(name = "valor")
+	private BigDecimal valor;
+	
+	@Column(name =  "data_cadastro")
+	@Convert(converter = Jsr310JpaConverters.LocalDateConverter.class)
+	private LocalDate dataCadastro;
+	
+	@Column(name = "tipo")
+	@Enumerated(EnumType.STRING)
+	private TipoLancamento tipo;
+	
+	@Column(name = "status")
+	@Enumerated(EnumType.STRING)
+	private StatusLancamento status;
+	
+	@Column(name = "chave_importacao", length = 64)
+	private String chaveImportacao;
+	
+	public static LancamentoHistorico of(Lancamento lancamento) {
+		return new LancamentoHistorico(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(), lancamento.getAno(),
+				lancamento.getUsuario(), lancamento.getValor(), lancamento.getDataCadastro(), lancamento.getTipo(),
+				lancamento.getStatus(), lancamento.getChaveImportacao());
+	}
+
+}
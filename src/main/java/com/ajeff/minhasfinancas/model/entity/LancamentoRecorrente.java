@@ -0,0 +1,108 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import com.ajeff.minhasfinancas.model.enums.Periodicidade;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Modelo de um lançamento que se repete a cada mês ou ano, do mês inicial até o final (opcional).
+ * A próxima ocorrência é o mês do próximo lançamento a gerar: avança junto com a gravação dos lançamentos
+ * gerados, então o que já foi gerado nunca volta a ser gerado.
+ */
+@Entity
+@Table(name = "lancamento_recorrente", schema = "financas", indexes = {
+		@Index(name = "idx_lancamento_recorrente_usuario", columnList = "id_usuario, id")})
+@Getter
+@Setter
+@EqualsAndHashCode(of = "id")
+@ToString(exclude = "usuario")
+@AllArgsConstructor
+@Builder
+@NoArgsConstructor
+public class LancamentoRecorrente {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_recorrente_seq")
+	@SequenceGenerator(name = "lancamento_recorrente_seq", schema = "financas", sequenceName = "lancamento_recorrente_id_seq", allocationSize = 50)
+	@Column(name = "id")
+	private Long id;
+	
+	@ManyToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "id_usuario")
+	private Usuario usuario;
+	
+	@Column(name = "descricao")
+	private String descricao;
+	
+	@Column(name = "valor")
+	private BigDecimal valor;
+	
+	@Column(name = "tipo")
+	@Enumerated(EnumType.STRING)
+	private TipoLancamento tipo;
+	
+	@Column(name = "periodicidade")
+	@Enumerated(EnumType.STRING)
+	private Periodicidade periodicidade;
+	
+	@Column(name = "ano_inicial")
+	private Integer anoInicial;
+	
+	@Column(name = "mes_inicial")
+	private Integer mesInicial;
+	
+	@Column(name = "ano_final")
+	private Integer anoFinal;
+	
+	@Column(name = "mes_final")
+	private Integer mesFinal;
+	
+	@Column(name = "proximo_ano")
+	private Integer proximoAno;
+	
+	@Column(name = "proximo_mes")
+	private Integer proximoMes;
+	
+	@Version
+	@Column(name = "versao")
+	private Long versao;
+	
+	public YearMonth getProximaOcorrencia() {
+		return YearMonth.of(proximoAno, proximoMes);
+	}
+	
+	public void setProximaOcorrencia(YearMonth ocorrencia) {
+		proximoAno = ocorrencia.getYear();
+		proximoMes = ocorrencia.getMonthValue();
+	}
+	
+	public YearMonth getFim() {
+		return anoFinal == null ? null : YearMonth.of(anoFinal, mesFinal == null ? 12 : mesFinal);
+	}
+	
+}
@@ -0,0 +1,47 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "resumo_mensal", schema = "financas")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResumoMensal {
+
+	@EmbeddedId
+	private ResumoMensalId id;
+	
+	@Column(name = "quantidade")
+	private Long quantidade;
+	
+	@Column(name = "total")
+	private BigDecimal total;
+	
+	@Version
+	@Column(name = "versao")
+	private Long versao;
+	
+	public ResumoMensal(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo, StatusLancamento status,
+			Long quantidade, BigDecimal total) {
+		this.id = new ResumoMensalId(idUsuario, ano, mes, tipo, status);
+		this.quantidade = quantidade == null ? 0L : quantidade;
+		this.total = total == null ? BigDecimal.ZERO : total;
+	}
+	
+}
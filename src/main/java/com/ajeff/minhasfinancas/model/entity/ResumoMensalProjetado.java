@@ -0,0 +1,46 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "projecao_resumo_mensal", schema = "financas")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ResumoMensalProjetado {
+
+	@EmbeddedId
+	private ResumoMensalId id;
+	
+	@Column(name = "quantidade")
+	private Long quantidade;
+	
+	@Column(name = "total")
+	private BigDecimal total;
+	
+	@Version
+	@Column(name = "versao")
+	private Long versao;
+	
+	public ResumoMensalProjetado(ResumoMensalId id) {
+		this(id, 0L, BigDecimal.ZERO, null);
+	}
+	
+	public void somar(long quantidade, BigDecimal total) {
+		this.quantidade += quantidade;
+		this.total = this.total.add(total);
+	}
+	
+}
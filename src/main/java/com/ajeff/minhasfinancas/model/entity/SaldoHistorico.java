@@ -0,0 +1,47 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Totais transportados dos lançamentos do usuário que já estão no histórico, e o último mês que o histórico alcança.
+ */
+@Entity
+@Table(name = "saldo_historico", schema = "financas")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SaldoHistorico {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "receitas")
+	private BigDecimal receitas;
+	
+	@Column(name = "despesas")
+	private BigDecimal despesas;
+	
+	@Column(name = "ate_ano")
+	private Integer ateAno;
+	
+	@Column(name = "ate_mes")
+	private Integer ateMes;
+	
+	public YearMonth getAte() {
+		return YearMonth.of(ateAno, ateMes);
+	}
+	
+}
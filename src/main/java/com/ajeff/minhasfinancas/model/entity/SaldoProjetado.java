@@ -0,0 +1,51 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "projecao_saldo_usuario", schema = "financas")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SaldoProjetado {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "receitas")
+	private BigDecimal receitas;
+	
+	@Column(name = "despesas")
+	private BigDecimal despesas;
+	
+	@Column(name = "saldo")
+	private BigDecimal saldo;
+	
+	@Version
+	@Column(name = "versao")
+	private Long versao;
+	
+	public SaldoProjetado(Long idUsuario) {
+		this(idUsuario, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, null);
+	}
+	
+	public void somar(BigDecimal receitas, BigDecimal despesas) {
+		this.receitas = this.receitas.add(receitas);
+		this.despesas = this.despesas.add(despesas);
+		this.saldo = this.receitas.subtract(this.despesas);
+	}
+	
+}
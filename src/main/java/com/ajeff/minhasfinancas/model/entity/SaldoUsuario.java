@@ -0,0 +1,48 @@
+package com.ajeff.minhasfinancas.model.entity;
+
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "saldo_usuario", schema = "financas")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SaldoUsuario {
+
+	@Id
+	@Column(name = "id_usuario")
+	private Long idUsuario;
+	
+	@Column(name = "receitas")
+	private BigDecimal receitas;
+	
+	@Column(name = "despesas")
+	private BigDecimal despesas;
+	
+	@Column(name = "saldo")
+	private BigDecimal saldo;
+	
+	@Version
+	@Column(name = "versao")
+	private Long versao;
+	
+	public SaldoUsuario(Long idUsuario, BigDecimal receitas, BigDecimal despesas) {
+		this.idUsuario = idUsuario;
+		this.receitas = receitas == null ? BigDecimal.ZERO : receitas;
+		this.despesas = despesas == null ? BigDecimal.ZERO : despesas;
+		this.saldo = this.receitas.subtract(this.despesas);
+	}
+	
+}
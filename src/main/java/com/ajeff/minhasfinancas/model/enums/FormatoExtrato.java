@@ -0,0 +1,8 @@
+package com.ajeff.minhasfinancas.model.enums;
+
+public enum FormatoExtrato {
+	
+	CSV,
+	OFX
+
+}
@@ -0,0 +1,17 @@
+package com.ajeff.minhasfinancas.model.enums;
+
+public enum Periodicidade {
+
+	MENSAL(1),
+	ANUAL(12);
+	
+	private final int meses;
+	
+	Periodicidade(int meses) {
+		this.meses = meses;
+	}
+	
+	public int getMeses() {
+		return meses;
+	}
+}
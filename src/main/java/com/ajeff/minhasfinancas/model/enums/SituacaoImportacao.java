@@ -0,0 +1,9 @@
+package com.ajeff.minhasfinancas.model.enums;
+
+public enum SituacaoImportacao {
+	
+	PROCESSANDO,
+	CONCLUIDA,
+	FALHOU
+
+}
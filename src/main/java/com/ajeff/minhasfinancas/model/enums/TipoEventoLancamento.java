@@ -0,0 +1,10 @@
+package com.ajeff.minhasfinancas.model.enums;
+
+public enum TipoEventoLancamento {
+	
+	CRIADO,
+	ALTERADO,
+	STATUS_ALTERADO,
+	EXCLUIDO
+
+}
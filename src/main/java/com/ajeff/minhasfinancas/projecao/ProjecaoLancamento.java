@@ -0,0 +1,18 @@
+package com.ajeff.minhasfinancas.projecao;
+
+import java.util.List;
+
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
+
+/**
+ * Modelo de leitura mantido a partir de financas.evento_lancamento. Os eventos chegam em lotes, na ordem de
+ * consumo, dentro da mesma transação que avança o checkpoint da projeção.
+ */
+public interface ProjecaoLancamento {
+
+	String getNome();
+	
+	void aplicar(List<EventoLancamento> eventos);
+	
+	void limpar();
+}
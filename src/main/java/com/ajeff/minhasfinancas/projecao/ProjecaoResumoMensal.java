@@ -0,0 +1,72 @@
+package com.ajeff.minhasfinancas.projecao;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.IntSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalId;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalProjetado;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.ResumoMensalProjetadoRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Quantidade e total por usuário, mês, tipo e status. Os resumos existentes do lote são lidos numa única consulta
+ * pelos usuários e anos alcançados.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjecaoResumoMensal implements ProjecaoLancamento {
+
+	private final ResumoMensalProjetadoRepository repository;
+	
+	@Override
+	public String getNome() {
+		return "resumo-mensal";
+	}
+
+	@Override
+	public void aplicar(List<EventoLancamento> eventos) {
+		Map<ResumoMensalId, ResumoMensalProjetado> deltas = new HashMap<>();
+		for(EventoLancamento evento : eventos) {
+			acumular(deltas, evento.getIdUsuarioAnterior(), evento.getAnoAnterior(), evento.getMesAnterior(), evento.getTipoAnterior(),
+					evento.getStatusAnterior(), -evento.getQuantidade(), evento.getValorAnterior());
+			acumular(deltas, evento.getIdUsuario(), evento.getAno(), evento.getMes(), evento.getTipo(),
+					evento.getStatus(), evento.getQuantidade(), evento.getValor());
+		}
+		if(deltas.isEmpty()) {
+			return;
+		}
+		
+		Set<Long> usuarios = deltas.keySet().stream().map(ResumoMensalId::getIdUsuario).collect(Collectors.toSet());
+		IntSummaryStatistics anos = deltas.keySet().stream().mapToInt(ResumoMensalId::getAno).summaryStatistics();
+		Map<ResumoMensalId, ResumoMensalProjetado> resumos = new HashMap<>();
+		repository.buscarPeriodo(usuarios, anos.getMin(), anos.getMax()).forEach(resumo -> resumos.put(resumo.getId(), resumo));
+		deltas.forEach((id, delta) -> resumos.computeIfAbsent(id, ResumoMensalProjetado::new).somar(delta.getQuantidade(), delta.getTotal()));
+		repository.saveAll(resumos.values());
+	}
+
+	@Override
+	public void limpar() {
+		repository.deleteAllInBatch();
+	}
+	
+	
+	private static void acumular(Map<ResumoMensalId, ResumoMensalProjetado> deltas, Long idUsuario, Integer ano, Integer mes,
+			TipoLancamento tipo, StatusLancamento status, long quantidade, BigDecimal valor) {
+		if(idUsuario == null || ano == null || mes == null || tipo == null || status == null || valor == null) {
+			return;
+		}
+		ResumoMensalId id = new ResumoMensalId(idUsuario, ano, mes, tipo, status);
+		deltas.computeIfAbsent(id, ResumoMensalProjetado::new).somar(quantidade, quantidade < 0 ? valor.negate() : valor);
+	}
+}
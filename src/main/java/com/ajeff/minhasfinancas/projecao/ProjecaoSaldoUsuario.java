@@ -0,0 +1,63 @@
+package com.ajeff.minhasfinancas.projecao;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
+import com.ajeff.minhasfinancas.model.entity.SaldoProjetado;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.SaldoProjetadoRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Receitas, despesas e saldo por usuário; o lote inteiro é somado em memória antes de gravar,
+ * com uma leitura e uma escrita por usuário alcançado.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjecaoSaldoUsuario implements ProjecaoLancamento {
+
+	private final SaldoProjetadoRepository repository;
+	
+	@Override
+	public String getNome() {
+		return "saldo-usuario";
+	}
+
+	@Override
+	public void aplicar(List<EventoLancamento> eventos) {
+		Map<Long, BigDecimal[]> deltas = new HashMap<>();
+		for(EventoLancamento evento : eventos) {
+			acumular(deltas, evento.getIdUsuarioAnterior(), evento.getTipoAnterior(), evento.getValorAnterior(), -1);
+			acumular(deltas, evento.getIdUsuario(), evento.getTipo(), evento.getValor(), 1);
+		}
+		if(deltas.isEmpty()) {
+			return;
+		}
+		
+		Map<Long, SaldoProjetado> saldos = new HashMap<>();
+		repository.findAllById(deltas.keySet()).forEach(saldo -> saldos.put(saldo.getIdUsuario(), saldo));
+		deltas.forEach((idUsuario, delta) -> saldos.computeIfAbsent(idUsuario, SaldoProjetado::new).somar(delta[0], delta[1]));
+		repository.saveAll(saldos.values());
+	}
+
+	@Override
+	public void limpar() {
+		repository.deleteAllInBatch();
+	}
+	
+	
+	private static void acumular(Map<Long, BigDecimal[]> deltas, Long idUsuario, TipoLancamento tipo, BigDecimal valor, int sinal) {
+		if(idUsuario == null || tipo == null || valor == null) {
+			return;
+		}
+		BigDecimal[] delta = deltas.computeIfAbsent(idUsuario, id -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+		int indice = tipo == TipoLancamento.RECEITA ? 0 : 1;
+		delta[indice] = delta[indice].add(sinal < 0 ? valor.negate() : valor);
+	}
+}
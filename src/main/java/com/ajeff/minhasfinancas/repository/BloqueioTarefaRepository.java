@@ -0,0 +1,23 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ajeff.minhasfinancas.model.entity.BloqueioTarefa;
+
+public interface BloqueioTarefaRepository extends JpaRepository<BloqueioTarefa, String>{
+
+	@Modifying
+	@Query(value = "update BloqueioTarefa b set b.dono = :dono, b.expiraEm = :expiraEm "
+			+ "where b.nome = :nome and (b.dono = :dono or b.expiraEm is null or b.expiraEm < :agora)")
+	int renovar(@Param("nome") String nome, @Param("dono") String dono, @Param("agora") LocalDateTime agora,
+			@Param("expiraEm") LocalDateTime expiraEm);
+	
+	@Modifying
+	@Query(value = "update BloqueioTarefa b set b.expiraEm = :agora where b.nome = :nome and b.dono = :dono")
+	int liberar(@Param("nome") String nome, @Param("dono") String dono, @Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,20 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ajeff.minhasfinancas.model.entity.CheckpointProjecao;
+
+public interface CheckpointProjecaoRepository extends JpaRepository<CheckpointProjecao, String>{
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(value = "select c from CheckpointProjecao c where c.nome = :nome")
+	Optional<CheckpointProjecao> bloquear(@Param("nome") String nome);
+	
+}
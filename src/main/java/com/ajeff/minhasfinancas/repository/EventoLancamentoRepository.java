@@ -0,0 +1,26 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.util.List;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
+
+public interface EventoLancamentoRepository extends JpaRepository<EventoLancamento, Long>{
+
+	@QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true"))
+	@Query(value = "select e from EventoLancamento e where e.transacao >= :transacao and e.transacao < :horizonte "
+			+ "and (e.transacao > :transacao or e.id > :id) order by e.transacao, e.id")
+	List<EventoLancamento> buscarApos(@Param("transacao") Long transacao, @Param("id") Long id, @Param("horizonte") Long horizonte,
+			Pageable pagina);
+	
+	@Query(value = "select e from EventoLancamento e where e.idLancamento = :idLancamento order by e.transacao, e.id")
+	List<EventoLancamento> buscarPorLancamento(@Param("idLancamento") Long idLancamento);
+	
+}
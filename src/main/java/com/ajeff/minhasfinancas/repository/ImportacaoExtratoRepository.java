@@ -0,0 +1,9 @@
+package com.ajeff.minhasfinancas.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ajeff.minhasfinancas.model.entity.ImportacaoExtrato;
+
+public interface ImportacaoExtratoRepository extends JpaRepository<ImportacaoExtrato, Long>{
+
+}
@@ -0,0 +1,30 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ajeff.minhasfinancas.dto.AlteracaoLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.LancamentoExcluido;
+
+public interface LancamentoExcluidoRepository extends JpaRepository<LancamentoExcluido, Long>{
+
+	/**
+	 * Copia id e usuário dos lançamentos ainda existentes; deve rodar antes do delete.
+	 */
+	@Modifying
+	@Query(value = "insert into LancamentoExcluido (idLancamento, idUsuario, alteracao) "
+			+ "select l.id, l.usuario.id, :alteracao from Lancamento l where l.id in :ids")
+	int registrar(@Param("ids") Collection<Long> ids, @Param("alteracao") Long alteracao);
+	
+	@Query(value = "select new com.ajeff.minhasfinancas.dto.AlteracaoLancamentoDTO(e.alteracao, e.idLancamento) "
+			+ "from LancamentoExcluido e where e.idUsuario = :idUsuario and e.alteracao >= :alteracao and e.alteracao < :horizonte "
+			+ "and (e.alteracao > :alteracao or e.idLancamento > :id) order by e.alteracao, e.idLancamento")
+	List<AlteracaoLancamentoDTO> buscarApos(@Param("idUsuario") Long idUsuario, @Param("alteracao") Long alteracao,
+			@Param("id") Long id, @Param("horizonte") Long horizonte, Pageable pagina);
+}
@@ -0,0 +1,35 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ajeff.minhasfinancas.model.entity.LancamentoHistorico;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+public interface LancamentoHistoricoRepository extends JpaRepository<LancamentoHistorico, Long>{
+
+	@Query(value = "select new com.ajeff.minhasfinancas.model.entity.ResumoMensal(l.usuario.id, l.ano, l.mes, l.tipo, l.status, count(l), sum(l.valor)) "
+			+ "from LancamentoHistorico l where l.usuario.id = :idUsuario and l.ano = :ano and l.mes = :mes "
+			+ "and l.tipo = :tipo and l.status = :status group by l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+	Optional<ResumoMensal> calcularResumoMensal(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+			@Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status);
+	
+	@Query(value = "select new com.ajeff.minhasfinancas.model.entity.ResumoMensal(l.usuario.id, l.ano, l.mes, l.tipo, l.status, count(l), sum(l.valor)) "
+			+ "from LancamentoHistorico l where l.usuario.id = :idUsuario and l.ano is not null and l.mes is not null "
+			+ "and l.tipo is not null and l.status is not null group by l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+	List<ResumoMensal> calcularResumosMensais(@Param("idUsuario") Long idUsuario);
+	
+	@Query(value = "select l.usuario.id from LancamentoHistorico l where l.id = :id")
+	Optional<Long> obterIdUsuario(@Param("id") Long id);
+	
+	@Query(value = "select l.chaveImportacao from LancamentoHistorico l where l.usuario.id = :idUsuario and l.chaveImportacao in :chaves")
+	Set<String> obterChavesImportadas(@Param("idUsuario") Long idUsuario, @Param("chaves") Collection<String> chaves);
+}
@@ -0,0 +1,27 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ajeff.minhasfinancas.model.entity.LancamentoRecorrente;
+
+public interface LancamentoRecorrenteRepository extends JpaRepository<LancamentoRecorrente, Long>{
+
+	String PENDENTES = "(r.proximoAno < :ano or (r.proximoAno = :ano and r.proximoMes <= :mes)) "
+			+ "and (r.anoFinal is null or r.proximoAno < r.anoFinal or (r.proximoAno = r.anoFinal and r.proximoMes <= r.mesFinal))";
+	
+	@Query(value = "select r from LancamentoRecorrente r where r.usuario.id = :idUsuario order by r.id")
+	List<LancamentoRecorrente> buscarPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@Query(value = "select min(r.usuario.id), max(r.usuario.id) from LancamentoRecorrente r where " + PENDENTES)
+	List<Object[]> obterFaixaUsuariosPendentes(@Param("ano") Integer ano, @Param("mes") Integer mes);
+	
+	@Query(value = "select r from LancamentoRecorrente r where r.usuario.id between :usuarioInicial and :usuarioFinal "
+			+ "and r.id > :apos and " + PENDENTES + " order by r.id")
+	List<LancamentoRecorrente> buscarPendentes(@Param("usuarioInicial") Long usuarioInicial, @Param("usuarioFinal") Long usuarioFinal,
+			@Param("apos") Long apos, @Param("ano") Integer ano, @Param("mes") Integer mes, Pageable pagina);
+}
@@ -1,16 +1,91 @@
 package com.ajeff.minhasfinancas.repository;
 
-import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.ajeff.minhasfinancas.dto.AlteracaoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
 import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.entity.SaldoUsuario;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
 import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long>{
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, JpaSpecificationExecutor<Lancamento>, LancamentoRepositoryCustom{
+	
+	@Query(value = "select new com.ajeff.minhasfinancas.model.entity.SaldoUsuario(u.id, "
+			+ "sum(case when l.tipo = com.ajeff.minhasfinancas.model.enums.TipoLancamento.RECEITA then l.valor else 0 end), "
+			+ "sum(case when l.tipo = com.ajeff.minhasfinancas.model.enums.TipoLancamento.DESPESA then l.valor else 0 end)) "
+			+ "from Lancamento l join l.usuario u where u.id = :idUsuario group by u.id")
+	Optional<SaldoUsuario> calcularSaldoUsuario(@Param("idUsuario") Long idUsuario);
+	
+	@Query(value = "select new com.ajeff.minhasfinancas.model.entity.ResumoMensal(l.usuario.id, l.ano, l.mes, l.tipo, l.status, count(l), sum(l.valor)) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.ano = :ano and l.mes = :mes "
+			+ "and l.tipo = :tipo and l.status = :status group by l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+	Optional<ResumoMensal> calcularResumoMensal(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+			@Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status);
+	
+	@Query(value = "select new com.ajeff.minhasfinancas.model.entity.ResumoMensal(l.usuario.id, l.ano, l.mes, l.tipo, l.status, count(l), sum(l.valor)) "
+			+ "from Lancamento l where l.usuario.id = :idUsuario and l.ano is not null and l.mes is not null "
+			+ "and l.tipo is not null and l.status is not null group by l.usuario.id, l.ano, l.mes, l.tipo, l.status")
+	List<ResumoMensal> calcularResumosMensais(@Param("idUsuario") Long idUsuario);
+	
+	@Query(value = "select distinct l.usuario.id from Lancamento l")
+	List<Long> obterIdsUsuarios();
+	
+	@QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FLUSH_MODE, value = "COMMIT"))
+	@Query(value = "select new com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO(l.id, l.usuario.id, l.ano, l.mes, l.tipo, l.status, l.valor) "
+			+ "from Lancamento l where l.id = :id")
+	Optional<EstadoLancamentoDTO> obterEstado(@Param("id") Long id);
+	
+	@Query(value = "select l.chaveImportacao from Lancamento l where l.usuario.id = :idUsuario and l.chaveImportacao in :chaves")
+	Set<String> obterChavesImportadas(@Param("idUsuario") Long idUsuario, @Param("chaves") Collection<String> chaves);
+	
+	@Query(value = "select distinct l.usuario.id from Lancamento l where l.status in :status "
+			+ "and (l.ano < :ano or (l.ano = :ano and l.mes <= :mes))")
+	List<Long> obterIdsUsuariosComLancamentosAte(@Param("status") Collection<StatusLancamento> status, @Param("ano") Integer ano,
+			@Param("mes") Integer mes);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(value = "select l from Lancamento l where l.usuario.id = :idUsuario and l.status in :status "
+			+ "and (l.ano < :ano or (l.ano = :ano and l.mes <= :mes)) order by l.id")
+	List<Lancamento> buscarLancamentosAte(@Param("idUsuario") Long idUsuario, @Param("status") Collection<StatusLancamento> status,
+			@Param("ano") Integer ano, @Param("mes") Integer mes, Pageable pagina);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(value = "select new com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO(l.id, l.descricao, l.mes, l.ano, l.usuario.id, "
+			+ "l.valor, l.dataCadastro, l.tipo, l.status) from Lancamento l where l.id in :ids order by l.id")
+	List<LancamentoConsultaDTO> bloquearPorIds(@Param("ids") Collection<Long> ids);
+	
+	@Modifying
+	@Query(value = "update Lancamento l set l.status = :status, l.versao = l.versao + 1, l.alteracao = :alteracao "
+			+ "where l.id in :ids and l.status in :anteriores")
+	int atualizarStatus(@Param("ids") Collection<Long> ids, @Param("status") StatusLancamento status,
+			@Param("anteriores") Collection<StatusLancamento> anteriores, @Param("alteracao") Long alteracao);
+	
+	@Modifying
+	@Query(value = "delete from Lancamento l where l.id in :ids")
+	int excluirPorIds(@Param("ids") Collection<Long> ids);
 	
-	@Query(value = "select sum(l.valor) from Lancamento l join l.usuario u where u.id =:idUsuario and l.tipo =:tipo group by u")
-	BigDecimal obterSaldoPorTipoLancamentoEUsuario(@Param("idUsuario") Long id, @Param("tipo") TipoLancamento tipo);
+	@Query(value = "select new com.ajeff.minhasfinancas.dto.AlteracaoLancamentoDTO(l.alteracao, l.id, l.descricao, l.mes, l.ano, "
+			+ "l.usuario.id, l.valor, l.dataCadastro, l.tipo, l.status) from Lancamento l where l.usuario.id = :idUsuario "
+			+ "and l.alteracao >= :alteracao and l.alteracao < :horizonte and (l.alteracao > :alteracao or l.id > :id) "
+			+ "order by l.alteracao, l.id")
+	List<AlteracaoLancamentoDTO> buscarAlteracoes(@Param("idUsuario") Long idUsuario, @Param("alteracao") Long alteracao,
+			@Param("id") Long id, @Param("horizonte") Long horizonte, Pageable pagina);
 }
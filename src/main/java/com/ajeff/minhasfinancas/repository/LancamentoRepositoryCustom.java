@@ -0,0 +1,50 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import com.ajeff.minhasfinancas.dto.CampoLancamento;
+import com.ajeff.minhasfinancas.dto.CursorLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+
+public interface LancamentoRepositoryCustom {
+
+	List<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro);
+	
+	/**
+	 * Seleciona somente as colunas dos campos informados; os demais ficam nulos no DTO.
+	 */
+	List<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro, Set<CampoLancamento> campos);
+	
+	List<LancamentoConsultaDTO> buscarPagina(FiltroLancamentoDTO filtro, CursorLancamentoDTO apos, int limite);
+	
+	Stream<LancamentoConsultaDTO> buscarStream(FiltroLancamentoDTO filtro);
+	
+	List<LancamentoConsultaDTO> buscarHistorico(FiltroLancamentoDTO filtro);
+	
+	List<LancamentoConsultaDTO> buscarHistorico(FiltroLancamentoDTO filtro, Set<CampoLancamento> campos);
+	
+	List<LancamentoConsultaDTO> buscarPaginaHistorico(FiltroLancamentoDTO filtro, CursorLancamentoDTO apos, int limite);
+	
+	Stream<LancamentoConsultaDTO> buscarStreamHistorico(FiltroLancamentoDTO filtro);
+	
+	long contarHistorico(FiltroLancamentoDTO filtro);
+	
+	void inserirEmLote(List<?> entidades);
+	
+	List<ResumoMensal> resumir(FiltroLancamentoDTO filtro, StatusLancamento exceto);
+	
+	/**
+	 * Bloqueia e devolve os ids dos lançamentos que {@link #excluir} e {@link #atualizarStatus} vão alcançar
+	 * com o mesmo filtro, para que {@link #resumir} some exatamente as linhas que serão alteradas.
+	 */
+	List<Long> bloquearIds(FiltroLancamentoDTO filtro);
+	
+	int excluir(FiltroLancamentoDTO filtro);
+	
+	int atualizarStatus(FiltroLancamentoDTO filtro, StatusLancamento status, Long alteracao);
+}
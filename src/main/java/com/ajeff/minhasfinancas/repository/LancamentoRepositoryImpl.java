@@ -0,0 +1,235 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaDelete;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import org.hibernate.annotations.QueryHints;
+
+import com.ajeff.minhasfinancas.dto.CampoLancamento;
+import com.ajeff.minhasfinancas.dto.CursorLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.LancamentoHistorico;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom{
+
+	private static final int TAMANHO_LOTE_CURSOR = 500;
+	private static final int TAMANHO_LOTE_INSERCAO = 500;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Override
+	public List<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro) {
+		return consultar(Lancamento.class, filtro, null).getResultList();
+	}
+	
+	@Override
+	public List<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro, Set<CampoLancamento> campos) {
+		return projetar(Lancamento.class, filtro, campos);
+	}
+	
+	@Override
+	public List<LancamentoConsultaDTO> buscarPagina(FiltroLancamentoDTO filtro, CursorLancamentoDTO apos, int limite) {
+		return consultar(Lancamento.class, filtro, apos).setMaxResults(limite).getResultList();
+	}
+
+	@Override
+	public Stream<LancamentoConsultaDTO> buscarStream(FiltroLancamentoDTO filtro) {
+		return consultar(Lancamento.class, filtro, null)
+				.setHint(QueryHints.FETCH_SIZE, TAMANHO_LOTE_CURSOR)
+				.getResultStream();
+	}
+	
+	@Override
+	public List<LancamentoConsultaDTO> buscarHistorico(FiltroLancamentoDTO filtro) {
+		return consultar(LancamentoHistorico.class, filtro, null).getResultList();
+	}
+	
+	@Override
+	public List<LancamentoConsultaDTO> buscarHistorico(FiltroLancamentoDTO filtro, Set<CampoLancamento> campos) {
+		return projetar(LancamentoHistorico.class, filtro, campos);
+	}
+	
+	@Override
+	public List<LancamentoConsultaDTO> buscarPaginaHistorico(FiltroLancamentoDTO filtro, CursorLancamentoDTO apos, int limite) {
+		return consultar(LancamentoHistorico.class, filtro, apos).setMaxResults(limite).getResultList();
+	}
+	
+	@Override
+	public Stream<LancamentoConsultaDTO> buscarStreamHistorico(FiltroLancamentoDTO filtro) {
+		return consultar(LancamentoHistorico.class, filtro, null)
+				.setHint(QueryHints.FETCH_SIZE, TAMANHO_LOTE_CURSOR)
+				.getResultStream();
+	}
+	
+	@Override
+	public long contarHistorico(FiltroLancamentoDTO filtro) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<LancamentoHistorico> root = query.from(LancamentoHistorico.class);
+		query.select(cb.count(root))
+			.where(LancamentoSpecifications.predicados(root, cb, filtro).toArray(new Predicate[0]));
+		return entityManager.createQuery(query).getSingleResult();
+	}
+	
+	@Override
+	public void inserirEmLote(List<?> entidades) {
+		for(int i = 0; i < entidades.size(); i++) {
+			entityManager.persist(entidades.get(i));
+			if((i + 1) % TAMANHO_LOTE_INSERCAO == 0) {
+				entityManager.flush();
+				entityManager.clear();
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+	
+	/**
+	 * Quantidade e total, por usuário, mês, tipo e status, dos lançamentos que {@link #excluir} ou
+	 * {@link #atualizarStatus} vão alcançar com o mesmo filtro.
+	 */
+	@Override
+	public List<ResumoMensal> resumir(FiltroLancamentoDTO filtro, StatusLancamento exceto) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<ResumoMensal> query = cb.createQuery(ResumoMensal.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+		
+		List<Predicate> predicados = LancamentoSpecifications.predicados(root, cb, filtro);
+		if(exceto != null) {
+			predicados.add(cb.notEqual(root.get("status"), exceto));
+		}
+		List<Expression<?>> chave = Arrays.asList(root.get("usuario").get("id"), root.get("ano"), root.get("mes"),
+				root.get("tipo"), root.get("status"));
+		query.select(cb.construct(ResumoMensal.class, chave.get(0), chave.get(1), chave.get(2), chave.get(3), chave.get(4),
+					cb.count(root), cb.sum(root.<BigDecimal>get("valor"))))
+			.where(predicados.toArray(new Predicate[0]))
+			.groupBy(chave);
+		return entityManager.createQuery(query).getResultList();
+	}
+	
+	@Override
+	public List<Long> bloquearIds(FiltroLancamentoDTO filtro) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Lancamento> root = query.from(Lancamento.class);
+		query.select(root.get("id"))
+			.where(LancamentoSpecifications.predicados(root, cb, filtro).toArray(new Predicate[0]));
+		return entityManager.createQuery(query)
+				.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+				.getResultList();
+	}
+	
+	@Override
+	public int excluir(FiltroLancamentoDTO filtro) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaDelete<Lancamento> delete = cb.createCriteriaDelete(Lancamento.class);
+		Root<Lancamento> root = delete.from(Lancamento.class);
+		delete.where(LancamentoSpecifications.predicados(root, cb, filtro).toArray(new Predicate[0]));
+		return entityManager.createQuery(delete).executeUpdate();
+	}
+	
+	@Override
+	public int atualizarStatus(FiltroLancamentoDTO filtro, StatusLancamento status, Long alteracao) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+		Root<Lancamento> root = update.from(Lancamento.class);
+		
+		List<Predicate> predicados = LancamentoSpecifications.predicados(root, cb, filtro);
+		predicados.add(cb.notEqual(root.get("status"), status));
+		Path<Long> versao = root.get("versao");
+		update.set(root.<StatusLancamento>get("status"), status)
+			.set(versao, cb.sum(versao, 1L))
+			.set(root.<Long>get("alteracao"), alteracao)
+			.where(predicados.toArray(new Predicate[0]));
+		return entityManager.createQuery(update).executeUpdate();
+	}
+	
+	
+	private TypedQuery<LancamentoConsultaDTO> consultar(Class<?> entidade, FiltroLancamentoDTO filtro, CursorLancamentoDTO apos) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<LancamentoConsultaDTO> query = cb.createQuery(LancamentoConsultaDTO.class);
+		Root<?> root = query.from(entidade);
+		
+		List<Predicate> predicados = LancamentoSpecifications.predicados(root, cb, filtro);
+		if(apos != null) {
+			predicados.add(aposCursor(cb, root, apos));
+		}
+		query.select(cb.construct(LancamentoConsultaDTO.class, root.get("id"), root.get("descricao"), root.get("mes"),
+					root.get("ano"), root.get("usuario").get("id"), root.get("valor"), root.get("dataCadastro"),
+					root.get("tipo"), root.get("status")))
+			.where(predicados.toArray(new Predicate[0]))
+			.orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+		
+		return entityManager.createQuery(query);
+	}
+	
+	/**
+	 * Consulta de tuplas só com os atributos dos campos pedidos, copiados para o DTO na ordem do select.
+	 */
+	private List<LancamentoConsultaDTO> projetar(Class<?> entidade, FiltroLancamentoDTO filtro, Set<CampoLancamento> campos) {
+		if(campos == null) {
+			return consultar(entidade, filtro, null).getResultList();
+		}
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<?> root = query.from(entidade);
+		
+		CampoLancamento[] selecionados = campos.toArray(new CampoLancamento[0]);
+		List<Selection<?>> colunas = new ArrayList<>(selecionados.length);
+		for(CampoLancamento campo : selecionados) {
+			Path<?> coluna = root;
+			for(String atributo : campo.getAtributo().split("\\.")) {
+				coluna = coluna.get(atributo);
+			}
+			colunas.add(coluna);
+		}
+		query.multiselect(colunas)
+			.where(LancamentoSpecifications.predicados(root, cb, filtro).toArray(new Predicate[0]))
+			.orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+		
+		List<Tuple> tuplas = entityManager.createQuery(query).getResultList();
+		List<LancamentoConsultaDTO> lancamentos = new ArrayList<>(tuplas.size());
+		for(Tuple tupla : tuplas) {
+			LancamentoConsultaDTO lancamento = new LancamentoConsultaDTO();
+			for(int i = 0; i < selecionados.length; i++) {
+				selecionados[i].escrever(lancamento, tupla.get(i));
+			}
+			lancamentos.add(lancamento);
+		}
+		return lancamentos;
+	}
+	
+	private Predicate aposCursor(CriteriaBuilder cb, Root<?> root, CursorLancamentoDTO cursor) {
+		Path<Integer> ano = root.get("ano");
+		Path<Integer> mes = root.get("mes");
+		Path<Long> id = root.get("id");
+		return cb.and(cb.greaterThanOrEqualTo(ano, cursor.getAno()),
+				cb.or(cb.greaterThan(ano, cursor.getAno()),
+					cb.greaterThan(mes, cursor.getMes()),
+					cb.and(cb.equal(mes, cursor.getMes()), cb.greaterThan(id, cursor.getId()))));
+	}
+}
@@ -0,0 +1,87 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+
+public final class LancamentoSpecifications {
+
+	private static final char ESCAPE = '\\';
+	
+	private LancamentoSpecifications() {
+	}
+	
+	public static Specification<Lancamento> filtrar(FiltroLancamentoDTO filtro) {
+		return (root, query, cb) -> cb.and(predicados(root, cb, filtro).toArray(new Predicate[0]));
+	}
+	
+	public static List<Predicate> predicados(Root<?> root, CriteriaBuilder cb, FiltroLancamentoDTO filtro) {
+		List<Predicate> predicados = new ArrayList<>();
+		Path<Integer> ano = root.get("ano");
+		Path<Integer> mes = root.get("mes");
+		
+		if(filtro.getUsuario() != null) {
+			predicados.add(cb.equal(root.get("usuario").get("id"), filtro.getUsuario()));
+		}
+		if(filtro.getAno() != null) {
+			predicados.add(cb.equal(ano, filtro.getAno()));
+		}
+		if(filtro.getMes() != null) {
+			predicados.add(cb.equal(mes, filtro.getMes()));
+		}
+		if(filtro.getAnoInicial() != null) {
+			predicados.add(aPartirDe(cb, ano, mes, filtro.getAnoInicial(), filtro.getMesInicial()));
+		}
+		if(filtro.getAnoFinal() != null) {
+			predicados.add(ate(cb, ano, mes, filtro.getAnoFinal(), filtro.getMesFinal()));
+		}
+		if(filtro.getTipo() != null) {
+			predicados.add(cb.equal(root.get("tipo"), filtro.getTipo()));
+		}
+		if(filtro.getStatus() != null) {
+			predicados.add(cb.equal(root.get("status"), filtro.getStatus()));
+		}
+		if(filtro.getValorMinimo() != null) {
+			predicados.add(cb.greaterThanOrEqualTo(root.get("valor"), filtro.getValorMinimo()));
+		}
+		if(filtro.getValorMaximo() != null) {
+			predicados.add(cb.lessThanOrEqualTo(root.get("valor"), filtro.getValorMaximo()));
+		}
+		if(filtro.getDescricao() != null && !filtro.getDescricao().trim().isEmpty()) {
+			predicados.add(cb.like(cb.lower(root.get("descricao")), contendo(filtro.getDescricao()), ESCAPE));
+		}
+		return predicados;
+	}
+	
+	
+	private static Predicate aPartirDe(CriteriaBuilder cb, Path<Integer> ano, Path<Integer> mes, Integer anoInicial, Integer mesInicial) {
+		if(mesInicial == null) {
+			return cb.greaterThanOrEqualTo(ano, anoInicial);
+		}
+		return cb.and(cb.greaterThanOrEqualTo(ano, anoInicial), cb.or(cb.greaterThan(ano, anoInicial), cb.greaterThanOrEqualTo(mes, mesInicial)));
+	}
+	
+	private static Predicate ate(CriteriaBuilder cb, Path<Integer> ano, Path<Integer> mes, Integer anoFinal, Integer mesFinal) {
+		if(mesFinal == null) {
+			return cb.lessThanOrEqualTo(ano, anoFinal);
+		}
+		return cb.and(cb.lessThanOrEqualTo(ano, anoFinal), cb.or(cb.lessThan(ano, anoFinal), cb.lessThanOrEqualTo(mes, mesFinal)));
+	}
+	
+	private static String contendo(String texto) {
+		String escapado = texto.trim().toLowerCase()
+				.replace("\\", "\\\\")
+				.replace("%", "\\%")
+				.replace("_", "\\_");
+		return "%" + escapado + "%";
+	}
+}
@@ -0,0 +1,20 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalId;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalProjetado;
+
+public interface ResumoMensalProjetadoRepository extends JpaRepository<ResumoMensalProjetado, ResumoMensalId>{
+
+	@Query(value = "select r from ResumoMensalProjetado r where r.id.idUsuario in :usuarios "
+			+ "and r.id.ano between :anoInicial and :anoFinal")
+	List<ResumoMensalProjetado> buscarPeriodo(@Param("usuarios") Collection<Long> usuarios, @Param("anoInicial") Integer anoInicial,
+			@Param("anoFinal") Integer anoFinal);
+	
+}
@@ -0,0 +1,48 @@
+package com.ajeff.minhasfinancas.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalId;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ResumoMensalId>, ResumoMensalRepositoryCustom{
+
+	@Modifying
+	@Query(value = "update ResumoMensal r set r.quantidade = r.quantidade + :quantidade, r.total = r.total + :total, "
+			+ "r.versao = r.versao + 1 where r.id.idUsuario = :idUsuario and r.id.ano = :ano and r.id.mes = :mes "
+			+ "and r.id.tipo = :tipo and r.id.status = :status")
+	int aplicarDelta(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano, @Param("mes") Integer mes,
+			@Param("tipo") TipoLancamento tipo, @Param("status") StatusLancamento status,
+			@Param("quantidade") Long quantidade, @Param("total") BigDecimal total);
+	
+	@Query(value = "select r from ResumoMensal r where r.id.idUsuario = :idUsuario "
+			+ "and r.id.ano between :anoInicial and :anoFinal "
+			+ "and (r.id.ano > :anoInicial or r.id.mes >= :mesInicial) "
+			+ "and (r.id.ano < :anoFinal or r.id.mes <= :mesFinal)")
+	List<ResumoMensal> buscarPeriodo(@Param("idUsuario") Long idUsuario, @Param("anoInicial") Integer anoInicial,
+			@Param("mesInicial") Integer mesInicial, @Param("anoFinal") Integer anoFinal, @Param("mesFinal") Integer mesFinal);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query(value = "select r from ResumoMensal r where r.id.idUsuario = :idUsuario")
+	List<ResumoMensal> bloquearPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+	/**
+	 * Os resumos dos anos arquivados ficam: os lançamentos deles não estão mais nas tabelas de onde a reconciliação recalcula.
+	 */
+	@Modifying
+	@Query(value = "delete from ResumoMensal r where r.id.idUsuario = :idUsuario "
+			+ "and r.id.ano not in (select a.ano from AnoArquivado a)")
+	int excluirPorUsuario(@Param("idUsuario") Long idUsuario);
+	
+}
@@ -0,0 +1,11 @@
+package com.ajeff.minhasfinancas.repository;
+
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+
+public interface ResumoMensalRepositoryCustom {
+
+	/**
+	 * Insere o resumo se o mês ainda não tiver um; devolve falso quando outra transação já o inseriu.
+	 */
+	boolean inserirSeAusente(ResumoMensal resumo);
+}
@@ -0,0 +1,48 @@
+package com.ajeff.minhasfinancas.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalId;
+
+/**
+ * Mesmo insert condicional de {@link SaldoUsuarioRepositoryImpl}, pela chave completa do resumo.
+ */
+public class ResumoMensalRepositoryImpl implements ResumoMensalRepositoryCustom {
+
+	private static final String INSERIR_POSTGRES = "insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, quantidade, total, versao) "
+			+ "values (:idUsuario, :ano, :mes, :tipo, :status, :quantidade, :total, 0) on conflict do nothing";
+	private static final String INSERIR = "insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, quantidade, total, versao) "
+			+ "select :idUsuario, :ano, :mes, :tipo, :status, :quantidade, :total, 0 from dual "
+			+ "where not exists (select 1 from financas.resumo_mensal where id_usuario = :idUsuario and ano = :ano and mes = :mes "
+			+ "and tipo = :tipo and status = :status)";
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	private volatile Boolean postgres;
+	
+	@Override
+	public boolean inserirSeAusente(ResumoMensal resumo) {
+		ResumoMensalId id = resumo.getId();
+		return entityManager.createNativeQuery(postgres() ? INSERIR_POSTGRES : INSERIR)
+				.setParameter("idUsuario", id.getIdUsuario())
+				.setParameter("ano", id.getAno())
+				.setParameter("mes", id.getMes())
+				.setParameter("tipo", id.getTipo().name())
+				.setParameter("status", id.getStatus().name())
+				.setParameter("quantidade", resumo.getQuantidade())
+				.setParameter("total", resumo.getTotal())
+				.executeUpdate() == 1;
+	}
+	
+	private boolean postgres() {
+		if(postgres == null) {
+			postgres = "PostgreSQL".equals(entityManager.unwrap(Session.class)
+					.doReturningWork(conexao -> conexao.getMetaData().getDatabaseProductName()));
+		}
+		return postgres;
+	}
+}
@@ -0,0 +1,9 @@
+package com.ajeff.minhasfinancas.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.ajeff.minhasfinancas.model.entity.SaldoHistorico;
+
+public interface SaldoHistoricoRepository extends JpaRepository<SaldoHistorico, Long>{
+
+}
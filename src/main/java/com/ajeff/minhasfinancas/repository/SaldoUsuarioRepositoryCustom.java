@@ -0,0 +1,11 @@
+package com.ajeff.minhasfinancas.repository;
+
+import com.ajeff.minhasfinancas.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioRepositoryCustom {
+
+	/**
+	 * Insere o saldo se o usuário ainda não tiver um; devolve falso quando outra transação já o inseriu.
+	 */
+	boolean inserirSeAusente(SaldoUsuario saldo);
+}
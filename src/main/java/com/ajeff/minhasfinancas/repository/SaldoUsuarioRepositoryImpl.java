@@ -0,0 +1,43 @@
+package com.ajeff.minhasfinancas.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+
+import com.ajeff.minhasfinancas.model.entity.SaldoUsuario;
+
+/**
+ * No PostgreSQL o insert espera a transação concorrente e desiste do conflito em vez de falhar pela chave;
+ * fora dele (H2 nos testes) basta conferir a existência no mesmo comando.
+ */
+public class SaldoUsuarioRepositoryImpl implements SaldoUsuarioRepositoryCustom {
+
+	private static final String INSERIR_POSTGRES = "insert into financas.saldo_usuario (id_usuario, receitas, despesas, saldo, versao) "
+			+ "values (:idUsuario, :receitas, :despesas, :saldo, 0) on conflict (id_usuario) do nothing";
+	private static final String INSERIR = "insert into financas.saldo_usuario (id_usuario, receitas, despesas, saldo, versao) "
+			+ "select :idUsuario, :receitas, :despesas, :saldo, 0 from dual "
+			+ "where not exists (select 1 from financas.saldo_usuario where id_usuario = :idUsuario)";
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	private volatile Boolean postgres;
+	
+	@Override
+	public boolean inserirSeAusente(SaldoUsuario saldo) {
+		return entityManager.createNativeQuery(postgres() ? INSERIR_POSTGRES : INSERIR)
+				.setParameter("idUsuario", saldo.getIdUsuario())
+				.setParameter("receitas", saldo.getReceitas())
+				.setParameter("despesas", saldo.getDespesas())
+				.setParameter("saldo", saldo.getSaldo())
+				.executeUpdate() == 1;
+	}
+	
+	private boolean postgres() {
+		if(postgres == null) {
+			postgres = "PostgreSQL".equals(entityManager.unwrap(Session.class)
+					.doReturningWork(conexao -> conexao.getMetaData().getDatabaseProductName()));
+		}
+		return postgres;
+	}
+}
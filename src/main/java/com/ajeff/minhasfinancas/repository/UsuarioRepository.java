@@ -1,15 +1,31 @@
 package com.ajeff.minhasfinancas.repository;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.ajeff.minhasfinancas.model.entity.Usuario;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long>{
 	
+	String CACHE_POR_ID = "usuarios";
+	String CACHE_POR_EMAIL = "usuariosPorEmail";
+	
 	boolean existsByEmail(String email);
 	
+	@Override
+	@Cacheable(cacheNames = CACHE_POR_ID, unless = "#result == null")
+	Optional<Usuario> findById(Long id);
+	
+	@Cacheable(cacheNames = CACHE_POR_EMAIL, unless = "#result == null")
 	Optional<Usuario> findByEmail(String email);
+	
+	@Query(value = "select u.id from Usuario u where u.id in :ids")
+	Set<Long> obterIdsExistentes(@Param("ids") Collection<Long> ids);
 
 }
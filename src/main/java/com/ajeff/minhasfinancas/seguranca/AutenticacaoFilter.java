@@ -0,0 +1,129 @@
+package com.ajeff.minhasfinancas.seguranca;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Resolve o usuário pelo token Bearer, sem consultar o banco. Com token, o parâmetro usuario e o id em
+ * /api/usuarios/{id} e /api/reativo/usuarios/{id} precisam ser do próprio usuário, e o parâmetro usuario passa a ter o id do token quando omitido;
+ * os caminhos por id de lançamento são conferidos nos controllers, depois de carregar o dono.
+ * Sem token a requisição só segue quando financas.autenticacao.obrigatoria=false, para clientes que ainda não o enviam.
+ * As operações administrativas exigem sempre o token de um usuário de financas.autenticacao.administradores.
+ */
+public class AutenticacaoFilter extends OncePerRequestFilter {
+
+	static final String PARAMETRO_USUARIO = "usuario";
+	private static final String BEARER = "Bearer ";
+	private static final Pattern CAMINHO_USUARIO = Pattern.compile("^/api/(?:reativo/)?usuarios/(\\d+)(/.*)?$");
+	private static final Pattern CAMINHO_ADMINISTRATIVO = Pattern.compile("^/api/(projecoes/[^/]+/reconstrucao|recorrencias/materializacao)/?$");
+	
+	private final TokenAcesso tokens;
+	private final boolean obrigatoria;
+	private final Set<Long> administradores;
+	
+	public AutenticacaoFilter(TokenAcesso tokens, boolean obrigatoria, Set<Long> administradores) {
+		this.tokens = tokens;
+		this.obrigatoria = obrigatoria;
+		this.administradores = administradores;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String caminho = request.getRequestURI().substring(request.getContextPath().length());
+		if(publico(request.getMethod(), caminho)) {
+			chain.doFilter(request, response);
+			return;
+		}
+		
+		boolean administrativo = HttpMethod.POST.matches(request.getMethod()) && CAMINHO_ADMINISTRATIVO.matcher(caminho).matches();
+		String cabecalho = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if(cabecalho == null || !cabecalho.startsWith(BEARER)) {
+			if(obrigatoria || administrativo) {
+				response.sendError(HttpStatus.UNAUTHORIZED.value(), "Informe o token de acesso!");
+				return;
+			}
+			chain.doFilter(request, response);
+			return;
+		}
+		
+		Optional<Long> usuario = tokens.validar(cabecalho.substring(BEARER.length()).trim());
+		if(!usuario.isPresent()) {
+			response.sendError(HttpStatus.UNAUTHORIZED.value(), "Token de acesso inválido ou expirado!");
+			return;
+		}
+		if(administrativo && !administradores.contains(usuario.get())) {
+			response.sendError(HttpStatus.FORBIDDEN.value(), "Operação restrita aos administradores!");
+			return;
+		}
+		String id = usuario.get().toString();
+		String informado = request.getParameter(PARAMETRO_USUARIO);
+		Matcher caminhoUsuario = CAMINHO_USUARIO.matcher(caminho);
+		if((informado != null && !informado.equals(id)) || (caminhoUsuario.matches() && !caminhoUsuario.group(1).equals(id))) {
+			response.sendError(HttpStatus.FORBIDDEN.value(), "O token informado é de outro usuário!");
+			return;
+		}
+		
+		request.setAttribute(UsuarioAutenticado.ATRIBUTO, usuario.get());
+		chain.doFilter(informado == null ? new RequisicaoAutenticada(request, id) : request, response);
+	}
+	
+	private static boolean publico(String metodo, String caminho) {
+		return HttpMethod.OPTIONS.matches(metodo)
+				|| (HttpMethod.POST.matches(metodo) && (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar")));
+	}
+	
+	/**
+	 * Acrescenta o parâmetro usuario com o id do token.
+	 */
+	private static class RequisicaoAutenticada extends HttpServletRequestWrapper {
+		
+		private final Map<String, String[]> parametros;
+		
+		RequisicaoAutenticada(HttpServletRequest request, String usuario) {
+			super(request);
+			Map<String, String[]> parametros = new LinkedHashMap<>(request.getParameterMap());
+			parametros.put(PARAMETRO_USUARIO, new String[] {usuario});
+			this.parametros = Collections.unmodifiableMap(parametros);
+		}
+		
+		@Override
+		public String getParameter(String name) {
+			String[] valores = parametros.get(name);
+			return valores == null || valores.length == 0 ? null : valores[0];
+		}
+		
+		@Override
+		public String[] getParameterValues(String name) {
+			return parametros.get(name);
+		}
+		
+		@Override
+		public Map<String, String[]> getParameterMap() {
+			return parametros;
+		}
+		
+		@Override
+		public Enumeration<String> getParameterNames() {
+			return Collections.enumeration(parametros.keySet());
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.ajeff.minhasfinancas.seguranca;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Senhas guardadas como PBKDF2-HMAC-SHA256 com sal aleatório, no formato pbkdf2$iterações$sal$hash. As iterações
+ * ficam na própria senha codificada, então aumentar financas.senhas.iteracoes não invalida as existentes:
+ * {@link #precisaRecodificar} indica quais devem ser recodificadas no próximo login, inclusive as antigas em texto puro.
+ */
+@Component
+public class CodificadorSenha {
+
+	private static final String ALGORITMO = "PBKDF2WithHmacSHA256";
+	private static final String PREFIXO = "pbkdf2$";
+	private static final int TAMANHO_SAL = 16;
+	private static final int TAMANHO_HASH = 32;
+	
+	private final SecureRandom aleatorio = new SecureRandom();
+	private final int iteracoes;
+	private final String senhaFicticia;
+	
+	public CodificadorSenha(@Value("${financas.senhas.iteracoes:210000}") int iteracoes) {
+		this.iteracoes = iteracoes;
+		this.senhaFicticia = codificar("senha-ficticia");
+	}
+	
+	public String codificar(String senha) {
+		byte[] sal = new byte[TAMANHO_SAL];
+		aleatorio.nextBytes(sal);
+		Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+		return PREFIXO + iteracoes + "$" + base64.encodeToString(sal) + "$" + base64.encodeToString(derivar(senha, sal, iteracoes, TAMANHO_HASH));
+	}
+	
+	public boolean verificar(String senha, String codificada) {
+		if(codificada == null) {
+			return false;
+		}
+		if(!codificada.startsWith(PREFIXO)) {
+			return MessageDigest.isEqual(bytes(senha), bytes(codificada));
+		}
+		String[] partes = codificada.split("\\$");
+		if(partes.length != 4) {
+			return false;
+		}
+		byte[] esperado = Base64.getDecoder().decode(partes[3]);
+		byte[] calculado = derivar(senha, Base64.getDecoder().decode(partes[2]), Integer.parseInt(partes[1]), esperado.length);
+		return MessageDigest.isEqual(calculado, esperado);
+	}
+	
+	/**
+	 * Faz o mesmo trabalho de uma verificação, para que um e-mail inexistente não responda mais rápido que uma senha errada.
+	 */
+	public void simularVerificacao(String senha) {
+		verificar(senha, senhaFicticia);
+	}
+	
+	public boolean precisaRecodificar(String codificada) {
+		if(codificada == null || !codificada.startsWith(PREFIXO)) {
+			return true;
+		}
+		return Integer.parseInt(codificada.substring(PREFIXO.length(), codificada.indexOf('$', PREFIXO.length()))) < iteracoes;
+	}
+	
+	
+	private static byte[] derivar(String senha, byte[] sal, int iteracoes, int tamanho) {
+		PBEKeySpec especificacao = new PBEKeySpec(senha == null ? new char[0] : senha.toCharArray(), sal, iteracoes, tamanho * 8);
+		try {
+			return SecretKeyFactory.getInstance(ALGORITMO).generateSecret(especificacao).getEncoded();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			especificacao.clearPassword();
+		}
+	}
+	
+	private static byte[] bytes(String valor) {
+		return valor == null ? new byte[0] : valor.getBytes(StandardCharsets.UTF_8);
+	}
+}
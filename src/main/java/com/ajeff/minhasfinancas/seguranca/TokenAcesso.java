@@ -0,0 +1,101 @@
+package com.ajeff.minhasfinancas.seguranca;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tokens de acesso assinados com HMAC-SHA256 no formato base64url(idUsuario.expiraEm).base64url(assinatura).
+ * Validar um token só confere a assinatura e a validade, sem consultar o banco; por isso a validade é curta
+ * (financas.tokens.validade) e todas as instâncias precisam do mesmo financas.tokens.segredo.
+ */
+@Slf4j
+@Component
+public class TokenAcesso {
+
+	private static final String ALGORITMO = "HmacSHA256";
+	private static final int TAMANHO_SEGREDO = 32;
+	
+	private final SecretKeySpec chave;
+	private final Duration validade;
+	private final Clock relogio;
+	private final ThreadLocal<Mac> assinadores = ThreadLocal.withInitial(this::criarAssinador);
+	
+	@Autowired
+	public TokenAcesso(@Value("${financas.tokens.segredo}") String segredo, @Value("${financas.tokens.validade:15m}") Duration validade) {
+		this(segredo, validade, Clock.systemUTC());
+	}
+	
+	TokenAcesso(String segredo, Duration validade, Clock relogio) {
+		if(!StringUtils.hasText(segredo)) {
+			throw new IllegalStateException("Configure financas.tokens.segredo (FINANCAS_TOKENS_SEGREDO) com o mesmo valor em todas as instâncias");
+		}
+		byte[] bytes = segredo.getBytes(StandardCharsets.UTF_8);
+		if(bytes.length < TAMANHO_SEGREDO) {
+			log.warn("financas.tokens.segredo tem menos de {} bytes", TAMANHO_SEGREDO);
+		}
+		this.chave = new SecretKeySpec(bytes, ALGORITMO);
+		this.validade = validade;
+		this.relogio = relogio;
+	}
+	
+	public String emitir(Long idUsuario) {
+		String conteudo = idUsuario + "." + relogio.instant().plus(validade).getEpochSecond();
+		Base64.Encoder base64 = Base64.getUrlEncoder().withoutPadding();
+		return base64.encodeToString(conteudo.getBytes(StandardCharsets.UTF_8)) + "." + base64.encodeToString(assinar(conteudo));
+	}
+	
+	public Optional<Long> validar(String token) {
+		int separador = token == null ? -1 : token.indexOf('.');
+		if(separador < 1) {
+			return Optional.empty();
+		}
+		try {
+			String conteudo = new String(Base64.getUrlDecoder().decode(token.substring(0, separador)), StandardCharsets.UTF_8);
+			byte[] assinatura = Base64.getUrlDecoder().decode(token.substring(separador + 1));
+			if(!MessageDigest.isEqual(assinar(conteudo), assinatura)) {
+				return Optional.empty();
+			}
+			int ponto = conteudo.indexOf('.');
+			if(Long.parseLong(conteudo.substring(ponto + 1)) <= relogio.instant().getEpochSecond()) {
+				return Optional.empty();
+			}
+			return Optional.of(Long.valueOf(conteudo.substring(0, ponto)));
+		} catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+			return Optional.empty();
+		}
+	}
+	
+	public Duration getValidade() {
+		return validade;
+	}
+	
+	
+	private byte[] assinar(String conteudo) {
+		return assinadores.get().doFinal(conteudo.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	private Mac criarAssinador() {
+		try {
+			Mac mac = Mac.getInstance(ALGORITMO);
+			mac.init(chave);
+			return mac;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
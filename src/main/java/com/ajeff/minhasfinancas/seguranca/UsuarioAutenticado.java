@@ -0,0 +1,61 @@
+package com.ajeff.minhasfinancas.seguranca;
+
+import java.util.Optional;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.ajeff.minhasfinancas.exceptions.AcessoNegadoException;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+
+/**
+ * Usuário do token de acesso da requisição atual, resolvido pelo {@link AutenticacaoFilter}.
+ */
+public final class UsuarioAutenticado {
+
+	static final String ATRIBUTO = UsuarioAutenticado.class.getName();
+	public static final String OUTRO_USUARIO = "O token informado é de outro usuário!";
+	
+	private UsuarioAutenticado() {
+	}
+	
+	public static Optional<Long> obter() {
+		RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+		return atributos == null ? Optional.empty()
+				: Optional.ofNullable((Long) atributos.getAttribute(ATRIBUTO, RequestAttributes.SCOPE_REQUEST));
+	}
+	
+	/**
+	 * Verdadeiro quando o token da requisição é do usuário informado: ele existia quando o token foi emitido,
+	 * então não é preciso consultá-lo de novo.
+	 */
+	public static boolean eh(Long idUsuario) {
+		return idUsuario != null && obter().map(idUsuario::equals).orElse(false);
+	}
+	
+	/**
+	 * Garante que o registro do usuário informado pode ser lido ou alterado pelo token da requisição. Sem token
+	 * (fora de uma requisição, ou com financas.autenticacao.obrigatoria=false) não há com quem comparar.
+	 */
+	public static void verificarDono(Long idUsuario) {
+		Optional<Long> autenticado = obter();
+		if(autenticado.isPresent() && !autenticado.get().equals(idUsuario)) {
+			throw new AcessoNegadoException(OUTRO_USUARIO);
+		}
+	}
+	
+	/**
+	 * Usuário informado no corpo da requisição, ou o do token quando omitido; com token, precisa ser o dele.
+	 */
+	public static Long resolver(Long informado, String mensagemSemUsuario) {
+		Optional<Long> autenticado = obter();
+		Long idUsuario = informado == null ? autenticado.orElse(null) : informado;
+		if(idUsuario == null) {
+			throw new RegraNegocioException(mensagemSemUsuario);
+		}
+		if(autenticado.isPresent() && !autenticado.get().equals(idUsuario)) {
+			throw new RegraNegocioException(OUTRO_USUARIO);
+		}
+		return idUsuario;
+	}
+}
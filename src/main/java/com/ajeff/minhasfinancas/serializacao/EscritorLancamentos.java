@@ -0,0 +1,141 @@
+package com.ajeff.minhasfinancas.serializacao;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import com.ajeff.minhasfinancas.dto.CampoLancamento;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+
+/**
+ * Formato compacto da listagem de lançamentos: o usuário vai uma vez no cabeçalho, cada lançamento é uma lista
+ * na ordem de "colunas" e tipo e status são o índice nas listas "tipos" e "status". Com campos pedidos,
+ * "colunas" e as linhas têm só esses campos.
+ * <pre>
+ * {"usuario":1,"colunas":[...],"tipos":["RECEITA","DESPESA"],"status":[...],"lancamentos":[[10,"Aluguel",1,2020,1500.00,"2020-01-05",1,0]],"proximoCursor":"..."}
+ * </pre>
+ */
+final class EscritorLancamentos {
+
+	private static final TipoLancamento[] TIPOS = TipoLancamento.values();
+	private static final StatusLancamento[] STATUS = StatusLancamento.values();
+	private static final CampoLancamento[] TODAS = colunas(EnumSet.allOf(CampoLancamento.class));
+	
+	private EscritorLancamentos() {
+	}
+	
+	/**
+	 * Todos os lançamentos precisam ser do mesmo usuário, como nas buscas, que sempre filtram por ele.
+	 */
+	static void escrever(List<LancamentoConsultaDTO> lancamentos, Set<CampoLancamento> campos, String proximoCursor,
+				SaidaCompacta saida) throws IOException {
+		Long usuario = lancamentos.isEmpty() ? null : lancamentos.get(0).getUsuario();
+		for(LancamentoConsultaDTO lancamento : lancamentos) {
+			if(!Objects.equals(usuario, lancamento.getUsuario())) {
+				throw new IllegalArgumentException("Lançamentos de usuários diferentes não podem ser escritos no formato compacto");
+			}
+		}
+		CampoLancamento[] colunas = campos == null ? TODAS : colunas(campos);
+		
+		saida.inicioMapa(proximoCursor == null ? 5 : 6);
+		saida.chave("usuario");
+		inteiro(usuario, saida);
+		saida.chave("colunas");
+		saida.inicioLista(colunas.length);
+		for(CampoLancamento coluna : colunas) {
+			saida.texto(coluna.getNome());
+		}
+		saida.fimLista();
+		saida.chave("tipos");
+		textos(TIPOS, saida);
+		saida.chave("status");
+		textos(STATUS, saida);
+		
+		saida.chave("lancamentos");
+		saida.inicioLista(lancamentos.size());
+		for(LancamentoConsultaDTO lancamento : lancamentos) {
+			saida.inicioLista(colunas.length);
+			for(CampoLancamento coluna : colunas) {
+				valor(coluna, lancamento, saida);
+			}
+			saida.fimLista();
+		}
+		saida.fimLista();
+		
+		if(proximoCursor != null) {
+			saida.chave("proximoCursor");
+			saida.texto(proximoCursor);
+		}
+		saida.fimMapa();
+		saida.finalizar();
+	}
+	
+	
+	// o usuário vai no cabeçalho, nunca como coluna
+	private static CampoLancamento[] colunas(Set<CampoLancamento> campos) {
+		return campos.stream().filter(campo -> campo != CampoLancamento.USUARIO).toArray(CampoLancamento[]::new);
+	}
+	
+	private static void valor(CampoLancamento coluna, LancamentoConsultaDTO lancamento, SaidaCompacta saida) throws IOException {
+		switch (coluna) {
+		case ID:
+			inteiro(lancamento.getId(), saida);
+			break;
+		case DESCRICAO:
+			texto(lancamento.getDescricao(), saida);
+			break;
+		case MES:
+			inteiro(lancamento.getMes(), saida);
+			break;
+		case ANO:
+			inteiro(lancamento.getAno(), saida);
+			break;
+		case VALOR:
+			if(lancamento.getValor() == null) {
+				saida.nulo();
+			} else {
+				saida.decimal(lancamento.getValor());
+			}
+			break;
+		case DATA_CADASTRO:
+			texto(lancamento.getDataCadastro() == null ? null : lancamento.getDataCadastro().toString(), saida);
+			break;
+		case TIPO:
+			inteiro(lancamento.getTipo() == null ? null : lancamento.getTipo().ordinal(), saida);
+			break;
+		case STATUS:
+			inteiro(lancamento.getStatus() == null ? null : lancamento.getStatus().ordinal(), saida);
+			break;
+		default:
+			throw new IllegalArgumentException("Coluna não suportada: " + coluna);
+		}
+	}
+	
+	private static void inteiro(Number valor, SaidaCompacta saida) throws IOException {
+		if(valor == null) {
+			saida.nulo();
+		} else {
+			saida.inteiro(valor.longValue());
+		}
+	}
+	
+	private static void texto(String valor, SaidaCompacta saida) throws IOException {
+		if(valor == null) {
+			saida.nulo();
+		} else {
+			saida.texto(valor);
+		}
+	}
+	
+	private static void textos(Object[] valores, SaidaCompacta saida) throws IOException {
+		saida.inicioLista(valores.length);
+		for(Object valor : valores) {
+			saida.texto(valor.toString());
+		}
+		saida.fimLista();
+	}
+}
@@ -0,0 +1,78 @@
+package com.ajeff.minhasfinancas.serializacao;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.stereotype.Component;
+
+import com.ajeff.minhasfinancas.dto.ListaLancamentosDTO;
+import com.ajeff.minhasfinancas.dto.PaginaLancamentoDTO;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Escreve as listagens de lançamentos no formato do {@link EscritorLancamentos}, em JSON ({@link #COMPACTO})
+ * ou MessagePack ({@link #MSGPACK}). Só é usado quando o cliente pede um desses tipos no Accept e o endpoint
+ * os declara em produces; sem isso a resposta continua sendo o JSON do Jackson.
+ */
+@Component
+public class LancamentosCompactosConverter extends AbstractHttpMessageConverter<Object> {
+
+	public static final String COMPACTO = "application/vnd.financas.compacto+json";
+	public static final String MSGPACK = "application/x-msgpack";
+	
+	private static final MediaType TIPO_MSGPACK = MediaType.parseMediaType(MSGPACK);
+	
+	private final ObjectMapper objectMapper;
+	
+	public LancamentosCompactosConverter(ObjectMapper objectMapper) {
+		super(MediaType.parseMediaType(COMPACTO), TIPO_MSGPACK);
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return ListaLancamentosDTO.class == clazz || PaginaLancamentoDTO.class == clazz;
+	}
+	
+	@Override
+	public boolean canRead(Class<?> clazz, MediaType mediaType) {
+		return false;
+	}
+	
+	/**
+	 * Nunca se oferece sem tipo definido, para não virar o formato padrão de quem aceita qualquer um.
+	 */
+	@Override
+	protected boolean canWrite(MediaType mediaType) {
+		return mediaType != null && !mediaType.isWildcardType() && !mediaType.isWildcardSubtype() && super.canWrite(mediaType);
+	}
+
+	@Override
+	protected Object readInternal(Class<? extends Object> clazz, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("Formato somente de saída", inputMessage);
+	}
+
+	@Override
+	protected void writeInternal(Object corpo, HttpOutputMessage outputMessage) throws IOException {
+		MediaType tipo = outputMessage.getHeaders().getContentType();
+		SaidaCompacta saida = tipo != null && TIPO_MSGPACK.includes(tipo) ? new SaidaMessagePack(outputMessage.getBody())
+				: new SaidaJson(objectMapper.getFactory().createGenerator(outputMessage.getBody(), JsonEncoding.UTF8));
+		try {
+			if(corpo instanceof PaginaLancamentoDTO) {
+				PaginaLancamentoDTO pagina = (PaginaLancamentoDTO) corpo;
+				EscritorLancamentos.escrever(pagina.getLancamentos(), null, pagina.getProximoCursor(), saida);
+			} else {
+				ListaLancamentosDTO lista = (ListaLancamentosDTO) corpo;
+				EscritorLancamentos.escrever(lista.getLancamentos(), lista.getCampos(), null, saida);
+			}
+		} catch (IllegalArgumentException e) {
+			throw new HttpMessageNotWritableException(e.getMessage(), e);
+		}
+	}
+}
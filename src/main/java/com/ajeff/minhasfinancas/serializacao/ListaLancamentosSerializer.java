@@ -0,0 +1,42 @@
+package com.ajeff.minhasfinancas.serializacao;
+
+import java.io.IOException;
+
+import com.ajeff.minhasfinancas.dto.CampoLancamento;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.dto.ListaLancamentosDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Sem campos escreve a lista como o Jackson já escrevia; com campos escreve cada lançamento só com eles, direto no
+ * gerador e usando os serializadores do ObjectMapper para cada valor (datas, decimais e enums saem iguais).
+ */
+public class ListaLancamentosSerializer extends StdSerializer<ListaLancamentosDTO> {
+
+	private static final long serialVersionUID = 1L;
+
+	public ListaLancamentosSerializer() {
+		super(ListaLancamentosDTO.class);
+	}
+
+	@Override
+	public void serialize(ListaLancamentosDTO lista, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+		if(lista.getCampos() == null) {
+			provider.defaultSerializeValue(lista.getLancamentos(), gerador);
+			return;
+		}
+		CampoLancamento[] campos = lista.getCampos().toArray(new CampoLancamento[0]);
+		gerador.writeStartArray(lista.getLancamentos().size());
+		for(LancamentoConsultaDTO lancamento : lista.getLancamentos()) {
+			gerador.writeStartObject();
+			for(CampoLancamento campo : campos) {
+				gerador.writeFieldName(campo.getNome());
+				provider.defaultSerializeValue(campo.ler(lancamento), gerador);
+			}
+			gerador.writeEndObject();
+		}
+		gerador.writeEndArray();
+	}
+}
@@ -0,0 +1,31 @@
+package com.ajeff.minhasfinancas.serializacao;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Destino do {@link EscritorLancamentos}: os formatos compactos só diferem na codificação de cada valor.
+ * Os tamanhos de mapas e listas são informados no início porque o MessagePack os grava no cabeçalho.
+ */
+interface SaidaCompacta {
+
+	void inicioMapa(int tamanho) throws IOException;
+	
+	void fimMapa() throws IOException;
+	
+	void inicioLista(int tamanho) throws IOException;
+	
+	void fimLista() throws IOException;
+	
+	void chave(String nome) throws IOException;
+	
+	void texto(String valor) throws IOException;
+	
+	void inteiro(long valor) throws IOException;
+	
+	void decimal(BigDecimal valor) throws IOException;
+	
+	void nulo() throws IOException;
+	
+	void finalizar() throws IOException;
+}
@@ -0,0 +1,68 @@
+package com.ajeff.minhasfinancas.serializacao;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Escreve direto no JsonGenerator do Jackson, sem montar árvore nem passar pelo databind.
+ */
+class SaidaJson implements SaidaCompacta {
+
+	private final JsonGenerator gerador;
+	
+	SaidaJson(JsonGenerator gerador) {
+		this.gerador = gerador;
+	}
+
+	@Override
+	public void inicioMapa(int tamanho) throws IOException {
+		gerador.writeStartObject();
+	}
+
+	@Override
+	public void fimMapa() throws IOException {
+		gerador.writeEndObject();
+	}
+
+	@Override
+	public void inicioLista(int tamanho) throws IOException {
+		gerador.writeStartArray(tamanho);
+	}
+
+	@Override
+	public void fimLista() throws IOException {
+		gerador.writeEndArray();
+	}
+
+	@Override
+	public void chave(String nome) throws IOException {
+		gerador.writeFieldName(nome);
+	}
+
+	@Override
+	public void texto(String valor) throws IOException {
+		gerador.writeString(valor);
+	}
+
+	@Override
+	public void inteiro(long valor) throws IOException {
+		gerador.writeNumber(valor);
+	}
+
+	@Override
+	public void decimal(BigDecimal valor) throws IOException {
+		gerador.writeNumber(valor);
+	}
+
+	@Override
+	public void nulo() throws IOException {
+		gerador.writeNull();
+	}
+
+	@Override
+	public void finalizar() throws IOException {
+		gerador.flush();
+	}
+}
@@ -0,0 +1,167 @@
+package com.ajeff.minhasfinancas.serializacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codificador MessagePack (https://msgpack.org) só com os tipos que a listagem usa: mapa, lista, texto, inteiro e nulo.
+ * Decimais vão como texto para não perder precisão. Grava num buffer próprio e só chama o OutputStream quando ele enche.
+ */
+class SaidaMessagePack implements SaidaCompacta {
+
+	private final OutputStream saida;
+	private final byte[] buffer = new byte[8192];
+	private int posicao;
+	
+	SaidaMessagePack(OutputStream saida) {
+		this.saida = saida;
+	}
+
+	@Override
+	public void inicioMapa(int tamanho) throws IOException {
+		cabecalho(tamanho, 0x80, 0xde, 0xdf);
+	}
+
+	@Override
+	public void fimMapa() {
+	}
+
+	@Override
+	public void inicioLista(int tamanho) throws IOException {
+		cabecalho(tamanho, 0x90, 0xdc, 0xdd);
+	}
+
+	@Override
+	public void fimLista() {
+	}
+
+	@Override
+	public void chave(String nome) throws IOException {
+		texto(nome);
+	}
+
+	@Override
+	public void texto(String valor) throws IOException {
+		int caracteres = valor.length();
+		int i = 0;
+		while(i < caracteres && valor.charAt(i) < 0x80) {
+			i++;
+		}
+		if(i < caracteres || caracteres > buffer.length) {
+			byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+			cabecalhoTexto(bytes.length);
+			escrever(bytes);
+			return;
+		}
+		// ASCII: um byte por caractere, sem codificar para um array intermediário
+		cabecalhoTexto(caracteres);
+		garantir(caracteres);
+		for(i = 0; i < caracteres; i++) {
+			buffer[posicao++] = (byte) valor.charAt(i);
+		}
+	}
+
+	@Override
+	public void inteiro(long valor) throws IOException {
+		garantir(9);
+		if(valor >= 0 && valor < 0x80) {
+			buffer[posicao++] = (byte) valor;
+		} else if(valor < 0 && valor >= -32) {
+			buffer[posicao++] = (byte) (0xe0 | (valor + 32));
+		} else if(valor >= 0 && valor <= 0xff) {
+			buffer[posicao++] = (byte) 0xcc;
+			gravar(valor, 1);
+		} else if(valor >= 0 && valor <= 0xffff) {
+			buffer[posicao++] = (byte) 0xcd;
+			gravar(valor, 2);
+		} else if(valor >= 0 && valor <= 0xffffffffL) {
+			buffer[posicao++] = (byte) 0xce;
+			gravar(valor, 4);
+		} else if(valor >= Integer.MIN_VALUE && valor <= Integer.MAX_VALUE) {
+			buffer[posicao++] = (byte) 0xd2;
+			gravar(valor, 4);
+		} else {
+			buffer[posicao++] = (byte) 0xd3;
+			gravar(valor, 8);
+		}
+	}
+
+	@Override
+	public void decimal(BigDecimal valor) throws IOException {
+		texto(valor.toPlainString());
+	}
+
+	@Override
+	public void nulo() throws IOException {
+		garantir(1);
+		buffer[posicao++] = (byte) 0xc0;
+	}
+
+	@Override
+	public void finalizar() throws IOException {
+		descarregar();
+		saida.flush();
+	}
+	
+	
+	private void cabecalho(int tamanho, int fixo, int marcador16, int marcador32) throws IOException {
+		garantir(5);
+		if(tamanho < 16) {
+			buffer[posicao++] = (byte) (fixo | tamanho);
+		} else if(tamanho <= 0xffff) {
+			buffer[posicao++] = (byte) marcador16;
+			gravar(tamanho, 2);
+		} else {
+			buffer[posicao++] = (byte) marcador32;
+			gravar(tamanho, 4);
+		}
+	}
+	
+	private void cabecalhoTexto(int bytes) throws IOException {
+		garantir(5);
+		if(bytes < 32) {
+			buffer[posicao++] = (byte) (0xa0 | bytes);
+		} else if(bytes <= 0xff) {
+			buffer[posicao++] = (byte) 0xd9;
+			gravar(bytes, 1);
+		} else if(bytes <= 0xffff) {
+			buffer[posicao++] = (byte) 0xda;
+			gravar(bytes, 2);
+		} else {
+			buffer[posicao++] = (byte) 0xdb;
+			gravar(bytes, 4);
+		}
+	}
+	
+	/** Big-endian; o espaço já foi garantido por quem chama. */
+	private void gravar(long valor, int bytes) {
+		for(int deslocamento = (bytes - 1) * 8; deslocamento >= 0; deslocamento -= 8) {
+			buffer[posicao++] = (byte) (valor >>> deslocamento);
+		}
+	}
+	
+	private void escrever(byte[] bytes) throws IOException {
+		if(bytes.length > buffer.length - posicao) {
+			descarregar();
+			if(bytes.length > buffer.length) {
+				saida.write(bytes);
+				return;
+			}
+		}
+		System.arraycopy(bytes, 0, buffer, posicao, bytes.length);
+		posicao += bytes.length;
+	}
+	
+	private void garantir(int bytes) throws IOException {
+		if(buffer.length - posicao < bytes) {
+			descarregar();
+		}
+	}
+	
+	private void descarregar() throws IOException {
+		saida.write(buffer, 0, posicao);
+		posicao = 0;
+	}
+}
@@ -0,0 +1,10 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.time.Duration;
+
+public interface BloqueioTarefaService {
+
+	boolean adquirir(String nome, Duration duracao);
+	
+	void liberar(String nome);
+}
@@ -0,0 +1,23 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoEventoLancamento;
+
+public interface EventoLancamentoService {
+
+	void registrar(TipoEventoLancamento tipo, EstadoLancamentoDTO anterior, EstadoLancamentoDTO atual);
+	
+	void registrarCriados(Collection<EstadoLancamentoDTO> novos);
+	
+	void registrarStatus(List<EstadoLancamentoDTO> anteriores, List<EstadoLancamentoDTO> atuais);
+	
+	void registrarLote(Collection<ResumoMensal> grupos, StatusLancamento status);
+	
+	List<EventoLancamento> listar(Long idLancamento);
+}
@@ -0,0 +1,26 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.time.YearMonth;
+import java.util.Optional;
+
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.SaldoHistorico;
+
+public interface HistoricoLancamentoService {
+
+	String ARQUIVADO = "O lançamento já foi movido para o histórico e não pode mais ser alterado!";
+	
+
+	int mover(YearMonth ate);
+	
+	int mover(Long idUsuario, YearMonth ate);
+	
+	boolean alcancaHistorico(FiltroLancamentoDTO filtro);
+	
+	Optional<SaldoHistorico> obterSaldo(Long idUsuario);
+	
+	/**
+	 * Dono do lançamento quando ele já está no histórico, que só recebe inserções.
+	 */
+	Optional<Long> obterUsuarioArquivado(Long idLancamento);
+}
@@ -0,0 +1,14 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import com.ajeff.minhasfinancas.model.entity.ImportacaoExtrato;
+import com.ajeff.minhasfinancas.model.enums.FormatoExtrato;
+
+public interface ImportacaoExtratoService {
+
+	ImportacaoExtrato iniciar(Long idUsuario, String nomeArquivo, FormatoExtrato formato, InputStream conteudo);
+	
+	Optional<ImportacaoExtrato> obterPorId(Long id);
+}
@@ -0,0 +1,14 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.io.InputStream;
+import java.util.List;
+
+import com.ajeff.minhasfinancas.dto.LancamentoDTO;
+import com.ajeff.minhasfinancas.dto.ResultadoImportacaoDTO;
+
+public interface ImportacaoLancamentoService {
+
+	ResultadoImportacaoDTO importar(List<LancamentoDTO> lancamentos);
+	
+	ResultadoImportacaoDTO importarCsv(InputStream arquivo);
+}
@@ -0,0 +1,16 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.math.BigDecimal;
+
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface LancamentoReativoService {
+
+	Flux<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro);
+	
+	Mono<BigDecimal> obterSaldo(Long idUsuario);
+}
@@ -0,0 +1,23 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
+
+import com.ajeff.minhasfinancas.dto.ResultadoRecorrenciaDTO;
+import com.ajeff.minhasfinancas.model.entity.LancamentoRecorrente;
+
+public interface LancamentoRecorrenteService {
+
+	LancamentoRecorrente salvar(LancamentoRecorrente recorrente);
+	
+	void excluir(LancamentoRecorrente recorrente);
+	
+	List<LancamentoRecorrente> buscarPorUsuario(Long idUsuario);
+	
+	Optional<LancamentoRecorrente> obterPorId(Long id);
+	
+	void validar(LancamentoRecorrente recorrente);
+	
+	ResultadoRecorrenciaDTO materializar(YearMonth ate);
+}
@@ -1,9 +1,16 @@
 package com.ajeff.minhasfinancas.service;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import com.ajeff.minhasfinancas.dto.CampoLancamento;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.dto.PaginaLancamentoDTO;
 import com.ajeff.minhasfinancas.model.entity.Lancamento;
 import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
 
@@ -16,13 +23,40 @@ public interface LancamentoService {
 	
 	void deletar(Lancamento lancamento);
 	
-	List<Lancamento> buscar(Lancamento lancamento);
+	List<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro);
 	
-	void atualizarStatus(Lancamento lancamento, StatusLancamento status);
+	List<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro, Long versao);
+	
+	/**
+	 * Como {@link #buscar(FiltroLancamentoDTO, Long)}, lendo do banco só os campos informados (null para todos).
+	 */
+	List<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro, Long versao, Set<CampoLancamento> campos);
+	
+	PaginaLancamentoDTO buscarPagina(FiltroLancamentoDTO filtro, String cursor, int tamanho);
+	
+	void buscarStream(FiltroLancamentoDTO filtro, Consumer<LancamentoConsultaDTO> consumidor);
+	
+	List<LancamentoConsultaDTO> atualizarStatus(Collection<Long> ids, StatusLancamento status);
+	
+	int atualizarStatus(FiltroLancamentoDTO filtro, StatusLancamento status);
+	
+	int excluir(FiltroLancamentoDTO filtro);
+	
+	/**
+	 * Quantos lançamentos do filtro já estão no histórico; as operações em lote só alcançam os da tabela principal.
+	 */
+	long contarArquivados(FiltroLancamentoDTO filtro);
+	
+	/**
+	 * Dono do lançamento quando ele já foi movido para o histórico e não pode mais ser alterado nem excluído.
+	 */
+	Optional<Long> obterUsuarioArquivado(Long id);
 	
 	void validar (Lancamento lancamento);
 	
 	Optional<Lancamento> findLancamentoById(Long id);
 	
 	BigDecimal obterSaldoPorUsuario(Long id);
+	
+	Optional<Long> obterVersaoUsuario(Long id);
 }
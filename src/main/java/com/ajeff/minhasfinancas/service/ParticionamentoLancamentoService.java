@@ -0,0 +1,14 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.util.List;
+
+public interface ParticionamentoLancamentoService {
+
+	boolean isParticionado();
+	
+	List<Integer> listarAnosParticionados();
+	
+	List<Integer> criarParticoesFuturas();
+	
+	void arquivar(int ano);
+}
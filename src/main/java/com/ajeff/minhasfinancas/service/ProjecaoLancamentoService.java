@@ -0,0 +1,14 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.util.List;
+
+public interface ProjecaoLancamentoService {
+
+	List<String> listarProjecoes();
+	
+	long processar();
+	
+	long processar(String nome);
+	
+	long reconstruir(String nome);
+}
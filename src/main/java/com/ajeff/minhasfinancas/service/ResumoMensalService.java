@@ -0,0 +1,26 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.dto.RelatorioPeriodoDTO;
+
+public interface ResumoMensalService {
+
+	void atualizar(EstadoLancamentoDTO anterior, EstadoLancamentoDTO atual);
+	
+	void atualizar(Collection<EstadoLancamentoDTO> anteriores, Collection<EstadoLancamentoDTO> atuais);
+	
+	void aplicarDeltas(Collection<ResumoMensal> deltas);
+	
+	void registrar(Collection<EstadoLancamentoDTO> novos);
+	
+	void reconciliar(Long idUsuario);
+	
+	List<RelatorioPeriodoDTO> relatorioMensal(Long idUsuario, YearMonth de, YearMonth ate);
+	
+	List<RelatorioPeriodoDTO> relatorioAnual(Long idUsuario, int de, int ate);
+}
@@ -0,0 +1,29 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.entity.SaldoUsuario;
+
+public interface SaldoUsuarioService {
+
+	void atualizar(EstadoLancamentoDTO anterior, EstadoLancamentoDTO atual);
+	
+	void atualizar(Collection<EstadoLancamentoDTO> anteriores, Collection<EstadoLancamentoDTO> atuais);
+	
+	void aplicarDeltas(Collection<ResumoMensal> deltas);
+	
+	void registrar(Collection<EstadoLancamentoDTO> novos);
+	
+	BigDecimal obterSaldo(Long idUsuario);
+	
+	Optional<Long> obterVersao(Long idUsuario);
+	
+	SaldoUsuario reconciliar(Long idUsuario);
+	
+	Set<Long> listarUsuarios();
+}
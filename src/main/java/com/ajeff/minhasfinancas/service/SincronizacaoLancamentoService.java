@@ -0,0 +1,20 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.util.Collection;
+
+import com.ajeff.minhasfinancas.dto.SincronizacaoLancamentoDTO;
+
+public interface SincronizacaoLancamentoService {
+
+	/**
+	 * Valor que toda escrita grava em Lancamento.alteracao, na mesma transação.
+	 */
+	long marcarAlteracao();
+	
+	/**
+	 * Registra a exclusão dos lançamentos informados; deve ser chamado antes do delete.
+	 */
+	void registrarExclusoes(Collection<Long> ids);
+	
+	SincronizacaoLancamentoDTO sincronizar(Long usuario, String cursor, int tamanho);
+}
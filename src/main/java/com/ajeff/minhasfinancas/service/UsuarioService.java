@@ -1,6 +1,8 @@
 package com.ajeff.minhasfinancas.service;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 import com.ajeff.minhasfinancas.model.entity.Usuario;
 
@@ -14,4 +16,8 @@ public interface UsuarioService {
 	
 	Optional<Usuario> findByUsuarioId(Long id);
 	
+	Usuario obterReferencia(Long id);
+	
+	Set<Long> filtrarExistentes(Collection<Long> ids);
+	
 }
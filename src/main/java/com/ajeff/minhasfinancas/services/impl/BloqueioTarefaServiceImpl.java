@@ -0,0 +1,59 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ajeff.minhasfinancas.model.entity.BloqueioTarefa;
+import com.ajeff.minhasfinancas.repository.BloqueioTarefaRepository;
+import com.ajeff.minhasfinancas.service.BloqueioTarefaService;
+
+/**
+ * Concessões de tarefas em financas.bloqueio_tarefa, tomadas com um update condicional: só passa quando a concessão
+ * é desta instância ou já venceu. Cada chamada confirma na sua própria transação, para que as outras instâncias
+ * vejam a concessão enquanto a tarefa roda. A validade usa o relógio de cada instância, então a duração deve
+ * folgar bem acima da diferença entre relógios e a tarefa deve renovar antes de vencer.
+ */
+@Service
+public class BloqueioTarefaServiceImpl implements BloqueioTarefaService {
+
+	private final BloqueioTarefaRepository repository;
+	private final TransactionTemplate transactionTemplate;
+	private final String dono = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+	
+	public BloqueioTarefaServiceImpl(BloqueioTarefaRepository repository, PlatformTransactionManager transactionManager) {
+		this.repository = repository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	@Override
+	public boolean adquirir(String nome, Duration duracao) {
+		LocalDateTime agora = LocalDateTime.now();
+		LocalDateTime expiraEm = agora.plus(duracao);
+		if(transactionTemplate.execute(status -> repository.renovar(nome, dono, agora, expiraEm)) == 1) {
+			return true;
+		}
+		if(transactionTemplate.execute(status -> repository.existsById(nome))) {
+			return false;
+		}
+		try {
+			transactionTemplate.execute(status -> repository.saveAndFlush(new BloqueioTarefa(nome, dono, expiraEm)));
+			return true;
+		} catch (DataIntegrityViolationException e) {
+			return false;
+		}
+	}
+
+	@Override
+	public void liberar(String nome) {
+		transactionTemplate.execute(status -> repository.liberar(nome, dono, LocalDateTime.now()));
+	}
+}
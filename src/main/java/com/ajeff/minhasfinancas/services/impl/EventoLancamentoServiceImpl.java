@@ -0,0 +1,74 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.ajeff.minhasfinancas.repository.EventoLancamentoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.service.EventoLancamentoService;
+
+/**
+ * Grava os eventos na transação de quem alterou os lançamentos (outbox transacional): o evento existe
+ * se e somente se a alteração foi confirmada.
+ */
+@Service
+public class EventoLancamentoServiceImpl implements EventoLancamentoService {
+
+	private EventoLancamentoRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	
+	public EventoLancamentoServiceImpl(EventoLancamentoRepository repository, LancamentoRepository lancamentoRepository) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrar(TipoEventoLancamento tipo, EstadoLancamentoDTO anterior, EstadoLancamentoDTO atual) {
+		repository.save(EventoLancamento.of(tipo, anterior, atual));
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarCriados(Collection<EstadoLancamentoDTO> novos) {
+		lancamentoRepository.inserirEmLote(novos.stream()
+				.map(novo -> EventoLancamento.of(TipoEventoLancamento.CRIADO, null, novo))
+				.collect(Collectors.toList()));
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarStatus(List<EstadoLancamentoDTO> anteriores, List<EstadoLancamentoDTO> atuais) {
+		List<EventoLancamento> eventos = new ArrayList<>(atuais.size());
+		for(int i = 0; i < atuais.size(); i++) {
+			eventos.add(EventoLancamento.of(TipoEventoLancamento.STATUS_ALTERADO, anteriores.get(i), atuais.get(i)));
+		}
+		lancamentoRepository.inserirEmLote(eventos);
+	}
+
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void registrarLote(Collection<ResumoMensal> grupos, StatusLancamento status) {
+		lancamentoRepository.inserirEmLote(grupos.stream()
+				.map(grupo -> EventoLancamento.of(grupo, status))
+				.collect(Collectors.toList()));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<EventoLancamento> listar(Long idLancamento) {
+		return repository.buscarPorLancamento(idLancamento);
+	}
+
+}
@@ -0,0 +1,143 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.LancamentoHistorico;
+import com.ajeff.minhasfinancas.model.entity.SaldoHistorico;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.LancamentoHistoricoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.SaldoHistoricoRepository;
+import com.ajeff.minhasfinancas.service.HistoricoLancamentoService;
+
+/**
+ * Move lançamentos efetivados e cancelados até um mês para financas.lancamento_historico, em lotes de
+ * {@value #TAMANHO_LOTE} por transação, somando os valores movidos no saldo transportado do usuário.
+ * Lançamentos pendentes nunca saem da tabela principal, por isso o histórico alcança um período
+ * mas não o esgota: buscas que chegam até ele precisam ler as duas tabelas.
+ */
+@Service
+public class HistoricoLancamentoServiceImpl implements HistoricoLancamentoService {
+
+	static final int TAMANHO_LOTE = 1000;
+	private static final List<StatusLancamento> ENCERRADOS = Arrays.asList(StatusLancamento.EFETIVADO, StatusLancamento.CANCELADO);
+	
+	private LancamentoRepository lancamentoRepository;
+	private SaldoHistoricoRepository saldoRepository;
+	private LancamentoHistoricoRepository historicoRepository;
+	private TransactionTemplate transactionTemplate;
+	
+	public HistoricoLancamentoServiceImpl(LancamentoRepository lancamentoRepository, SaldoHistoricoRepository saldoRepository,
+			LancamentoHistoricoRepository historicoRepository, PlatformTransactionManager transactionManager) {
+		this.lancamentoRepository = lancamentoRepository;
+		this.saldoRepository = saldoRepository;
+		this.historicoRepository = historicoRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Override
+	public int mover(YearMonth ate) {
+		int total = 0;
+		for(Long idUsuario : lancamentoRepository.obterIdsUsuariosComLancamentosAte(ENCERRADOS, ate.getYear(), ate.getMonthValue())) {
+			total += mover(idUsuario, ate);
+		}
+		return total;
+	}
+
+	@Override
+	public int mover(Long idUsuario, YearMonth ate) {
+		int total = 0;
+		int movidos;
+		do {
+			movidos = transactionTemplate.execute(status -> moverLote(idUsuario, ate));
+			total += movidos;
+		} while(movidos == TAMANHO_LOTE);
+		return total;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public boolean alcancaHistorico(FiltroLancamentoDTO filtro) {
+		if(filtro.getStatus() == StatusLancamento.PENDENTE) {
+			return false;
+		}
+		if(filtro.getUsuario() == null) {
+			return saldoRepository.count() > 0;
+		}
+		YearMonth inicio = inicio(filtro);
+		return saldoRepository.findById(filtro.getUsuario())
+				.map(saldo -> inicio == null || !inicio.isAfter(saldo.getAte()))
+				.orElse(false);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<SaldoHistorico> obterSaldo(Long idUsuario) {
+		return saldoRepository.findById(idUsuario);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Long> obterUsuarioArquivado(Long idLancamento) {
+		return historicoRepository.obterIdUsuario(idLancamento);
+	}
+	
+	
+	private int moverLote(Long idUsuario, YearMonth ate) {
+		List<Lancamento> lote = lancamentoRepository.buscarLancamentosAte(idUsuario, ENCERRADOS, ate.getYear(), ate.getMonthValue(),
+				PageRequest.of(0, TAMANHO_LOTE));
+		if(lote.isEmpty()) {
+			return 0;
+		}
+		
+		SaldoHistorico saldo = saldoRepository.findById(idUsuario)
+				.orElseGet(() -> new SaldoHistorico(idUsuario, BigDecimal.ZERO, BigDecimal.ZERO, ate.getYear(), ate.getMonthValue()));
+		for(Lancamento lancamento : lote) {
+			if(lancamento.getTipo() == TipoLancamento.RECEITA) {
+				saldo.setReceitas(saldo.getReceitas().add(lancamento.getValor()));
+			} else if(lancamento.getTipo() == TipoLancamento.DESPESA) {
+				saldo.setDespesas(saldo.getDespesas().add(lancamento.getValor()));
+			}
+		}
+		if(ate.isAfter(saldo.getAte())) {
+			saldo.setAteAno(ate.getYear());
+			saldo.setAteMes(ate.getMonthValue());
+		}
+		saldoRepository.save(saldo);
+		
+		List<Long> ids = lote.stream().map(Lancamento::getId).collect(Collectors.toList());
+		lancamentoRepository.inserirEmLote(lote.stream().map(LancamentoHistorico::of).collect(Collectors.toList()));
+		lancamentoRepository.excluirPorIds(ids);
+		return lote.size();
+	}
+	
+	private static YearMonth inicio(FiltroLancamentoDTO filtro) {
+		YearMonth inicio = null;
+		if(filtro.getAno() != null) {
+			inicio = YearMonth.of(filtro.getAno(), mes(filtro.getMes()));
+		}
+		if(filtro.getAnoInicial() != null) {
+			YearMonth inicial = YearMonth.of(filtro.getAnoInicial(), mes(filtro.getMesInicial()));
+			inicio = inicio == null || inicial.isAfter(inicio) ? inicial : inicio;
+		}
+		return inicio;
+	}
+	
+	private static int mes(Integer mes) {
+		return mes == null || mes < 1 || mes > 12 ? 1 : mes;
+	}
+}
@@ -0,0 +1,349 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.importacao.ContadorBytesInputStream;
+import com.ajeff.minhasfinancas.importacao.GeradorChaveImportacao;
+import com.ajeff.minhasfinancas.importacao.LeitorExtrato;
+import com.ajeff.minhasfinancas.importacao.LeitorExtratoCsv;
+import com.ajeff.minhasfinancas.importacao.LeitorOfx;
+import com.ajeff.minhasfinancas.importacao.TransacaoExtrato;
+import com.ajeff.minhasfinancas.model.entity.ImportacaoExtrato;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.model.enums.FormatoExtrato;
+import com.ajeff.minhasfinancas.model.enums.SituacaoImportacao;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.ImportacaoExtratoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoHistoricoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.service.EventoLancamentoService;
+import com.ajeff.minhasfinancas.service.ImportacaoExtratoService;
+import com.ajeff.minhasfinancas.service.LancamentoService;
+import com.ajeff.minhasfinancas.service.ResumoMensalService;
+import com.ajeff.minhasfinancas.service.SaldoUsuarioService;
+import com.ajeff.minhasfinancas.service.SincronizacaoLancamentoService;
+import com.ajeff.minhasfinancas.service.UsuarioService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Importa extratos em segundo plano: o arquivo é copiado para disco, lido transação a transação
+ * e gravado em lotes de tamanho fixo, cada lote em sua própria transação. Lançamentos já importados
+ * são reconhecidos pela chave de importação, então reenviar um extrato (inclusive após uma falha)
+ * grava apenas o que ainda não existe.
+ */
+@Slf4j
+@Service
+public class ImportacaoExtratoServiceImpl implements ImportacaoExtratoService, DisposableBean{
+
+	private static final int TAMANHO_LOTE = 500;
+	private static final int TAMANHO_MAXIMO_TEXTO = 255;
+	private static final String DESCRICAO_PADRAO = "Lançamento importado";
+	
+	private ImportacaoExtratoRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	private LancamentoHistoricoRepository historicoRepository;
+	private LancamentoService lancamentoService;
+	private UsuarioService usuarioService;
+	private SaldoUsuarioService saldoService;
+	private ResumoMensalService resumoService;
+	private EventoLancamentoService eventoService;
+	private SincronizacaoLancamentoService sincronizacaoService;
+	private TransactionTemplate transactionTemplate;
+	private TaskExecutor executor;
+	
+	@Autowired
+	public ImportacaoExtratoServiceImpl(ImportacaoExtratoRepository repository, LancamentoRepository lancamentoRepository,
+			LancamentoHistoricoRepository historicoRepository, LancamentoService lancamentoService, UsuarioService usuarioService, SaldoUsuarioService saldoService,
+			ResumoMensalService resumoService, EventoLancamentoService eventoService, SincronizacaoLancamentoService sincronizacaoService,
+			PlatformTransactionManager transactionManager, @Value("${financas.importacao.threads:2}") int threads,
+			@Value("${financas.importacao.fila:20}") int fila) {
+		this(repository, lancamentoRepository, historicoRepository, lancamentoService, usuarioService, saldoService, resumoService,
+				eventoService, sincronizacaoService, transactionManager, criarPool(threads, fila));
+	}
+	
+	public ImportacaoExtratoServiceImpl(ImportacaoExtratoRepository repository, LancamentoRepository lancamentoRepository,
+			LancamentoHistoricoRepository historicoRepository, LancamentoService lancamentoService, UsuarioService usuarioService, SaldoUsuarioService saldoService,
+			ResumoMensalService resumoService, EventoLancamentoService eventoService, SincronizacaoLancamentoService sincronizacaoService,
+			PlatformTransactionManager transactionManager, TaskExecutor executor) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.historicoRepository = historicoRepository;
+		this.lancamentoService = lancamentoService;
+		this.usuarioService = usuarioService;
+		this.saldoService = saldoService;
+		this.resumoService = resumoService;
+		this.eventoService = eventoService;
+		this.sincronizacaoService = sincronizacaoService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.executor = executor;
+	}
+	
+	/**
+	 * Pool próprio com fila limitada: acima de financas.importacao.fila importações aguardando, o envio
+	 * é recusado em vez de acumular arquivos em disco sem limite.
+	 */
+	private static ThreadPoolTaskExecutor criarPool(int threads, int fila) {
+		ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+		pool.setCorePoolSize(threads);
+		pool.setMaxPoolSize(threads);
+		pool.setQueueCapacity(fila);
+		pool.setThreadNamePrefix("importacao-");
+		pool.initialize();
+		return pool;
+	}
+	
+	@Override
+	public void destroy() {
+		if(executor instanceof ThreadPoolTaskExecutor) {
+			((ThreadPoolTaskExecutor) executor).shutdown();
+		}
+	}
+
+	@Override
+	public ImportacaoExtrato iniciar(Long idUsuario, String nomeArquivo, FormatoExtrato formato, InputStream conteudo) {
+		if(idUsuario == null || usuarioService.filtrarExistentes(Collections.singleton(idUsuario)).isEmpty()) {
+			throw new RegraNegocioException("Usuário não encontrado com este id!");
+		}
+		FormatoExtrato formatoArquivo = formato == null ? detectarFormato(nomeArquivo) : formato;
+		Path arquivo = copiar(conteudo);
+		
+		ImportacaoExtrato importacao;
+		try {
+			importacao = repository.save(ImportacaoExtrato.builder()
+					.idUsuario(idUsuario)
+					.nomeArquivo(truncar(nomeArquivo))
+					.formato(formatoArquivo)
+					.situacao(SituacaoImportacao.PROCESSANDO)
+					.tamanhoArquivo(arquivo.toFile().length())
+					.dataInicio(LocalDateTime.now())
+					.build());
+		} catch (RuntimeException e) {
+			excluir(arquivo);
+			throw e;
+		}
+		
+		Long id = importacao.getId();
+		try {
+			executor.execute(() -> processar(id, idUsuario, formatoArquivo, arquivo));
+		} catch (TaskRejectedException e) {
+			excluir(arquivo);
+			String mensagem = "Muitas importações em andamento, tente novamente mais tarde!";
+			finalizar(id, new Progresso(), SituacaoImportacao.FALHOU, mensagem);
+			throw new RegraNegocioException(mensagem);
+		}
+		return importacao;
+	}
+
+	@Override
+	public Optional<ImportacaoExtrato> obterPorId(Long id) {
+		return repository.findById(id);
+	}
+	
+	
+	private void processar(Long idImportacao, Long idUsuario, FormatoExtrato formato, Path arquivo) {
+		Progresso progresso = new Progresso();
+		try (ContadorBytesInputStream entrada = new ContadorBytesInputStream(Files.newInputStream(arquivo));
+				LeitorExtrato leitor = abrir(formato, entrada);
+				GeradorChaveImportacao gerador = new GeradorChaveImportacao()) {
+			Usuario usuario = usuarioService.obterReferencia(idUsuario);
+			Map<String, Lancamento> lote = new LinkedHashMap<>();
+			
+			TransacaoExtrato transacao;
+			while((transacao = proxima(leitor, progresso)) != null) {
+				String chave = gerador.gerar(transacao);
+				Lancamento lancamento = converter(transacao, chave, usuario);
+				try {
+					lancamentoService.validar(lancamento);
+				} catch (RegraNegocioException e) {
+					progresso.rejeitar(e);
+					continue;
+				}
+				
+				if(lote.putIfAbsent(chave, lancamento) != null) {
+					progresso.duplicados++;
+				}
+				if(lote.size() == TAMANHO_LOTE) {
+					gravar(idImportacao, idUsuario, lote, progresso, entrada.getBytesLidos());
+					lote.clear();
+				}
+			}
+			gravar(idImportacao, idUsuario, lote, progresso, entrada.getBytesLidos());
+			finalizar(idImportacao, progresso, SituacaoImportacao.CONCLUIDA, progresso.mensagem);
+		} catch (RegraNegocioException e) {
+			finalizar(idImportacao, progresso, SituacaoImportacao.FALHOU, e.getMessage());
+		} catch (IOException | RuntimeException e) {
+			log.error("Falha ao processar a importação de extrato {}", idImportacao, e);
+			finalizar(idImportacao, progresso, SituacaoImportacao.FALHOU, "Não foi possível processar o arquivo informado!");
+		} finally {
+			excluir(arquivo);
+		}
+	}
+	
+	private TransacaoExtrato proxima(LeitorExtrato leitor, Progresso progresso) throws IOException {
+		while(true) {
+			try {
+				TransacaoExtrato transacao = leitor.proxima();
+				if(transacao != null) {
+					progresso.processados++;
+				}
+				return transacao;
+			} catch (RegraNegocioException e) {
+				progresso.processados++;
+				progresso.rejeitar(e);
+			}
+		}
+	}
+	
+	private void gravar(Long idImportacao, Long idUsuario, Map<String, Lancamento> lote, Progresso progresso, long bytesLidos) {
+		transactionTemplate.execute(status -> {
+			Set<String> existentes = new HashSet<>();
+			if(!lote.isEmpty()) {
+				existentes.addAll(lancamentoRepository.obterChavesImportadas(idUsuario, lote.keySet()));
+				existentes.addAll(historicoRepository.obterChavesImportadas(idUsuario, lote.keySet()));
+			}
+			List<Lancamento> novos = lote.entrySet().stream()
+					.filter(entrada -> !existentes.contains(entrada.getKey()))
+					.map(Map.Entry::getValue)
+					.collect(Collectors.toList());
+			
+			long alteracao = sincronizacaoService.marcarAlteracao();
+			novos.forEach(lancamento -> lancamento.setAlteracao(alteracao));
+			lancamentoRepository.inserirEmLote(novos);
+			List<EstadoLancamentoDTO> estados = novos.stream().map(EstadoLancamentoDTO::of).collect(Collectors.toList());
+			saldoService.registrar(estados);
+			resumoService.registrar(estados);
+			eventoService.registrarCriados(estados);
+			
+			progresso.importados += novos.size();
+			progresso.duplicados += existentes.size();
+			ImportacaoExtrato importacao = repository.getOne(idImportacao);
+			progresso.copiarPara(importacao);
+			importacao.setBytesLidos(bytesLidos);
+			return null;
+		});
+	}
+	
+	private void finalizar(Long idImportacao, Progresso progresso, SituacaoImportacao situacao, String mensagem) {
+		transactionTemplate.execute(status -> {
+			ImportacaoExtrato importacao = repository.getOne(idImportacao);
+			progresso.copiarPara(importacao);
+			if(situacao == SituacaoImportacao.CONCLUIDA) {
+				importacao.setBytesLidos(importacao.getTamanhoArquivo());
+			}
+			importacao.setSituacao(situacao);
+			importacao.setMensagem(truncar(mensagem));
+			importacao.setDataConclusao(LocalDateTime.now());
+			return null;
+		});
+	}
+	
+	private Lancamento converter(TransacaoExtrato transacao, String chave, Usuario usuario) {
+		LocalDate data = transacao.getData();
+		String descricao = transacao.getDescricao() == null || transacao.getDescricao().trim().isEmpty() 
+				? DESCRICAO_PADRAO : truncar(transacao.getDescricao().trim());
+		
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao(descricao);
+		lancamento.setMes(data.getMonthValue());
+		lancamento.setAno(data.getYear());
+		lancamento.setValor(transacao.getValor().abs());
+		lancamento.setTipo(transacao.getValor().signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA);
+		lancamento.setStatus(StatusLancamento.EFETIVADO);
+		lancamento.setDataCadastro(LocalDate.now());
+		lancamento.setUsuario(usuario);
+		lancamento.setChaveImportacao(chave);
+		return lancamento;
+	}
+	
+	private LeitorExtrato abrir(FormatoExtrato formato, InputStream entrada) throws IOException {
+		if(formato == FormatoExtrato.OFX) {
+			return LeitorOfx.abrir(entrada);
+		}
+		return new LeitorExtratoCsv(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+	}
+	
+	private FormatoExtrato detectarFormato(String nomeArquivo) {
+		String nome = nomeArquivo == null ? "" : nomeArquivo.toLowerCase();
+		return nome.endsWith(".ofx") || nome.endsWith(".qfx") ? FormatoExtrato.OFX : FormatoExtrato.CSV;
+	}
+	
+	private Path copiar(InputStream conteudo) {
+		Path arquivo = null;
+		try {
+			arquivo = Files.createTempFile("extrato-", ".tmp");
+			Files.copy(conteudo, arquivo, StandardCopyOption.REPLACE_EXISTING);
+			return arquivo;
+		} catch (IOException e) {
+			excluir(arquivo);
+			throw new RegraNegocioException("Não foi possível ler o arquivo informado!");
+		}
+	}
+	
+	private void excluir(Path arquivo) {
+		if(arquivo == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(arquivo);
+		} catch (IOException e) {
+			log.warn("Não foi possível excluir o arquivo temporário {}", arquivo, e);
+		}
+	}
+	
+	private String truncar(String texto) {
+		return texto == null || texto.length() <= TAMANHO_MAXIMO_TEXTO ? texto : texto.substring(0, TAMANHO_MAXIMO_TEXTO);
+	}
+	
+	
+	private static class Progresso {
+		
+		private long processados;
+		private long importados;
+		private long duplicados;
+		private long rejeitados;
+		private String mensagem;
+		
+		private void rejeitar(RegraNegocioException e) {
+			rejeitados++;
+			mensagem = e.getMessage();
+		}
+		
+		private void copiarPara(ImportacaoExtrato importacao) {
+			importacao.setProcessados(processados);
+			importacao.setImportados(importados);
+			importacao.setDuplicados(duplicados);
+			importacao.setRejeitados(rejeitados);
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ajeff.minhasfinancas.dto.ErroImportacaoDTO;
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoDTO;
+import com.ajeff.minhasfinancas.dto.ResultadoImportacaoDTO;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.importacao.LeitorCsv;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.seguranca.UsuarioAutenticado;
+import com.ajeff.minhasfinancas.service.EventoLancamentoService;
+import com.ajeff.minhasfinancas.service.ImportacaoLancamentoService;
+import com.ajeff.minhasfinancas.service.LancamentoService;
+import com.ajeff.minhasfinancas.service.ResumoMensalService;
+import com.ajeff.minhasfinancas.service.SaldoUsuarioService;
+import com.ajeff.minhasfinancas.service.SincronizacaoLancamentoService;
+import com.ajeff.minhasfinancas.service.UsuarioService;
+
+@Service
+public class ImportacaoLancamentoServiceImpl implements ImportacaoLancamentoService{
+
+	private LancamentoRepository repository;
+	private LancamentoService lancamentoService;
+	private UsuarioService usuarioService;
+	private SaldoUsuarioService saldoService;
+	private ResumoMensalService resumoService;
+	private EventoLancamentoService eventoService;
+	private SincronizacaoLancamentoService sincronizacaoService;
+	
+	public ImportacaoLancamentoServiceImpl(LancamentoRepository repository, LancamentoService lancamentoService,
+			UsuarioService usuarioService, SaldoUsuarioService saldoService, ResumoMensalService resumoService,
+			EventoLancamentoService eventoService, SincronizacaoLancamentoService sincronizacaoService) {
+		this.repository = repository;
+		this.lancamentoService = lancamentoService;
+		this.usuarioService = usuarioService;
+		this.saldoService = saldoService;
+		this.resumoService = resumoService;
+		this.eventoService = eventoService;
+		this.sincronizacaoService = sincronizacaoService;
+	}
+
+	@Override
+	@Transactional
+	public ResultadoImportacaoDTO importar(List<LancamentoDTO> lancamentos) {
+		List<Long> linhas = new ArrayList<>(lancamentos.size());
+		for(long i = 1; i <= lancamentos.size(); i++) {
+			linhas.add(i);
+		}
+		return importar(lancamentos, linhas, new ArrayList<>());
+	}
+
+	@Override
+	@Transactional
+	public ResultadoImportacaoDTO importarCsv(InputStream arquivo) {
+		List<LancamentoDTO> lancamentos = new ArrayList<>();
+		List<Long> linhas = new ArrayList<>();
+		List<ErroImportacaoDTO> erros = new ArrayList<>();
+		
+		try (LeitorCsv leitor = new LeitorCsv(new InputStreamReader(arquivo, StandardCharsets.UTF_8))) {
+			List<String> cabecalho = leitor.proximoRegistro();
+			if(cabecalho == null) {
+				throw new RegraNegocioException("O arquivo informado está vazio!");
+			}
+			Map<String, Integer> colunas = new HashMap<>();
+			for(int i = 0; i < cabecalho.size(); i++) {
+				colunas.put(cabecalho.get(i).toLowerCase(), i);
+			}
+			
+			List<String> registro;
+			while((registro = leitor.proximoRegistro()) != null) {
+				try {
+					lancamentos.add(lerRegistro(colunas, registro));
+					linhas.add(leitor.getLinha());
+				} catch (NumberFormatException e) {
+					erros.add(new ErroImportacaoDTO(leitor.getLinha(), "Informe valores numéricos válidos!"));
+				}
+			}
+		} catch (IOException e) {
+			throw new RegraNegocioException("Não foi possível ler o arquivo informado!");
+		}
+		return importar(lancamentos, linhas, erros);
+	}
+	
+	
+	private ResultadoImportacaoDTO importar(List<LancamentoDTO> lancamentos, List<Long> linhas, List<ErroImportacaoDTO> erros) {
+		int recebidos = lancamentos.size() + erros.size();
+		Long autenticado = UsuarioAutenticado.obter().orElse(null);
+		Set<Long> idsUsuarios = lancamentos.stream().map(LancamentoDTO::getUsuario).filter(Objects::nonNull).collect(Collectors.toSet());
+		if(autenticado != null) {
+			idsUsuarios.add(autenticado);
+		}
+		Map<Long, Usuario> usuarios = new HashMap<>();
+		usuarioService.filtrarExistentes(idsUsuarios).forEach(id -> usuarios.put(id, usuarioService.obterReferencia(id)));
+		
+		List<Lancamento> validos = new ArrayList<>(lancamentos.size());
+		for(int i = 0; i < lancamentos.size(); i++) {
+			try {
+				Lancamento lancamento = converter(lancamentos.get(i), autenticado, usuarios);
+				lancamentoService.validar(lancamento);
+				validos.add(lancamento);
+			} catch (RegraNegocioException e) {
+				erros.add(new ErroImportacaoDTO(linhas.get(i), e.getMessage()));
+			}
+		}
+		
+		long alteracao = sincronizacaoService.marcarAlteracao();
+		validos.forEach(lancamento -> lancamento.setAlteracao(alteracao));
+		repository.inserirEmLote(validos);
+		List<EstadoLancamentoDTO> estados = validos.stream().map(EstadoLancamentoDTO::of).collect(Collectors.toList());
+		saldoService.registrar(estados);
+		resumoService.registrar(estados);
+		eventoService.registrarCriados(estados);
+		
+		erros.sort(Comparator.comparingLong(ErroImportacaoDTO::getLinha));
+		return ResultadoImportacaoDTO.builder()
+				.recebidos(recebidos)
+				.importados(validos.size())
+				.erros(erros)
+				.build();
+	}
+	
+	/**
+	 * Com token, as linhas sem usuário são dele e as de outro usuário são recusadas.
+	 */
+	private Lancamento converter(LancamentoDTO dto, Long autenticado, Map<Long, Usuario> usuarios) {
+		Lancamento lancamento = new Lancamento();
+		lancamento.setDescricao(dto.getDescricao());
+		lancamento.setMes(dto.getMes());
+		lancamento.setAno(dto.getAno());
+		lancamento.setValor(dto.getValor());
+		lancamento.setDataCadastro(LocalDate.now());
+		lancamento.setTipo(converterEnum(TipoLancamento.class, dto.getTipo(), "Informe um tipo de lançamento!"));
+		StatusLancamento status = converterEnum(StatusLancamento.class, dto.getStatus(), "Informe um status válido!");
+		lancamento.setStatus(status == null ? StatusLancamento.PENDENTE : status);
+		
+		Long idUsuario = dto.getUsuario() == null ? autenticado : dto.getUsuario();
+		if(autenticado != null && !autenticado.equals(idUsuario)) {
+			throw new RegraNegocioException(UsuarioAutenticado.OUTRO_USUARIO);
+		}
+		if(idUsuario != null) {
+			lancamento.setUsuario(usuarios.get(idUsuario));
+			if(lancamento.getUsuario() == null) {
+				throw new RegraNegocioException("Usuário não encontrado com este id!");
+			}
+		}
+		return lancamento;
+	}
+	
+	private <E extends Enum<E>> E converterEnum(Class<E> tipo, String valor, String mensagem) {
+		if(valor == null || valor.trim().isEmpty()) {
+			return null;
+		}
+		try {
+			return Enum.valueOf(tipo, valor.trim().toUpperCase());
+		} catch (IllegalArgumentException e) {
+			throw new RegraNegocioException(mensagem);
+		}
+	}
+	
+	private LancamentoDTO lerRegistro(Map<String, Integer> colunas, List<String> registro) {
+		String valor = campo(colunas, registro, "valor");
+		return LancamentoDTO.builder()
+				.descricao(campo(colunas, registro, "descricao"))
+				.mes(inteiro(campo(colunas, registro, "mes")))
+				.ano(inteiro(campo(colunas, registro, "ano")))
+				.valor(valor == null ? null : LeitorCsv.converterDecimal(valor))
+				.tipo(campo(colunas, registro, "tipo"))
+				.status(campo(colunas, registro, "status"))
+				.usuario(campo(colunas, registro, "usuario") == null ? null : Long.valueOf(campo(colunas, registro, "usuario")))
+				.build();
+	}
+	
+	private String campo(Map<String, Integer> colunas, List<String> registro, String nome) {
+		Integer indice = colunas.get(nome);
+		if(indice == null || indice >= registro.size() || registro.get(indice).isEmpty()) {
+			return null;
+		}
+		return registro.get(indice);
+	}
+	
+	private Integer inteiro(String valor) {
+		return valor == null ? null : Integer.valueOf(valor);
+	}
+
+}
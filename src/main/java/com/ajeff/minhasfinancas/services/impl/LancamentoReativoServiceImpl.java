@@ -0,0 +1,77 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.math.BigDecimal;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.ajeff.minhasfinancas.config.RoteamentoDataSource;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.dto.PaginaLancamentoDTO;
+import com.ajeff.minhasfinancas.service.LancamentoReativoService;
+import com.ajeff.minhasfinancas.service.LancamentoService;
+import com.ajeff.minhasfinancas.service.UsuarioService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Leitura sob demanda: cada página (keyset) só é consultada quando o assinante pede mais lançamentos,
+ * então no máximo uma página fica em memória por requisição. O JDBC continua bloqueante e roda num pool
+ * próprio, dimensionado como o pool de conexões.
+ */
+@Service
+@ConditionalOnProperty(name = "financas.leitura.reativa", havingValue = "true")
+public class LancamentoReativoServiceImpl implements LancamentoReativoService, DisposableBean {
+
+	static final int TAMANHO_PAGINA = 500;
+	private static final String INICIO = "";
+	
+	private final LancamentoService service;
+	private final UsuarioService usuarioService;
+	private final Scheduler scheduler;
+	
+	public LancamentoReativoServiceImpl(LancamentoService service, UsuarioService usuarioService,
+				@Value("${financas.leitura.reativa.threads:10}") int threads) {
+		this.service = service;
+		this.usuarioService = usuarioService;
+		this.scheduler = Schedulers.fromExecutorService(Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("leitura-reativa-")));
+	}
+
+	@Override
+	public Flux<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro) {
+		boolean fixado = RoteamentoDataSource.fixadoNoPrimario();
+		return Flux.<PaginaLancamentoDTO, String>generate(() -> INICIO, (cursor, sink) -> {
+					PaginaLancamentoDTO pagina = RoteamentoDataSource.executar(fixado, 
+							() -> service.buscarPagina(filtro, INICIO.equals(cursor) ? null : cursor, TAMANHO_PAGINA));
+					sink.next(pagina);
+					if(pagina.getProximoCursor() == null) {
+						sink.complete();
+					}
+					return pagina.getProximoCursor();
+				})
+				.subscribeOn(scheduler)
+				.flatMapIterable(PaginaLancamentoDTO::getLancamentos, 1);
+	}
+
+	@Override
+	public Mono<BigDecimal> obterSaldo(Long idUsuario) {
+		Supplier<BigDecimal> saldo = RoteamentoDataSource.propagar(() -> usuarioService.findByUsuarioId(idUsuario)
+				.map(usuario -> service.obterSaldoPorUsuario(idUsuario))
+				.orElse(null));
+		return Mono.fromSupplier(saldo).subscribeOn(scheduler);
+	}
+
+	@Override
+	public void destroy() {
+		scheduler.dispose();
+	}
+}
@@ -0,0 +1,326 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.ResultadoRecorrenciaDTO;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.LancamentoRecorrente;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.repository.LancamentoRecorrenteRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.service.BloqueioTarefaService;
+import com.ajeff.minhasfinancas.service.EventoLancamentoService;
+import com.ajeff.minhasfinancas.service.LancamentoRecorrenteService;
+import com.ajeff.minhasfinancas.service.ResumoMensalService;
+import com.ajeff.minhasfinancas.service.SaldoUsuarioService;
+import com.ajeff.minhasfinancas.service.SincronizacaoLancamentoService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gera os lançamentos vencidos dos modelos recorrentes de todos os usuários. A faixa de ids de usuário com modelos
+ * pendentes é dividida entre as threads, e cada uma grava lotes de tamanho-lote modelos por transação: os lançamentos
+ * gerados, saldo, resumos e eventos, e o avanço da próxima ocorrência de cada modelo, confirmados juntos.
+ * <p>
+ * Rodar de novo só encontra o que ainda não foi gerado. Entre instâncias, a execução inteira fica sob a concessão
+ * {@value #BLOQUEIO}, renovada a cada lote; se ainda assim duas gerarem o mesmo modelo, a versão do modelo e a chave
+ * de importação única de cada ocorrência desfazem o lote da segunda.
+ */
+@Slf4j
+@Service
+public class LancamentoRecorrenteServiceImpl implements LancamentoRecorrenteService, DisposableBean {
+
+	static final String BLOQUEIO = "lancamentos-recorrentes";
+	static final String METRICA_EXECUCAO = "financas.recorrencias.execucao";
+	static final String METRICA_LANCAMENTOS = "financas.recorrencias.lancamentos";
+	private static final String PREFIXO_CHAVE = "recorrente-";
+
+	private final LancamentoRecorrenteRepository repository;
+	private final LancamentoRepository lancamentoRepository;
+	private final SaldoUsuarioService saldoService;
+	private final ResumoMensalService resumoService;
+	private final EventoLancamentoService eventoService;
+	private final SincronizacaoLancamentoService sincronizacaoService;
+	private final BloqueioTarefaService bloqueioService;
+	private final TransactionTemplate transactionTemplate;
+	private final ThreadPoolTaskExecutor pool;
+	private final MeterRegistry registry;
+	private final int threads;
+	private final int tamanhoLote;
+	private final Duration duracaoBloqueio;
+	private final AtomicBoolean executando = new AtomicBoolean();
+
+	public LancamentoRecorrenteServiceImpl(LancamentoRecorrenteRepository repository, LancamentoRepository lancamentoRepository,
+				SaldoUsuarioService saldoService, ResumoMensalService resumoService, EventoLancamentoService eventoService,
+				SincronizacaoLancamentoService sincronizacaoService, BloqueioTarefaService bloqueioService, PlatformTransactionManager transactionManager, ObjectProvider<MeterRegistry> registry,
+				@Value("${financas.recorrencias.threads:4}") int threads,
+				@Value("${financas.recorrencias.tamanho-lote:500}") int tamanhoLote,
+				@Value("${financas.recorrencias.bloqueio:10m}") Duration duracaoBloqueio) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.saldoService = saldoService;
+		this.resumoService = resumoService;
+		this.eventoService = eventoService;
+		this.sincronizacaoService = sincronizacaoService;
+		this.bloqueioService = bloqueioService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.threads = threads;
+		this.tamanhoLote = tamanhoLote;
+		this.duracaoBloqueio = duracaoBloqueio;
+		this.registry = registry.getIfAvailable();
+
+		pool = new ThreadPoolTaskExecutor();
+		pool.setCorePoolSize(threads);
+		pool.setMaxPoolSize(threads);
+		pool.setThreadNamePrefix("recorrencia-");
+		pool.initialize();
+		if(this.registry != null) {
+			ExecutorServiceMetrics.monitor(this.registry, pool.getThreadPoolExecutor(), "recorrencias", Tags.empty());
+		}
+	}
+
+	@Override
+	@Transactional
+	public LancamentoRecorrente salvar(LancamentoRecorrente recorrente) {
+		validar(recorrente);
+		recorrente.setProximaOcorrencia(YearMonth.of(recorrente.getAnoInicial(), recorrente.getMesInicial()));
+		return repository.save(recorrente);
+	}
+
+	@Override
+	@Transactional
+	public void excluir(LancamentoRecorrente recorrente) {
+		repository.delete(recorrente);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoRecorrente> buscarPorUsuario(Long idUsuario) {
+		return repository.buscarPorUsuario(idUsuario);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<LancamentoRecorrente> obterPorId(Long id) {
+		return repository.findById(id);
+	}
+
+	@Override
+	public void validar(LancamentoRecorrente recorrente) {
+
+		if(recorrente.getDescricao() == null || recorrente.getDescricao().trim().equals("")) {
+			throw new RegraNegocioException("Informe um lançamento válido!");
+		}
+
+		if(recorrente.getUsuario() == null || recorrente.getUsuario().getId() == null) {
+			throw new RegraNegocioException("Informe um usuário existente!");
+		}
+
+		if(recorrente.getValor() == null || recorrente.getValor().compareTo(BigDecimal.ZERO) < 1) {
+			throw new RegraNegocioException("Informe um valor válido!");
+		}
+
+		if(recorrente.getTipo() == null) {
+			throw new RegraNegocioException("Informe um tipo de lançamento!");
+		}
+
+		if(recorrente.getPeriodicidade() == null) {
+			throw new RegraNegocioException("Informe uma periodicidade válida!");
+		}
+
+		if(!mesValido(recorrente.getMesInicial()) || !anoValido(recorrente.getAnoInicial())) {
+			throw new RegraNegocioException("Informe um início válido!");
+		}
+
+		if(recorrente.getAnoFinal() != null || recorrente.getMesFinal() != null) {
+			if(!mesValido(recorrente.getMesFinal()) || !anoValido(recorrente.getAnoFinal())) {
+				throw new RegraNegocioException("Informe um fim válido!");
+			}
+			if(recorrente.getFim().isBefore(YearMonth.of(recorrente.getAnoInicial(), recorrente.getMesInicial()))) {
+				throw new RegraNegocioException("O fim da recorrência deve ser posterior ao início!");
+			}
+		}
+	}
+
+	@Override
+	public ResultadoRecorrenciaDTO materializar(YearMonth ate) {
+		if(!executando.compareAndSet(false, true)) {
+			log.info("Lançamentos recorrentes já estão sendo gerados nesta instância");
+			return ResultadoRecorrenciaDTO.builder().executada(false).build();
+		}
+		try {
+			if(!bloqueioService.adquirir(BLOQUEIO, duracaoBloqueio)) {
+				log.info("Lançamentos recorrentes já estão sendo gerados por outra instância");
+				return ResultadoRecorrenciaDTO.builder().executada(false).build();
+			}
+			return materializarComBloqueio(ate);
+		} finally {
+			executando.set(false);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		pool.shutdown();
+	}
+
+
+	private ResultadoRecorrenciaDTO materializarComBloqueio(YearMonth ate) {
+		long inicio = System.nanoTime();
+		Contagem total = new Contagem();
+		try {
+			List<Object[]> faixas = repository.obterFaixaUsuariosPendentes(ate.getYear(), ate.getMonthValue());
+			Object[] faixa = faixas.isEmpty() ? null : faixas.get(0);
+			if(faixa != null && faixa[0] != null) {
+				long primeiro = ((Number) faixa[0]).longValue();
+				long ultimo = ((Number) faixa[1]).longValue();
+				long largura = (ultimo - primeiro) / threads + 1;
+
+				List<CompletableFuture<Contagem>> partes = new ArrayList<>();
+				for(long inicial = primeiro; inicial <= ultimo; inicial += largura) {
+					long usuarioInicial = inicial;
+					long usuarioFinal = Math.min(ultimo, inicial + largura - 1);
+					partes.add(CompletableFuture.supplyAsync(() -> materializar(usuarioInicial, usuarioFinal, ate), pool));
+				}
+				partes.forEach(parte -> total.somar(parte.join()));
+			}
+		} finally {
+			bloqueioService.liberar(BLOQUEIO);
+		}
+
+		long nanos = System.nanoTime() - inicio;
+		long milissegundos = Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos));
+		ResultadoRecorrenciaDTO resultado = ResultadoRecorrenciaDTO.builder()
+				.executada(true)
+				.modelos(total.modelos)
+				.lancamentos(total.lancamentos)
+				.falhas(total.falhas)
+				.milissegundos(milissegundos)
+				.lancamentosPorSegundo(total.lancamentos * 1000 / milissegundos)
+				.build();
+		if(registry != null) {
+			registry.timer(METRICA_EXECUCAO).record(nanos, TimeUnit.NANOSECONDS);
+			registry.counter(METRICA_LANCAMENTOS).increment(total.lancamentos);
+		}
+		log.info("Lançamentos recorrentes até {}: {} modelos, {} lançamentos em {} ms ({} lançamentos/s), {} faixas com falha", ate,
+				resultado.getModelos(), resultado.getLancamentos(), milissegundos, resultado.getLancamentosPorSegundo(), resultado.getFalhas());
+		return resultado;
+	}
+
+	private Contagem materializar(long usuarioInicial, long usuarioFinal, YearMonth ate) {
+		Contagem contagem = new Contagem();
+		long apos = 0;
+		try {
+			Contagem lote;
+			do {
+				if(!bloqueioService.adquirir(BLOQUEIO, duracaoBloqueio)) {
+					log.warn("Concessão {} perdida, usuários {} a {} ficam para a próxima execução", BLOQUEIO, usuarioInicial, usuarioFinal);
+					contagem.falhas++;
+					return contagem;
+				}
+				long ultimo = apos;
+				lote = transactionTemplate.execute(status -> materializarLote(usuarioInicial, usuarioFinal, ultimo, ate));
+				contagem.somar(lote);
+				apos = lote.ultimoModelo;
+			} while(lote.modelos == tamanhoLote);
+		} catch (RuntimeException e) {
+			log.error("Falha ao gerar os lançamentos recorrentes dos usuários {} a {}", usuarioInicial, usuarioFinal, e);
+			contagem.falhas++;
+		}
+		return contagem;
+	}
+
+	private Contagem materializarLote(long usuarioInicial, long usuarioFinal, long apos, YearMonth ate) {
+		List<LancamentoRecorrente> modelos = repository.buscarPendentes(usuarioInicial, usuarioFinal, apos, ate.getYear(), ate.getMonthValue(),
+				PageRequest.of(0, tamanhoLote));
+		Contagem lote = new Contagem();
+		if(modelos.isEmpty()) {
+			return lote;
+		}
+
+		List<Lancamento> lancamentos = new ArrayList<>();
+		for(LancamentoRecorrente modelo : modelos) {
+			gerar(modelo, ate, lancamentos);
+		}
+		long alteracao = sincronizacaoService.marcarAlteracao();
+		lancamentos.forEach(lancamento -> lancamento.setAlteracao(alteracao));
+		lancamentoRepository.inserirEmLote(lancamentos);
+		List<EstadoLancamentoDTO> estados = lancamentos.stream().map(EstadoLancamentoDTO::of).collect(Collectors.toList());
+		saldoService.registrar(estados);
+		resumoService.registrar(estados);
+		eventoService.registrarCriados(estados);
+
+		lote.modelos = modelos.size();
+		lote.lancamentos = lancamentos.size();
+		lote.ultimoModelo = modelos.get(modelos.size() - 1).getId();
+		return lote;
+	}
+
+	private void gerar(LancamentoRecorrente modelo, YearMonth ate, List<Lancamento> lancamentos) {
+		YearMonth fim = modelo.getFim();
+		YearMonth limite = fim != null && fim.isBefore(ate) ? fim : ate;
+		YearMonth ocorrencia = modelo.getProximaOcorrencia();
+		LocalDate hoje = LocalDate.now();
+		while(!ocorrencia.isAfter(limite)) {
+			lancamentos.add(Lancamento.builder()
+					.descricao(modelo.getDescricao())
+					.ano(ocorrencia.getYear())
+					.mes(ocorrencia.getMonthValue())
+					.usuario(modelo.getUsuario())
+					.valor(modelo.getValor())
+					.dataCadastro(hoje)
+					.tipo(modelo.getTipo())
+					.status(StatusLancamento.PENDENTE)
+					.chaveImportacao(PREFIXO_CHAVE + modelo.getId() + "-" + ocorrencia)
+					.build());
+			ocorrencia = ocorrencia.plusMonths(modelo.getPeriodicidade().getMeses());
+		}
+		modelo.setProximaOcorrencia(ocorrencia);
+	}
+
+	private static boolean mesValido(Integer mes) {
+		return mes != null && mes >= 1 && mes <= 12;
+	}
+
+	private static boolean anoValido(Integer ano) {
+		return ano != null && ano.toString().length() == 4;
+	}
+
+	private static class Contagem {
+		long modelos;
+		long lancamentos;
+		int falhas;
+		long ultimoModelo;
+
+		void somar(Contagem outra) {
+			modelos += outra.modelos;
+			lancamentos += outra.lancamentos;
+			falhas += outra.falhas;
+		}
+	}
+}
@@ -1,30 +1,78 @@
 package com.ajeff.minhasfinancas.services.impl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import org.springframework.data.domain.Example;
-import org.springframework.data.domain.ExampleMatcher;
-import org.springframework.data.domain.ExampleMatcher.StringMatcher;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ajeff.minhasfinancas.dto.CampoLancamento;
+import com.ajeff.minhasfinancas.dto.CursorLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.dto.PaginaLancamentoDTO;
 import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
 import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalId;
 import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
-import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoEventoLancamento;
 import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.seguranca.UsuarioAutenticado;
+import com.ajeff.minhasfinancas.service.EventoLancamentoService;
+import com.ajeff.minhasfinancas.service.HistoricoLancamentoService;
 import com.ajeff.minhasfinancas.service.LancamentoService;
+import com.ajeff.minhasfinancas.service.ResumoMensalService;
+import com.ajeff.minhasfinancas.service.SaldoUsuarioService;
+import com.ajeff.minhasfinancas.service.SincronizacaoLancamentoService;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService{
 	
+	public static final String CACHE_BUSCAS = "buscasLancamentos";
+	private static final int TAMANHO_MAXIMO_PAGINA = 500;
+	private static final int MAXIMO_LOTE_STATUS = 1000;
+	private static final String FK_USUARIO = "lancamento_id_usuario_fkey";
+	private static final Comparator<LancamentoConsultaDTO> ORDEM = Comparator.comparing(LancamentoConsultaDTO::getAno)
+			.thenComparing(LancamentoConsultaDTO::getMes).thenComparing(LancamentoConsultaDTO::getId);
+	
 	private LancamentoRepository repository;
+	private SaldoUsuarioService saldoService;
+	private ResumoMensalService resumoService;
+	private HistoricoLancamentoService historicoService;
+	private EventoLancamentoService eventoService;
+	private SincronizacaoLancamentoService sincronizacaoService;
+	private CacheManager cacheManager;
 	
-	public LancamentoServiceImpl (LancamentoRepository repository) {
+	public LancamentoServiceImpl (LancamentoRepository repository, SaldoUsuarioService saldoService, ResumoMensalService resumoService,
+			HistoricoLancamentoService historicoService, EventoLancamentoService eventoService,
+			SincronizacaoLancamentoService sincronizacaoService, CacheManager cacheManager) {
 		this.repository = repository;
+		this.saldoService = saldoService;
+		this.resumoService = resumoService;
+		this.historicoService = historicoService;
+		this.eventoService = eventoService;
+		this.sincronizacaoService = sincronizacaoService;
+		this.cacheManager = cacheManager;
 	}
 
 	@Override
@@ -32,7 +80,9 @@ public class LancamentoServiceImpl implements LancamentoService{
 	public Lancamento salvar(Lancamento lancamento) {
 		validar(lancamento);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		return repository.save(lancamento);
+		Lancamento lancamentoSalvo = gravar(lancamento);
+		registrarAlteracao(TipoEventoLancamento.CRIADO, null, EstadoLancamentoDTO.of(lancamentoSalvo));
+		return lancamentoSalvo;
 	}
 
 	@Override
@@ -40,27 +90,203 @@ public class LancamentoServiceImpl implements LancamentoService{
 	public Lancamento atualizar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
 		validar(lancamento);
-		return repository.save(lancamento);
+		EstadoLancamentoDTO anterior = repository.obterEstado(lancamento.getId()).orElse(null);
+		Lancamento lancamentoSalvo = gravar(lancamento);
+		registrarAlteracao(TipoEventoLancamento.ALTERADO, anterior, EstadoLancamentoDTO.of(lancamentoSalvo));
+		return lancamentoSalvo;
 	}
 
 	@Override
 	@Transactional
 	public void deletar(Lancamento lancamento) {
 		Objects.requireNonNull(lancamento.getId());
+		EstadoLancamentoDTO anterior = repository.obterEstado(lancamento.getId())
+				.orElseGet(() -> EstadoLancamentoDTO.of(lancamento));
+		sincronizacaoService.registrarExclusoes(Collections.singletonList(lancamento.getId()));
 		repository.delete(lancamento);
+		registrarAlteracao(TipoEventoLancamento.EXCLUIDO, anterior, null);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro) {
+		List<LancamentoConsultaDTO> lancamentos = repository.buscar(filtro);
+		if(!historicoService.alcancaHistorico(filtro)) {
+			return lancamentos;
+		}
+		return mesclar(lancamentos, repository.buscarHistorico(filtro));
+	}
+
+	/**
+	 * Buscas simples por período (usuário, ano e mês) são guardadas em cache sob a versão do usuário,
+	 * que avança a cada escrita; uma versão nova nunca encontra resultados antigos.
+	 * A versão deve ser lida antes da busca.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro, Long versao) {
+		return buscar(filtro, versao, null);
+	}
+	
+	/**
+	 * Só as buscas de um mês vão para o cache, que é limitado pela quantidade de entradas: uma busca sem período
+	 * traria todos os lançamentos do usuário para cada entrada. Os campos fazem parte da chave do cache, já que
+	 * cada combinação lê colunas diferentes.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<LancamentoConsultaDTO> buscar(FiltroLancamentoDTO filtro, Long versao, Set<CampoLancamento> campos) {
+		Cache cache = cacheManager.getCache(CACHE_BUSCAS);
+		if(versao == null || cache == null || !consultaPorPeriodo(filtro)) {
+			return buscarCampos(filtro, campos);
+		}
+		SimpleKey chave = campos == null ? new SimpleKey(versao, filtro) : new SimpleKey(versao, filtro, campos);
+		List<LancamentoConsultaDTO> lancamentos = cache.get(chave, List.class);
+		if(lancamentos == null) {
+			lancamentos = Collections.unmodifiableList(buscarCampos(filtro, campos));
+			cache.put(chave, lancamentos);
+		}
+		return lancamentos;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public PaginaLancamentoDTO buscarPagina(FiltroLancamentoDTO filtro, String cursor, int tamanho) {
+		if(tamanho < 1 || tamanho > TAMANHO_MAXIMO_PAGINA) {
+			throw new RegraNegocioException("Informe um tamanho de página entre 1 e " + TAMANHO_MAXIMO_PAGINA + "!");
+		}
+		CursorLancamentoDTO apos = CursorLancamentoDTO.decodificar(cursor);
+		List<LancamentoConsultaDTO> lancamentos = repository.buscarPagina(filtro, apos, tamanho + 1);
+		if(historicoService.alcancaHistorico(filtro)) {
+			lancamentos = mesclar(lancamentos, repository.buscarPaginaHistorico(filtro, apos, tamanho + 1));
+		}
+		
+		String proximoCursor = null;
+		if(lancamentos.size() > tamanho) {
+			lancamentos = lancamentos.subList(0, tamanho);
+			proximoCursor = CursorLancamentoDTO.of(lancamentos.get(tamanho - 1)).codificar();
+		}
+		return new PaginaLancamentoDTO(lancamentos, proximoCursor);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void buscarStream(FiltroLancamentoDTO filtro, Consumer<LancamentoConsultaDTO> consumidor) {
+		if(!historicoService.alcancaHistorico(filtro)) {
+			try (Stream<LancamentoConsultaDTO> lancamentos = repository.buscarStream(filtro)) {
+				lancamentos.forEach(consumidor);
+			}
+			return;
+		}
+		try (Stream<LancamentoConsultaDTO> lancamentos = repository.buscarStream(filtro);
+				Stream<LancamentoConsultaDTO> historico = repository.buscarStreamHistorico(filtro)) {
+			mesclar(lancamentos.iterator(), historico.iterator(), consumidor);
+		}
+	}
+
+	@Override
+	public Optional<Long> obterVersaoUsuario(Long id) {
+		return saldoService.obterVersao(id);
+	}
+
+	/**
+	 * Bloqueia as linhas lendo só as colunas necessárias para os resumos e troca o status com um único update
+	 * condicionado ao status lido; lançamentos que já estão no status pedido não são alterados. Um id de outro
+	 * usuário que não o do token recusa o lote inteiro.
+	 */
+	@Override
+	@Transactional
+	public List<LancamentoConsultaDTO> atualizarStatus(Collection<Long> ids, StatusLancamento status) {
+		Objects.requireNonNull(status);
+		if(ids.size() > MAXIMO_LOTE_STATUS) {
+			throw new RegraNegocioException("Informe até " + MAXIMO_LOTE_STATUS + " lançamentos!");
+		}
+		if(ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+		
+		List<LancamentoConsultaDTO> lancamentos = repository.bloquearPorIds(ids);
+		lancamentos.forEach(lancamento -> UsuarioAutenticado.verificarDono(lancamento.getUsuario()));
+		if(lancamentos.size() < ids.size()) {
+			verificarArquivados(ids, lancamentos);
+		}
+		List<EstadoLancamentoDTO> anteriores = new ArrayList<>();
+		List<EstadoLancamentoDTO> atuais = new ArrayList<>();
+		for(LancamentoConsultaDTO lancamento : lancamentos) {
+			if(lancamento.getStatus() != status) {
+				anteriores.add(EstadoLancamentoDTO.of(lancamento));
+				lancamento.setStatus(status);
+				atuais.add(EstadoLancamentoDTO.of(lancamento));
+			}
+		}
+		if(anteriores.isEmpty()) {
+			return lancamentos;
+		}
+		
+		List<Long> alterados = anteriores.stream().map(EstadoLancamentoDTO::getId).collect(Collectors.toList());
+		Set<StatusLancamento> statusAnteriores = anteriores.stream().map(EstadoLancamentoDTO::getStatus).collect(Collectors.toSet());
+		if(repository.atualizarStatus(alterados, status, statusAnteriores, sincronizacaoService.marcarAlteracao()) != alterados.size()) {
+			throw new OptimisticLockingFailureException("Lançamentos alterados por outra operação durante a troca de status.");
+		}
+		saldoService.atualizar(anteriores, atuais);
+		resumoService.atualizar(anteriores, atuais);
+		eventoService.registrarStatus(anteriores, atuais);
+		return lancamentos;
+	}
+
+	/**
+	 * Troca o status de todos os lançamentos do filtro com um único update. As linhas do filtro são bloqueadas antes
+	 * de agregar, então os deltas dos resumos e do saldo somam exatamente o que o update altera; se ainda assim o
+	 * update alcançar outra quantidade de linhas (um lançamento novo que passou a atender o filtro), a transação é desfeita.
+	 */
+	@Override
+	@Transactional
+	public int atualizarStatus(FiltroLancamentoDTO filtro, StatusLancamento status) {
+		Objects.requireNonNull(status);
+		validarFiltroLote(filtro);
+		repository.bloquearIds(filtro);
+		List<ResumoMensal> anteriores = repository.resumir(filtro, status);
+		int atualizados = repository.atualizarStatus(filtro, status, sincronizacaoService.marcarAlteracao());
+		conferir(anteriores, atualizados);
+		
+		List<ResumoMensal> deltas = new ArrayList<>();
+		for(ResumoMensal anterior : anteriores) {
+			ResumoMensalId id = anterior.getId();
+			deltas.add(new ResumoMensal(id, -anterior.getQuantidade(), anterior.getTotal().negate(), null));
+			deltas.add(new ResumoMensal(new ResumoMensalId(id.getIdUsuario(), id.getAno(), id.getMes(), id.getTipo(), status),
+					anterior.getQuantidade(), anterior.getTotal(), null));
+		}
+		aplicarDeltas(deltas);
+		eventoService.registrarLote(anteriores, status);
+		return atualizados;
+	}
+
+	@Override
+	@Transactional
+	public int excluir(FiltroLancamentoDTO filtro) {
+		validarFiltroLote(filtro);
+		List<Long> ids = repository.bloquearIds(filtro);
+		List<ResumoMensal> removidos = repository.resumir(filtro, null);
+		sincronizacaoService.registrarExclusoes(ids);
+		int excluidos = repository.excluir(filtro);
+		conferir(removidos, excluidos);
+		
+		aplicarDeltas(removidos.stream()
+				.map(removido -> new ResumoMensal(removido.getId(), -removido.getQuantidade(), removido.getTotal().negate(), null))
+				.collect(Collectors.toList()));
+		eventoService.registrarLote(removidos, null);
+		return excluidos;
 	}
 
 	@Override
-	public List<Lancamento> buscar(Lancamento lancamento) {
-		Example<Lancamento> example = Example.of(lancamento, ExampleMatcher.matching().withIgnoreCase()
-				.withStringMatcher(StringMatcher.CONTAINING));
-		return repository.findAll(example);
+	@Transactional(readOnly = true)
+	public long contarArquivados(FiltroLancamentoDTO filtro) {
+		return historicoService.alcancaHistorico(filtro) ? repository.contarHistorico(filtro) : 0;
 	}
 
 	@Override
-	public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
-		lancamento.setStatus(status);
-		atualizar(lancamento);
+	public Optional<Long> obterUsuarioArquivado(Long id) {
+		return historicoService.obterUsuarioArquivado(id);
 	}
 
 	@Override
@@ -92,6 +318,7 @@ public class LancamentoServiceImpl implements LancamentoService{
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Optional<Lancamento> findLancamentoById(Long id) {
 		return repository.findById(id);
 	}
@@ -99,19 +326,113 @@ public class LancamentoServiceImpl implements LancamentoService{
 	@Override
 	@Transactional(readOnly = true)
 	public BigDecimal obterSaldoPorUsuario(Long id) {
-		BigDecimal receitas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA);
-		BigDecimal despesas = repository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA);
-		
-		if(receitas == null) {
-			receitas = BigDecimal.ZERO;
+		return saldoService.obterSaldo(id);
+	}
+	
+	
+	// os ids ausentes da tabela principal podem estar no histórico, que não é alterado: recusa em vez de ignorá-los
+	private void verificarArquivados(Collection<Long> ids, List<LancamentoConsultaDTO> encontrados) {
+		Set<Long> ausentes = new HashSet<>(ids);
+		encontrados.forEach(lancamento -> ausentes.remove(lancamento.getId()));
+		for(Long id : ausentes) {
+			Optional<Long> usuario = historicoService.obterUsuarioArquivado(id);
+			if(usuario.isPresent()) {
+				UsuarioAutenticado.verificarDono(usuario.get());
+				throw new RegraNegocioException(HistoricoLancamentoService.ARQUIVADO);
+			}
 		}
-		
-		if(despesas == null) {
-			despesas = BigDecimal.ZERO;
+	}
+	
+	private static boolean consultaPorPeriodo(FiltroLancamentoDTO filtro) {
+		return filtro.getUsuario() != null && filtro.getAno() != null && filtro.getMes() != null && filtro.getAnoInicial() == null && filtro.getMesInicial() == null
+				&& filtro.getAnoFinal() == null && filtro.getMesFinal() == null && filtro.getTipo() == null
+				&& filtro.getStatus() == null && filtro.getValorMinimo() == null && filtro.getValorMaximo() == null
+				&& filtro.getDescricao() == null;
+	}
+	
+	// com o histórico os dois resultados são intercalados por ano, mês e id, que passam a ser lidos mesmo sem terem sido pedidos
+	private List<LancamentoConsultaDTO> buscarCampos(FiltroLancamentoDTO filtro, Set<CampoLancamento> campos) {
+		if(campos == null) {
+			return buscar(filtro);
+		}
+		if(!historicoService.alcancaHistorico(filtro)) {
+			return repository.buscar(filtro, campos);
+		}
+		Set<CampoLancamento> comOrdenacao = CampoLancamento.comOrdenacao(campos);
+		return mesclar(repository.buscar(filtro, comOrdenacao), repository.buscarHistorico(filtro, comOrdenacao));
+	}
+	
+	private static List<LancamentoConsultaDTO> mesclar(List<LancamentoConsultaDTO> lancamentos, List<LancamentoConsultaDTO> historico) {
+		List<LancamentoConsultaDTO> mesclados = new ArrayList<>(lancamentos.size() + historico.size());
+		mesclar(lancamentos.iterator(), historico.iterator(), mesclados::add);
+		return mesclados;
+	}
+	
+	// as duas fontes já vêm ordenadas por ano, mês e id
+	private static void mesclar(Iterator<LancamentoConsultaDTO> a, Iterator<LancamentoConsultaDTO> b, Consumer<LancamentoConsultaDTO> consumidor) {
+		LancamentoConsultaDTO proximoA = a.hasNext() ? a.next() : null;
+		LancamentoConsultaDTO proximoB = b.hasNext() ? b.next() : null;
+		while(proximoA != null || proximoB != null) {
+			if(proximoB == null || (proximoA != null && ORDEM.compare(proximoA, proximoB) <= 0)) {
+				consumidor.accept(proximoA);
+				proximoA = a.hasNext() ? a.next() : null;
+			} else {
+				consumidor.accept(proximoB);
+				proximoB = b.hasNext() ? b.next() : null;
+			}
+		}
+	}
+	
+	private static void validarFiltroLote(FiltroLancamentoDTO filtro) {
+		if(filtro.getUsuario() == null) {
+			throw new RegraNegocioException("Informe o usuário!");
+		}
+	}
+	
+	private static void conferir(List<ResumoMensal> resumos, int afetados) {
+		long esperados = resumos.stream().mapToLong(ResumoMensal::getQuantidade).sum();
+		if(esperados != afetados) {
+			throw new OptimisticLockingFailureException("Lançamentos alterados por outra operação durante a alteração em lote.");
+		}
+	}
+	
+	private void aplicarDeltas(List<ResumoMensal> deltas) {
+		if(deltas.isEmpty()) {
+			return;
 		}
-		return receitas.subtract(despesas);
+		saldoService.aplicarDeltas(deltas);
+		resumoService.aplicarDeltas(deltas);
 	}
 	
+	private void registrarAlteracao(TipoEventoLancamento tipo, EstadoLancamentoDTO anterior, EstadoLancamentoDTO atual) {
+		saldoService.atualizar(anterior, atual);
+		resumoService.atualizar(anterior, atual);
+		eventoService.registrar(tipo, anterior, atual);
+	}
 	
+	private Lancamento gravar(Lancamento lancamento) {
+		lancamento.setAlteracao(sincronizacaoService.marcarAlteracao());
+		try {
+			Lancamento lancamentoSalvo = repository.save(lancamento);
+			repository.flush();
+			return lancamentoSalvo;
+		} catch (DataIntegrityViolationException e) {
+			if(violouUsuario(e)) {
+				throw new RegraNegocioException("Usuário não encontrado com este id!");
+			}
+			throw e;
+		}
+	}
+	
+	// no PostgreSQL a chave estrangeira pode ter ganho um sufixo ao recriar a tabela particionada
+	private static boolean violouUsuario(DataIntegrityViolationException e) {
+		for(Throwable causa = e; causa != null; causa = causa.getCause()) {
+			if(causa instanceof ConstraintViolationException) {
+				String restricao = ((ConstraintViolationException) causa).getConstraintName();
+				return restricao != null && restricao.toLowerCase().contains(FK_USUARIO);
+			}
+		}
+		return false;
+	}
 
 }
@@ -0,0 +1,129 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.service.ParticionamentoLancamentoService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantém as partições anuais de financas.lancamento criadas por 006_particionamento_lancamento.sql.
+ * Em bancos sem a tabela particionada (H2 nos testes, PostgreSQL antes do script) nada é feito.
+ */
+@Slf4j
+@Service
+public class ParticionamentoLancamentoServiceImpl implements ParticionamentoLancamentoService {
+
+	private static final Pattern PARTICAO_ANUAL = Pattern.compile("lancamento_(\\d{4})");
+	
+	static final String CONSULTA_PARTICIONADA = "select count(*) from pg_partitioned_table p "
+			+ "join pg_class c on c.oid = p.partrelid join pg_namespace n on n.oid = c.relnamespace "
+			+ "where n.nspname = 'financas' and c.relname = 'lancamento'";
+	
+	static final String CONSULTA_PARTICOES = "select c.relname from pg_inherits i "
+			+ "join pg_class c on c.oid = i.inhrelid join pg_class p on p.oid = i.inhparent "
+			+ "join pg_namespace n on n.oid = p.relnamespace "
+			+ "where n.nspname = 'financas' and p.relname = 'lancamento' order by c.relname";
+	
+	static final String TRANSPORTAR_SALDO = "insert into financas.saldo_historico (id_usuario, receitas, despesas, ate_ano, ate_mes) "
+			+ "select id_usuario, coalesce(sum(valor) filter (where tipo = 'RECEITA'), 0), "
+			+ "coalesce(sum(valor) filter (where tipo = 'DESPESA'), 0), %d, 12 "
+			+ "from financas.lancamento_%d where id_usuario is not null group by id_usuario "
+			+ "on conflict (id_usuario) do update set receitas = financas.saldo_historico.receitas + excluded.receitas, "
+			+ "despesas = financas.saldo_historico.despesas + excluded.despesas";
+	
+	static final String REGISTRAR_ANO_ARQUIVADO = "insert into financas.ano_arquivado (ano) values (?)";
+	
+	static final String INCREMENTAR_VERSAO = "update financas.saldo_usuario set versao = versao + 1 "
+			+ "where id_usuario in (select distinct id_usuario from financas.lancamento_%d)";
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final int anosFuturos;
+	private final String esquemaArquivo;
+	
+	public ParticionamentoLancamentoServiceImpl(JdbcTemplate jdbcTemplate,
+				@Value("${financas.particionamento.anos-futuros:2}") int anosFuturos,
+				@Value("${financas.particionamento.esquema-arquivo:financas_arquivo}") String esquemaArquivo) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.anosFuturos = anosFuturos;
+		this.esquemaArquivo = esquemaArquivo;
+	}
+
+	@Override
+	public boolean isParticionado() {
+		String banco = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName());
+		if(!"PostgreSQL".equals(banco)) {
+			return false;
+		}
+		Integer total = jdbcTemplate.queryForObject(CONSULTA_PARTICIONADA, Integer.class);
+		return total != null && total > 0;
+	}
+	
+	@Override
+	public List<Integer> listarAnosParticionados() {
+		List<Integer> anos = new ArrayList<>();
+		for(String particao : jdbcTemplate.queryForList(CONSULTA_PARTICOES, String.class)) {
+			Matcher matcher = PARTICAO_ANUAL.matcher(particao);
+			if(matcher.matches()) {
+				anos.add(Integer.valueOf(matcher.group(1)));
+			}
+		}
+		return anos;
+	}
+
+	@Override
+	public List<Integer> criarParticoesFuturas() {
+		List<Integer> existentes = listarAnosParticionados();
+		List<Integer> criadas = new ArrayList<>();
+		int atual = Year.now().getValue();
+		for(int ano = atual; ano <= atual + anosFuturos; ano++) {
+			if(existentes.contains(ano)) {
+				continue;
+			}
+			try {
+				jdbcTemplate.execute(String.format("create table financas.lancamento_%d partition of financas.lancamento "
+						+ "for values from (%d) to (%d)", ano, ano, ano + 1));
+				criadas.add(ano);
+			} catch (DataAccessException e) {
+				log.warn("Não foi possível criar a partição de {}: {}", ano, e.getMostSpecificCause().getMessage());
+			}
+		}
+		return criadas;
+	}
+
+	/**
+	 * Desanexa a partição do ano e a move para o esquema de arquivo. Os lançamentos do ano deixam de aparecer
+	 * nas buscas, mas continuam consultáveis direto no banco; os totais do ano são somados ao saldo transportado
+	 * (financas.saldo_historico), então a reconciliação mantém o saldo; o ano fica registrado em financas.ano_arquivado
+	 * para que a reconciliação dos resumos mensais não o apague, e a versão do saldo dos usuários afetados
+	 * avança para invalidar as buscas em cache. Tudo na mesma transação: o detach bloqueia a partição até o fim.
+	 */
+	@Override
+	@Transactional
+	public void arquivar(int ano) {
+		if(ano >= Year.now().getValue()) {
+			throw new RegraNegocioException("Só é possível arquivar anos anteriores ao atual.");
+		}
+		if(!listarAnosParticionados().contains(ano)) {
+			throw new RegraNegocioException("Não existe partição de lançamentos para o ano " + ano + ".");
+		}
+		jdbcTemplate.execute(String.format("alter table financas.lancamento detach partition financas.lancamento_%d", ano));
+		int usuarios = jdbcTemplate.update(String.format(TRANSPORTAR_SALDO, ano, ano));
+		jdbcTemplate.update(REGISTRAR_ANO_ARQUIVADO, ano);
+		jdbcTemplate.update(String.format(INCREMENTAR_VERSAO, ano));
+		jdbcTemplate.execute(String.format("alter table financas.lancamento_%d set schema %s", ano, esquemaArquivo));
+		log.info("Lançamentos de {} arquivados em {}.lancamento_{}, saldo transportado de {} usuários", ano, esquemaArquivo, ano, usuarios);
+	}
+}
@@ -0,0 +1,152 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.model.entity.CheckpointProjecao;
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
+import com.ajeff.minhasfinancas.projecao.ProjecaoLancamento;
+import com.ajeff.minhasfinancas.repository.CheckpointProjecaoRepository;
+import com.ajeff.minhasfinancas.repository.EventoLancamentoRepository;
+import com.ajeff.minhasfinancas.service.ProjecaoLancamentoService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Aplica os eventos de financas.evento_lancamento às projeções a partir do checkpoint de cada uma, em lotes de
+ * tamanho-lote eventos por transação; o lote e o avanço do checkpoint são confirmados juntos, e o checkpoint
+ * fica bloqueado durante o lote, então duas instâncias nunca aplicam o mesmo evento.
+ * <p>
+ * Os ids vêm de uma sequência com cache e não seguem a ordem de confirmação, por isso o consumo é ordenado pela
+ * transação que gravou o evento e só chega até a transação mais antiga ainda em andamento (xmin do snapshot):
+ * uma transação abaixo desse horizonte nunca confirma eventos novos. Fora do PostgreSQL a transação é sempre zero
+ * e o consumo segue só o id, o que basta para um único escritor (H2 nos testes).
+ */
+@Slf4j
+@Service
+public class ProjecaoLancamentoServiceImpl implements ProjecaoLancamentoService {
+
+	static final String CONSULTA_HORIZONTE = "select txid_snapshot_xmin(txid_current_snapshot())";
+	
+	private final Map<String, ProjecaoLancamento> projecoes = new LinkedHashMap<>();
+	private final EventoLancamentoRepository eventoRepository;
+	private final CheckpointProjecaoRepository checkpointRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int tamanhoLote;
+	private volatile Boolean postgres;
+	
+	public ProjecaoLancamentoServiceImpl(List<ProjecaoLancamento> projecoes, EventoLancamentoRepository eventoRepository,
+				CheckpointProjecaoRepository checkpointRepository, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+				@Value("${financas.projecoes.tamanho-lote:5000}") int tamanhoLote) {
+		projecoes.forEach(projecao -> this.projecoes.put(projecao.getNome(), projecao));
+		this.eventoRepository = eventoRepository;
+		this.checkpointRepository = checkpointRepository;
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.tamanhoLote = tamanhoLote;
+	}
+
+	@Override
+	public List<String> listarProjecoes() {
+		return new ArrayList<>(projecoes.keySet());
+	}
+
+	@Override
+	public long processar() {
+		long total = 0;
+		for(String nome : projecoes.keySet()) {
+			total += processar(nome);
+		}
+		return total;
+	}
+
+	@Override
+	public long processar(String nome) {
+		ProjecaoLancamento projecao = obter(nome);
+		long total = 0;
+		int aplicados;
+		do {
+			aplicados = transactionTemplate.execute(status -> aplicarLote(projecao));
+			total += aplicados;
+		} while(aplicados == tamanhoLote);
+		return total;
+	}
+
+	/**
+	 * Apaga a projeção e volta o checkpoint ao início numa transação, depois reaplica todos os eventos em lotes.
+	 * Até terminar, a projeção fica parcial.
+	 */
+	@Override
+	public long reconstruir(String nome) {
+		ProjecaoLancamento projecao = obter(nome);
+		transactionTemplate.execute(status -> {
+			CheckpointProjecao checkpoint = bloquearCheckpoint(nome);
+			projecao.limpar();
+			checkpoint.setTransacao(0L);
+			checkpoint.setEvento(0L);
+			checkpoint.setAtualizadoEm(LocalDateTime.now());
+			return checkpointRepository.save(checkpoint);
+		});
+		long inicio = System.nanoTime();
+		long total = processar(nome);
+		long milissegundos = Math.max(1, (System.nanoTime() - inicio) / 1_000_000);
+		log.info("Projeção {} reconstruída: {} eventos em {} ms ({} eventos/s)", nome, total, milissegundos, total * 1000 / milissegundos);
+		return total;
+	}
+	
+	
+	private int aplicarLote(ProjecaoLancamento projecao) {
+		CheckpointProjecao checkpoint = bloquearCheckpoint(projecao.getNome());
+		List<EventoLancamento> eventos = eventoRepository.buscarApos(checkpoint.getTransacao(), checkpoint.getEvento(), horizonte(),
+				PageRequest.of(0, tamanhoLote));
+		if(eventos.isEmpty()) {
+			return 0;
+		}
+		
+		projecao.aplicar(eventos);
+		EventoLancamento ultimo = eventos.get(eventos.size() - 1);
+		checkpoint.setTransacao(ultimo.getTransacao());
+		checkpoint.setEvento(ultimo.getId());
+		checkpoint.setAtualizadoEm(LocalDateTime.now());
+		checkpointRepository.save(checkpoint);
+		return eventos.size();
+	}
+	
+	private CheckpointProjecao bloquearCheckpoint(String nome) {
+		return checkpointRepository.bloquear(nome).orElseGet(() -> {
+			checkpointRepository.saveAndFlush(new CheckpointProjecao(nome));
+			return checkpointRepository.bloquear(nome).get();
+		});
+	}
+	
+	private long horizonte() {
+		if(postgres == null) {
+			postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName()));
+		}
+		if(!postgres) {
+			return Long.MAX_VALUE;
+		}
+		return jdbcTemplate.queryForObject(CONSULTA_HORIZONTE, Long.class);
+	}
+	
+	private ProjecaoLancamento obter(String nome) {
+		ProjecaoLancamento projecao = projecoes.get(nome);
+		if(projecao == null) {
+			throw new RegraNegocioException("Projeção não encontrada: " + nome);
+		}
+		return projecao;
+	}
+}
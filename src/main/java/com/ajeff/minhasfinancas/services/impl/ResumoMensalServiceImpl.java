@@ -0,0 +1,188 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.RelatorioPeriodoDTO;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.model.entity.AnoArquivado;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalId;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.repository.AnoArquivadoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoHistoricoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.ResumoMensalRepository;
+import com.ajeff.minhasfinancas.service.ResumoMensalService;
+
+@Service
+public class ResumoMensalServiceImpl implements ResumoMensalService{
+
+	private static final int MAXIMO_MESES = 120;
+	private static final int MAXIMO_ANOS = 30;
+	
+	private ResumoMensalRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	private LancamentoHistoricoRepository historicoRepository;
+	private AnoArquivadoRepository anoArquivadoRepository;
+	
+	public ResumoMensalServiceImpl(ResumoMensalRepository repository, LancamentoRepository lancamentoRepository,
+			LancamentoHistoricoRepository historicoRepository, AnoArquivadoRepository anoArquivadoRepository) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.historicoRepository = historicoRepository;
+		this.anoArquivadoRepository = anoArquivadoRepository;
+	}
+
+	@Override
+	@Transactional
+	public void atualizar(EstadoLancamentoDTO anterior, EstadoLancamentoDTO atual) {
+		Map<ResumoMensalId, ResumoMensal> deltas = new HashMap<>();
+		acumular(deltas, anterior, -1);
+		acumular(deltas, atual, 1);
+		aplicar(deltas);
+	}
+
+	@Override
+	@Transactional
+	public void atualizar(Collection<EstadoLancamentoDTO> anteriores, Collection<EstadoLancamentoDTO> atuais) {
+		Map<ResumoMensalId, ResumoMensal> deltas = new HashMap<>();
+		anteriores.forEach(estado -> acumular(deltas, estado, -1));
+		atuais.forEach(estado -> acumular(deltas, estado, 1));
+		aplicar(deltas);
+	}
+
+	@Override
+	@Transactional
+	public void aplicarDeltas(Collection<ResumoMensal> deltas) {
+		Map<ResumoMensalId, ResumoMensal> porChave = new HashMap<>();
+		deltas.forEach(delta -> somar(porChave, new ResumoMensal(delta.getId(), delta.getQuantidade(), delta.getTotal(), null)));
+		aplicar(porChave);
+	}
+
+	@Override
+	@Transactional
+	public void registrar(Collection<EstadoLancamentoDTO> novos) {
+		Map<ResumoMensalId, ResumoMensal> deltas = new HashMap<>();
+		novos.forEach(estado -> acumular(deltas, estado, 1));
+		aplicar(deltas);
+	}
+
+	@Override
+	@Transactional
+	public void reconciliar(Long idUsuario) {
+		// com os resumos do usuário bloqueados, os deltas concorrentes esperam o fim da reconciliação e são aplicados
+		// sobre ela; um mês sem resumo inserido enquanto isso já vem calculado pela outra transação e prevalece
+		repository.bloquearPorUsuario(idUsuario);
+		Map<ResumoMensalId, ResumoMensal> resumos = new HashMap<>();
+		lancamentoRepository.calcularResumosMensais(idUsuario).forEach(resumo -> somar(resumos, resumo));
+		historicoRepository.calcularResumosMensais(idUsuario).forEach(resumo -> somar(resumos, resumo));
+		// anos arquivados não estão nas tabelas de lançamentos: os resumos gravados são os únicos que restam
+		Set<Integer> arquivados = anoArquivadoRepository.findAll().stream().map(AnoArquivado::getAno).collect(Collectors.toSet());
+		resumos.keySet().removeIf(id -> arquivados.contains(id.getAno()));
+		repository.excluirPorUsuario(idUsuario);
+		resumos.values().forEach(repository::inserirSeAusente);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<RelatorioPeriodoDTO> relatorioMensal(Long idUsuario, YearMonth de, YearMonth ate) {
+		if(de.isAfter(ate) || ChronoUnit.MONTHS.between(de, ate) >= MAXIMO_MESES) {
+			throw new RegraNegocioException("Informe um período de até " + MAXIMO_MESES + " meses!");
+		}
+		Map<YearMonth, RelatorioPeriodoDTO> meses = new LinkedHashMap<>();
+		for(YearMonth mes = de; !mes.isAfter(ate); mes = mes.plusMonths(1)) {
+			meses.put(mes, new RelatorioPeriodoDTO(mes.getYear(), mes.getMonthValue()));
+		}
+		
+		for(ResumoMensal resumo : repository.buscarPeriodo(idUsuario, de.getYear(), de.getMonthValue(), ate.getYear(), ate.getMonthValue())) {
+			ResumoMensalId id = resumo.getId();
+			if(id.getStatus() != StatusLancamento.CANCELADO) {
+				meses.get(YearMonth.of(id.getAno(), id.getMes())).adicionar(id.getTipo(), resumo.getTotal());
+			}
+		}
+		return new ArrayList<>(meses.values());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<RelatorioPeriodoDTO> relatorioAnual(Long idUsuario, int de, int ate) {
+		if(de > ate || ate - de >= MAXIMO_ANOS) {
+			throw new RegraNegocioException("Informe um período de até " + MAXIMO_ANOS + " anos!");
+		}
+		Map<Integer, RelatorioPeriodoDTO> anos = new LinkedHashMap<>();
+		for(int ano = de; ano <= ate; ano++) {
+			anos.put(ano, new RelatorioPeriodoDTO(ano, null));
+		}
+		
+		for(ResumoMensal resumo : repository.buscarPeriodo(idUsuario, de, 1, ate, 12)) {
+			ResumoMensalId id = resumo.getId();
+			if(id.getStatus() != StatusLancamento.CANCELADO) {
+				anos.get(id.getAno()).adicionar(id.getTipo(), resumo.getTotal());
+			}
+		}
+		return new ArrayList<>(anos.values());
+	}
+	
+	
+	// mesmo esquema do saldo: sem resumo ainda, o calculado já inclui este delta; se outra transação inseriu antes,
+	// o cálculo dela não enxerga estes lançamentos e o delta é aplicado sobre a linha dela
+	private void aplicar(Map<ResumoMensalId, ResumoMensal> deltas) {
+		deltas.forEach((id, delta) -> {
+			if(delta.getQuantidade() == 0 && delta.getTotal().signum() == 0) {
+				return;
+			}
+			if(aplicarDelta(id, delta) == 0 && !repository.inserirSeAusente(calcular(id))) {
+				aplicarDelta(id, delta);
+			}
+		});
+	}
+	
+	private int aplicarDelta(ResumoMensalId id, ResumoMensal delta) {
+		return repository.aplicarDelta(id.getIdUsuario(), id.getAno(), id.getMes(), id.getTipo(), id.getStatus(),
+				delta.getQuantidade(), delta.getTotal());
+	}
+	
+	private ResumoMensal calcular(ResumoMensalId id) {
+		Map<ResumoMensalId, ResumoMensal> resumo = new HashMap<>();
+		resumo.put(id, new ResumoMensal(id, 0L, BigDecimal.ZERO, null));
+		lancamentoRepository.calcularResumoMensal(id.getIdUsuario(), id.getAno(), id.getMes(), id.getTipo(), id.getStatus())
+			.ifPresent(calculado -> somar(resumo, calculado));
+		historicoRepository.calcularResumoMensal(id.getIdUsuario(), id.getAno(), id.getMes(), id.getTipo(), id.getStatus())
+			.ifPresent(calculado -> somar(resumo, calculado));
+		return resumo.get(id);
+	}
+	
+	private static void somar(Map<ResumoMensalId, ResumoMensal> resumos, ResumoMensal resumo) {
+		resumos.merge(resumo.getId(), resumo, (atual, novo) -> {
+			atual.setQuantidade(atual.getQuantidade() + novo.getQuantidade());
+			atual.setTotal(atual.getTotal().add(novo.getTotal()));
+			return atual;
+		});
+	}
+	
+	private void acumular(Map<ResumoMensalId, ResumoMensal> deltas, EstadoLancamentoDTO estado, int sinal) {
+		if(estado == null || estado.getIdUsuario() == null || estado.getAno() == null || estado.getMes() == null
+				|| estado.getTipo() == null || estado.getStatus() == null || estado.getValor() == null) {
+			return;
+		}
+		ResumoMensalId id = new ResumoMensalId(estado.getIdUsuario(), estado.getAno(), estado.getMes(), estado.getTipo(), estado.getStatus());
+		ResumoMensal delta = deltas.computeIfAbsent(id, chave -> new ResumoMensal(chave, 0L, BigDecimal.ZERO, null));
+		delta.setQuantidade(delta.getQuantidade() + sinal);
+		delta.setTotal(delta.getTotal().add(sinal < 0 ? estado.getValor().negate() : estado.getValor()));
+	}
+
+}
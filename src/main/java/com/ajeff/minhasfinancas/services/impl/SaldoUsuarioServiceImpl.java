@@ -0,0 +1,152 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalId;
+import com.ajeff.minhasfinancas.model.entity.SaldoUsuario;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.SaldoHistoricoRepository;
+import com.ajeff.minhasfinancas.repository.SaldoUsuarioRepository;
+import com.ajeff.minhasfinancas.service.SaldoUsuarioService;
+
+@Service
+public class SaldoUsuarioServiceImpl implements SaldoUsuarioService{
+
+	private SaldoUsuarioRepository repository;
+	private LancamentoRepository lancamentoRepository;
+	private SaldoHistoricoRepository historicoRepository;
+	
+	public SaldoUsuarioServiceImpl(SaldoUsuarioRepository repository, LancamentoRepository lancamentoRepository,
+			SaldoHistoricoRepository historicoRepository) {
+		this.repository = repository;
+		this.lancamentoRepository = lancamentoRepository;
+		this.historicoRepository = historicoRepository;
+	}
+
+	@Override
+	@Transactional
+	public void atualizar(EstadoLancamentoDTO anterior, EstadoLancamentoDTO atual) {
+		Map<Long, BigDecimal[]> deltas = new HashMap<>();
+		acumular(deltas, anterior, -1);
+		acumular(deltas, atual, 1);
+		aplicar(deltas);
+	}
+
+	@Override
+	@Transactional
+	public void atualizar(Collection<EstadoLancamentoDTO> anteriores, Collection<EstadoLancamentoDTO> atuais) {
+		Map<Long, BigDecimal[]> deltas = new HashMap<>();
+		anteriores.forEach(estado -> acumular(deltas, estado, -1));
+		atuais.forEach(estado -> acumular(deltas, estado, 1));
+		aplicar(deltas);
+	}
+
+	@Override
+	@Transactional
+	public void aplicarDeltas(Collection<ResumoMensal> deltas) {
+		Map<Long, BigDecimal[]> porUsuario = new HashMap<>();
+		deltas.forEach(delta -> {
+			ResumoMensalId id = delta.getId();
+			BigDecimal[] saldo = porUsuario.computeIfAbsent(id.getIdUsuario(), chave -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+			int indice = id.getTipo() == TipoLancamento.RECEITA ? 0 : 1;
+			saldo[indice] = saldo[indice].add(delta.getTotal());
+		});
+		aplicar(porUsuario);
+	}
+
+	@Override
+	@Transactional
+	public void registrar(Collection<EstadoLancamentoDTO> novos) {
+		Map<Long, BigDecimal[]> deltas = new HashMap<>();
+		novos.forEach(estado -> acumular(deltas, estado, 1));
+		aplicar(deltas);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public BigDecimal obterSaldo(Long idUsuario) {
+		return repository.findById(idUsuario)
+				.map(SaldoUsuario::getSaldo)
+				.orElseGet(() -> calcular(idUsuario).getSaldo());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Long> obterVersao(Long idUsuario) {
+		return repository.obterVersao(idUsuario);
+	}
+
+	@Override
+	@Transactional
+	public SaldoUsuario reconciliar(Long idUsuario) {
+		// a linha é bloqueada antes do cálculo: um delta concorrente (update em massa, sem conferir a versão)
+		// espera o fim da reconciliação em vez de ser sobrescrito pelos totais calculados antes dele
+		Optional<SaldoUsuario> existente = repository.bloquear(idUsuario);
+		if(!existente.isPresent()) {
+			SaldoUsuario calculado = calcular(idUsuario);
+			if(repository.inserirSeAusente(calculado)) {
+				return calculado;
+			}
+			existente = repository.bloquear(idUsuario);
+		}
+		SaldoUsuario saldo = existente.get();
+		SaldoUsuario calculado = calcular(idUsuario);
+		saldo.setReceitas(calculado.getReceitas());
+		saldo.setDespesas(calculado.getDespesas());
+		saldo.setSaldo(calculado.getSaldo());
+		return repository.save(saldo);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Set<Long> listarUsuarios() {
+		Set<Long> usuarios = new TreeSet<>(lancamentoRepository.obterIdsUsuarios());
+		repository.findAll().forEach(saldo -> usuarios.add(saldo.getIdUsuario()));
+		return usuarios;
+	}
+	
+	
+	// deltas zerados também são aplicados: o update avança a versão usada pelos caches e ETags do usuário.
+	// Sem saldo ainda, o calculado já inclui este delta; se outra transação inseriu antes, o cálculo dela
+	// não enxerga estes lançamentos e o delta é aplicado sobre a linha dela
+	private void aplicar(Map<Long, BigDecimal[]> deltas) {
+		deltas.forEach((idUsuario, delta) -> {
+			if(repository.aplicarDelta(idUsuario, delta[0], delta[1]) == 0 && !repository.inserirSeAusente(calcular(idUsuario))) {
+				repository.aplicarDelta(idUsuario, delta[0], delta[1]);
+			}
+		});
+	}
+	
+	// lançamentos já movidos para o histórico entram pelo saldo transportado
+	private SaldoUsuario calcular(Long idUsuario) {
+		SaldoUsuario saldo = lancamentoRepository.calcularSaldoUsuario(idUsuario)
+				.orElseGet(() -> new SaldoUsuario(idUsuario, BigDecimal.ZERO, BigDecimal.ZERO));
+		return historicoRepository.findById(idUsuario)
+				.map(historico -> new SaldoUsuario(idUsuario, saldo.getReceitas().add(historico.getReceitas()),
+						saldo.getDespesas().add(historico.getDespesas())))
+				.orElse(saldo);
+	}
+	
+	private void acumular(Map<Long, BigDecimal[]> deltas, EstadoLancamentoDTO estado, int sinal) {
+		if(estado == null || estado.getIdUsuario() == null || estado.getValor() == null || estado.getTipo() == null) {
+			return;
+		}
+		BigDecimal[] delta = deltas.computeIfAbsent(estado.getIdUsuario(), id -> new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ZERO});
+		BigDecimal valor = sinal < 0 ? estado.getValor().negate() : estado.getValor();
+		int indice = estado.getTipo() == TipoLancamento.RECEITA ? 0 : 1;
+		delta[indice] = delta[indice].add(valor);
+	}
+
+}
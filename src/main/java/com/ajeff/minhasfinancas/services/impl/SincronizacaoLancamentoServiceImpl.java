@@ -0,0 +1,148 @@
+package com.ajeff.minhasfinancas.services.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ajeff.minhasfinancas.dto.AlteracaoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.CursorSincronizacaoDTO;
+import com.ajeff.minhasfinancas.dto.SincronizacaoLancamentoDTO;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.repository.LancamentoExcluidoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.service.SincronizacaoLancamentoService;
+
+/**
+ * No PostgreSQL a alteração é o txid de quem gravou, e a sincronização só lê alterações abaixo do horizonte
+ * (o menor txid ainda em andamento), como as projeções fazem com os eventos: o cursor de um cliente nunca passa
+ * por uma transação que ainda pode confirmar. Fora do PostgreSQL a alteração vem de um contador em memória
+ * que parte do maior valor gravado, o que basta para um único escritor (H2 nos testes).
+ */
+@Service
+public class SincronizacaoLancamentoServiceImpl implements SincronizacaoLancamentoService {
+
+	static final String CONSULTA_TRANSACAO = "select txid_current()";
+	static final String CONSULTA_HORIZONTE = "select txid_snapshot_xmin(txid_current_snapshot())";
+	private static final int TAMANHO_MAXIMO = 500;
+	private static final int LOTE_EXCLUSOES = 1000;
+	private static final Comparator<AlteracaoLancamentoDTO> ORDEM = Comparator.comparing(AlteracaoLancamentoDTO::getAlteracao)
+			.thenComparing(AlteracaoLancamentoDTO::getId);
+	
+	private final LancamentoRepository lancamentoRepository;
+	private final LancamentoExcluidoRepository excluidoRepository;
+	private final JdbcTemplate jdbcTemplate;
+	private volatile AtomicLong contador;
+	private volatile Boolean postgres;
+	
+	public SincronizacaoLancamentoServiceImpl(LancamentoRepository lancamentoRepository, LancamentoExcluidoRepository excluidoRepository,
+				JdbcTemplate jdbcTemplate) {
+		this.lancamentoRepository = lancamentoRepository;
+		this.excluidoRepository = excluidoRepository;
+		this.jdbcTemplate = jdbcTemplate;
+	}
+	
+	@Override
+	public long marcarAlteracao() {
+		if(postgres()) {
+			return jdbcTemplate.queryForObject(CONSULTA_TRANSACAO, Long.class);
+		}
+		return contador().incrementAndGet();
+	}
+	
+	@Override
+	@Transactional
+	public void registrarExclusoes(Collection<Long> ids) {
+		if(ids.isEmpty()) {
+			return;
+		}
+		Long alteracao = marcarAlteracao();
+		List<Long> lista = new ArrayList<>(ids);
+		for(int i = 0; i < lista.size(); i += LOTE_EXCLUSOES) {
+			excluidoRepository.registrar(lista.subList(i, Math.min(i + LOTE_EXCLUSOES, lista.size())), alteracao);
+		}
+	}
+	
+	/**
+	 * Sem cursor devolve só o cursor inicial, que o cliente deve obter antes da carga completa:
+	 * o que for gravado durante a carga volta na primeira sincronização.
+	 * Lançamentos e exclusões são lidos por (alteracao, id) e intercalados na mesma ordem.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public SincronizacaoLancamentoDTO sincronizar(Long usuario, String cursor, int tamanho) {
+		if(usuario == null) {
+			throw new RegraNegocioException("Informe o usuário!");
+		}
+		if(tamanho < 1 || tamanho > TAMANHO_MAXIMO) {
+			throw new RegraNegocioException("Informe um tamanho de página entre 1 e " + TAMANHO_MAXIMO + "!");
+		}
+		CursorSincronizacaoDTO apos = CursorSincronizacaoDTO.decodificar(cursor);
+		if(apos == null) {
+			return new SincronizacaoLancamentoDTO(Collections.emptyList(), Collections.emptyList(), inicio().codificar(), true);
+		}
+		
+		long horizonte = horizonte();
+		Pageable limite = PageRequest.of(0, tamanho + 1);
+		List<AlteracaoLancamentoDTO> alteracoes = new ArrayList<>(
+				lancamentoRepository.buscarAlteracoes(usuario, apos.getAlteracao(), apos.getId(), horizonte, limite));
+		alteracoes.addAll(excluidoRepository.buscarApos(usuario, apos.getAlteracao(), apos.getId(), horizonte, limite));
+		alteracoes.sort(ORDEM);
+		
+		boolean completo = alteracoes.size() <= tamanho;
+		if(!completo) {
+			alteracoes = alteracoes.subList(0, tamanho);
+		}
+		String proximoCursor = alteracoes.isEmpty() ? cursor : CursorSincronizacaoDTO.of(alteracoes.get(alteracoes.size() - 1)).codificar();
+		return new SincronizacaoLancamentoDTO(
+				alteracoes.stream().filter(alteracao -> !alteracao.isExcluido()).map(AlteracaoLancamentoDTO::getLancamento)
+					.collect(Collectors.toList()),
+				alteracoes.stream().filter(AlteracaoLancamentoDTO::isExcluido).map(AlteracaoLancamentoDTO::getId)
+					.collect(Collectors.toList()),
+				proximoCursor, completo);
+	}
+	
+	
+	// logo antes da primeira alteração que uma carga completa feita a seguir pode não enxergar
+	private CursorSincronizacaoDTO inicio() {
+		long ultima = postgres() ? horizonte() - 1 : contador().get();
+		return new CursorSincronizacaoDTO(ultima, Long.MAX_VALUE);
+	}
+	
+	private long horizonte() {
+		if(!postgres()) {
+			return Long.MAX_VALUE;
+		}
+		return jdbcTemplate.queryForObject(CONSULTA_HORIZONTE, Long.class);
+	}
+	
+	private boolean postgres() {
+		if(postgres == null) {
+			postgres = "PostgreSQL".equals(jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getDatabaseProductName()));
+		}
+		return postgres;
+	}
+	
+	private AtomicLong contador() {
+		if(contador == null) {
+			synchronized (this) {
+				if(contador == null) {
+					Long lancamentos = jdbcTemplate.queryForObject("select max(alteracao) from financas.lancamento", Long.class);
+					Long excluidos = jdbcTemplate.queryForObject("select max(alteracao) from financas.lancamento_excluido", Long.class);
+					contador = new AtomicLong(Math.max(lancamentos == null ? 0 : lancamentos, excluidos == null ? 0 : excluidos));
+				}
+			}
+		}
+		return contador;
+	}
+}
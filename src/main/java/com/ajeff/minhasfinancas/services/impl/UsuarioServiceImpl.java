@@ -1,8 +1,15 @@
 package com.ajeff.minhasfinancas.services.impl;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -10,6 +17,7 @@ import com.ajeff.minhasfinancas.exceptions.ErroValidacao;
 import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
 import com.ajeff.minhasfinancas.model.entity.Usuario;
 import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+import com.ajeff.minhasfinancas.seguranca.CodificadorSenha;
 import com.ajeff.minhasfinancas.service.UsuarioService;
 
 @Service
@@ -17,31 +25,50 @@ public class UsuarioServiceImpl implements UsuarioService{
 
 	@Autowired
 	private UsuarioRepository repository;
+	private CodificadorSenha codificador;
+	private CacheManager cacheManager;
 	
 	
-	public UsuarioServiceImpl(UsuarioRepository repository) {
+	public UsuarioServiceImpl(UsuarioRepository repository, CodificadorSenha codificador, CacheManager cacheManager) {
 		super();
 		this.repository = repository;
+		this.codificador = codificador;
+		this.cacheManager = cacheManager;
 	}
 
 	@Override
 	public Usuario autenticar(String email, String senha) {
 		Optional<Usuario> usuario = repository.findByEmail(email);
 		if(!usuario.isPresent()) {
+			codificador.simularVerificacao(senha);
 			throw new ErroValidacao("O e-mail informado não foi encontrado!");
 		}
 		
-		if(!usuario.get().getSenha().equals(senha)) {
+		if(!codificador.verificar(senha, usuario.get().getSenha())) {
 			throw new ErroValidacao("Senha inválida!");
 		}
+		if(codificador.precisaRecodificar(usuario.get().getSenha())) {
+			recodificar(usuario.get(), senha);
+		}
 		return usuario.get();
 	}
 
 	
 	@Override
 	@Transactional
+	@Caching(evict = {
+			@CacheEvict(cacheNames = UsuarioRepository.CACHE_POR_ID, key = "#usuario.id", condition = "#usuario.id != null"),
+			@CacheEvict(cacheNames = UsuarioRepository.CACHE_POR_EMAIL, key = "#usuario.email", condition = "#usuario.email != null")})
 	public Usuario salvar(Usuario usuario) {
 		validarEmail(usuario.getEmail());
+		if(usuario.getSenha() != null) {
+			usuario.setSenha(codificador.codificar(usuario.getSenha()));
+		}
+		if(usuario.getId() != null) {
+			// com a troca de e-mail, o usuário em cache pelo e-mail anterior também fica desatualizado
+			repository.findById(usuario.getId())
+				.ifPresent(anterior -> descartar(UsuarioRepository.CACHE_POR_EMAIL, anterior.getEmail()));
+		}
 		return repository.save(usuario);
 	}
 
@@ -55,8 +82,41 @@ public class UsuarioServiceImpl implements UsuarioService{
 	}
 
 	@Override
+	@Transactional(readOnly = true)
 	public Optional<Usuario> findByUsuarioId(Long id) {
 		return repository.findById(id);
 	}
 
+	@Override
+	public Usuario obterReferencia(Long id) {
+		return repository.getOne(id);
+	}
+
+	@Override
+	public Set<Long> filtrarExistentes(Collection<Long> ids) {
+		if(ids.isEmpty()) {
+			return Collections.emptySet();
+		}
+		return repository.obterIdsExistentes(ids);
+	}
+	
+	
+	/**
+	 * Senha ainda em texto puro ou com menos iterações que o configurado: grava de novo com o hash atual.
+	 * O usuário em cache não é alterado, só descartado.
+	 */
+	private void recodificar(Usuario usuario, String senha) {
+		repository.save(Usuario.builder().id(usuario.getId()).nome(usuario.getNome()).email(usuario.getEmail())
+				.senha(codificador.codificar(senha)).build());
+		descartar(UsuarioRepository.CACHE_POR_ID, usuario.getId());
+		descartar(UsuarioRepository.CACHE_POR_EMAIL, usuario.getEmail());
+	}
+	
+	private void descartar(String nome, Object chave) {
+		Cache cache = cacheManager.getCache(nome);
+		if(cache != null && chave != null) {
+			cache.evict(chave);
+		}
+	}
+
 }
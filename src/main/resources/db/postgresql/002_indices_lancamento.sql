@@ -0,0 +1,9 @@
+create extension if not exists pg_trgm;
+
+create index if not exists idx_lancamento_usuario_ano_mes
+	on financas.lancamento (id_usuario, ano, mes, id);
+
+create index if not exists idx_lancamento_descricao_trgm
+	on financas.lancamento using gin (lower(descricao) gin_trgm_ops);
+
+analyze financas.lancamento;
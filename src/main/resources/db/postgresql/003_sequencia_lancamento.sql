@@ -0,0 +1,5 @@
+create sequence if not exists financas.lancamento_id_seq;
+
+alter sequence financas.lancamento_id_seq increment by 50;
+
+select setval('financas.lancamento_id_seq', coalesce((select max(id) from financas.lancamento), 0) + 50, false);
@@ -0,0 +1,21 @@
+alter table financas.lancamento add column if not exists chave_importacao varchar(64);
+
+create unique index if not exists uk_lancamento_usuario_chave_importacao
+	on financas.lancamento (id_usuario, chave_importacao);
+
+create table if not exists financas.importacao_extrato (
+	id bigserial not null primary key,
+	id_usuario bigint not null references financas.usuario (id),
+	nome_arquivo varchar(255),
+	formato varchar(10) not null,
+	situacao varchar(20) not null,
+	tamanho_arquivo bigint not null default 0,
+	bytes_lidos bigint not null default 0,
+	processados bigint not null default 0,
+	importados bigint not null default 0,
+	duplicados bigint not null default 0,
+	rejeitados bigint not null default 0,
+	mensagem varchar(255),
+	data_inicio timestamp not null,
+	data_conclusao timestamp
+);
@@ -0,0 +1,18 @@
+create table if not exists financas.resumo_mensal (
+	id_usuario bigint not null references financas.usuario (id),
+	ano integer not null,
+	mes integer not null,
+	tipo varchar(20) not null,
+	status varchar(20) not null,
+	quantidade bigint not null default 0,
+	total numeric(16, 2) not null default 0,
+	versao bigint not null default 0,
+	primary key (id_usuario, ano, mes, tipo, status)
+);
+
+insert into financas.resumo_mensal (id_usuario, ano, mes, tipo, status, quantidade, total, versao)
+select id_usuario, ano, mes, tipo, status, count(*), sum(valor), 0
+	from financas.lancamento
+	where id_usuario is not null and ano is not null and mes is not null and tipo is not null and status is not null
+	group by id_usuario, ano, mes, tipo, status
+on conflict do nothing;
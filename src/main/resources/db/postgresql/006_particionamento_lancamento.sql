@@ -0,0 +1,47 @@
+-- Recria financas.lancamento particionada por ano (PostgreSQL 11+).
+-- Partições de anos futuros são criadas pela aplicação (ParticionamentoLancamentoJob).
+
+create schema if not exists financas_arquivo;
+
+alter table financas.lancamento rename to lancamento_legado;
+alter index if exists financas.idx_lancamento_usuario_ano_mes rename to idx_lancamento_legado_usuario_ano_mes;
+alter index if exists financas.idx_lancamento_descricao_trgm rename to idx_lancamento_legado_descricao_trgm;
+alter index if exists financas.uk_lancamento_usuario_chave_importacao rename to uk_lancamento_legado_usuario_chave_importacao;
+
+create table financas.lancamento (
+	id bigint not null,
+	descricao varchar(255),
+	mes integer,
+	ano integer not null,
+	id_usuario bigint references financas.usuario (id),
+	valor numeric(16, 2),
+	data_cadastro date,
+	tipo varchar(20),
+	status varchar(20),
+	chave_importacao varchar(64),
+	primary key (id, ano)
+) partition by range (ano);
+
+do $$
+declare
+	ano_inicial integer := coalesce((select min(ano) from financas.lancamento_legado), extract(year from current_date)::integer);
+	ano_final integer := extract(year from current_date)::integer + 2;
+begin
+	for ano in ano_inicial..ano_final loop
+		execute format('create table financas.lancamento_%s partition of financas.lancamento for values from (%s) to (%s)', ano, ano, ano + 1);
+	end loop;
+end $$;
+
+create table financas.lancamento_outros partition of financas.lancamento default;
+
+create index idx_lancamento_usuario_ano_mes on financas.lancamento (id_usuario, ano, mes, id);
+create index idx_lancamento_descricao_trgm on financas.lancamento using gin (lower(descricao) gin_trgm_ops);
+create unique index uk_lancamento_usuario_chave_importacao on financas.lancamento (id_usuario, chave_importacao, ano);
+
+insert into financas.lancamento (id, descricao, mes, ano, id_usuario, valor, data_cadastro, tipo, status, chave_importacao)
+select id, descricao, mes, ano, id_usuario, valor, data_cadastro, tipo, status, chave_importacao
+	from financas.lancamento_legado;
+
+drop table financas.lancamento_legado;
+
+analyze financas.lancamento;
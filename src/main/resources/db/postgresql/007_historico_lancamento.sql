@@ -0,0 +1,28 @@
+-- Histórico de lançamentos encerrados: só recebe inserções em lote e exclusões nunca acontecem,
+-- então as páginas são gravadas cheias e sem o índice de trigramas da tabela principal.
+create table if not exists financas.lancamento_historico (
+	id bigint not null primary key,
+	descricao varchar(255),
+	mes integer,
+	ano integer,
+	id_usuario bigint references financas.usuario (id),
+	valor numeric(16, 2),
+	data_cadastro date,
+	tipo varchar(20),
+	status varchar(20),
+	chave_importacao varchar(64)
+) with (fillfactor = 100);
+
+create index if not exists idx_lancamento_historico_usuario_ano_mes
+	on financas.lancamento_historico (id_usuario, ano, mes, id) with (fillfactor = 100);
+
+create index if not exists idx_lancamento_historico_usuario_chave_importacao
+	on financas.lancamento_historico (id_usuario, chave_importacao) where chave_importacao is not null;
+
+create table if not exists financas.saldo_historico (
+	id_usuario bigint not null primary key references financas.usuario (id),
+	receitas numeric(16, 2) not null default 0,
+	despesas numeric(16, 2) not null default 0,
+	ate_ano integer not null,
+	ate_mes integer not null
+);
@@ -0,0 +1 @@
+alter table financas.lancamento add column if not exists versao bigint not null default 0;
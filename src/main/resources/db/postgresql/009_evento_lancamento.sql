@@ -0,0 +1,65 @@
+-- Log de eventos dos lançamentos (outbox): gravado na transação de cada alteração e consumido pelas projeções
+-- na ordem de transacao, que recebe o txid de quem gravou.
+create sequence if not exists financas.evento_lancamento_id_seq increment by 50;
+
+create table if not exists financas.evento_lancamento (
+	id bigint not null primary key,
+	transacao bigint not null default txid_current(),
+	tipo_evento varchar(20) not null,
+	id_lancamento bigint,
+	quantidade bigint not null default 1,
+	id_usuario_anterior bigint,
+	ano_anterior integer,
+	mes_anterior integer,
+	tipo_anterior varchar(20),
+	status_anterior varchar(20),
+	valor_anterior numeric(16, 2),
+	id_usuario bigint,
+	ano integer,
+	mes integer,
+	tipo varchar(20),
+	status varchar(20),
+	valor numeric(16, 2),
+	registrado_em timestamp not null default now()
+) with (fillfactor = 100);
+
+create index if not exists idx_evento_lancamento_transacao on financas.evento_lancamento (transacao, id);
+
+create index if not exists idx_evento_lancamento_lancamento on financas.evento_lancamento (id_lancamento);
+
+create table if not exists financas.checkpoint_projecao (
+	nome varchar(60) not null primary key,
+	transacao bigint not null default 0,
+	evento bigint not null default 0,
+	atualizado_em timestamp
+);
+
+insert into financas.checkpoint_projecao (nome) values ('saldo-usuario'), ('resumo-mensal') on conflict do nothing;
+
+create table if not exists financas.projecao_saldo_usuario (
+	id_usuario bigint not null primary key,
+	receitas numeric(16, 2) not null default 0,
+	despesas numeric(16, 2) not null default 0,
+	saldo numeric(16, 2) not null default 0,
+	versao bigint not null default 0
+);
+
+create table if not exists financas.projecao_resumo_mensal (
+	id_usuario bigint not null,
+	ano integer not null,
+	mes integer not null,
+	tipo varchar(20) not null,
+	status varchar(20) not null,
+	quantidade bigint not null default 0,
+	total numeric(16, 2) not null default 0,
+	versao bigint not null default 0,
+	primary key (id_usuario, ano, mes, tipo, status)
+);
+
+-- O estado atual vira o evento de criação de cada lançamento, para que a reconstrução parta do zero.
+insert into financas.evento_lancamento (id, tipo_evento, id_lancamento, id_usuario, ano, mes, tipo, status, valor)
+select nextval('financas.evento_lancamento_id_seq'), 'CRIADO', l.id, l.id_usuario, l.ano, l.mes, l.tipo, l.status, l.valor
+	from (select id, id_usuario, ano, mes, tipo, status, valor from financas.lancamento
+		union all
+		select id, id_usuario, ano, mes, tipo, status, valor from financas.lancamento_historico) l
+	where not exists (select 1 from financas.evento_lancamento e where e.id_lancamento = l.id);
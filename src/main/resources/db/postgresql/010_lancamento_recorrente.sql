@@ -0,0 +1,29 @@
+-- Modelos de lançamentos recorrentes; proximo_ano/proximo_mes é a próxima ocorrência ainda não gerada.
+create sequence if not exists financas.lancamento_recorrente_id_seq increment by 50;
+
+create table if not exists financas.lancamento_recorrente (
+	id bigint not null primary key,
+	id_usuario bigint not null references financas.usuario (id),
+	descricao varchar(255) not null,
+	valor numeric(16, 2) not null,
+	tipo varchar(20) not null,
+	periodicidade varchar(20) not null,
+	ano_inicial integer not null,
+	mes_inicial integer not null,
+	ano_final integer,
+	mes_final integer,
+	proximo_ano integer not null,
+	proximo_mes integer not null,
+	versao bigint not null default 0
+);
+
+create index if not exists idx_lancamento_recorrente_usuario on financas.lancamento_recorrente (id_usuario, id);
+
+-- Concessões das tarefas agendadas que só uma instância pode executar por vez.
+create table if not exists financas.bloqueio_tarefa (
+	nome varchar(60) not null primary key,
+	dono varchar(120),
+	expira_em timestamp
+);
+
+insert into financas.bloqueio_tarefa (nome) values ('lancamentos-recorrentes') on conflict do nothing;
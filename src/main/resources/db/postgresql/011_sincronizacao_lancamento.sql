@@ -0,0 +1,15 @@
+-- Sincronização incremental dos clientes: alteracao recebe o txid de quem criou ou alterou o lançamento por último
+-- e lancamento_excluido guarda as exclusões na mesma ordem. As linhas anteriores ficam com zero; o cliente
+-- obtém o cursor inicial antes da carga completa.
+alter table financas.lancamento add column if not exists alteracao bigint not null default 0;
+
+create index if not exists idx_lancamento_usuario_alteracao on financas.lancamento (id_usuario, alteracao, id);
+
+create table if not exists financas.lancamento_excluido (
+	id_lancamento bigint not null primary key,
+	id_usuario bigint not null,
+	alteracao bigint not null,
+	excluido_em timestamp not null default now()
+);
+
+create index if not exists idx_lancamento_excluido_usuario_alteracao on financas.lancamento_excluido (id_usuario, alteracao, id_lancamento);
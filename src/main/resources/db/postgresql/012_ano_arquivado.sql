@@ -0,0 +1,11 @@
+-- Anos com a partição de lançamentos arquivada: a reconciliação dos resumos mensais não recalcula esses anos,
+-- já que os lançamentos saíram de financas.lancamento. Os anos arquivados antes deste script vêm do esquema de arquivo.
+create table if not exists financas.ano_arquivado (
+	ano integer not null primary key
+);
+
+insert into financas.ano_arquivado (ano)
+select substring(c.relname from 'lancamento_(\d{4})')::integer
+	from pg_class c join pg_namespace n on n.oid = c.relnamespace
+	where n.nspname = 'financas_arquivo' and c.relkind = 'r' and c.relname ~ '^lancamento_\d{4}$'
+on conflict do nothing;
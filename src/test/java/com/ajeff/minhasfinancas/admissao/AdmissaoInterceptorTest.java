@@ -0,0 +1,123 @@
+package com.ajeff.minhasfinancas.admissao;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.DispatcherType;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+
+import com.ajeff.minhasfinancas.seguranca.UsuarioAutenticado;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class AdmissaoInterceptorTest {
+
+	AdmissaoProperties propriedades = new AdmissaoProperties();
+	AtomicInteger aguardandoConexao = new AtomicInteger();
+	SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	AdmissaoInterceptor interceptor = new AdmissaoInterceptor(new LimitadorRequisicoes(propriedades), propriedades,
+			aguardandoConexao::get, registry);
+	HandlerMethod handler = handler();
+	
+	@Test
+	public void deveResponderTooManyRequestsComRetryAfterQuandoOBaldeDoUsuarioEsvaziar() throws Exception {
+		propriedades.setPadrao(new AdmissaoProperties.Limite(1, 0.1));
+		
+		Assertions.assertThat(interceptor.preHandle(requisicao("1"), new MockHttpServletResponse(), handler)).isTrue();
+		MockHttpServletResponse recusada = new MockHttpServletResponse();
+		Assertions.assertThat(interceptor.preHandle(requisicao("1"), recusada, handler)).isFalse();
+		Assertions.assertThat(interceptor.preHandle(requisicao("2"), new MockHttpServletResponse(), handler)).isTrue();
+		
+		Assertions.assertThat(recusada.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+		Assertions.assertThat(recusada.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+		Assertions.assertThat(registry.counter("financas.admissao", "rota", "Rotas.buscar", "resultado", "admitida").count()).isEqualTo(2);
+		Assertions.assertThat(registry.counter("financas.admissao", "rota", "Rotas.buscar", "resultado", "limitada").count()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveUsarOBaldeDoEnderecoSemTokenEODoUsuarioComToken() throws Exception {
+		propriedades.setPadrao(new AdmissaoProperties.Limite(1, 0.1));
+		
+		MockHttpServletRequest anonima = requisicao("1");
+		anonima.setParameter("usuario", "7");
+		Assertions.assertThat(interceptor.preHandle(anonima, new MockHttpServletResponse(), handler)).isTrue();
+		MockHttpServletRequest outroUsuario = requisicao("1");
+		outroUsuario.setParameter("usuario", "8");
+		Assertions.assertThat(interceptor.preHandle(outroUsuario, new MockHttpServletResponse(), handler)).isFalse();
+		
+		MockHttpServletRequest autenticada = requisicao("1");
+		autenticada.setAttribute(UsuarioAutenticado.class.getName(), 7l);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(autenticada));
+		try {
+			Assertions.assertThat(interceptor.preHandle(autenticada, new MockHttpServletResponse(), handler)).isTrue();
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+	
+	@Test
+	public void deveResponderServiceUnavailableComFilaNoPoolDeConexoesOuConcorrenciaEsgotada() throws Exception {
+		propriedades.setFilaConexoes(2);
+		propriedades.setConcorrencia(1);
+		aguardandoConexao.set(3);
+		MockHttpServletResponse comFila = new MockHttpServletResponse();
+		Assertions.assertThat(interceptor.preHandle(requisicao("1"), comFila, handler)).isFalse();
+		
+		aguardandoConexao.set(0);
+		MockHttpServletRequest admitida = requisicao("2");
+		Assertions.assertThat(interceptor.preHandle(admitida, new MockHttpServletResponse(), handler)).isTrue();
+		MockHttpServletResponse semVaga = new MockHttpServletResponse();
+		Assertions.assertThat(interceptor.preHandle(requisicao("3"), semVaga, handler)).isFalse();
+		interceptor.afterCompletion(admitida, new MockHttpServletResponse(), handler, null);
+		
+		Assertions.assertThat(comFila.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+		Assertions.assertThat(semVaga.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+		Assertions.assertThat(semVaga.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		Assertions.assertThat(interceptor.getEmAndamento()).isZero();
+		Assertions.assertThat(registry.counter("financas.admissao", "rota", "Rotas.buscar", "resultado", "sobrecarga").count()).isEqualTo(2);
+	}
+	
+	@Test
+	public void deveManterAVagaDaRequisicaoAssincronaAteOFimDoDespacho() throws Exception {
+		MockHttpServletRequest requisicao = requisicao("1");
+		interceptor.preHandle(requisicao, new MockHttpServletResponse(), handler);
+		interceptor.afterConcurrentHandlingStarted(requisicao, new MockHttpServletResponse(), handler);
+		Assertions.assertThat(interceptor.getEmAndamento()).isEqualTo(1);
+		
+		requisicao.setDispatcherType(DispatcherType.ASYNC);
+		Assertions.assertThat(interceptor.preHandle(requisicao, new MockHttpServletResponse(), handler)).isTrue();
+		interceptor.afterCompletion(requisicao, new MockHttpServletResponse(), handler, null);
+		interceptor.afterCompletion(requisicao, new MockHttpServletResponse(), handler, null);
+		
+		Assertions.assertThat(interceptor.getEmAndamento()).isZero();
+		Assertions.assertThat(registry.counter("financas.admissao", "rota", "Rotas.buscar", "resultado", "admitida").count()).isEqualTo(1);
+	}
+	
+	
+	private static MockHttpServletRequest requisicao(String cliente) {
+		MockHttpServletRequest requisicao = new MockHttpServletRequest("GET", "/api/lancamentos");
+		requisicao.setRemoteAddr("10.0.0." + cliente);
+		return requisicao;
+	}
+	
+	private static HandlerMethod handler() {
+		try {
+			return new HandlerMethod(new Rotas(), Rotas.class.getMethod("buscar"));
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	static class Rotas {
+		public void buscar() {
+		}
+	}
+}
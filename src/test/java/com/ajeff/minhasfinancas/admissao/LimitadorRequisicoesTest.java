@@ -0,0 +1,57 @@
+package com.ajeff.minhasfinancas.admissao;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class LimitadorRequisicoesTest {
+
+	AtomicLong agora = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+	AdmissaoProperties propriedades = new AdmissaoProperties();
+	LimitadorRequisicoes limitador = new LimitadorRequisicoes(propriedades, agora::get);
+	
+	@Test
+	public void deveAdmitirARajadaERecusarComOTempoDeEsperaDepoisDela() {
+		propriedades.setPadrao(new AdmissaoProperties.Limite(3, 2));
+		
+		for(int i = 0; i < 3; i++) {
+			Assertions.assertThat(limitador.admitir("rota", "1")).isZero();
+		}
+		Assertions.assertThat(limitador.admitir("rota", "1")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+		
+		agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+		Assertions.assertThat(limitador.admitir("rota", "1")).isZero();
+		Assertions.assertThat(limitador.admitir("rota", "1")).isPositive();
+	}
+	
+	@Test
+	public void deveSepararOsBaldesPorUsuarioERota() {
+		propriedades.setPadrao(new AdmissaoProperties.Limite(1, 1));
+		propriedades.getRotas().put("LancamentoController.buscar", new AdmissaoProperties.Limite(2, 1));
+		
+		Assertions.assertThat(limitador.admitir("UsuarioController.obterSaldo", "1")).isZero();
+		Assertions.assertThat(limitador.admitir("UsuarioController.obterSaldo", "1")).isPositive();
+		Assertions.assertThat(limitador.admitir("UsuarioController.obterSaldo", "2")).isZero();
+		Assertions.assertThat(limitador.admitir("LancamentoController.buscar", "1")).isZero();
+		Assertions.assertThat(limitador.admitir("LancamentoController.buscar", "1")).isZero();
+		Assertions.assertThat(limitador.admitir("LancamentoController.buscar", "1")).isPositive();
+	}
+	
+	@Test
+	public void deveDescartarSomenteOsBaldesCheiosHaMaisQueAOciosidade() {
+		propriedades.setPadrao(new AdmissaoProperties.Limite(1, 1));
+		propriedades.setOciosidade(Duration.ofMinutes(1));
+		limitador.admitir("rota", "1");
+		agora.addAndGet(TimeUnit.SECONDS.toNanos(30));
+		limitador.admitir("rota", "2");
+		
+		agora.addAndGet(TimeUnit.SECONDS.toNanos(31));
+		limitador.removerOciosos();
+		
+		Assertions.assertThat(limitador.getQuantidade()).isEqualTo(1);
+		Assertions.assertThat(limitador.admitir("rota", "1")).isZero();
+	}
+}
@@ -0,0 +1,126 @@
+package com.ajeff.minhasfinancas.config;
+
+import java.math.BigDecimal;
+
+import javax.servlet.http.Cookie;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+import com.ajeff.minhasfinancas.service.SaldoUsuarioService;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+		"financas.datasource.replicas[0].url=" + RoteamentoDataSourceTest.REPLICA,
+		"financas.datasource.replicas[0].username=sa",
+		"financas.datasource.replicas[0].password=sa",
+		"financas.datasource.consulta-atraso=select atraso from financas.atraso_replica",
+		"financas.datasource.intervalo-verificacao=3600000"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RoteamentoDataSourceTest {
+
+	static final String PRIMARIO = "jdbc:h2:mem:db;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+	static final String REPLICA = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1;INIT=CREATE SCHEMA IF NOT EXISTS financas";
+	
+	@Autowired
+	MockMvc mvc;
+	@Autowired
+	RoteamentoDataSource roteamento;
+	@Autowired
+	SaldoUsuarioService saldoService;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	JdbcTemplate primario = new JdbcTemplate(new DriverManagerDataSource(PRIMARIO, "sa", "sa"));
+	JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA, "sa", "sa"));
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		replica.execute("create table if not exists financas.atraso_replica (atraso decimal(10, 3))");
+		replica.execute("create table if not exists financas.usuario (id bigint primary key, nome varchar(150), email varchar(100), senha varchar(20))");
+		replica.execute("create table if not exists financas.saldo_usuario (id_usuario bigint primary key, receitas decimal(16, 2), "
+				+ "despesas decimal(16, 2), saldo decimal(16, 2), versao bigint)");
+		replica.update("delete from financas.atraso_replica");
+		replica.update("insert into financas.atraso_replica values (0)");
+		
+		usuario = usuarioRepository.save(Usuario.builder().nome("replica").email("replica" + System.nanoTime() + "@email.com").senha("senha").build());
+		replica.update("insert into financas.usuario values (?, ?, ?, ?)", usuario.getId(), usuario.getNome(), usuario.getEmail(), usuario.getSenha());
+		replica.update("insert into financas.saldo_usuario values (?, 999, 0, 999, 1)", usuario.getId());
+		roteamento.verificarReplicas();
+	}
+	
+	@Test
+	public void deveLerDaReplicaEmTransacaoSomenteLeitura() {
+		Assertions.assertThat(roteamento.getDisponiveis()).containsExactly("replica-0");
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isEqualByComparingTo("999");
+	}
+	
+	@Test
+	public void deveEscreverNoPrimario() {
+		saldoService.reconciliar(usuario.getId());
+		
+		Integer noPrimario = primario.queryForObject("select count(*) from financas.saldo_usuario where id_usuario = ?",
+				Integer.class, usuario.getId());
+		Assertions.assertThat(noPrimario).isEqualTo(1);
+		Assertions.assertThat(replica.queryForObject("select saldo from financas.saldo_usuario where id_usuario = ?",
+				BigDecimal.class, usuario.getId())).isEqualByComparingTo("999");
+	}
+	
+	@Test
+	public void deveLerDoPrimarioQuandoFixado() {
+		BigDecimal saldo = RoteamentoDataSource.executar(true, () -> saldoService.obterSaldo(usuario.getId()));
+		
+		Assertions.assertThat(saldo).isZero();
+		Assertions.assertThat(RoteamentoDataSource.fixadoNoPrimario()).isFalse();
+	}
+	
+	@Test
+	public void deveTirarDoRodizioAReplicaAtrasada() {
+		replica.update("update financas.atraso_replica set atraso = 60");
+		roteamento.verificarReplicas();
+		
+		Assertions.assertThat(roteamento.getDisponiveis()).isEmpty();
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isZero();
+	}
+	
+	@Test
+	public void deveLerDoPrimarioLogoDepoisDeUmaEscritaDoCliente() throws Exception {
+		Assertions.assertThat(saldo()).isEqualByComparingTo("999");
+		
+		Cookie escrita = mvc.perform(MockMvcRequestBuilders.post("/api/usuarios/autenticar")
+					.contentType(MediaType.APPLICATION_JSON).content("{\"email\":\"" + usuario.getEmail() + "\",\"senha\":\"errada\"}"))
+				.andReturn().getResponse().getCookie(LeituraPropriaInterceptor.COOKIE);
+		
+		Assertions.assertThat(escrita).isNotNull();
+		Assertions.assertThat(saldo(escrita)).isZero();
+	}
+	
+	
+	private BigDecimal saldo(Cookie... cookies) throws Exception {
+		MockHttpServletRequestBuilder requisicao = MockMvcRequestBuilders.get("/api/usuarios/{id}/saldo", usuario.getId());
+		if(cookies.length > 0) {
+			requisicao.cookie(cookies);
+		}
+		MvcResult resultado = mvc.perform(requisicao).andReturn();
+		String corpo = mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado)).andReturn().getResponse().getContentAsString();
+		return new BigDecimal(corpo);
+	}
+}
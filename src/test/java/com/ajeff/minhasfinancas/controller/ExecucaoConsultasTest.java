@@ -0,0 +1,65 @@
+package com.ajeff.minhasfinancas.controller;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ExecucaoConsultasTest {
+
+	StaticListableBeanFactory beans = new StaticListableBeanFactory();
+	ExecucaoConsultas consultas;
+	
+	@After
+	public void tearDown() {
+		consultas.destroy();
+	}
+	
+	@Test
+	public void deveExecutarNaThreadDaRequisicaoQuandoDesligado() {
+		consultas = new ExecucaoConsultas(false, 1, 0, beans.getBeanProvider(MeterRegistry.class));
+		String thread = Thread.currentThread().getName();
+		
+		CompletableFuture<ResponseEntity> resposta = consultas.executar(() -> ResponseEntity.ok(Thread.currentThread().getName()));
+		
+		Assertions.assertThat(resposta).isCompletedWithValue(ResponseEntity.ok(thread));
+	}
+	
+	@Test
+	public void deveRecusarComServiceUnavailableQuandoOPoolEstiverCheio() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		beans.addBean("registry", registry);
+		consultas = new ExecucaoConsultas(true, 1, 0, beans.getBeanProvider(MeterRegistry.class));
+		CountDownLatch liberar = new CountDownLatch(1);
+		
+		CompletableFuture<ResponseEntity> ocupada = consultas.executar(() -> {
+			aguardar(liberar);
+			return ResponseEntity.ok().build();
+		});
+		ResponseEntity recusada = consultas.executar(() -> ResponseEntity.ok().build()).get();
+		liberar.countDown();
+		
+		Assertions.assertThat(recusada.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		Assertions.assertThat(recusada.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+		Assertions.assertThat(ocupada.get().getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(registry.find("executor.completed").tag("name", "consultas").functionCounter()).isNotNull();
+	}
+	
+	
+	private static void aguardar(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,573 @@
+package com.ajeff.minhasfinancas.controller;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.assertj.core.api.Assertions;
+import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.ajeff.minhasfinancas.dto.AtualizaStatusDto;
+import com.ajeff.minhasfinancas.dto.AtualizaStatusLoteDto;
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.ajeff.minhasfinancas.repository.EventoLancamentoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepositoryTest;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+import com.ajeff.minhasfinancas.seguranca.TokenAcesso;
+import com.ajeff.minhasfinancas.service.HistoricoLancamentoService;
+import com.ajeff.minhasfinancas.service.ResumoMensalService;
+import com.ajeff.minhasfinancas.service.SaldoUsuarioService;
+import com.ajeff.minhasfinancas.serializacao.LancamentosCompactosConverter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class LancamentoControllerInstrucoesSqlTest {
+
+	static final String API = "/api/lancamentos";
+	
+	@Autowired
+	MockMvc mvc;
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	@Autowired
+	EventoLancamentoRepository eventoRepository;
+	@Autowired
+	SaldoUsuarioService saldoService;
+	@Autowired
+	ResumoMensalService resumoService;
+	@Autowired
+	HistoricoLancamentoService historicoService;
+	@Autowired
+	TokenAcesso tokens;
+	
+	Statistics estatisticas;
+	Usuario usuario;
+	Lancamento lancamento;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("usuario").email("sql" + System.nanoTime() + "@email.com").senha("senha").build());
+		for(int i = 0; i < 3; i++) {
+			Lancamento outro = LancamentoRepositoryTest.criarLancamento();
+			outro.setUsuario(usuario);
+			lancamento = lancamentoRepository.save(outro);
+		}
+		// o primeiro lançamento de cada teste nunca busca um bloco novo da sequência de lançamentos
+		if(lancamento.getId() >= otimizador(Lancamento.class).getLastSourceValue().makeValue().longValue()) {
+			salvarDescarte();
+		}
+		// esgota o bloco corrente da sequência de eventos: o primeiro evento de cada teste sempre busca um bloco novo
+		Optimizer otimizador = otimizador(EventoLancamento.class);
+		EventoLancamento evento;
+		do {
+			evento = eventoRepository.save(EventoLancamento.of(TipoEventoLancamento.CRIADO, null, EstadoLancamentoDTO.of(lancamento)));
+		} while(evento.getId() < otimizador.getLastSourceValue().makeValue().longValue());
+		saldoService.reconciliar(usuario.getId());
+		resumoService.reconciliar(usuario.getId());
+		
+		estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estatisticas.clear();
+	}
+	
+	@Test
+	public void deveBuscarLancamentosComUmaUnicaInstrucao() throws Exception {
+		consultar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].usuario").value(usuario.getId()));
+		
+		// versão do usuário + alcance do histórico + consulta
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(3);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+	}
+	
+	@Test
+	public void deveReaproveitarBuscaEmCacheAteOProximoLancamento() throws Exception {
+		MockHttpServletRequestBuilder busca = MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString())
+				.param("ano", "2020").param("mes", "7");
+		consultar(busca).andExpect(MockMvcResultMatchers.status().isOk());
+		estatisticas.clear();
+		
+		consultar(busca)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3));
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+		
+		mvc.perform(json(MockMvcRequestBuilders.post(API), criarDTO(BigDecimal.TEN))).andExpect(MockMvcResultMatchers.status().isCreated());
+		consultar(busca)
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(4));
+	}
+	
+	@Test
+	public void naoDeveGuardarEmCacheBuscaSemMes() throws Exception {
+		MockHttpServletRequestBuilder busca = MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString());
+		consultar(busca).andExpect(MockMvcResultMatchers.status().isOk());
+		estatisticas.clear();
+		
+		consultar(busca).andExpect(MockMvcResultMatchers.status().isOk());
+		// versão do usuário + alcance do histórico + consulta
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(3);
+	}
+	
+	@Test
+	public void deveResponderNaoModificadoQuandoEtagConfere() throws Exception {
+		MockHttpServletRequestBuilder busca = MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString());
+		String etag = consultar(busca).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		estatisticas.clear();
+		
+		mvc.perform(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isNotModified())
+			.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+			.andExpect(MockMvcResultMatchers.content().string(""));
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+		
+		consultar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).accept(LancamentosCompactosConverter.COMPACTO)
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(LancamentosCompactosConverter.COMPACTO));
+		
+		consultar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).param("ano", "2020").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/" + lancamento.getId())));
+		consultar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2));
+	}
+	
+	@Test
+	public void deveBuscarPaginaComUmaUnicaInstrucao() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/pagina")).param("usuario", usuario.getId().toString()).param("tamanho", "2"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("lancamentos.length()").value(2));
+		
+		// versão do usuário + alcance do histórico + consulta
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(3);
+	}
+	
+	@Test
+	public void deveBuscarSomenteOsCamposPedidos() throws Exception {
+		consultar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).param("fields", "id,descricao,valor,tipo,status"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(Matchers.notNullValue()))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].tipo").value("RECEITA"))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].usuario").doesNotExist())
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].dataCadastro").doesNotExist());
+		
+		Assertions.assertThat(estatisticas.getQueries()).anyMatch(consulta -> consulta.contains("descricao"))
+			.noneMatch(consulta -> consulta.contains("dataCadastro"));
+		
+		consultar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).param("fields", "id,senha"))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string("Campo inválido: senha"));
+	}
+	
+	@Test
+	public void deveBuscarNoFormatoCompactoOuEmMessagePackQuandoPedido() throws Exception {
+		MockHttpServletRequestBuilder busca = MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString());
+		consultar(busca.accept(LancamentosCompactosConverter.COMPACTO))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(LancamentosCompactosConverter.COMPACTO))
+			.andExpect(MockMvcResultMatchers.jsonPath("usuario").value(usuario.getId()))
+			.andExpect(MockMvcResultMatchers.jsonPath("lancamentos.length()").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("lancamentos[0].length()").value(8));
+		
+		byte[] corpo = consultar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).accept(LancamentosCompactosConverter.MSGPACK))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(LancamentosCompactosConverter.MSGPACK))
+			.andReturn().getResponse().getContentAsByteArray();
+		// mapa de 5 entradas
+		Assertions.assertThat(corpo[0]).isEqualTo((byte) 0x85);
+		
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/pagina")).param("usuario", usuario.getId().toString()).param("tamanho", "2")
+				.accept(LancamentosCompactosConverter.COMPACTO))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("lancamentos.length()").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("proximoCursor").isNotEmpty());
+	}
+	
+	@Test
+	public void deveGerarUmaEtagPorFormato() throws Exception {
+		List<String> etags = new ArrayList<>();
+		List<String> etagsPagina = new ArrayList<>();
+		for(String formato : new String[] {MediaType.APPLICATION_JSON_VALUE, LancamentosCompactosConverter.COMPACTO, LancamentosCompactosConverter.MSGPACK}) {
+			etags.add(consultar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).accept(formato))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+			etagsPagina.add(mvc.perform(MockMvcRequestBuilders.get(API.concat("/pagina")).param("usuario", usuario.getId().toString()).accept(formato))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+		}
+		Assertions.assertThat(etags).doesNotContainNull().doesNotHaveDuplicates();
+		Assertions.assertThat(etagsPagina).doesNotContainNull().doesNotHaveDuplicates();
+		
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/pagina")).param("usuario", usuario.getId().toString())
+				.accept(LancamentosCompactosConverter.MSGPACK).header(HttpHeaders.IF_NONE_MATCH, etagsPagina.get(1)))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/pagina")).param("usuario", usuario.getId().toString())
+				.accept(LancamentosCompactosConverter.MSGPACK).header(HttpHeaders.IF_NONE_MATCH, etagsPagina.get(2)))
+			.andExpect(MockMvcResultMatchers.status().isNotModified());
+	}
+	
+	@Test
+	public void deveSalvarSemCarregarOUsuario() throws Exception {
+		mvc.perform(json(MockMvcRequestBuilders.post(API), criarDTO(BigDecimal.TEN)))
+			.andExpect(MockMvcResultMatchers.status().isCreated())
+			.andExpect(MockMvcResultMatchers.jsonPath("usuario").value(usuario.getId()));
+		
+		// insert do lançamento + delta do saldo + delta do resumo mensal + bloco da sequência de eventos + evento
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(5);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+	}
+	
+	@Test
+	public void deveAtualizarSemCarregarOUsuario() throws Exception {
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId())), criarDTO(BigDecimal.ONE)))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		// busca do lançamento + estado anterior + update + delta do saldo + delta do resumo mensal
+		// + bloco da sequência de eventos + evento
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(7);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveManterChaveDeImportacaoEDataDeCadastroAoAtualizar() throws Exception {
+		lancamento.setChaveImportacao("chave");
+		lancamento.setDataCadastro(LocalDate.of(2020, 7, 15));
+		lancamento = lancamentoRepository.save(lancamento);
+		
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId())), criarDTO(BigDecimal.ONE)))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		Lancamento atualizado = lancamentoRepository.findById(lancamento.getId()).get();
+		Assertions.assertThat(atualizado.getValor()).isEqualByComparingTo(BigDecimal.ONE);
+		Assertions.assertThat(atualizado.getChaveImportacao()).isEqualTo("chave");
+		Assertions.assertThat(atualizado.getDataCadastro()).isEqualTo(LocalDate.of(2020, 7, 15));
+	}
+	
+	@Test
+	public void deveRecusarLancamentosDeOutroUsuarioPeloToken() throws Exception {
+		Usuario outro = usuarioRepository.save(Usuario.builder().nome("outro").email("outro" + System.nanoTime() + "@email.com").senha("senha").build());
+		String token = "Bearer " + tokens.emitir(outro.getId());
+		LancamentoDTO dto = criarDTO(BigDecimal.ONE);
+		dto.setUsuario(null);
+		
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId())), dto).header(HttpHeaders.AUTHORIZATION, token))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/" + lancamento.getId())).header(HttpHeaders.AUTHORIZATION, token))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId() + "/atualiza-status")), new AtualizaStatusDto("EFETIVADO"))
+				.header(HttpHeaders.AUTHORIZATION, token))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/status")), new AtualizaStatusLoteDto(Collections.singletonList(lancamento.getId()), "EFETIVADO"))
+				.header(HttpHeaders.AUTHORIZATION, token))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/" + lancamento.getId() + "/eventos")).header(HttpHeaders.AUTHORIZATION, token))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(json(MockMvcRequestBuilders.post(API.concat("/importacao")), Collections.singletonList(criarDTO(BigDecimal.TEN)))
+				.header(HttpHeaders.AUTHORIZATION, token))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("importados").value(0))
+			.andExpect(MockMvcResultMatchers.jsonPath("erros[0].mensagem").value("O token informado é de outro usuário!"));
+		
+		Lancamento inalterado = lancamentoRepository.findById(lancamento.getId()).get();
+		Assertions.assertThat(inalterado.getValor()).isEqualByComparingTo(lancamento.getValor());
+		Assertions.assertThat(inalterado.getStatus()).isEqualTo(lancamento.getStatus());
+		
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/" + lancamento.getId())).header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.emitir(usuario.getId())))
+			.andExpect(MockMvcResultMatchers.status().isNoContent());
+	}
+	
+	@Test
+	public void deveRestringirOperacoesAdministrativas() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.post("/api/recorrencias/materializacao"))
+			.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+		mvc.perform(MockMvcRequestBuilders.post("/api/projecoes/saldo/reconstrucao").header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.emitir(usuario.getId())))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+	}
+	
+	@Test
+	public void deveAtualizarStatusSemCarregarOUsuario() throws Exception {
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId() + "/atualiza-status")), new AtualizaStatusDto("EFETIVADO")))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("status").value("EFETIVADO"));
+		
+		// leitura com bloqueio + update condicional + versão do saldo + delta do resumo PENDENTE
+		// + resumo EFETIVADO ainda inexistente (delta sem linhas, cálculo na tabela principal e no histórico, insert)
+		// + bloco da sequência de eventos + evento
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(10);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+	}
+	
+	@Test
+	public void deveAtualizarStatusEmLoteComAsMesmasInstrucoes() throws Exception {
+		List<Long> ids = lancamentoRepository.buscar(FiltroLancamentoDTO.builder().usuario(usuario.getId()).build()).stream()
+				.map(LancamentoConsultaDTO::getId)
+				.collect(Collectors.toList());
+		estatisticas.clear();
+		
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/status")), new AtualizaStatusLoteDto(ids, "EFETIVADO")))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[2].status").value("EFETIVADO"));
+		
+		// as mesmas do lançamento único, com os 3 eventos num único lote de insert
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(10);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+		Assertions.assertThat(resumoService.relatorioAnual(usuario.getId(), lancamento.getAno(), lancamento.getAno()).get(0).getReceitas())
+			.isEqualByComparingTo(lancamento.getValor().multiply(BigDecimal.valueOf(3)));
+	}
+	
+	@Test
+	public void deveRejeitarStatusInvalido() throws Exception {
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId() + "/atualiza-status")), new AtualizaStatusDto("PAGO")))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void deveDeletarSemCarregarOUsuario() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/" + lancamento.getId())))
+			.andExpect(MockMvcResultMatchers.status().isNoContent());
+		
+		// busca do lançamento + estado anterior + registro da exclusão + delete + delta do saldo + delta do resumo mensal
+		// + bloco da sequência de eventos + evento
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(8);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveExcluirPorFiltroComUmUnicoDelete() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.delete(API).param("usuario", usuario.getId().toString())
+					.param("ano", "2020").param("mes", "7").param("status", "PENDENTE"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("afetados").value(3));
+		
+		// ids bloqueados + resumo do que será excluído + registro das exclusões + delete + delta do saldo + delta do resumo mensal
+		// + bloco da sequência de eventos + um evento por grupo do resumo; pendentes nunca estão no histórico
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(8);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isZero();
+		Assertions.assertThat(resumoService.relatorioAnual(usuario.getId(), 2020, 2020).get(0).getReceitas()).isZero();
+	}
+	
+	@Test
+	public void deveRecusarAlteracoesDeLancamentosMovidosParaOHistorico() throws Exception {
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId() + "/atualiza-status")), new AtualizaStatusDto("EFETIVADO")))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		Assertions.assertThat(historicoService.mover(usuario.getId(), YearMonth.of(2020, 7))).isEqualTo(1);
+		
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/" + lancamento.getId())))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string(HistoricoLancamentoService.ARQUIVADO));
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId())), criarDTO(BigDecimal.TEN)))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string(HistoricoLancamentoService.ARQUIVADO));
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/" + lancamento.getId() + "/atualiza-status")), new AtualizaStatusDto("CANCELADO")))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest())
+			.andExpect(MockMvcResultMatchers.content().string(HistoricoLancamentoService.ARQUIVADO));
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/" + lancamento.getId()))
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.emitir(usuario.getId() + 1)))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		
+		mvc.perform(MockMvcRequestBuilders.delete(API).param("usuario", usuario.getId().toString()).param("ano", "2020"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("afetados").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("arquivados").value(1));
+		consultar(MockMvcRequestBuilders.get(API).param("usuario", usuario.getId().toString()).param("ano", "2020"))
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(lancamento.getId()));
+	}
+	
+	@Test
+	public void deveAtualizarStatusPorFiltroComUmUnicoUpdate() throws Exception {
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/status")).param("usuario", usuario.getId().toString()).param("ano", "2020"),
+					new AtualizaStatusLoteDto(null, "CANCELADO")))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("afetados").value(3));
+		
+		// ids bloqueados + resumo do que será alterado + update + versão do saldo + delta do resumo PENDENTE
+		// + resumo CANCELADO ainda inexistente (delta sem linhas, cálculo na tabela principal e no histórico, insert)
+		// + bloco da sequência de eventos + um evento por grupo do resumo + alcance do histórico para os arquivados
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(12);
+		Assertions.assertThat(estatisticas.getEntityLoadCount()).isZero();
+		Assertions.assertThat(resumoService.relatorioAnual(usuario.getId(), 2020, 2020).get(0).getReceitas()).isZero();
+		Assertions.assertThat(lancamentoRepository.buscar(FiltroLancamentoDTO.builder().usuario(usuario.getId()).build()))
+			.extracting(LancamentoConsultaDTO::getStatus).containsOnly(StatusLancamento.CANCELADO);
+	}
+	
+	
+	@Test
+	public void deveImportarEmLotesResolvendoCadaUsuarioUmaVez() throws Exception {
+		List<LancamentoDTO> dtos = new ArrayList<>();
+		for(int i = 0; i < 1200; i++) {
+			dtos.add(criarDTO(BigDecimal.ONE));
+		}
+		dtos.get(10).setMes(13);
+		dtos.get(20).setUsuario(-1l);
+		// esgota o bloco corrente da sequência de lançamentos, para que a importação sempre busque os mesmos blocos
+		Long descartado;
+		do {
+			descartado = salvarDescarte();
+		} while(descartado < otimizador(Lancamento.class).getLastSourceValue().makeValue().longValue());
+		estatisticas.clear();
+		
+		mvc.perform(json(MockMvcRequestBuilders.post(API.concat("/importacao")), dtos))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("recebidos").value(1200))
+			.andExpect(MockMvcResultMatchers.jsonPath("importados").value(1198))
+			.andExpect(MockMvcResultMatchers.jsonPath("erros[0].linha").value(11))
+			.andExpect(MockMvcResultMatchers.jsonPath("erros[1].linha").value(21))
+			.andExpect(MockMvcResultMatchers.jsonPath("erros[1].mensagem").value("Usuário não encontrado com este id!"));
+		
+		// usuários existentes + 24 blocos da sequência + 3 lotes de insert + delta do saldo + delta do resumo mensal
+		// + 24 blocos da sequência de eventos + 3 lotes de insert dos eventos
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(57);
+		Assertions.assertThat(estatisticas.getEntityInsertCount()).isEqualTo(2 * 1198);
+	}
+	
+	@Test
+	public void deveImportarArquivoCsv() throws Exception {
+		String csv = "descricao;mes;ano;valor;tipo;usuario\n"
+				+ "Aluguel;7;2020;1.200,50;DESPESA;" + usuario.getId() + "\n"
+				+ "Salário;7;2020;abc;RECEITA;" + usuario.getId() + "\n";
+		MockMultipartFile arquivo = new MockMultipartFile("arquivo", "lancamentos.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+		
+		mvc.perform(MockMvcRequestBuilders.multipart(API.concat("/importacao")).file(arquivo))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("recebidos").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("importados").value(1))
+			.andExpect(MockMvcResultMatchers.jsonPath("erros[0].linha").value(3));
+	}
+	
+	
+	@Test
+	public void deveSincronizarSomenteOQueMudouDepoisDoCursor() throws Exception {
+		List<Long> ids = lancamentoRepository.buscar(FiltroLancamentoDTO.builder().usuario(usuario.getId()).build()).stream()
+				.map(LancamentoConsultaDTO::getId).collect(Collectors.toList());
+		String cursor = sincronizar(null, 10).get("cursor").asText();
+		
+		mvc.perform(json(MockMvcRequestBuilders.post(API), criarDTO(BigDecimal.TEN)))
+			.andExpect(MockMvcResultMatchers.status().isCreated());
+		mvc.perform(json(MockMvcRequestBuilders.put(API.concat("/" + ids.get(0) + "/atualiza-status")), new AtualizaStatusDto("EFETIVADO")))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		mvc.perform(MockMvcRequestBuilders.delete(API.concat("/" + ids.get(1))))
+			.andExpect(MockMvcResultMatchers.status().isNoContent());
+		
+		estatisticas.clear();
+		JsonNode primeira = sincronizar(cursor, 2);
+		// alterações + exclusões
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(2);
+		Assertions.assertThat(primeira.get("completo").asBoolean()).isFalse();
+		Assertions.assertThat(primeira.get("alterados")).hasSize(2);
+		Assertions.assertThat(primeira.get("alterados").get(0).get("valor").decimalValue()).isEqualByComparingTo(BigDecimal.TEN);
+		Assertions.assertThat(primeira.get("alterados").get(1).get("id").asLong()).isEqualTo(ids.get(0));
+		Assertions.assertThat(primeira.get("alterados").get(1).get("status").asText()).isEqualTo("EFETIVADO");
+		Assertions.assertThat(primeira.get("excluidos")).isEmpty();
+		
+		JsonNode segunda = sincronizar(primeira.get("cursor").asText(), 2);
+		Assertions.assertThat(segunda.get("completo").asBoolean()).isTrue();
+		Assertions.assertThat(segunda.get("alterados")).isEmpty();
+		Assertions.assertThat(segunda.get("excluidos").get(0).asLong()).isEqualTo(ids.get(1));
+		
+		JsonNode semAlteracoes = sincronizar(segunda.get("cursor").asText(), 2);
+		Assertions.assertThat(semAlteracoes.get("alterados")).isEmpty();
+		Assertions.assertThat(semAlteracoes.get("excluidos")).isEmpty();
+		Assertions.assertThat(semAlteracoes.get("cursor").asText()).isEqualTo(segunda.get("cursor").asText());
+	}
+	
+	@Test
+	public void deveRejeitarCursorDeSincronizacaoInvalido() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/sincronizacao")).param("usuario", usuario.getId().toString()).param("cursor", "x"))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	
+	private JsonNode sincronizar(String cursor, int tamanho) throws Exception {
+		MockHttpServletRequestBuilder requisicao = MockMvcRequestBuilders.get(API.concat("/sincronizacao"))
+				.param("usuario", usuario.getId().toString()).param("tamanho", String.valueOf(tamanho));
+		if(cursor != null) {
+			requisicao.param("cursor", cursor);
+		}
+		String corpo = mvc.perform(requisicao).andExpect(MockMvcResultMatchers.status().isOk()).andReturn().getResponse().getContentAsString();
+		return new ObjectMapper().readTree(corpo);
+	}
+	
+	private Long salvarDescarte() {
+		Usuario descarte = usuarioRepository.save(Usuario.builder().nome("descarte").email("descarte" + System.nanoTime() + "@email.com").build());
+		Lancamento outro = LancamentoRepositoryTest.criarLancamento();
+		outro.setUsuario(descarte);
+		return lancamentoRepository.save(outro).getId();
+	}
+	
+	private Optimizer otimizador(Class<?> entidade) {
+		return ((SequenceStyleGenerator) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+				.getIdentifierGenerator(entidade.getName())).getOptimizer();
+	}
+	
+	private ResultActions consultar(MockHttpServletRequestBuilder requisicao) throws Exception {
+		MvcResult resultado = mvc.perform(requisicao).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		return mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado));
+	}
+	
+	private LancamentoDTO criarDTO(BigDecimal valor) {
+		return LancamentoDTO.builder().descricao("Qualquer").ano(2020).mes(7).valor(valor)
+				.tipo("RECEITA").usuario(usuario.getId()).build();
+	}
+	
+	private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object corpo) throws Exception {
+		return request.accept(MediaType.APPLICATION_JSON)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(new ObjectMapper().writeValueAsString(corpo));
+	}
+}
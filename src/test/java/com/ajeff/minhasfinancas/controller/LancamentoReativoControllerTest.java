@@ -0,0 +1,101 @@
+package com.ajeff.minhasfinancas.controller;
+
+import java.math.BigDecimal;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.ajeff.minhasfinancas.config.AutenticacaoConfig;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.seguranca.TokenAcesso;
+import com.ajeff.minhasfinancas.service.LancamentoReativoService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoReativoController.class, properties = "financas.leitura.reativa=true")
+@Import({TokenAcesso.class, AutenticacaoConfig.class})
+@AutoConfigureMockMvc
+public class LancamentoReativoControllerTest {
+
+	static final String API = "/api/reativo";
+	
+	@Autowired
+	MockMvc mvc;
+	
+	@Autowired
+	TokenAcesso tokens;
+	
+	@MockBean
+	LancamentoReativoService service;
+	
+	@Test
+	public void deveEnviarCadaLancamentoEmUmaLinha() throws Exception {
+		Mockito.when(service.buscar(Mockito.any(FiltroLancamentoDTO.class))).thenReturn(Flux.just(
+				LancamentoConsultaDTO.builder().id(1l).build(), LancamentoConsultaDTO.builder().id(2l).build()));
+		
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/lancamentos")).param("usuario", "1")
+				.accept(MediaType.APPLICATION_STREAM_JSON))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		
+		String corpo = mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		Assertions.assertThat(corpo.split("\n")).hasSize(2)
+			.satisfies(linhas -> Assertions.assertThat(linhas[0]).startsWith("{\"id\":1,"))
+			.satisfies(linhas -> Assertions.assertThat(linhas[1]).startsWith("{\"id\":2,"));
+	}
+	
+	@Test
+	public void deveExigirOUsuarioNaBusca() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/lancamentos")).accept(MediaType.APPLICATION_STREAM_JSON))
+			.andExpect(MockMvcResultMatchers.status().isBadRequest());
+	}
+	
+	@Test
+	public void deveRetornarNotFoundNoSaldoDeUsuarioInexistente() throws Exception {
+		Mockito.when(service.obterSaldo(1l)).thenReturn(Mono.empty());
+		
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/usuarios/1/saldo"))).andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+	
+	@Test
+	public void deveRetornarOSaldo() throws Exception {
+		Mockito.when(service.obterSaldo(1l)).thenReturn(Mono.just(BigDecimal.TEN));
+		
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/usuarios/1/saldo"))).andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().string("10"));
+	}
+	
+	@Test
+	public void deveRecusarOSaldoDeOutroUsuario() throws Exception {
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/usuarios/1/saldo")).header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.emitir(2l)))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		Mockito.verify(service, Mockito.never()).obterSaldo(Mockito.anyLong());
+	}
+}
@@ -1,5 +1,11 @@
 package com.ajeff.minhasfinancas.controller;
 
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -7,25 +13,34 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import com.ajeff.minhasfinancas.config.AutenticacaoConfig;
+import com.ajeff.minhasfinancas.dto.RelatorioPeriodoDTO;
 import com.ajeff.minhasfinancas.dto.UsuarioDTO;
 import com.ajeff.minhasfinancas.exceptions.ErroValidacao;
 import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
 import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.seguranca.TokenAcesso;
 import com.ajeff.minhasfinancas.service.LancamentoService;
+import com.ajeff.minhasfinancas.service.ResumoMensalService;
 import com.ajeff.minhasfinancas.service.UsuarioService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 @RunWith(SpringRunner.class)
 @ActiveProfiles("test")
-@WebMvcTest(controllers = UsuarioController.class)
+@WebMvcTest(controllers = UsuarioController.class, properties = {"financas.consultas.assincronas=true", "financas.autenticacao.obrigatoria=false",
+		"financas.tokens.segredo=segredo-de-teste-com-mais-de-32-bytes"})
+@Import({ExecucaoConsultas.class, ExecucaoSenhas.class, TokenAcesso.class, AutenticacaoConfig.class})
 @AutoConfigureMockMvc
 public class UsuarioControllerTest {
 
@@ -33,11 +48,15 @@ public class UsuarioControllerTest {
 	
 	@Autowired
 	MockMvc mvc;
+	@Autowired
+	TokenAcesso tokens;
 	
 	@MockBean
 	UsuarioService service;
 	@MockBean
 	LancamentoService lancamentoService;
+	@MockBean
+	ResumoMensalService resumoService;
 	
 	@Test
 	public void deveAutenticarUmUsuario() throws Exception{
@@ -45,7 +64,10 @@ public class UsuarioControllerTest {
 		String senha = "123";
 		UsuarioDTO dto = UsuarioDTO.builder().email(email).senha(senha).build();
 		Usuario usuario = Usuario.builder().id(1l).nome("Fulano").email(email).senha(senha).build();
-		Mockito.when(service.autenticar(email, senha)).thenReturn(usuario);
+		Mockito.when(service.autenticar(email, senha)).thenAnswer(invocacao -> {
+			Assertions.assertThat(Thread.currentThread().getName()).startsWith("senha-");
+			return usuario;
+		});
 		String json = new ObjectMapper().writeValueAsString(dto);
 		
 		MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -53,11 +75,13 @@ public class UsuarioControllerTest {
 													.accept(MediaType.APPLICATION_JSON)
 													.contentType(MediaType.APPLICATION_JSON)
 													.content(json);
-		mvc.perform(request)
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(iniciarNoPoolDeSenhas(request)))
 			.andExpect(MockMvcResultMatchers.status().isOk())
 			.andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
 			.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-			.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+			.andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+			.andExpect(MockMvcResultMatchers.jsonPath("token").isNotEmpty())
+			.andExpect(MockMvcResultMatchers.jsonPath("senha").doesNotExist());
 	}
 
 	
@@ -74,7 +98,7 @@ public class UsuarioControllerTest {
 													.accept(MediaType.APPLICATION_JSON)
 													.contentType(MediaType.APPLICATION_JSON)
 													.content(json);
-		mvc.perform(request)
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(iniciarNoPoolDeSenhas(request)))
 		.andExpect(MockMvcResultMatchers.status().isBadRequest());
 	}
 	
@@ -93,7 +117,7 @@ public class UsuarioControllerTest {
 													.accept(MediaType.APPLICATION_JSON)
 													.contentType(MediaType.APPLICATION_JSON)
 													.content(json);
-		mvc.perform(request)
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(iniciarNoPoolDeSenhas(request)))
 			.andExpect(MockMvcResultMatchers.status().isCreated())
 			.andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
 			.andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
@@ -114,7 +138,70 @@ public class UsuarioControllerTest {
 													.accept(MediaType.APPLICATION_JSON)
 													.contentType(MediaType.APPLICATION_JSON)
 													.content(json);
-		mvc.perform(request)
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(iniciarNoPoolDeSenhas(request)))
 		.andExpect(MockMvcResultMatchers.status().isBadRequest());
 	}	
+	
+	@Test
+	public void deveRetornarRelatorioMensalDoPeriodoInformado() throws Exception{
+		Usuario usuario = Usuario.builder().id(1l).build();
+		Mockito.when(service.findByUsuarioId(1l)).thenReturn(Optional.of(usuario));
+		Mockito.when(resumoService.relatorioMensal(1l, YearMonth.of(2020, 1), YearMonth.of(2020, 2))).thenReturn(Arrays.asList(
+				new RelatorioPeriodoDTO(2020, 1, BigDecimal.TEN, BigDecimal.ONE, BigDecimal.valueOf(9)),
+				new RelatorioPeriodoDTO(2020, 2)));
+		
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/relatorios/mensal")).param("de", "2020-01").param("ate", "2020-02"))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[0].saldo").value(9))
+			.andExpect(MockMvcResultMatchers.jsonPath("$[1].mes").value(2));
+	}
+	
+	@Test
+	public void deveObterOSaldoForaDaThreadDaRequisicao() throws Exception{
+		Mockito.when(service.findByUsuarioId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+		Mockito.when(lancamentoService.obterSaldoPorUsuario(1l)).thenAnswer(invocacao -> {
+			Assertions.assertThat(Thread.currentThread().getName()).startsWith("consulta-");
+			return BigDecimal.TEN;
+		});
+		
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/saldo")))
+			.andExpect(MockMvcResultMatchers.request().asyncStarted())
+			.andReturn();
+		
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isOk())
+			.andExpect(MockMvcResultMatchers.content().string("10"));
+	}
+	
+	@Test
+	public void deveRetornarNotFoundNoRelatorioDeUsuarioInexistente() throws Exception{
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/relatorios/anual")))
+			.andExpect(MockMvcResultMatchers.status().isNotFound());
+	}
+	
+	@Test
+	public void deveResolverOUsuarioPeloTokenSemConsulta() throws Exception{
+		Mockito.when(resumoService.relatorioAnual(1l, 2019, 2020)).thenReturn(Arrays.asList(new RelatorioPeriodoDTO(2020, null)));
+		
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/relatorios/anual")).param("de", "2019").param("ate", "2020")
+					.header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.emitir(1l)))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		Mockito.verify(service, Mockito.never()).findByUsuarioId(Mockito.anyLong());
+	}
+	
+	@Test
+	public void deveRecusarTokenDeOutroUsuario() throws Exception{
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/relatorios/anual")).header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.emitir(2l)))
+			.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mvc.perform(MockMvcRequestBuilders.get(API.concat("/1/relatorios/anual")).header(HttpHeaders.AUTHORIZATION, "Bearer invalido"))
+			.andExpect(MockMvcResultMatchers.status().isUnauthorized());
+	}
+	
+	
+	private MvcResult iniciarNoPoolDeSenhas(MockHttpServletRequestBuilder request) throws Exception {
+		return mvc.perform(request)
+				.andExpect(MockMvcResultMatchers.request().asyncStarted())
+				.andReturn();
+	}
 }
@@ -0,0 +1,59 @@
+package com.ajeff.minhasfinancas.importacao;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class GeradorChaveImportacaoTest {
+
+	static final LocalDate INICIO = LocalDate.of(2020, 1, 1);
+	
+	@Test
+	public void deveManterEmMemoriaSomenteAsContagensDaDataAtual() throws IOException {
+		Set<String> chaves = new HashSet<>();
+		int maximo = 0;
+		
+		// 200 mil transações em 30 dias, com 50 conteúdos por dia; a metade final volta às mesmas datas
+		try (GeradorChaveImportacao gerador = new GeradorChaveImportacao()) {
+			for(int i = 0; i < 200_000; i++) {
+				LocalDate data = INICIO.plusDays((i % 100_000) * 30L / 100_000);
+				chaves.add(gerador.gerar(new TransacaoExtrato(data, BigDecimal.valueOf(i % 50), "Compra", null)));
+				maximo = Math.max(maximo, gerador.getContagens());
+			}
+		}
+		
+		Assertions.assertThat(chaves).hasSize(200_000);
+		Assertions.assertThat(maximo).isLessThanOrEqualTo(50 + 30);
+	}
+	
+	@Test
+	public void deveGerarAsMesmasChavesComOArquivoForaDeOrdem() throws IOException {
+		TransacaoExtrato padaria = new TransacaoExtrato(INICIO, BigDecimal.TEN, "Padaria", null);
+		TransacaoExtrato onibus = new TransacaoExtrato(INICIO.plusDays(1), BigDecimal.ONE, "Onibus", null);
+		TransacaoExtrato padariaCentavos = new TransacaoExtrato(INICIO, new BigDecimal("10.00"), "Padaria", null);
+		
+		List<String> foraDeOrdem = gerar(Arrays.asList(padaria, onibus, padariaCentavos, onibus));
+		List<String> ordenado = gerar(Arrays.asList(padaria, padariaCentavos, onibus, onibus));
+		
+		Assertions.assertThat(new HashSet<>(foraDeOrdem)).hasSize(4);
+		Assertions.assertThat(foraDeOrdem).containsExactlyInAnyOrderElementsOf(ordenado);
+	}
+	
+	private List<String> gerar(List<TransacaoExtrato> arquivo) throws IOException {
+		try (GeradorChaveImportacao gerador = new GeradorChaveImportacao()) {
+			List<String> chaves = new ArrayList<>();
+			for(TransacaoExtrato transacao : arquivo) {
+				chaves.add(gerador.gerar(transacao));
+			}
+			return chaves;
+		}
+	}
+}
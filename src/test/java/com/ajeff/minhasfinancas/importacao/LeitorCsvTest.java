@@ -0,0 +1,33 @@
+package com.ajeff.minhasfinancas.importacao;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class LeitorCsvTest {
+
+	@Test
+	public void deveLerRegistrosSeparadosPorPontoEVirgula() throws IOException {
+		LeitorCsv leitor = new LeitorCsv(new StringReader("\uFEFFdescricao;valor\nAluguel;1.200,50\n\nLuz;80\n"));
+		
+		Assertions.assertThat(leitor.proximoRegistro()).containsExactly("descricao", "valor");
+		Assertions.assertThat(leitor.proximoRegistro()).containsExactly("Aluguel", "1.200,50");
+		Assertions.assertThat(leitor.getLinha()).isEqualTo(2);
+		Assertions.assertThat(leitor.proximoRegistro()).containsExactly("Luz", "80");
+		Assertions.assertThat(leitor.getLinha()).isEqualTo(4);
+		Assertions.assertThat(leitor.proximoRegistro()).isNull();
+	}
+	
+	@Test
+	public void deveLerCamposEntreAspasComDelimitadorEQuebraDeLinha() throws IOException {
+		LeitorCsv leitor = new LeitorCsv(new StringReader("descricao,valor\n\"Mercado, \"\"feira\"\"\nsemanal\",10.5\n"));
+		leitor.proximoRegistro();
+		
+		List<String> registro = leitor.proximoRegistro();
+		Assertions.assertThat(registro).containsExactly("Mercado, \"feira\"\nsemanal", "10.5");
+		Assertions.assertThat(leitor.getLinha()).isEqualTo(3);
+	}
+}
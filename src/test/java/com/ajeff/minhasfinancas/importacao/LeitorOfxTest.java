@@ -0,0 +1,62 @@
+package com.ajeff.minhasfinancas.importacao;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+
+public class LeitorOfxTest {
+
+	static final String OFX_SGML = "OFXHEADER:100\nDATA:OFXSGML\nCHARSET:1252\n\n"
+			+ "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+			+ "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20200715120000[-3:BRT]\n<TRNAMT>-52.30\n<FITID>A1\n<MEMO>Padaria São João\n</STMTTRN>\n"
+			+ "<STMTTRN>\n<TRNTYPE>CREDIT\n<DTPOSTED>20200716\n<TRNAMT>1500,00\n<NAME>Salário &amp; bônus\n</STMTTRN>\n"
+			+ "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n";
+	
+	@Test
+	public void deveLerTransacoesDeOfxSgmlNoCharsetDoCabecalho() throws IOException {
+		LeitorOfx leitor = LeitorOfx.abrir(new ByteArrayInputStream(OFX_SGML.getBytes(Charset.forName("windows-1252"))));
+		
+		TransacaoExtrato primeira = leitor.proxima();
+		Assertions.assertThat(primeira.getData()).isEqualTo(LocalDate.of(2020, 7, 15));
+		Assertions.assertThat(primeira.getValor()).isEqualByComparingTo(BigDecimal.valueOf(-52.3));
+		Assertions.assertThat(primeira.getDescricao()).isEqualTo("Padaria São João");
+		Assertions.assertThat(primeira.getIdentificador()).isEqualTo("A1");
+		
+		TransacaoExtrato segunda = leitor.proxima();
+		Assertions.assertThat(segunda.getValor()).isEqualByComparingTo(BigDecimal.valueOf(1500));
+		Assertions.assertThat(segunda.getDescricao()).isEqualTo("Salário & bônus");
+		Assertions.assertThat(segunda.getIdentificador()).isNull();
+		
+		Assertions.assertThat(leitor.proxima()).isNull();
+	}
+	
+	@Test
+	public void deveLerTransacoesDeOfxXml() throws IOException {
+		String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><?OFX OFXHEADER=\"200\"?><OFX><BANKTRANLIST>"
+				+ "<STMTTRN><DTPOSTED>20201231</DTPOSTED><TRNAMT>10.00</TRNAMT><FITID>X</FITID><MEMO>Pix</MEMO></STMTTRN>"
+				+ "</BANKTRANLIST></OFX>";
+		LeitorOfx leitor = new LeitorOfx(new StringReader(xml));
+		
+		TransacaoExtrato transacao = leitor.proxima();
+		Assertions.assertThat(transacao.getData()).isEqualTo(LocalDate.of(2020, 12, 31));
+		Assertions.assertThat(transacao.getDescricao()).isEqualTo("Pix");
+		Assertions.assertThat(leitor.proxima()).isNull();
+	}
+	
+	@Test
+	public void deveRejeitarTransacaoInvalidaEContinuarNaSeguinte() throws IOException {
+		String ofx = "<OFX><STMTTRN><DTPOSTED>2020<TRNAMT>1</STMTTRN><STMTTRN><DTPOSTED>20200101<TRNAMT>2<MEMO>ok</STMTTRN></OFX>";
+		LeitorOfx leitor = new LeitorOfx(new StringReader(ofx));
+		
+		Assertions.assertThatThrownBy(leitor::proxima).isInstanceOf(RegraNegocioException.class).hasMessageStartingWith("Transação 1");
+		Assertions.assertThat(leitor.proxima().getDescricao()).isEqualTo("ok");
+	}
+}
@@ -0,0 +1,103 @@
+package com.ajeff.minhasfinancas.metricas;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.ajeff.minhasfinancas.exceptions.ErroValidacao;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+import com.ajeff.minhasfinancas.service.LancamentoService;
+import com.ajeff.minhasfinancas.service.UsuarioService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MetricasAspectTest {
+
+	@Autowired
+	MockMvc mvc;
+	@Autowired
+	MeterRegistry registry;
+	@Autowired
+	LancamentoService lancamentoService;
+	@Autowired
+	UsuarioService usuarioService;
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("metricas").email("metricas" + System.nanoTime() + "@email.com").senha("senha").build());
+	}
+	
+	@Test
+	public void deveMedirOsMetodosDoServico() {
+		long antes = contagem(MetricasAspect.METRICA_SERVICO, "LancamentoServiceImpl", "obterSaldoPorUsuario", "none");
+		
+		lancamentoService.obterSaldoPorUsuario(usuario.getId());
+		
+		Assertions.assertThat(contagem(MetricasAspect.METRICA_SERVICO, "LancamentoServiceImpl", "obterSaldoPorUsuario", "none") - antes).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveMarcarAExcecaoLancadaPeloServico() {
+		long antes = contagem(MetricasAspect.METRICA_SERVICO, "UsuarioServiceImpl", "autenticar", "ErroValidacao");
+		
+		Throwable erro = Assertions.catchThrowable(() -> usuarioService.autenticar(usuario.getEmail(), "errada"));
+		
+		Assertions.assertThat(erro).isInstanceOf(ErroValidacao.class);
+		Assertions.assertThat(contagem(MetricasAspect.METRICA_SERVICO, "UsuarioServiceImpl", "autenticar", "ErroValidacao") - antes).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveMedirAsConsultasDoRepositorio() {
+		long antes = contagem(MetricasAspect.METRICA_REPOSITORIO, "LancamentoRepository", "calcularSaldoUsuario", "none");
+		
+		lancamentoRepository.calcularSaldoUsuario(usuario.getId());
+		
+		Assertions.assertThat(contagem(MetricasAspect.METRICA_REPOSITORIO, "LancamentoRepository", "calcularSaldoUsuario", "none") - antes).isEqualTo(1);
+		Assertions.assertThat(registry.get(MetricasAspect.METRICA_REPOSITORIO).tag("classe", "UsuarioRepository").tag("metodo", "save").timer().count()).isPositive();
+	}
+	
+	@Test
+	public void deveMedirAsRequisicoesDosControllers() throws Exception {
+		MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get("/api/usuarios/{id}/saldo", usuario.getId())).andReturn();
+		mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+			.andExpect(MockMvcResultMatchers.status().isOk());
+		
+		Timer requisicoes = registry.get("http.server.requests").tag("uri", "/api/usuarios/{id}/saldo").tag("status", "200").timer();
+		Assertions.assertThat(requisicoes.count()).isPositive();
+	}
+	
+	@Test
+	public void deveExporOPoolDeConexoesEAsEstatisticasDoHibernate() {
+		Assertions.assertThat(registry.find("hikaricp.connections.active").gauge()).isNotNull();
+		Assertions.assertThat(registry.find("hibernate.statements").functionCounter()).isNotNull();
+	}
+	
+	
+	private long contagem(String metrica, String classe, String metodo, String excecao) {
+		Timer timer = registry.find(metrica).tag("classe", classe).tag("metodo", metodo).tag("excecao", excecao).timer();
+		return timer == null ? 0 : timer.count();
+	}
+}
@@ -2,6 +2,7 @@ package com.ajeff.minhasfinancas.repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import org.assertj.core.api.Assertions;
@@ -15,7 +16,13 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.ajeff.minhasfinancas.dto.CursorLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
 import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.SaldoUsuario;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
 import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
 import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
 
@@ -69,6 +76,100 @@ public class LancamentoRepositoryTest {
 	}
 
 
+	@Test
+	public void deveCalcularOSaldoDoUsuarioEmUmaUnicaConsulta() {
+		Usuario usuario = manager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento receita = criarLancamento();
+		receita.setUsuario(usuario);
+		manager.persist(receita);
+		Lancamento despesa = criarLancamento();
+		despesa.setUsuario(usuario);
+		despesa.setTipo(TipoLancamento.DESPESA);
+		despesa.setValor(BigDecimal.valueOf(4));
+		manager.persist(despesa);
+		
+		Optional<SaldoUsuario> saldo = repository.calcularSaldoUsuario(usuario.getId());
+		Assertions.assertThat(saldo.isPresent()).isTrue();
+		Assertions.assertThat(saldo.get().getReceitas()).isEqualByComparingTo(BigDecimal.valueOf(10));
+		Assertions.assertThat(saldo.get().getDespesas()).isEqualByComparingTo(BigDecimal.valueOf(4));
+		Assertions.assertThat(saldo.get().getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(6));
+	}
+	
+	
+	@Test
+	public void deveObterOEstadoGravadoIgnorandoAlteracoesPendentes() {
+		Usuario usuario = manager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		manager.persistAndFlush(lancamento);
+		lancamento.setValor(BigDecimal.valueOf(99));
+		
+		Optional<EstadoLancamentoDTO> estado = repository.obterEstado(lancamento.getId());
+		Assertions.assertThat(estado.isPresent()).isTrue();
+		Assertions.assertThat(estado.get().getIdUsuario()).isEqualTo(usuario.getId());
+		Assertions.assertThat(estado.get().getValor()).isEqualByComparingTo(BigDecimal.valueOf(10));
+	}
+
+
+	@Test
+	public void deveBuscarPaginasOrdenadasAPartirDoCursor() {
+		Usuario usuario = manager.persist(UsuarioRepositoryTest.criarUsuario());
+		Lancamento dezembro = criarPersistirLancamento(usuario, 2019, 12);
+		Lancamento julho = criarPersistirLancamento(usuario, 2020, 7);
+		Lancamento janeiro = criarPersistirLancamento(usuario, 2020, 1);
+		FiltroLancamentoDTO filtro = FiltroLancamentoDTO.builder().usuario(usuario.getId()).build();
+		
+		List<LancamentoConsultaDTO> primeiraPagina = repository.buscarPagina(filtro, null, 2);
+		Assertions.assertThat(primeiraPagina).extracting(LancamentoConsultaDTO::getId).containsExactly(dezembro.getId(), janeiro.getId());
+		Assertions.assertThat(primeiraPagina.get(0).getUsuario()).isEqualTo(usuario.getId());
+		
+		CursorLancamentoDTO cursor = CursorLancamentoDTO.of(primeiraPagina.get(1));
+		List<LancamentoConsultaDTO> segundaPagina = repository.buscarPagina(filtro, cursor, 2);
+		Assertions.assertThat(segundaPagina).extracting(LancamentoConsultaDTO::getId).containsExactly(julho.getId());
+	}
+
+
+	@Test
+	public void deveFiltrarPorPeriodoTipoValorEDescricao() {
+		Usuario usuario = manager.persist(UsuarioRepositoryTest.criarUsuario());
+		criarPersistirLancamento(usuario, 2019, 12);
+		Lancamento esperado = criarPersistirLancamento(usuario, 2020, 3);
+		esperado.setDescricao("Conta de LUZ 50%");
+		esperado.setTipo(TipoLancamento.DESPESA);
+		Lancamento outroTipo = criarPersistirLancamento(usuario, 2020, 4);
+		outroTipo.setDescricao("Conta de luz 50%");
+		criarPersistirLancamento(usuario, 2020, 8);
+		manager.flush();
+		
+		FiltroLancamentoDTO filtro = FiltroLancamentoDTO.builder().usuario(usuario.getId())
+				.anoInicial(2020).mesInicial(1).anoFinal(2020).mesFinal(6)
+				.tipo(TipoLancamento.DESPESA).valorMinimo(BigDecimal.ONE).valorMaximo(BigDecimal.TEN)
+				.descricao("luz 50%").build();
+		
+		List<Lancamento> lancamentos = repository.findAll(LancamentoSpecifications.filtrar(filtro));
+		Assertions.assertThat(lancamentos).containsExactly(esperado);
+	}
+	
+	
+	@Test
+	public void deveTratarCuringasDaDescricaoComoTextoLiteral() {
+		Usuario usuario = manager.persist(UsuarioRepositoryTest.criarUsuario());
+		criarPersistirLancamento(usuario, 2020, 1).setDescricao("Conta 100");
+		manager.flush();
+		
+		FiltroLancamentoDTO filtro = FiltroLancamentoDTO.builder().usuario(usuario.getId()).descricao("1_0").build();
+		Assertions.assertThat(repository.findAll(LancamentoSpecifications.filtrar(filtro))).isEmpty();
+	}
+	
+	
+	private Lancamento criarPersistirLancamento(Usuario usuario, Integer ano, Integer mes) {
+		Lancamento lancamento = criarLancamento();
+		lancamento.setUsuario(usuario);
+		lancamento.setAno(ano);
+		lancamento.setMes(mes);
+		return manager.persist(lancamento);
+	}
+	
 	private Lancamento criarPersistirLancamento() {
 		Lancamento lancamento = criarLancamento();
 		manager.persist(lancamento);
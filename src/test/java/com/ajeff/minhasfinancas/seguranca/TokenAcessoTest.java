@@ -0,0 +1,48 @@
+package com.ajeff.minhasfinancas.seguranca;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+public class TokenAcessoTest {
+
+	static final String SEGREDO = "segredo-de-teste-com-mais-de-32-bytes";
+	static final Instant AGORA = Instant.parse("2020-01-01T10:00:00Z");
+	
+	TokenAcesso tokens = new TokenAcesso(SEGREDO, Duration.ofMinutes(15), Clock.fixed(AGORA, ZoneOffset.UTC));
+	
+	@Test
+	public void deveValidarOTokenEmitido() {
+		Assertions.assertThat(tokens.validar(tokens.emitir(42l))).contains(42l);
+	}
+	
+	@Test
+	public void deveRecusarTokenExpirado() {
+		String token = tokens.emitir(42l);
+		TokenAcesso depois = new TokenAcesso(SEGREDO, Duration.ofMinutes(15), Clock.fixed(AGORA.plus(Duration.ofMinutes(15)), ZoneOffset.UTC));
+		
+		Assertions.assertThat(depois.validar(token)).isEmpty();
+	}
+	
+	@Test
+	public void deveRecusarTokenAlteradoOuDeOutroSegredo() {
+		String token = tokens.emitir(42l);
+		String outroUsuario = tokens.emitir(7l);
+		TokenAcesso outroSegredo = new TokenAcesso("outro-segredo-de-teste-com-32-bytes", Duration.ofMinutes(15), Clock.fixed(AGORA, ZoneOffset.UTC));
+		
+		Assertions.assertThat(tokens.validar(outroUsuario.substring(0, outroUsuario.indexOf('.')) + token.substring(token.indexOf('.')))).isEmpty();
+		Assertions.assertThat(outroSegredo.validar(token)).isEmpty();
+		Assertions.assertThat(tokens.validar("invalido")).isEmpty();
+		Assertions.assertThat(tokens.validar(null)).isEmpty();
+	}
+	
+	@Test
+	public void naoDeveIniciarSemSegredoConfigurado() {
+		Assertions.assertThatThrownBy(() -> new TokenAcesso("", Duration.ofMinutes(15), Clock.fixed(AGORA, ZoneOffset.UTC)))
+			.isInstanceOf(IllegalStateException.class);
+	}
+}
@@ -0,0 +1,63 @@
+package com.ajeff.minhasfinancas.serializacao;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonEncoding;
+
+public class EscritorLancamentosTest {
+
+	LancamentoConsultaDTO lancamento = LancamentoConsultaDTO.builder().id(300l).descricao("Salário").mes(1).ano(2020).usuario(7l)
+			.valor(new BigDecimal("1500.50")).dataCadastro(LocalDate.of(2020, 1, 5)).tipo(TipoLancamento.RECEITA)
+			.status(StatusLancamento.PENDENTE).build();
+	
+	@Test
+	public void deveEscreverOUsuarioUmaVezEOsLancamentosComoListas() throws Exception {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		
+		EscritorLancamentos.escrever(Collections.singletonList(lancamento), null, "cursor",
+				new SaidaJson(new JsonFactory().createGenerator(saida, JsonEncoding.UTF8)));
+		
+		Assertions.assertThat(new String(saida.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("{\"usuario\":7,"
+				+ "\"colunas\":[\"id\",\"descricao\",\"mes\",\"ano\",\"valor\",\"dataCadastro\",\"tipo\",\"status\"],"
+				+ "\"tipos\":[\"RECEITA\",\"DESPESA\"],\"status\":[\"PENDENTE\",\"CANCELADO\",\"EFETIVADO\"],"
+				+ "\"lancamentos\":[[300,\"Salário\",1,2020,1500.50,\"2020-01-05\",0,0]],\"proximoCursor\":\"cursor\"}");
+	}
+	
+	@Test
+	public void deveEscreverEmMessagePack() throws Exception {
+		ByteArrayOutputStream saida = new ByteArrayOutputStream();
+		LancamentoConsultaDTO semDescricao = LancamentoConsultaDTO.builder().id(70000l).usuario(7l).build();
+		
+		EscritorLancamentos.escrever(Arrays.asList(lancamento, semDescricao), null, null, new SaidaMessagePack(saida));
+		byte[] bytes = saida.toByteArray();
+		String texto = new String(bytes, StandardCharsets.ISO_8859_1);
+		
+		Assertions.assertThat(bytes[0]).isEqualTo((byte) 0x85);
+		Assertions.assertThat(Arrays.copyOfRange(bytes, 1, 10)).containsExactly(0xa7, 'u', 's', 'u', 'a', 'r', 'i', 'o', 0x07);
+		int inicio = texto.indexOf("lancamentos") + "lancamentos".length();
+		Assertions.assertThat(Arrays.copyOfRange(bytes, inicio, inicio + 5)).containsExactly(0x92, 0x98, 0xcd, 0x01, 0x2c);
+		// "Salário" tem 8 bytes em UTF-8
+		Assertions.assertThat(bytes[inicio + 5]).isEqualTo((byte) 0xa8);
+		Assertions.assertThat(Arrays.copyOfRange(bytes, bytes.length - 13, bytes.length))
+				.containsExactly(0x98, 0xce, 0x00, 0x01, 0x11, 0x70, 0xc0, 0xc0, 0xc0, 0xc0, 0xc0, 0xc0, 0xc0);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void deveRecusarLancamentosDeUsuariosDiferentes() throws Exception {
+		LancamentoConsultaDTO outro = LancamentoConsultaDTO.builder().id(1l).usuario(8l).build();
+		
+		EscritorLancamentos.escrever(Arrays.asList(lancamento, outro), null, null, new SaidaMessagePack(new ByteArrayOutputStream()));
+	}
+}
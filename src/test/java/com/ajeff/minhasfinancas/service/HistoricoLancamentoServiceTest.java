@@ -0,0 +1,138 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.dto.PaginaLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.RelatorioPeriodoDTO;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.LancamentoHistoricoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class HistoricoLancamentoServiceTest {
+
+	@Autowired
+	HistoricoLancamentoService service;
+	@Autowired
+	LancamentoService lancamentoService;
+	@Autowired
+	SaldoUsuarioService saldoService;
+	@Autowired
+	ResumoMensalService resumoService;
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	@Autowired
+	LancamentoHistoricoRepository historicoRepository;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("historico").email("historico" + System.nanoTime() + "@email.com").build());
+		salvar(2015, 3, TipoLancamento.RECEITA, 1000, StatusLancamento.EFETIVADO);
+		salvar(2015, 3, TipoLancamento.DESPESA, 300, StatusLancamento.PENDENTE);
+		salvar(2015, 7, TipoLancamento.DESPESA, 120, StatusLancamento.CANCELADO);
+		salvar(2016, 1, TipoLancamento.DESPESA, 80, StatusLancamento.EFETIVADO);
+		salvar(2020, 2, TipoLancamento.RECEITA, 500, StatusLancamento.EFETIVADO);
+	}
+	
+	@Test
+	public void deveMoverSomenteLancamentosEncerradosAteOMes() {
+		Assertions.assertThat(service.mover(usuario.getId(), YearMonth.of(2016, 1))).isEqualTo(3);
+		
+		FiltroLancamentoDTO filtro = FiltroLancamentoDTO.builder().usuario(usuario.getId()).build();
+		Assertions.assertThat(lancamentoRepository.buscar(filtro)).extracting(LancamentoConsultaDTO::getStatus)
+			.containsExactly(StatusLancamento.PENDENTE, StatusLancamento.EFETIVADO);
+		Assertions.assertThat(service.obterSaldo(usuario.getId())).hasValueSatisfying(saldo -> {
+			Assertions.assertThat(saldo.getReceitas()).isEqualByComparingTo("1000");
+			Assertions.assertThat(saldo.getDespesas()).isEqualByComparingTo("200");
+			Assertions.assertThat(saldo.getAte()).isEqualTo(YearMonth.of(2016, 1));
+		});
+	}
+	
+	@Test
+	public void deveManterBuscasSaldoEResumosIguaisDepoisDeMover() {
+		FiltroLancamentoDTO todos = FiltroLancamentoDTO.builder().usuario(usuario.getId()).build();
+		FiltroLancamentoDTO despesas = FiltroLancamentoDTO.builder().usuario(usuario.getId()).tipo(TipoLancamento.DESPESA)
+				.anoInicial(2015).mesInicial(5).build();
+		List<LancamentoConsultaDTO> antes = lancamentoService.buscar(todos);
+		List<LancamentoConsultaDTO> despesasAntes = lancamentoService.buscar(despesas);
+		List<LancamentoConsultaDTO> paginasAntes = paginar(todos);
+		List<LancamentoConsultaDTO> streamAntes = new ArrayList<>();
+		lancamentoService.buscarStream(todos, streamAntes::add);
+		BigDecimal saldoAntes = lancamentoService.obterSaldoPorUsuario(usuario.getId());
+		
+		service.mover(usuario.getId(), YearMonth.of(2016, 1));
+		saldoService.reconciliar(usuario.getId());
+		resumoService.reconciliar(usuario.getId());
+		
+		Assertions.assertThat(lancamentoService.buscar(todos)).isEqualTo(antes);
+		Assertions.assertThat(lancamentoService.buscar(despesas)).isEqualTo(despesasAntes);
+		Assertions.assertThat(paginar(todos)).isEqualTo(paginasAntes).isEqualTo(antes);
+		List<LancamentoConsultaDTO> streamDepois = new ArrayList<>();
+		lancamentoService.buscarStream(todos, streamDepois::add);
+		Assertions.assertThat(streamDepois).isEqualTo(streamAntes);
+		Assertions.assertThat(lancamentoService.obterSaldoPorUsuario(usuario.getId())).isEqualByComparingTo(saldoAntes);
+		
+		List<RelatorioPeriodoDTO> relatorio = resumoService.relatorioAnual(usuario.getId(), 2015, 2016);
+		Assertions.assertThat(relatorio.get(0).getReceitas()).isEqualByComparingTo("1000");
+		Assertions.assertThat(relatorio.get(0).getDespesas()).isEqualByComparingTo("300");
+		Assertions.assertThat(relatorio.get(1).getDespesas()).isEqualByComparingTo("80");
+	}
+	
+	@Test
+	public void soDeveConsultarOHistoricoQuandoOFiltroChegaAte() {
+		service.mover(usuario.getId(), YearMonth.of(2016, 1));
+		
+		Assertions.assertThat(service.alcancaHistorico(FiltroLancamentoDTO.builder().usuario(usuario.getId()).build())).isTrue();
+		Assertions.assertThat(service.alcancaHistorico(FiltroLancamentoDTO.builder().usuario(usuario.getId()).ano(2016).mes(1).build())).isTrue();
+		Assertions.assertThat(service.alcancaHistorico(FiltroLancamentoDTO.builder().usuario(usuario.getId()).ano(2016).mes(2).build())).isFalse();
+		Assertions.assertThat(service.alcancaHistorico(FiltroLancamentoDTO.builder().usuario(usuario.getId()).anoInicial(2017).build())).isFalse();
+		Assertions.assertThat(service.alcancaHistorico(FiltroLancamentoDTO.builder().usuario(usuario.getId())
+				.status(StatusLancamento.PENDENTE).build())).isFalse();
+	}
+	
+	
+	private List<LancamentoConsultaDTO> paginar(FiltroLancamentoDTO filtro) {
+		List<LancamentoConsultaDTO> lancamentos = new ArrayList<>();
+		String cursor = null;
+		do {
+			PaginaLancamentoDTO pagina = lancamentoService.buscarPagina(filtro, cursor, 2);
+			lancamentos.addAll(pagina.getLancamentos());
+			cursor = pagina.getProximoCursor();
+		} while(cursor != null);
+		return lancamentos;
+	}
+	
+	private Lancamento salvar(int ano, int mes, TipoLancamento tipo, int valor, StatusLancamento status) {
+		Lancamento lancamento = lancamentoService.salvar(Lancamento.builder().descricao("Qualquer").ano(ano).mes(mes).tipo(tipo)
+				.valor(BigDecimal.valueOf(valor)).usuario(usuario).build());
+		if(status != StatusLancamento.PENDENTE) {
+			lancamentoService.atualizarStatus(Collections.singletonList(lancamento.getId()), status);
+		}
+		return lancamento;
+	}
+}
@@ -0,0 +1,150 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.model.entity.ImportacaoExtrato;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.model.enums.FormatoExtrato;
+import com.ajeff.minhasfinancas.model.enums.SituacaoImportacao;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.ImportacaoExtratoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoHistoricoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+import com.ajeff.minhasfinancas.services.impl.ImportacaoExtratoServiceImpl;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class ImportacaoExtratoServiceTest {
+
+	@Autowired
+	ImportacaoExtratoRepository repository;
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	@Autowired
+	LancamentoHistoricoRepository historicoRepository;
+	@Autowired
+	LancamentoService lancamentoService;
+	@Autowired
+	UsuarioService usuarioService;
+	@Autowired
+	SaldoUsuarioService saldoService;
+	@Autowired
+	ResumoMensalService resumoService;
+	@Autowired
+	EventoLancamentoService eventoService;
+	@Autowired
+	SincronizacaoLancamentoService sincronizacaoService;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	
+	ImportacaoExtratoService service;
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		service = new ImportacaoExtratoServiceImpl(repository, lancamentoRepository, historicoRepository, lancamentoService, usuarioService,
+				saldoService, resumoService, eventoService, sincronizacaoService, transactionManager, new SyncTaskExecutor());
+		usuario = usuarioRepository.save(Usuario.builder().nome("extrato").email("extrato" + System.nanoTime() + "@email.com").build());
+	}
+	
+	@Test
+	public void deveImportarExtratoCsvEmLotesIgnorandoDuplicadosNaReimportacao() {
+		StringBuilder csv = new StringBuilder("data;descricao;valor\n");
+		for(int i = 0; i < 1203; i++) {
+			csv.append("15/07/2020;Café;-5,00\n");
+		}
+		csv.append("16/07/2020;Salário;1.000,00\n");
+		csv.append("17/07/2020;Sem valor;0\n");
+		csv.append("data inválida;Erro;1\n");
+		
+		ImportacaoExtrato primeira = importar(csv.toString(), "extrato.csv");
+		Assertions.assertThat(primeira.getSituacao()).isEqualTo(SituacaoImportacao.CONCLUIDA);
+		Assertions.assertThat(primeira.getProcessados()).isEqualTo(1206);
+		Assertions.assertThat(primeira.getImportados()).isEqualTo(1204);
+		Assertions.assertThat(primeira.getRejeitados()).isEqualTo(2);
+		Assertions.assertThat(primeira.getBytesLidos()).isEqualTo(primeira.getTamanhoArquivo());
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isEqualByComparingTo(BigDecimal.valueOf(1000 - 1203 * 5));
+		
+		ImportacaoExtrato segunda = importar(csv.toString(), "extrato.csv");
+		Assertions.assertThat(segunda.getImportados()).isZero();
+		Assertions.assertThat(segunda.getDuplicados()).isEqualTo(1204);
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isEqualByComparingTo(BigDecimal.valueOf(1000 - 1203 * 5));
+	}
+	
+	@Test
+	public void deveImportarExtratoOfxMapeandoTipoPeloSinalDoValor() {
+		ImportacaoExtrato importacao = importar("<OFX><STMTTRN><DTPOSTED>20200715<TRNAMT>-52.30<FITID>A1<MEMO>Padaria</STMTTRN>"
+				+ "<STMTTRN><DTPOSTED>20200801<TRNAMT>100<FITID>A2<MEMO>Pix</STMTTRN>"
+				+ "<STMTTRN><DTPOSTED>20200801<TRNAMT>100<FITID>A2<MEMO>Pix</STMTTRN></OFX>", "extrato.ofx");
+		
+		Assertions.assertThat(importacao.getFormato()).isEqualTo(FormatoExtrato.OFX);
+		Assertions.assertThat(importacao.getImportados()).isEqualTo(2);
+		Assertions.assertThat(importacao.getDuplicados()).isEqualTo(1);
+		
+		List<LancamentoConsultaDTO> lancamentos = lancamentoRepository.buscar(FiltroLancamentoDTO.builder().usuario(usuario.getId()).build());
+		Assertions.assertThat(lancamentos).extracting(LancamentoConsultaDTO::getTipo)
+			.containsExactly(TipoLancamento.DESPESA, TipoLancamento.RECEITA);
+		Assertions.assertThat(lancamentos.get(0).getValor()).isEqualByComparingTo(BigDecimal.valueOf(52.3));
+		Assertions.assertThat(lancamentos.get(0).getMes()).isEqualTo(7);
+		Assertions.assertThat(lancamentos.get(1).getStatus()).isEqualTo(StatusLancamento.EFETIVADO);
+	}
+	
+	@Test
+	public void deveRegistrarFalhaQuandoArquivoForVazio() {
+		ImportacaoExtrato importacao = importar("", "extrato.csv");
+		
+		Assertions.assertThat(importacao.getSituacao()).isEqualTo(SituacaoImportacao.FALHOU);
+		Assertions.assertThat(importacao.getMensagem()).isEqualTo("O arquivo informado está vazio!");
+	}
+	
+	@Test
+	public void deveImportarTransacoesIdenticasDoMesmoDiaMesmoComArquivoForaDeOrdem() {
+		ImportacaoExtrato importacao = importar("data;descricao;valor\n15/07/2020;Café;-5,00\n16/07/2020;Pão;-3,00\n15/07/2020;Café;-5,00\n", "extrato.csv");
+		Assertions.assertThat(importacao.getImportados()).isEqualTo(3);
+		Assertions.assertThat(importacao.getDuplicados()).isZero();
+		
+		ImportacaoExtrato ordenada = importar("data;descricao;valor\n15/07/2020;Café;-5,00\n15/07/2020;Café;-5,00\n16/07/2020;Pão;-3,00\n", "extrato.csv");
+		Assertions.assertThat(ordenada.getImportados()).isZero();
+		Assertions.assertThat(ordenada.getDuplicados()).isEqualTo(3);
+	}
+	
+	@Test
+	public void deveRecusarImportacaoQuandoOExecutorEstiverCheio() {
+		service = new ImportacaoExtratoServiceImpl(repository, lancamentoRepository, historicoRepository, lancamentoService, usuarioService,
+				saldoService, resumoService, eventoService, sincronizacaoService, transactionManager, tarefa -> { throw new TaskRejectedException("cheio"); });
+		
+		Assertions.assertThatThrownBy(() -> importar("data;descricao;valor\n15/07/2020;Café;-5,00\n", "extrato.csv"))
+			.isInstanceOf(RegraNegocioException.class)
+			.hasMessage("Muitas importações em andamento, tente novamente mais tarde!");
+	}
+	
+	
+	private ImportacaoExtrato importar(String conteudo, String nomeArquivo) {
+		ImportacaoExtrato importacao = service.iniciar(usuario.getId(), nomeArquivo, null,
+				new ByteArrayInputStream(conteudo.getBytes(StandardCharsets.UTF_8)));
+		return service.obterPorId(importacao.getId()).get();
+	}
+}
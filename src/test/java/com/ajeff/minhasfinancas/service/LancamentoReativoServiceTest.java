@@ -0,0 +1,85 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.dto.PaginaLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.services.impl.LancamentoReativoServiceImpl;
+
+import reactor.test.StepVerifier;
+
+@RunWith(SpringRunner.class)
+public class LancamentoReativoServiceTest {
+
+	@MockBean
+	LancamentoService lancamentoService;
+	@MockBean
+	UsuarioService usuarioService;
+	
+	LancamentoReativoServiceImpl service;
+	FiltroLancamentoDTO filtro = FiltroLancamentoDTO.builder().usuario(1l).build();
+	
+	@Before
+	public void setUp() {
+		service = new LancamentoReativoServiceImpl(lancamentoService, usuarioService, 2);
+	}
+	
+	@After
+	public void tearDown() {
+		service.destroy();
+	}
+	
+	@Test
+	public void deveConsultarCadaPaginaSomenteQuandoHouverDemanda() {
+		LancamentoConsultaDTO primeiro = LancamentoConsultaDTO.builder().id(1l).build();
+		LancamentoConsultaDTO segundo = LancamentoConsultaDTO.builder().id(2l).build();
+		LancamentoConsultaDTO terceiro = LancamentoConsultaDTO.builder().id(3l).build();
+		Mockito.when(lancamentoService.buscarPagina(Mockito.eq(filtro), Mockito.isNull(), Mockito.anyInt()))
+			.thenReturn(new PaginaLancamentoDTO(Arrays.asList(primeiro, segundo), "proxima"));
+		Mockito.when(lancamentoService.buscarPagina(Mockito.eq(filtro), Mockito.eq("proxima"), Mockito.anyInt()))
+			.thenReturn(new PaginaLancamentoDTO(Collections.singletonList(terceiro), null));
+		
+		StepVerifier.create(service.buscar(filtro), 1)
+			.expectNext(primeiro)
+			.then(() -> Mockito.verify(lancamentoService, Mockito.never()).buscarPagina(filtro, "proxima", 500))
+			.thenRequest(1)
+			.expectNext(segundo)
+			.thenRequest(1)
+			.expectNext(terceiro)
+			.verifyComplete();
+		
+		Mockito.verify(lancamentoService, Mockito.times(2)).buscarPagina(Mockito.any(), Mockito.any(), Mockito.anyInt());
+	}
+	
+	@Test
+	public void deveRetornarOSaldoDoUsuario() {
+		Mockito.when(usuarioService.findByUsuarioId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+		Mockito.when(lancamentoService.obterSaldoPorUsuario(1l)).thenReturn(BigDecimal.TEN);
+		
+		StepVerifier.create(service.obterSaldo(1l))
+			.expectNext(BigDecimal.TEN)
+			.verifyComplete();
+	}
+	
+	@Test
+	public void deveRetornarVazioParaUsuarioInexistente() {
+		Mockito.when(usuarioService.findByUsuarioId(1l)).thenReturn(Optional.empty());
+		
+		StepVerifier.create(service.obterSaldo(1l))
+			.verifyComplete();
+		Mockito.verify(lancamentoService, Mockito.never()).obterSaldoPorUsuario(1l);
+	}
+}
@@ -0,0 +1,117 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.dto.ResultadoRecorrenciaDTO;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.model.entity.BloqueioTarefa;
+import com.ajeff.minhasfinancas.model.entity.LancamentoRecorrente;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.model.enums.Periodicidade;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.BloqueioTarefaRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class LancamentoRecorrenteServiceTest {
+
+	@Autowired
+	LancamentoRecorrenteService service;
+	@Autowired
+	SaldoUsuarioService saldoService;
+	@Autowired
+	UsuarioService usuarioService;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	LancamentoRepository lancamentoRepository;
+	@Autowired
+	BloqueioTarefaRepository bloqueioRepository;
+	
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("recorrente").email("recorrente" + System.nanoTime() + "@email.com").build());
+		service.salvar(modelo("Aluguel", TipoLancamento.DESPESA, 1500, Periodicidade.MENSAL, 2020, 1, 2020, 6));
+		service.salvar(modelo("Seguro", TipoLancamento.DESPESA, 800, Periodicidade.ANUAL, 2019, 3, null, null));
+	}
+	
+	@Test
+	public void deveGerarOsLancamentosVencidosUmaUnicaVez() {
+		Assertions.assertThat(service.materializar(YearMonth.of(2021, 4)).isExecutada()).isTrue();
+		service.materializar(YearMonth.of(2021, 4));
+		
+		List<String> gerados = buscar();
+		Assertions.assertThat(gerados).containsExactly("2019-3 Seguro", "2020-1 Aluguel", "2020-2 Aluguel", "2020-3 Aluguel",
+				"2020-3 Seguro", "2020-4 Aluguel", "2020-5 Aluguel", "2020-6 Aluguel", "2021-3 Seguro");
+		Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isEqualByComparingTo(BigDecimal.valueOf(-11400));
+		Assertions.assertThat(service.buscarPorUsuario(usuario.getId())).extracting(LancamentoRecorrente::getProximaOcorrencia)
+			.containsExactly(YearMonth.of(2020, 7), YearMonth.of(2022, 3));
+		
+		service.materializar(YearMonth.of(2022, 3));
+		Assertions.assertThat(buscar()).hasSize(10).endsWith("2022-3 Seguro");
+	}
+	
+	@Test
+	public void deveGerarUmaUnicaVezComExecucoesSimultaneas() {
+		CompletableFuture<ResultadoRecorrenciaDTO> primeira = CompletableFuture.supplyAsync(() -> service.materializar(YearMonth.of(2021, 4)));
+		CompletableFuture<ResultadoRecorrenciaDTO> segunda = CompletableFuture.supplyAsync(() -> service.materializar(YearMonth.of(2021, 4)));
+		
+		Assertions.assertThat(primeira.join().getFalhas() + segunda.join().getFalhas()).isZero();
+		Assertions.assertThat(buscar()).hasSize(9);
+	}
+	
+	@Test
+	public void naoDeveExecutarComOBloqueioDeOutraInstancia() {
+		bloqueioRepository.save(new BloqueioTarefa("lancamentos-recorrentes", "outra-instancia", LocalDateTime.now().plusMinutes(5)));
+		try {
+			Assertions.assertThat(service.materializar(YearMonth.of(2021, 4)).isExecutada()).isFalse();
+			Assertions.assertThat(buscar()).isEmpty();
+		} finally {
+			bloqueioRepository.deleteById("lancamentos-recorrentes");
+		}
+	}
+	
+	@Test(expected = RegraNegocioException.class)
+	public void deveRejeitarFimAnteriorAoInicio() {
+		service.salvar(modelo("Salário", TipoLancamento.RECEITA, 5000, Periodicidade.MENSAL, 2020, 5, 2020, 4));
+	}
+	
+	
+	private List<String> buscar() {
+		return lancamentoRepository.buscar(FiltroLancamentoDTO.builder().usuario(usuario.getId()).build()).stream()
+				.map(LancamentoRecorrenteServiceTest::descrever)
+				.collect(Collectors.toList());
+	}
+	
+	private LancamentoRecorrente modelo(String descricao, TipoLancamento tipo, int valor, Periodicidade periodicidade,
+			int anoInicial, int mesInicial, Integer anoFinal, Integer mesFinal) {
+		return LancamentoRecorrente.builder().descricao(descricao).tipo(tipo).valor(BigDecimal.valueOf(valor))
+				.periodicidade(periodicidade).anoInicial(anoInicial).mesInicial(mesInicial).anoFinal(anoFinal).mesFinal(mesFinal)
+				.usuario(usuarioService.obterReferencia(usuario.getId())).build();
+	}
+	
+	private static String descrever(LancamentoConsultaDTO lancamento) {
+		return lancamento.getAno() + "-" + lancamento.getMes() + " " + lancamento.getDescricao();
+	}
+}
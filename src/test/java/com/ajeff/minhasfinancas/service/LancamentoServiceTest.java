@@ -1,25 +1,37 @@
 package com.ajeff.minhasfinancas.service;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.assertj.core.api.Assertions;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.context.annotation.Profile;
-import org.springframework.data.domain.Example;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.ajeff.minhasfinancas.dto.CampoLancamento;
+import com.ajeff.minhasfinancas.dto.CursorLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.LancamentoConsultaDTO;
+import com.ajeff.minhasfinancas.dto.PaginaLancamentoDTO;
 import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
 import com.ajeff.minhasfinancas.model.entity.Lancamento;
 import com.ajeff.minhasfinancas.model.entity.Usuario;
 import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
-import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
 import com.ajeff.minhasfinancas.repository.LancamentoRepository;
 import com.ajeff.minhasfinancas.repository.LancamentoRepositoryTest;
 import com.ajeff.minhasfinancas.services.impl.LancamentoServiceImpl;
@@ -32,6 +44,18 @@ public class LancamentoServiceTest {
 	LancamentoServiceImpl service;
 	@MockBean
 	LancamentoRepository repository;
+	@MockBean
+	SaldoUsuarioService saldoService;
+	@MockBean
+	ResumoMensalService resumoService;
+	@MockBean
+	HistoricoLancamentoService historicoService;
+	@MockBean
+	EventoLancamentoService eventoService;
+	@MockBean
+	SincronizacaoLancamentoService sincronizacaoService;
+	@MockBean
+	CacheManager cacheManager;
 	
 	@Test
 	public void deveSalvarUmLancamento() {
@@ -91,14 +115,62 @@ public class LancamentoServiceTest {
 	
 	@Test
 	public void deveFiltrarLancamento() {
-		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
-		List<Lancamento> lista = Arrays.asList(lancamento);
-		Mockito.when(repository.findAll(Mockito.any(Example.class))).thenReturn(lista);
+		LancamentoConsultaDTO lancamento = LancamentoConsultaDTO.of(LancamentoRepositoryTest.criarLancamento());
+		List<LancamentoConsultaDTO> lista = Arrays.asList(lancamento);
+		FiltroLancamentoDTO filtro = FiltroLancamentoDTO.builder().usuario(1l).build();
+		Mockito.when(repository.buscar(filtro)).thenReturn(lista);
 		
-		List<Lancamento> buscado = service.buscar(lancamento);
+		List<LancamentoConsultaDTO> buscado = service.buscar(filtro);
 		Assertions.assertThat(buscado).hasSize(1).isNotEmpty().contains(lancamento);
 	}
 	
+	@Test
+	public void deveLerOsCamposDeOrdenacaoSomenteAoIntercalarComOHistorico() {
+		FiltroLancamentoDTO filtro = FiltroLancamentoDTO.builder().usuario(1l).descricao("aluguel").build();
+		Set<CampoLancamento> campos = CampoLancamento.converter("valor");
+		Set<CampoLancamento> comOrdenacao = EnumSet.of(CampoLancamento.ID, CampoLancamento.MES, CampoLancamento.ANO, CampoLancamento.VALOR);
+		
+		service.buscar(filtro, 1l, campos);
+		Mockito.verify(repository).buscar(filtro, campos);
+		
+		Mockito.when(historicoService.alcancaHistorico(filtro)).thenReturn(true);
+		service.buscar(filtro, 1l, campos);
+		Mockito.verify(repository).buscar(filtro, comOrdenacao);
+		Mockito.verify(repository).buscarHistorico(filtro, comOrdenacao);
+	}
+	
+	@Test
+	public void deveRetornarCursorQuandoHouverProximaPagina() {
+		FiltroLancamentoDTO filtro = new FiltroLancamentoDTO();
+		LancamentoConsultaDTO primeiro = LancamentoConsultaDTO.of(LancamentoRepositoryTest.criarLancamento());
+		primeiro.setId(1l);
+		LancamentoConsultaDTO segundo = LancamentoConsultaDTO.of(LancamentoRepositoryTest.criarLancamento());
+		segundo.setId(2l);
+		Mockito.when(repository.buscarPagina(filtro, null, 2)).thenReturn(Arrays.asList(primeiro, segundo));
+		
+		PaginaLancamentoDTO pagina = service.buscarPagina(filtro, null, 1);
+		Assertions.assertThat(pagina.getLancamentos()).containsExactly(primeiro);
+		Assertions.assertThat(CursorLancamentoDTO.decodificar(pagina.getProximoCursor())).isEqualTo(CursorLancamentoDTO.of(primeiro));
+	}
+	
+	@Test
+	public void naoDeveRetornarCursorNaUltimaPagina() {
+		FiltroLancamentoDTO filtro = new FiltroLancamentoDTO();
+		LancamentoConsultaDTO lancamento = LancamentoConsultaDTO.of(LancamentoRepositoryTest.criarLancamento());
+		Mockito.when(repository.buscarPagina(filtro, null, 11)).thenReturn(Arrays.asList(lancamento));
+		
+		PaginaLancamentoDTO pagina = service.buscarPagina(filtro, null, 10);
+		Assertions.assertThat(pagina.getLancamentos()).containsExactly(lancamento);
+		Assertions.assertThat(pagina.getProximoCursor()).isNull();
+	}
+	
+	@Test
+	public void deveLancarErroParaTamanhoDePaginaInvalido() {
+		Throwable erro = Assertions.catchThrowable(() -> service.buscarPagina(new FiltroLancamentoDTO(), null, 0));
+		Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class);
+		Mockito.verify(repository, Mockito.never()).buscarPagina(Mockito.any(), Mockito.any(), Mockito.anyInt());
+	}
+	
 	@Test
 	public void deveAtualizarUmStatusLancamento() {
 		StatusLancamento novoStatus = StatusLancamento.CANCELADO;
@@ -106,15 +178,62 @@ public class LancamentoServiceTest {
 		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
 		lancamento.setId(1l);
 		lancamento.setStatus(StatusLancamento.PENDENTE);
-		Mockito.doReturn(lancamento).when(service).atualizar(lancamento);
+		List<Long> ids = Collections.singletonList(1l);
+		Mockito.when(repository.bloquearPorIds(ids)).thenReturn(Collections.singletonList(LancamentoConsultaDTO.of(lancamento)));
+		Mockito.when(repository.atualizarStatus(Mockito.eq(ids), Mockito.eq(novoStatus), Mockito.eq(Collections.singleton(StatusLancamento.PENDENTE)), Mockito.anyLong())).thenReturn(1);
 	
-		service.atualizarStatus(lancamento, novoStatus);
+		List<LancamentoConsultaDTO> atualizados = service.atualizarStatus(ids, novoStatus);
 		
-		Assertions.assertThat(lancamento.getStatus()).isEqualTo(novoStatus);
-		Mockito.verify(service).atualizar(lancamento);
+		Assertions.assertThat(atualizados).extracting(LancamentoConsultaDTO::getStatus).containsExactly(novoStatus);
+		Mockito.verify(service, Mockito.never()).atualizar(Mockito.any());
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any());
+		Mockito.verify(resumoService).atualizar(Mockito.anyCollection(), Mockito.anyCollection());
+	}
+	
+	@Test
+	public void naoDeveAtualizarLancamentoQueJaEstaNoStatus() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		lancamento.setStatus(StatusLancamento.EFETIVADO);
+		Mockito.when(repository.bloquearPorIds(Mockito.anyCollection())).thenReturn(Collections.singletonList(LancamentoConsultaDTO.of(lancamento)));
+		
+		service.atualizarStatus(Collections.singletonList(1l), StatusLancamento.EFETIVADO);
+		
+		Mockito.verify(repository, Mockito.never()).atualizarStatus(Mockito.anyCollection(), Mockito.any(), Mockito.anyCollection(), Mockito.anyLong());
+		Mockito.verifyZeroInteractions(saldoService, resumoService);
+	}
+	
+	@Test(expected = OptimisticLockingFailureException.class)
+	public void deveFalharQuandoOStatusMudarDuranteATroca() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		lancamento.setStatus(StatusLancamento.PENDENTE);
+		Mockito.when(repository.bloquearPorIds(Mockito.anyCollection())).thenReturn(Collections.singletonList(LancamentoConsultaDTO.of(lancamento)));
+		Mockito.when(repository.atualizarStatus(Mockito.anyCollection(), Mockito.any(), Mockito.anyCollection(), Mockito.anyLong())).thenReturn(0);
+		
+		service.atualizarStatus(Collections.singletonList(1l), StatusLancamento.EFETIVADO);
 	}
 	
 	
+	@Test
+	public void deveInformarUsuarioInexistenteSomenteQuandoAChaveDoUsuarioForViolada() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.save(lancamento)).thenThrow(violacao("LANCAMENTO_ID_USUARIO_FKEY: FINANCAS.LANCAMENTO FOREIGN KEY"));
+		
+		Assertions.assertThatThrownBy(() -> service.salvar(lancamento))
+			.isInstanceOf(RegraNegocioException.class).hasMessage("Usuário não encontrado com este id!");
+	}
+	
+	@Test
+	public void naoDeveTratarOutrasViolacoesComoUsuarioInexistente() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		Mockito.doNothing().when(service).validar(lancamento);
+		Mockito.when(repository.save(lancamento)).thenThrow(violacao("uk_lancamento_usuario_chave_importacao"));
+		
+		Assertions.assertThatThrownBy(() -> service.salvar(lancamento)).isInstanceOf(DataIntegrityViolationException.class);
+	}
+	
 	@Test
 	public void deveRetornarUmLancamentoPorId() {
 		Long id = 1l;
@@ -189,32 +308,37 @@ public class LancamentoServiceTest {
 	
 	
 	@Test
-	public void deveRetornarSaldoCliente() {
+	public void deveRetornarSaldoClientePeloSaldoConsolidado() {
 		Long idUser = 1l;
-		Mockito.when(repository.obterSaldoPorTipoLancamentoEUsuario(idUser, TipoLancamento.RECEITA)).thenReturn(BigDecimal.valueOf(300));
-		Mockito.when(repository.obterSaldoPorTipoLancamentoEUsuario(idUser, TipoLancamento.DESPESA)).thenReturn(BigDecimal.valueOf(100));
+		Mockito.when(saldoService.obterSaldo(idUser)).thenReturn(BigDecimal.valueOf(200));
 		BigDecimal resultado = service.obterSaldoPorUsuario(idUser);
 		Assertions.assertThat(resultado).isEqualTo(BigDecimal.valueOf(200));
 	}
-
-	@Test
-	public void deveRetornarSaldoClienteComReceitaZerada() {
-		Long idUser = 1l;
-		Mockito.when(repository.obterSaldoPorTipoLancamentoEUsuario(idUser, TipoLancamento.RECEITA)).thenReturn(null);
-		Mockito.when(repository.obterSaldoPorTipoLancamentoEUsuario(idUser, TipoLancamento.DESPESA)).thenReturn(BigDecimal.valueOf(100));
-		BigDecimal resultado = service.obterSaldoPorUsuario(idUser);
-		Assertions.assertThat(resultado).isEqualTo(BigDecimal.valueOf(-100));
-	}
-
+	
+	
 	@Test
-	public void deveRetornarSaldoClienteComDespesaZerada() {
-		Long idUser = 1l;
-		Mockito.when(repository.obterSaldoPorTipoLancamentoEUsuario(idUser, TipoLancamento.RECEITA)).thenReturn(BigDecimal.valueOf(300));
-		Mockito.when(repository.obterSaldoPorTipoLancamentoEUsuario(idUser, TipoLancamento.DESPESA)).thenReturn(null);
-		BigDecimal resultado = service.obterSaldoPorUsuario(idUser);
-		Assertions.assertThat(resultado).isEqualTo(BigDecimal.valueOf(300));
+	public void deveAtualizarSaldoConsolidadoAoSalvarUmLancamento() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		Mockito.doNothing().when(service).validar(lancamento);
+		Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
+		lancamentoSalvo.setId(1l);
+		Mockito.when(repository.save(lancamento)).thenReturn(lancamentoSalvo);
+		service.salvar(lancamento);
+		Mockito.verify(saldoService).atualizar(Mockito.isNull(), Mockito.eq(EstadoLancamentoDTO.of(lancamentoSalvo)));
 	}
 	
 	
+	@Test
+	public void deveEstornarSaldoConsolidadoAoDeletarUmLancamento() {
+		Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+		lancamento.setId(1l);
+		EstadoLancamentoDTO anterior = EstadoLancamentoDTO.of(lancamento);
+		Mockito.when(repository.obterEstado(1l)).thenReturn(Optional.of(anterior));
+		service.deletar(lancamento);
+		Mockito.verify(saldoService).atualizar(anterior, null);
+	}
 	
+	private static DataIntegrityViolationException violacao(String restricao) {
+		return new DataIntegrityViolationException("violação", new ConstraintViolationException("violação", new SQLException(), restricao));
+	}
 }
@@ -0,0 +1,73 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.time.Year;
+import java.util.Arrays;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.services.impl.ParticionamentoLancamentoServiceImpl;
+
+public class ParticionamentoLancamentoServiceTest {
+
+	JdbcTemplate jdbcTemplate;
+	ParticionamentoLancamentoService service;
+	int atual = Year.now().getValue();
+	
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+		service = new ParticionamentoLancamentoServiceImpl(jdbcTemplate, 2, "financas_arquivo");
+		Mockito.when(jdbcTemplate.execute(Mockito.any(ConnectionCallback.class))).thenReturn("PostgreSQL");
+		Mockito.when(jdbcTemplate.queryForList(Mockito.anyString(), Mockito.eq(String.class)))
+			.thenReturn(Arrays.asList("lancamento_2016", "lancamento_" + atual, "lancamento_outros"));
+	}
+	
+	@Test
+	public void naoDeveConsiderarParticionadoForaDoPostgreSQL() {
+		JdbcTemplate h2 = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:particionamento", "sa", "sa"));
+		
+		Assertions.assertThat(new ParticionamentoLancamentoServiceImpl(h2, 2, "financas_arquivo").isParticionado()).isFalse();
+	}
+	
+	@Test
+	public void deveListarSomenteAsParticoesAnuais() {
+		Assertions.assertThat(service.listarAnosParticionados()).containsExactly(2016, atual);
+	}
+	
+	@Test
+	public void deveCriarApenasAsParticoesFuturasQueFaltam() {
+		Assertions.assertThat(service.criarParticoesFuturas()).containsExactly(atual + 1, atual + 2);
+		
+		Mockito.verify(jdbcTemplate).execute("create table financas.lancamento_" + (atual + 1) 
+				+ " partition of financas.lancamento for values from (" + (atual + 1) + ") to (" + (atual + 2) + ")");
+		Mockito.verify(jdbcTemplate, Mockito.never()).execute(Mockito.startsWith("create table financas.lancamento_" + atual + " "));
+	}
+	
+	@Test
+	public void deveDesanexarTransportarOSaldoEMoverOAnoArquivado() {
+		service.arquivar(2016);
+		
+		InOrder ordem = Mockito.inOrder(jdbcTemplate);
+		ordem.verify(jdbcTemplate).execute("alter table financas.lancamento detach partition financas.lancamento_2016");
+		ordem.verify(jdbcTemplate).update(Mockito.startsWith("insert into financas.saldo_historico"));
+		ordem.verify(jdbcTemplate).update("insert into financas.ano_arquivado (ano) values (?)", 2016);
+		ordem.verify(jdbcTemplate).update("update financas.saldo_usuario set versao = versao + 1 "
+				+ "where id_usuario in (select distinct id_usuario from financas.lancamento_2016)");
+		ordem.verify(jdbcTemplate).execute("alter table financas.lancamento_2016 set schema financas_arquivo");
+		Mockito.verify(jdbcTemplate).update(Mockito.contains("from financas.lancamento_2016 where id_usuario is not null"));
+	}
+	
+	@Test(expected = RegraNegocioException.class)
+	public void naoDeveArquivarOAnoAtual() {
+		service.arquivar(atual);
+	}
+}
@@ -0,0 +1,134 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.ajeff.minhasfinancas.dto.FiltroLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.EventoLancamento;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalProjetado;
+import com.ajeff.minhasfinancas.model.entity.SaldoUsuario;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoEventoLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.ResumoMensalProjetadoRepository;
+import com.ajeff.minhasfinancas.repository.ResumoMensalRepository;
+import com.ajeff.minhasfinancas.repository.SaldoProjetadoRepository;
+import com.ajeff.minhasfinancas.repository.SaldoUsuarioRepository;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProjecaoLancamentoServiceTest {
+
+	@Autowired
+	ProjecaoLancamentoService service;
+	@Autowired
+	LancamentoService lancamentoService;
+	@Autowired
+	EventoLancamentoService eventoService;
+	@Autowired
+	UsuarioService usuarioService;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	SaldoUsuarioRepository saldoRepository;
+	@Autowired
+	ResumoMensalRepository resumoRepository;
+	@Autowired
+	SaldoProjetadoRepository saldoProjetadoRepository;
+	@Autowired
+	ResumoMensalProjetadoRepository resumoProjetadoRepository;
+	
+	Usuario usuario;
+	Lancamento aluguel;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("projecao").email("projecao" + System.nanoTime() + "@email.com").build());
+		salvar(2020, 1, TipoLancamento.RECEITA, 1000);
+		aluguel = salvar(2020, 1, TipoLancamento.DESPESA, 400);
+		salvar(2020, 2, TipoLancamento.DESPESA, 50);
+		salvar(2020, 2, TipoLancamento.DESPESA, 30);
+		
+		aluguel.setValor(BigDecimal.valueOf(450));
+		aluguel.setMes(3);
+		lancamentoService.atualizar(aluguel);
+		lancamentoService.atualizarStatus(Collections.singletonList(aluguel.getId()), StatusLancamento.EFETIVADO);
+		lancamentoService.atualizarStatus(FiltroLancamentoDTO.builder().usuario(usuario.getId()).mes(1).build(), StatusLancamento.EFETIVADO);
+		lancamentoService.excluir(FiltroLancamentoDTO.builder().usuario(usuario.getId()).mes(2).valorMaximo(BigDecimal.valueOf(40)).build());
+	}
+	
+	@Test
+	public void deveRegistrarOsEventosDeCadaLancamento() {
+		Assertions.assertThat(eventoService.listar(aluguel.getId())).extracting(EventoLancamento::getTipoEvento)
+			.containsExactly(TipoEventoLancamento.CRIADO, TipoEventoLancamento.ALTERADO, TipoEventoLancamento.STATUS_ALTERADO);
+	}
+	
+	@Test
+	public void deveProjetarSaldoEResumosIguaisAosMantidosNaEscrita() {
+		service.processar();
+		
+		deveProjetarOEstadoAtual();
+		Assertions.assertThat(service.processar()).isZero();
+	}
+	
+	@Test
+	public void deveReconstruirAProjecaoDoInicio() {
+		service.processar();
+		salvar(2021, 5, TipoLancamento.RECEITA, 70);
+		
+		for(String projecao : service.listarProjecoes()) {
+			Assertions.assertThat(service.reconstruir(projecao)).isGreaterThanOrEqualTo(9);
+		}
+		deveProjetarOEstadoAtual();
+	}
+	
+	
+	private void deveProjetarOEstadoAtual() {
+		SaldoUsuario saldo = saldoRepository.findById(usuario.getId()).get();
+		Assertions.assertThat(saldoProjetadoRepository.findById(usuario.getId())).hasValueSatisfying(projetado -> {
+			Assertions.assertThat(projetado.getReceitas()).isEqualByComparingTo(saldo.getReceitas());
+			Assertions.assertThat(projetado.getDespesas()).isEqualByComparingTo(saldo.getDespesas());
+			Assertions.assertThat(projetado.getSaldo()).isEqualByComparingTo(saldo.getSaldo());
+		});
+		
+		List<String> resumos = resumoRepository.buscarPeriodo(usuario.getId(), 2000, 1, 2100, 12).stream()
+				.filter(resumo -> resumo.getQuantidade() > 0)
+				.map(ProjecaoLancamentoServiceTest::descrever)
+				.collect(Collectors.toList());
+		List<String> projetados = resumoProjetadoRepository.buscarPeriodo(Arrays.asList(usuario.getId()), 2000, 2100).stream()
+				.filter(resumo -> resumo.getQuantidade() > 0)
+				.map(ProjecaoLancamentoServiceTest::descrever)
+				.collect(Collectors.toList());
+		Assertions.assertThat(projetados).isNotEmpty().containsExactlyInAnyOrderElementsOf(resumos);
+	}
+	
+	private Lancamento salvar(int ano, int mes, TipoLancamento tipo, int valor) {
+		return lancamentoService.salvar(Lancamento.builder().descricao("Projeção").ano(ano).mes(mes).tipo(tipo)
+				.valor(BigDecimal.valueOf(valor)).usuario(usuarioService.obterReferencia(usuario.getId())).build());
+	}
+	
+	private static String descrever(ResumoMensal resumo) {
+		return resumo.getId() + " " + resumo.getQuantidade() + " " + resumo.getTotal().stripTrailingZeros().toPlainString();
+	}
+	
+	private static String descrever(ResumoMensalProjetado resumo) {
+		return resumo.getId() + " " + resumo.getQuantidade() + " " + resumo.getTotal().stripTrailingZeros().toPlainString();
+	}
+}
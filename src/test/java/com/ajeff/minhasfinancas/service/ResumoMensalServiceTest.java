@@ -0,0 +1,182 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.dto.RelatorioPeriodoDTO;
+import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
+import com.ajeff.minhasfinancas.model.entity.Lancamento;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensal;
+import com.ajeff.minhasfinancas.model.entity.ResumoMensalId;
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.AnoArquivadoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoHistoricoRepository;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.ResumoMensalRepository;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+import com.ajeff.minhasfinancas.services.impl.ParticionamentoLancamentoServiceImpl;
+import com.ajeff.minhasfinancas.services.impl.ResumoMensalServiceImpl;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class ResumoMensalServiceTest {
+
+	@Autowired
+	ResumoMensalService service;
+	@Autowired
+	LancamentoService lancamentoService;
+	@Autowired
+	ResumoMensalRepository repository;
+	@Autowired
+	UsuarioRepository usuarioRepository;
+	@Autowired
+	AnoArquivadoRepository anoArquivadoRepository;
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		usuario = usuarioRepository.save(Usuario.builder().nome("resumo").email("resumo" + System.nanoTime() + "@email.com").build());
+	}
+	
+	@Test
+	public void deveManterOsResumosAtualizadosACadaEscrita() {
+		salvar(2020, 1, TipoLancamento.RECEITA, 1000);
+		Lancamento aluguel = salvar(2020, 1, TipoLancamento.DESPESA, 400);
+		Lancamento mercado = salvar(2020, 3, TipoLancamento.DESPESA, 150);
+		
+		aluguel.setValor(BigDecimal.valueOf(450));
+		lancamentoService.atualizar(aluguel);
+		lancamentoService.atualizarStatus(Collections.singletonList(mercado.getId()), StatusLancamento.CANCELADO);
+		
+		List<RelatorioPeriodoDTO> relatorio = service.relatorioMensal(usuario.getId(), YearMonth.of(2020, 1), YearMonth.of(2020, 3));
+		Assertions.assertThat(relatorio).extracting(RelatorioPeriodoDTO::getMes).containsExactly(1, 2, 3);
+		Assertions.assertThat(relatorio.get(0).getReceitas()).isEqualByComparingTo(BigDecimal.valueOf(1000));
+		Assertions.assertThat(relatorio.get(0).getDespesas()).isEqualByComparingTo(BigDecimal.valueOf(450));
+		Assertions.assertThat(relatorio.get(0).getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(550));
+		Assertions.assertThat(relatorio.get(1).getSaldo()).isEqualByComparingTo(BigDecimal.ZERO);
+		Assertions.assertThat(relatorio.get(2).getDespesas()).isEqualByComparingTo(BigDecimal.ZERO);
+		
+		List<ResumoMensal> incrementais = repository.buscarPeriodo(usuario.getId(), 2020, 1, 2020, 12).stream()
+				.filter(resumo -> resumo.getQuantidade() > 0)
+				.collect(Collectors.toList());
+		service.reconciliar(usuario.getId());
+		List<ResumoMensal> reconciliados = repository.buscarPeriodo(usuario.getId(), 2020, 1, 2020, 12);
+		Assertions.assertThat(reconciliados)
+			.usingComparatorForElementFieldsWithType(BigDecimal::compareTo, BigDecimal.class)
+			.usingElementComparatorIgnoringFields("versao")
+			.containsExactlyInAnyOrderElementsOf(incrementais);
+	}
+	
+	@Test
+	public void deveConsolidarORelatorioAnualSemContarLancamentosDeOutrosAnos() {
+		salvar(2019, 12, TipoLancamento.RECEITA, 70);
+		salvar(2020, 5, TipoLancamento.RECEITA, 100);
+		Lancamento conta = salvar(2020, 6, TipoLancamento.DESPESA, 30);
+		lancamentoService.deletar(conta);
+		
+		List<RelatorioPeriodoDTO> relatorio = service.relatorioAnual(usuario.getId(), 2020, 2020);
+		Assertions.assertThat(relatorio).hasSize(1);
+		Assertions.assertThat(relatorio.get(0).getMes()).isNull();
+		Assertions.assertThat(relatorio.get(0).getSaldo()).isEqualByComparingTo(BigDecimal.valueOf(100));
+	}
+	
+	@Test
+	public void deveManterOsResumosDoAnoArquivadoNaReconciliacao() {
+		salvar(2001, 3, TipoLancamento.RECEITA, 500);
+		salvar(2001, 8, TipoLancamento.DESPESA, 120);
+		salvar(2002, 1, TipoLancamento.RECEITA, 40);
+		List<RelatorioPeriodoDTO> antes = service.relatorioMensal(usuario.getId(), YearMonth.of(2001, 1), YearMonth.of(2001, 12));
+		
+		// no H2 não há partição: o detach é simulado tirando os lançamentos do ano de financas.lancamento
+		JdbcTemplate arquivo = Mockito.spy(jdbcTemplate);
+		Mockito.doReturn(Collections.singletonList("lancamento_2001")).when(arquivo).queryForList(Mockito.anyString(), Mockito.eq(String.class));
+		Mockito.doAnswer(invocacao -> jdbcTemplate.update("delete from financas.lancamento where ano = 2001 and id_usuario = ?", usuario.getId()))
+			.when(arquivo).execute(Mockito.startsWith("alter table financas.lancamento detach"));
+		Mockito.doNothing().when(arquivo).execute(Mockito.startsWith("alter table financas.lancamento_2001 set schema"));
+		Mockito.doReturn(1).when(arquivo).update(Mockito.startsWith("insert into financas.saldo_historico"));
+		Mockito.doReturn(1).when(arquivo).update(Mockito.startsWith("update financas.saldo_usuario"));
+		try {
+			new ParticionamentoLancamentoServiceImpl(arquivo, 2, "financas_arquivo").arquivar(2001);
+			service.reconciliar(usuario.getId());
+			
+			Assertions.assertThat(service.relatorioMensal(usuario.getId(), YearMonth.of(2001, 1), YearMonth.of(2001, 12)))
+				.usingComparatorForElementFieldsWithType(BigDecimal::compareTo, BigDecimal.class)
+				.usingFieldByFieldElementComparator()
+				.containsExactlyElementsOf(antes);
+			Assertions.assertThat(service.relatorioAnual(usuario.getId(), 2001, 2002))
+				.extracting(RelatorioPeriodoDTO::getSaldo)
+				.usingElementComparator(BigDecimal::compareTo)
+				.containsExactly(BigDecimal.valueOf(380), BigDecimal.valueOf(40));
+		} finally {
+			anoArquivadoRepository.deleteById(2001);
+		}
+	}
+	
+	@Test
+	public void deveAplicarODeltaQuandoOutraTransacaoInserirOResumoAntes() {
+		ResumoMensalRepository resumos = Mockito.mock(ResumoMensalRepository.class);
+		Mockito.when(resumos.aplicarDelta(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(), Mockito.any(), Mockito.any(),
+				Mockito.anyLong(), Mockito.any())).thenReturn(0, 1);
+		Mockito.when(resumos.inserirSeAusente(Mockito.any())).thenReturn(false);
+		ResumoMensalService isolado = new ResumoMensalServiceImpl(resumos, Mockito.mock(LancamentoRepository.class),
+				Mockito.mock(LancamentoHistoricoRepository.class), Mockito.mock(AnoArquivadoRepository.class));
+		
+		isolado.atualizar(null, new EstadoLancamentoDTO(1l, 1l, 2020, 7, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, BigDecimal.TEN));
+		
+		Mockito.verify(resumos, Mockito.times(2)).aplicarDelta(1l, 2020, 7, TipoLancamento.RECEITA, StatusLancamento.PENDENTE, 1l, BigDecimal.TEN);
+		Mockito.verify(resumos, Mockito.never()).saveAll(Mockito.any());
+	}
+	
+	@Test
+	public void deveBloquearOsResumosAntesDeCalcularNaReconciliacao() {
+		ResumoMensalRepository resumos = Mockito.mock(ResumoMensalRepository.class);
+		LancamentoRepository lancamentos = Mockito.mock(LancamentoRepository.class);
+		ResumoMensalId id = new ResumoMensalId(1l, 2020, 7, TipoLancamento.RECEITA, StatusLancamento.PENDENTE);
+		Mockito.when(lancamentos.calcularResumosMensais(1l)).thenReturn(Collections.singletonList(new ResumoMensal(id, 1l, BigDecimal.TEN, null)));
+		ResumoMensalService isolado = new ResumoMensalServiceImpl(resumos, lancamentos,
+				Mockito.mock(LancamentoHistoricoRepository.class), Mockito.mock(AnoArquivadoRepository.class));
+		
+		isolado.reconciliar(1l);
+		
+		InOrder ordem = Mockito.inOrder(resumos, lancamentos);
+		ordem.verify(resumos).bloquearPorUsuario(1l);
+		ordem.verify(lancamentos).calcularResumosMensais(1l);
+		ordem.verify(resumos).excluirPorUsuario(1l);
+		ordem.verify(resumos).inserirSeAusente(new ResumoMensal(id, 1l, BigDecimal.TEN, null));
+		Mockito.verify(resumos, Mockito.never()).saveAll(Mockito.any());
+	}
+	
+	@Test(expected = RegraNegocioException.class)
+	public void deveRejeitarPeriodoMaiorQueOLimite() {
+		service.relatorioMensal(usuario.getId(), YearMonth.of(2000, 1), YearMonth.of(2020, 1));
+	}
+	
+	
+	private Lancamento salvar(int ano, int mes, TipoLancamento tipo, int valor) {
+		Lancamento lancamento = Lancamento.builder().descricao("Qualquer").ano(ano).mes(mes).tipo(tipo)
+				.valor(BigDecimal.valueOf(valor)).usuario(usuario).build();
+		return lancamentoService.salvar(lancamento);
+	}
+}
@@ -0,0 +1,145 @@
+package com.ajeff.minhasfinancas.service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.ajeff.minhasfinancas.dto.EstadoLancamentoDTO;
+import com.ajeff.minhasfinancas.model.entity.SaldoUsuario;
+import com.ajeff.minhasfinancas.model.enums.StatusLancamento;
+import com.ajeff.minhasfinancas.model.enums.TipoLancamento;
+import com.ajeff.minhasfinancas.repository.LancamentoRepository;
+import com.ajeff.minhasfinancas.repository.SaldoHistoricoRepository;
+import com.ajeff.minhasfinancas.repository.SaldoUsuarioRepository;
+import com.ajeff.minhasfinancas.services.impl.SaldoUsuarioServiceImpl;
+
+@RunWith(SpringRunner.class)
+public class SaldoUsuarioServiceTest {
+
+	@SpyBean
+	SaldoUsuarioServiceImpl service;
+	@MockBean
+	SaldoUsuarioRepository repository;
+	@MockBean
+	LancamentoRepository lancamentoRepository;
+	@MockBean
+	SaldoHistoricoRepository historicoRepository;
+	
+	@Test
+	public void deveRetornarSaldoConsolidado() {
+		Long idUser = 1l;
+		SaldoUsuario saldo = new SaldoUsuario(idUser, BigDecimal.valueOf(300), BigDecimal.valueOf(100));
+		Mockito.when(repository.findById(idUser)).thenReturn(Optional.of(saldo));
+		BigDecimal resultado = service.obterSaldo(idUser);
+		Assertions.assertThat(resultado).isEqualTo(BigDecimal.valueOf(200));
+		Mockito.verify(lancamentoRepository, Mockito.never()).calcularSaldoUsuario(idUser);
+	}
+	
+	@Test
+	public void deveCalcularSaldoQuandoNaoHouverSaldoConsolidado() {
+		Long idUser = 1l;
+		Mockito.when(lancamentoRepository.calcularSaldoUsuario(idUser))
+			.thenReturn(Optional.of(new SaldoUsuario(idUser, BigDecimal.ZERO, BigDecimal.valueOf(100))));
+		BigDecimal resultado = service.obterSaldo(idUser);
+		Assertions.assertThat(resultado).isEqualTo(BigDecimal.valueOf(-100));
+	}
+	
+	@Test
+	public void deveRetornarSaldoZeradoQuandoNaoHouverLancamentos() {
+		BigDecimal resultado = service.obterSaldo(1l);
+		Assertions.assertThat(resultado).isEqualTo(BigDecimal.ZERO);
+	}
+	
+	@Test
+	public void deveAplicarSomenteADiferencaAoAtualizarUmLancamento() {
+		EstadoLancamentoDTO anterior = criarEstado(TipoLancamento.RECEITA, BigDecimal.valueOf(300));
+		EstadoLancamentoDTO atual = criarEstado(TipoLancamento.RECEITA, BigDecimal.valueOf(350));
+		Mockito.when(repository.aplicarDelta(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+		service.atualizar(anterior, atual);
+		Mockito.verify(repository).aplicarDelta(1l, BigDecimal.valueOf(50), BigDecimal.ZERO);
+	}
+	
+	@Test
+	public void deveAplicarDeltaZeradoQuandoValorETipoNaoMudarem() {
+		EstadoLancamentoDTO anterior = criarEstado(TipoLancamento.DESPESA, BigDecimal.TEN);
+		EstadoLancamentoDTO atual = criarEstado(TipoLancamento.DESPESA, BigDecimal.TEN);
+		atual.setStatus(StatusLancamento.EFETIVADO);
+		Mockito.when(repository.aplicarDelta(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(1);
+		service.atualizar(anterior, atual);
+		Mockito.verify(repository).aplicarDelta(1l, BigDecimal.ZERO, BigDecimal.ZERO);
+	}
+	
+	@Test
+	public void deveInserirOSaldoCalculadoQuandoNaoExistirSaldoConsolidado() {
+		Long idUser = 1l;
+		Mockito.when(repository.aplicarDelta(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0);
+		Mockito.when(repository.inserirSeAusente(Mockito.any())).thenReturn(true);
+		Mockito.when(lancamentoRepository.calcularSaldoUsuario(idUser))
+			.thenReturn(Optional.of(new SaldoUsuario(idUser, BigDecimal.TEN, BigDecimal.ZERO)));
+		service.atualizar(null, criarEstado(TipoLancamento.RECEITA, BigDecimal.TEN));
+		Mockito.verify(repository).inserirSeAusente(new SaldoUsuario(idUser, BigDecimal.TEN, BigDecimal.ZERO));
+		Mockito.verify(repository, Mockito.times(1)).aplicarDelta(Mockito.anyLong(), Mockito.any(), Mockito.any());
+		Mockito.verify(repository, Mockito.never()).save(Mockito.any(SaldoUsuario.class));
+	}
+	
+	@Test
+	public void deveAplicarODeltaQuandoOutraTransacaoInserirOSaldoAntes() {
+		Long idUser = 1l;
+		Mockito.when(repository.aplicarDelta(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0, 1);
+		Mockito.when(repository.inserirSeAusente(Mockito.any())).thenReturn(false);
+		service.atualizar(null, criarEstado(TipoLancamento.RECEITA, BigDecimal.TEN));
+		Mockito.verify(repository, Mockito.times(2)).aplicarDelta(idUser, BigDecimal.TEN, BigDecimal.ZERO);
+	}
+	
+	@Test
+	public void deveBloquearOSaldoAntesDeCalcularNaReconciliacao() {
+		Long idUser = 1l;
+		SaldoUsuario existente = new SaldoUsuario(idUser, BigDecimal.ONE, BigDecimal.ZERO);
+		Mockito.when(repository.bloquear(idUser)).thenReturn(Optional.of(existente));
+		Mockito.when(repository.save(Mockito.any(SaldoUsuario.class))).then(invocacao -> invocacao.getArgument(0));
+		Mockito.when(lancamentoRepository.calcularSaldoUsuario(idUser))
+			.thenReturn(Optional.of(new SaldoUsuario(idUser, BigDecimal.TEN, BigDecimal.ZERO)));
+		
+		SaldoUsuario reconciliado = service.reconciliar(idUser);
+		
+		InOrder ordem = Mockito.inOrder(repository, lancamentoRepository);
+		ordem.verify(repository).bloquear(idUser);
+		ordem.verify(lancamentoRepository).calcularSaldoUsuario(idUser);
+		ordem.verify(repository).save(existente);
+		Assertions.assertThat(reconciliado.getSaldo()).isEqualByComparingTo(BigDecimal.TEN);
+		Mockito.verify(repository, Mockito.never()).findById(idUser);
+	}
+	
+	@Test
+	public void deveRecalcularSobreOSaldoQuandoOutraTransacaoOInserirNaReconciliacao() {
+		Long idUser = 1l;
+		SaldoUsuario inserido = new SaldoUsuario(idUser, BigDecimal.ONE, BigDecimal.ZERO);
+		Mockito.when(repository.bloquear(idUser)).thenReturn(Optional.empty(), Optional.of(inserido));
+		Mockito.when(repository.inserirSeAusente(Mockito.any())).thenReturn(false);
+		Mockito.when(repository.save(Mockito.any(SaldoUsuario.class))).then(invocacao -> invocacao.getArgument(0));
+		Mockito.when(lancamentoRepository.calcularSaldoUsuario(idUser)).thenReturn(
+				Optional.of(new SaldoUsuario(idUser, BigDecimal.ONE, BigDecimal.ZERO)),
+				Optional.of(new SaldoUsuario(idUser, BigDecimal.TEN, BigDecimal.ZERO)));
+		
+		SaldoUsuario reconciliado = service.reconciliar(idUser);
+		
+		InOrder ordem = Mockito.inOrder(repository, lancamentoRepository);
+		ordem.verify(repository).inserirSeAusente(Mockito.any());
+		ordem.verify(repository).bloquear(idUser);
+		ordem.verify(lancamentoRepository).calcularSaldoUsuario(idUser);
+		ordem.verify(repository).save(inserido);
+		Assertions.assertThat(reconciliado.getReceitas()).isEqualByComparingTo(BigDecimal.TEN);
+	}
+	
+	private EstadoLancamentoDTO criarEstado(TipoLancamento tipo, BigDecimal valor) {
+		return new EstadoLancamentoDTO(1l, 1l, 2020, 7, tipo, StatusLancamento.PENDENTE, valor);
+	}
+}
@@ -0,0 +1,93 @@
+package com.ajeff.minhasfinancas.service;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.ajeff.minhasfinancas.model.entity.Usuario;
+import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+import com.ajeff.minhasfinancas.seguranca.CodificadorSenha;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class UsuarioServiceCacheTest {
+
+	@Autowired
+	UsuarioService service;
+	@Autowired
+	UsuarioRepository repository;
+	@Autowired
+	MeterRegistry registry;
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	@Autowired
+	CodificadorSenha codificador;
+	
+	Statistics estatisticas;
+	Usuario usuario;
+	
+	@Before
+	public void setUp() {
+		usuario = repository.save(Usuario.builder().nome("cache").email("cache" + System.nanoTime() + "@email.com")
+				.senha(codificador.codificar("senha")).build());
+		estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		estatisticas.clear();
+	}
+	
+	@Test
+	public void deveConsultarOBancoUmaUnicaVezPorId() {
+		double acertos = contador(UsuarioRepository.CACHE_POR_ID, "hit");
+		
+		service.findByUsuarioId(usuario.getId());
+		service.findByUsuarioId(usuario.getId());
+		
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+		Assertions.assertThat(contador(UsuarioRepository.CACHE_POR_ID, "hit") - acertos).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveAutenticarSemConsultarOBancoNovamente() {
+		service.autenticar(usuario.getEmail(), "senha");
+		service.autenticar(usuario.getEmail(), "senha");
+		
+		Assertions.assertThat(estatisticas.getPrepareStatementCount()).isEqualTo(1);
+	}
+	
+	@Test
+	public void deveNaoGuardarUsuarioInexistente() {
+		service.findByUsuarioId(-1l);
+		Usuario novo = repository.save(Usuario.builder().nome("novo").email("novo" + System.nanoTime() + "@email.com").build());
+		
+		Assertions.assertThat(service.findByUsuarioId(-1l)).isEmpty();
+		Assertions.assertThat(service.findByUsuarioId(novo.getId())).isPresent();
+	}
+	
+	@Test
+	public void deveDescartarOUsuarioDoCacheAoSalvar() {
+		service.findByUsuarioId(usuario.getId());
+		
+		Usuario alterado = Usuario.builder().id(usuario.getId()).nome("alterado")
+				.email("alterado" + System.nanoTime() + "@email.com").senha("senha").build();
+		service.salvar(alterado);
+		
+		Assertions.assertThat(service.findByUsuarioId(usuario.getId()).get().getNome()).isEqualTo("alterado");
+		Assertions.assertThat(service.autenticar(alterado.getEmail(), "senha").getId()).isEqualTo(usuario.getId());
+	}
+	
+	
+	private double contador(String cache, String resultado) {
+		return registry.get("cache.gets").tag("cache", cache).tag("result", resultado).functionCounter().count();
+	}
+}
@@ -8,10 +8,14 @@ import org.assertj.core.api.Assertions;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -19,6 +23,7 @@ import com.ajeff.minhasfinancas.exceptions.ErroValidacao;
 import com.ajeff.minhasfinancas.exceptions.RegraNegocioException;
 import com.ajeff.minhasfinancas.model.entity.Usuario;
 import com.ajeff.minhasfinancas.repository.UsuarioRepository;
+import com.ajeff.minhasfinancas.seguranca.CodificadorSenha;
 import com.ajeff.minhasfinancas.services.impl.UsuarioServiceImpl;
 
 @SpringBootTest
@@ -31,6 +36,10 @@ public class UsuarioServiceTest {
 
 	@MockBean
 	UsuarioRepository repository;
+	@Autowired
+	CodificadorSenha codificador;
+	@Autowired
+	CacheManager cacheManager;
 
 	
 	@Test(expected = RegraNegocioException.class)
@@ -97,6 +106,50 @@ public class UsuarioServiceTest {
 	}
 	
 	
+	@Test
+	public void deveDescartarOCacheDoEmailAnteriorAoTrocarOEmail() {
+		Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+		Usuario anterior = Usuario.builder().id(1l).nome("nome").email("anterior@email.com").build();
+		Mockito.when(repository.findById(1l)).thenReturn(Optional.of(anterior));
+		Cache porEmail = cacheManager.getCache(UsuarioRepository.CACHE_POR_EMAIL);
+		porEmail.put("anterior@email.com", Optional.of(anterior));
+		
+		service.salvar(Usuario.builder().id(1l).nome("nome").email("novo@email.com").build());
+		
+		Assertions.assertThat(porEmail.get("anterior@email.com")).isNull();
+	}
+	
+	
+	@Test
+	public void deveSalvarASenhaCodificada() {
+		Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+		
+		service.salvar(Usuario.builder().email("email").senha("senha").build());
+		
+		ArgumentCaptor<Usuario> salvo = ArgumentCaptor.forClass(Usuario.class);
+		Mockito.verify(repository).save(salvo.capture());
+		Assertions.assertThat(salvo.getValue().getSenha()).startsWith("pbkdf2$").doesNotContain("senha");
+		Assertions.assertThat(codificador.verificar("senha", salvo.getValue().getSenha())).isTrue();
+		Assertions.assertThat(codificador.verificar("outra", salvo.getValue().getSenha())).isFalse();
+	}
+	
+	
+	@Test
+	public void deveRecodificarSenhaEmTextoPuroAoAutenticar() {
+		String email = "usuario@email.com";
+		Usuario usuario = Usuario.builder().nome("usuario").email(email).senha("senha").id(1l).build();
+		Mockito.when(repository.findByEmail(email)).thenReturn(Optional.of(usuario));
+		
+		service.autenticar(email, "senha");
+		
+		ArgumentCaptor<Usuario> salvo = ArgumentCaptor.forClass(Usuario.class);
+		Mockito.verify(repository).save(salvo.capture());
+		Assertions.assertThat(salvo.getValue().getId()).isEqualTo(1l);
+		Assertions.assertThat(codificador.precisaRecodificar(salvo.getValue().getSenha())).isFalse();
+		Assertions.assertThat(usuario.getSenha()).isEqualTo("senha");
+	}
+	
+	
 	@Test(expected = Test.None.class)
 	public void deveValidarEmail() {
 		Mockito.when(repository.existsByEmail(Mockito.anyString())).thenReturn(false);
@@ -0,0 +1,50 @@
+-- Compara o plano da busca de lançamentos antes e depois dos índices de 002_indices_lancamento.sql.
+-- Uso: psql -d minhasfinancas_benchmark -f benchmark_busca_lancamento.sql
+
+\timing on
+
+insert into financas.usuario (nome, email, senha)
+select 'usuario ' || u, 'usuario' || u || '@email.com', 'senha'
+from generate_series(1, 1000) u;
+
+insert into financas.lancamento (descricao, mes, ano, id_usuario, valor, tipo, status, data_cadastro)
+select (array['Aluguel', 'Salário', 'Supermercado', 'Energia elétrica', 'Internet'])[1 + i % 5] || ' ' || i,
+	1 + i % 12,
+	2015 + i % 10,
+	(select min(id) from financas.usuario) + i % 1000,
+	(i % 5000) + 0.99,
+	case when i % 3 = 0 then 'RECEITA' else 'DESPESA' end,
+	(array['PENDENTE', 'EFETIVADO', 'CANCELADO'])[1 + i % 3],
+	current_date
+from generate_series(1, 1000000) i;
+
+analyze financas.lancamento;
+
+drop index if exists financas.idx_lancamento_usuario_ano_mes;
+drop index if exists financas.idx_lancamento_descricao_trgm;
+
+-- Antes: busca por exemplo (QBE) e busca por período sem índice
+explain (analyze, buffers)
+select * from financas.lancamento l
+where l.id_usuario = (select min(id) + 42 from financas.usuario) and l.ano = 2020 and lower(l.descricao) like '%mercado%';
+
+explain (analyze, buffers)
+select * from financas.lancamento l
+where l.id_usuario = (select min(id) + 42 from financas.usuario) and l.ano >= 2019 and (l.ano > 2019 or l.mes >= 6)
+order by l.ano, l.mes, l.id;
+
+\ir ../../../../main/resources/db/postgresql/002_indices_lancamento.sql
+
+-- Depois: mesmas consultas com os índices
+explain (analyze, buffers)
+select * from financas.lancamento l
+where l.id_usuario = (select min(id) + 42 from financas.usuario) and l.ano = 2020 and lower(l.descricao) like '%mercado%';
+
+explain (analyze, buffers)
+select * from financas.lancamento l
+where l.id_usuario = (select min(id) + 42 from financas.usuario) and l.ano >= 2019 and (l.ano > 2019 or l.mes >= 6)
+order by l.ano, l.mes, l.id;
+
+explain (analyze, buffers)
+select * from financas.lancamento l
+where lower(l.descricao) like '%mercado 4242%';
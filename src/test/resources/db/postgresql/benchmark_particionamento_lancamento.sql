@@ -0,0 +1,67 @@
+-- Compara a busca e os recálculos de lançamentos numa tabela de 50 milhões de linhas antes e depois
+-- de 006_particionamento_lancamento.sql.
+-- Uso: psql -d minhasfinancas_benchmark -f benchmark_particionamento_lancamento.sql
+-- (banco com 001 a 005 aplicados e financas.lancamento vazia)
+
+\timing on
+
+insert into financas.usuario (nome, email, senha)
+select 'usuario ' || u, 'usuario' || u || '@email.com', 'senha'
+from generate_series(1, 10000) u;
+
+insert into financas.lancamento (id, descricao, mes, ano, id_usuario, valor, tipo, status, data_cadastro)
+select nextval('financas.lancamento_id_seq'),
+	(array['Aluguel', 'Salário', 'Supermercado', 'Energia elétrica', 'Internet'])[1 + i % 5] || ' ' || i,
+	1 + i % 12,
+	extract(year from current_date)::integer - 9 + (i / 5000000)::integer,
+	(select min(id) from financas.usuario) + i % 10000,
+	(i % 5000) + 0.99,
+	case when i % 3 = 0 then 'RECEITA' else 'DESPESA' end,
+	(array['PENDENTE', 'EFETIVADO', 'CANCELADO'])[1 + i % 3],
+	current_date
+from generate_series(0, 49999999) i;
+
+analyze financas.lancamento;
+
+-- Antes: tabela única
+explain (analyze, buffers)
+select * from financas.lancamento l
+where l.id_usuario = (select min(id) + 42 from financas.usuario) and l.ano = extract(year from current_date)::integer
+order by l.ano, l.mes, l.id;
+
+explain (analyze, buffers)
+select * from financas.lancamento l
+where l.id_usuario = (select min(id) + 42 from financas.usuario) and lower(l.descricao) like '%mercado%'
+	and l.ano >= extract(year from current_date)::integer - 1;
+
+explain (analyze, buffers)
+select l.id_usuario, l.ano, l.mes, l.tipo, l.status, count(*), sum(l.valor)
+from financas.lancamento l
+where l.id_usuario = (select min(id) + 42 from financas.usuario) and l.ano = extract(year from current_date)::integer and l.mes = 6
+group by l.id_usuario, l.ano, l.mes, l.tipo, l.status;
+
+\ir ../../../../main/resources/db/postgresql/006_particionamento_lancamento.sql
+
+-- Depois: as mesmas consultas devem listar só as partições dos anos filtrados
+explain (analyze, buffers)
+select * from financas.lancamento l
+where l.id_usuario = (select min(id) + 42 from financas.usuario) and l.ano = extract(year from current_date)::integer
+order by l.ano, l.mes, l.id;
+
+explain (analyze, buffers)
+select * from financas.lancamento l
+where l.id_usuario = (select min(id) + 42 from financas.usuario) and lower(l.descricao) like '%mercado%'
+	and l.ano >= extract(year from current_date)::integer - 1;
+
+explain (analyze, buffers)
+select l.id_usuario, l.ano, l.mes, l.tipo, l.status, count(*), sum(l.valor)
+from financas.lancamento l
+where l.id_usuario = (select min(id) + 42 from financas.usuario) and l.ano = extract(year from current_date)::integer and l.mes = 6
+group by l.id_usuario, l.ano, l.mes, l.tipo, l.status;
+
+-- Consulta preparada como a do Hibernate: com plano genérico a poda acontece na execução (Subplans Removed, PostgreSQL 12+)
+select min(id) + 42 as usuario from financas.usuario \gset
+prepare busca_periodo(bigint, integer) as
+	select * from financas.lancamento l where l.id_usuario = $1 and l.ano = $2 order by l.ano, l.mes, l.id;
+set plan_cache_mode = force_generic_plan;
+explain (analyze, buffers) execute busca_periodo(:usuario, extract(year from current_date)::integer);
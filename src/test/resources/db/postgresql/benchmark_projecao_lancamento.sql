@@ -0,0 +1,43 @@
+-- Mede no PostgreSQL as duas consultas de cada lote da reconstrução de projeções sobre um log de 10 milhões de
+-- eventos: a leitura do lote pela posição (transação, id) e o horizonte das transações confirmadas.
+-- A reconstrução completa pela aplicação é medida por ProjecaoLancamentoBenchmark (mvn -Pbenchmark).
+-- Uso: psql -d minhasfinancas_benchmark -f benchmark_projecao_lancamento.sql
+-- (banco com 001 a 009 aplicados e financas.evento_lancamento vazia)
+
+\timing on
+
+-- 1000 transações de 10 mil eventos, como importações em lote, todas abaixo do txid desta carga
+insert into financas.evento_lancamento (id, transacao, tipo_evento, id_lancamento, id_usuario, ano, mes, tipo, status, valor)
+select nextval('financas.evento_lancamento_id_seq'),
+	txid_current() - 1000 + i / 10000,
+	'CRIADO',
+	i,
+	1 + i % 10000,
+	extract(year from current_date)::integer - i % 5,
+	1 + i % 12,
+	case when i % 3 = 0 then 'RECEITA' else 'DESPESA' end,
+	'PENDENTE',
+	(i % 5000) + 0.99
+from generate_series(0, 9999999) i;
+
+analyze financas.evento_lancamento;
+
+select min(transacao) as inicio, txid_snapshot_xmin(txid_current_snapshot()) as horizonte from financas.evento_lancamento \gset
+
+-- Início, meio e fim do log: o custo por lote deve ser o mesmo (index scan em idx_evento_lancamento_transacao)
+explain (analyze, buffers)
+select * from financas.evento_lancamento e
+where e.transacao >= :inicio and e.transacao < :horizonte and (e.transacao > :inicio or e.id > 0)
+order by e.transacao, e.id limit 5000;
+
+explain (analyze, buffers)
+select * from financas.evento_lancamento e
+where e.transacao >= :inicio + 500 and e.transacao < :horizonte
+	and (e.transacao > :inicio + 500 or e.id > (select max(id) from financas.evento_lancamento where transacao = :inicio + 500) - 5000)
+order by e.transacao, e.id limit 5000;
+
+explain (analyze, buffers)
+select * from financas.evento_lancamento e
+where e.transacao >= :inicio + 999 and e.transacao < :horizonte
+	and (e.transacao > :inicio + 999 or e.id > (select max(id) from financas.evento_lancamento where transacao = :inicio + 999) - 5000)
+order by e.transacao, e.id limit 5000;